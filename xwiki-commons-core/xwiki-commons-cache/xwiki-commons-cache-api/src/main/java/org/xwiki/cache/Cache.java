@@ -19,7 +19,13 @@
  */
 package org.xwiki.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
 import org.xwiki.cache.event.CacheEntryListener;
+import org.xwiki.stability.Unstable;
 
 /**
  * Cache interface. Used to add/get/remove value from cache which can be local or distributed, with a limited capacity
@@ -69,6 +75,89 @@
      */
     void removeAll();
 
+    /**
+     * @param keys the keys used to access the values in the cache
+     * @return the values associated with the provided keys, entries without any value are not included in the
+     *         returned map
+     * @since 12.9RC1
+     */
+    @Unstable
+    default Map<String, T> getAll(Collection<String> keys)
+    {
+        Map<String, T> values = new HashMap<>(keys.size());
+
+        for (String key : keys) {
+            T value = get(key);
+
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Add new values or overwrite the existing ones associated with the provided keys.
+     * 
+     * @param entries the entries to store in the cache; {@code null} values remove the corresponding cache entries
+     * @see #set(String, Object)
+     * @since 12.9RC1
+     */
+    @Unstable
+    default void setAll(Map<String, ? extends T> entries)
+    {
+        for (Map.Entry<String, ? extends T> entry : entries.entrySet()) {
+            set(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Remove the entries associated with the provided keys from the cache.
+     * 
+     * @param keys the keys used to access the values in the cache
+     * @see #remove(String)
+     * @since 12.9RC1
+     */
+    @Unstable
+    default void removeAll(Collection<String> keys)
+    {
+        for (String key : keys) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Return the value associated with the provided key or, if there is none, load it with the provided loader and
+     * store it in the cache.
+     * <p>
+     * Implementations supporting it guarantee that the loader is called at most once at a time for a given key:
+     * concurrent callers asking for the same key wait for the value being loaded instead of loading it again, while
+     * callers asking for other keys are not blocked. The default implementation does not provide this guarantee.
+     * 
+     * @param key the key used to access the value in the cache
+     * @param loader the function used to produce the value when it's not already in the cache; if it returns
+     *            {@code null} nothing is stored in the cache
+     * @return the current (existing or loaded) value associated with the provided key, or {@code null} if there is
+     *         none and the loader returned {@code null}
+     * @since 12.9RC1
+     */
+    @Unstable
+    default T computeIfAbsent(String key, Function<String, ? extends T> loader)
+    {
+        T value = get(key);
+
+        if (value == null) {
+            value = loader.apply(key);
+
+            if (value != null) {
+                set(key, value);
+            }
+        }
+
+        return value;
+    }
+
     /**
      * Add the provided listener to the cache to catch events on entries like add, remove etc.
      * 
@@ -83,6 +172,16 @@
      */
     void removeCacheEntryListener(CacheEntryListener<T> listener);
 
+    /**
+     * @return the statistics about the use of the cache, or {@code null} if the implementation does not support it
+     * @since 12.9RC1
+     */
+    @Unstable
+    default CacheStatistics getStatistics()
+    {
+        return null;
+    }
+
     /**
      * Release all the resources this cache use.
      */
@@ -0,0 +1,90 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * Statistics about the way a {@link Cache} is used, mainly to help tune its configuration (for example its maximum
+ * number of entries).
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Unstable
+public interface CacheStatistics
+{
+    /**
+     * @return the number of lookups which found a value in the cache
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of lookups which did not find any value in the cache
+     */
+    long getMissCount();
+
+    /**
+     * @return the ratio of lookups which found a value in the cache, between 0 and 1
+     */
+    default double getHitRatio()
+    {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+
+        return total > 0 ? (double) hits / total : 0;
+    }
+
+    /**
+     * @return the number of values stored in the cache
+     */
+    long getPutCount();
+
+    /**
+     * @return the number of entries removed from the cache because it reached its maximum size
+     */
+    long getEvictionCount();
+
+    /**
+     * @return the number of entries removed from the cache because they reached their maximum idle time or lifespan
+     */
+    long getExpirationCount();
+
+    /**
+     * @return the number of values loaded through {@link Cache#computeIfAbsent(String, java.util.function.Function)}
+     */
+    long getLoadCount();
+
+    /**
+     * @return the average time spent loading a value, in nanoseconds
+     */
+    double getAverageLoadTime();
+
+    /**
+     * @param percentile the percentile to return, between 0 and 100 (e.g. 99 for the 99th percentile)
+     * @return the approximate time below which the provided percentage of the loads completed, in nanoseconds
+     */
+    long getLoadTimePercentile(double percentile);
+
+    /**
+     * Reset all the statistics.
+     */
+    void reset();
+}
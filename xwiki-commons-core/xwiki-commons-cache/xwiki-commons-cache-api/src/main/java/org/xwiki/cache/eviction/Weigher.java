@@ -0,0 +1,42 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.eviction;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * Calculate the weight of a cache entry, usually an estimation of the memory it takes in bytes.
+ * 
+ * @param <T> the class of the data stored in the cache
+ * @version $Id$
+ * @since 12.9RC1
+ * @see WeightEvictionConfiguration
+ */
+@FunctionalInterface
+@Unstable
+public interface Weigher<T>
+{
+    /**
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @return the weight of the entry, must be positive
+     */
+    long weigh(String key, T value);
+}
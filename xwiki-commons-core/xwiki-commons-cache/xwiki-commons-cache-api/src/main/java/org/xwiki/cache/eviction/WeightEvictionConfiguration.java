@@ -0,0 +1,111 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.eviction;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * An helper for caches limited by the total weight of their entries instead of their number. Evicts entries when the
+ * sum of the weights calculated by the configured {@link Weigher} reaches the maximum weight.
+ * <p>
+ * <code>
+ * Weigher&lt;String&gt; weigher = (key, value) -&gt; value.length();
+ * CacheConfiguration conf = new CacheConfiguration("mycache", new WeightEvictionConfiguration(10000000, weigher));
+ * </code>
+ * <p>
+ * When a maximum weight is configured the maximum number of entries is ignored.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Unstable
+public class WeightEvictionConfiguration extends LRUEvictionConfiguration
+{
+    /**
+     * The key to access the maximum total weight of the entries the cache can contain.
+     */
+    public static final String MAXWEIGHT_ID = "maxweight";
+
+    /**
+     * The key to access the {@link Weigher} used to calculate the weight of each entry.
+     */
+    public static final String WEIGHER_ID = "weigher";
+
+    /**
+     * Create a new eviction configuration based on the weight of the entries.
+     */
+    public WeightEvictionConfiguration()
+    {
+    }
+
+    /**
+     * @param maxWeight the maximum total weight of the entries the cache can contain
+     * @param weigher the component used to calculate the weight of each entry
+     */
+    public WeightEvictionConfiguration(long maxWeight, Weigher<?> weigher)
+    {
+        setMaxWeight(maxWeight);
+        setWeigher(weigher);
+    }
+
+    /**
+     * @param maxWeight see {@link #getMaxWeight()}
+     */
+    public void setMaxWeight(long maxWeight)
+    {
+        put(MAXWEIGHT_ID, maxWeight);
+    }
+
+    /**
+     * @return the maximum total weight of the entries the cache can contain. When the cache reaches it, the defined
+     *         eviction algorithm kicks in to remove existing cache entries.
+     */
+    public long getMaxWeight()
+    {
+        Object obj = get(MAXWEIGHT_ID);
+
+        return obj instanceof Number ? ((Number) obj).longValue() : 0;
+    }
+
+    /**
+     * @param weigher see {@link #getWeigher()}
+     */
+    public void setWeigher(Weigher<?> weigher)
+    {
+        put(WEIGHER_ID, weigher);
+    }
+
+    /**
+     * @param <T> the class of the data stored in the cache
+     * @return the component used to calculate the weight of each entry
+     */
+    public <T> Weigher<T> getWeigher()
+    {
+        return (Weigher<T>) get(WEIGHER_ID);
+    }
+
+    /**
+     * @return true if both a maximum weight and a {@link Weigher} are configured
+     */
+    public boolean isWeighted()
+    {
+        return getMaxWeight() > 0 && getWeigher() != null;
+    }
+}
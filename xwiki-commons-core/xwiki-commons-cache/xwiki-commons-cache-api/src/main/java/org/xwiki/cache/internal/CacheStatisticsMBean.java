@@ -0,0 +1,94 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+/**
+ * Exposes the statistics of a {@link org.xwiki.cache.Cache} as a JMX MBean.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public interface CacheStatisticsMBean
+{
+    /**
+     * @return the maximum number of entries configured for the cache, 0 if unlimited
+     */
+    int getMaxEntries();
+
+    /**
+     * @return the number of lookups which found a value in the cache
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of lookups which did not find any value in the cache
+     */
+    long getMissCount();
+
+    /**
+     * @return the ratio of lookups which found a value in the cache, between 0 and 1
+     */
+    double getHitRatio();
+
+    /**
+     * @return the number of values stored in the cache
+     */
+    long getPutCount();
+
+    /**
+     * @return the number of entries removed from the cache because it reached its maximum size
+     */
+    long getEvictionCount();
+
+    /**
+     * @return the number of entries removed from the cache because they reached their maximum idle time or lifespan
+     */
+    long getExpirationCount();
+
+    /**
+     * @return the number of values loaded in the cache
+     */
+    long getLoadCount();
+
+    /**
+     * @return the average time spent loading a value, in nanoseconds
+     */
+    double getAverageLoadTime();
+
+    /**
+     * @return the median time spent loading a value, in nanoseconds
+     */
+    long getLoadTimeMedian();
+
+    /**
+     * @return the 95th percentile of the time spent loading a value, in nanoseconds
+     */
+    long getLoadTime95thPercentile();
+
+    /**
+     * @return the 99th percentile of the time spent loading a value, in nanoseconds
+     */
+    long getLoadTime99thPercentile();
+
+    /**
+     * Reset all the statistics.
+     */
+    void resetStatistics();
+}
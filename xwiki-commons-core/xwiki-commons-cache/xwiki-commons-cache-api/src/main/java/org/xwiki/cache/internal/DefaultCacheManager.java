@@ -19,18 +19,31 @@
  */
 package org.xwiki.cache.internal;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.management.ObjectName;
 
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
 import org.xwiki.cache.Cache;
 import org.xwiki.cache.CacheException;
 import org.xwiki.cache.CacheFactory;
 import org.xwiki.cache.CacheManager;
 import org.xwiki.cache.CacheManagerConfiguration;
 import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.cache.eviction.EntryEvictionConfiguration;
+import org.xwiki.cache.eviction.LRUEvictionConfiguration;
+import org.xwiki.cache.offheap.CacheValueCodec;
+import org.xwiki.cache.offheap.OffHeapConfiguration;
+import org.xwiki.cache.util.AbstractCache;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.management.JMXBeanRegistration;
 
 /**
  * The default implementation of CacheManager. It uses ConfigurationManager to find the cache an local cache hints to
@@ -43,6 +56,10 @@
 @Singleton
 public class DefaultCacheManager implements CacheManager
 {
+    private static final String MBEAN_NAME_PREFIX = "type=Cache,name=";
+
+    private static final String MBEAN_INSTANCE = ",instance=";
+
     /**
      * The component manager to use to find cache components.
      */
@@ -55,6 +72,19 @@ public class DefaultCacheManager implements CacheManager
     @Inject
     private CacheManagerConfiguration configuration;
 
+    @Inject
+    private Logger logger;
+
+    /**
+     * The names of the registered statistics MBeans.
+     */
+    private final Set<String> statisticsMBeans = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Used to make unique the names of the statistics MBeans of caches sharing the same identifier.
+     */
+    private final AtomicLong mbeanCounter = new AtomicLong();
+
     @Override
     public CacheFactory getCacheFactory() throws ComponentLookupException
     {
@@ -109,6 +139,79 @@ public <T> Cache<T> createNewCache(CacheConfiguration config, String cacheHint)
             throw new CacheException("Failed to get cache factory for role hint [" + cacheHint + "]", e);
         }
 
-        return cacheFactory.newCache(config);
+        Cache<T> cache;
+        OffHeapConfiguration offHeapConfiguration =
+            (OffHeapConfiguration) config.get(OffHeapConfiguration.CONFIGURATIONID);
+        if (offHeapConfiguration != null && offHeapConfiguration.getMaxSize() > 0) {
+            cache = createOffHeapCache(cacheFactory, config, offHeapConfiguration);
+        } else {
+            cache = cacheFactory.newCache(config);
+        }
+
+        registerStatisticsMBean(cache, config);
+
+        return cache;
+    }
+
+    private <T> Cache<T> createOffHeapCache(CacheFactory cacheFactory, CacheConfiguration config,
+        OffHeapConfiguration offHeapConfiguration) throws CacheException
+    {
+        CacheValueCodec<T> codec = offHeapConfiguration.getCodec();
+        if (codec == null) {
+            try {
+                codec = this.componentManager.getInstance(CacheValueCodec.class);
+            } catch (ComponentLookupException e) {
+                throw new CacheException("Failed to get the default off-heap cache codec", e);
+            }
+        }
+
+        OffHeapStore store = new OffHeapStore(offHeapConfiguration.getMaxSize(), offHeapConfiguration.getBlockSize());
+
+        // The cache created by the factory is the hot tier, its size is the number of hot entries
+        CacheConfiguration hotConfig = new CacheConfiguration(config.getConfigurationId());
+        hotConfig.putAll(config);
+        hotConfig.remove(OffHeapConfiguration.CONFIGURATIONID);
+        LRUEvictionConfiguration hotEviction = new LRUEvictionConfiguration();
+        EntryEvictionConfiguration eviction =
+            (EntryEvictionConfiguration) config.get(EntryEvictionConfiguration.CONFIGURATIONID);
+        if (eviction != null) {
+            hotEviction.putAll(eviction);
+        }
+        hotEviction.setMaxEntries(offHeapConfiguration.getHotEntries());
+        hotConfig.put(EntryEvictionConfiguration.CONFIGURATIONID, hotEviction);
+
+        return new OffHeapCache<>(config, cacheFactory.newCache(hotConfig), store, codec);
+    }
+
+    private void registerStatisticsMBean(Cache<?> cache, CacheConfiguration config)
+    {
+        // Anonymous caches cannot be identified in the MBean server
+        if (config.getConfigurationId() != null && cache instanceof AbstractCache
+            && cache.getStatistics() != null && this.componentManager.hasComponent(JMXBeanRegistration.class)) {
+            JMXBeanRegistration registration;
+            try {
+                registration = this.componentManager.getInstance(JMXBeanRegistration.class);
+            } catch (ComponentLookupException e) {
+                // Statistics are not critical, the cache is usable without them
+                this.logger.warn("Failed to get the JMX registration component: {}",
+                    ExceptionUtils.getRootCauseMessage(e));
+
+                return;
+            }
+
+            String name = MBEAN_NAME_PREFIX + ObjectName.quote(config.getConfigurationId());
+            // Several caches can share the same identifier, each one unregisters its own MBean
+            while (!this.statisticsMBeans.add(name)) {
+                name = MBEAN_NAME_PREFIX + ObjectName.quote(config.getConfigurationId()) + MBEAN_INSTANCE
+                    + this.mbeanCounter.incrementAndGet();
+            }
+
+            String mbeanName = name;
+            registration.registerMBean(new DefaultCacheStatisticsMBean(cache.getStatistics(), config), mbeanName);
+            ((AbstractCache<?>) cache).addDisposeAction(() -> {
+                registration.unregisterMBean(mbeanName);
+                this.statisticsMBeans.remove(mbeanName);
+            });
+        }
     }
 }
@@ -0,0 +1,135 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+import org.xwiki.cache.CacheStatistics;
+import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.cache.eviction.EntryEvictionConfiguration;
+import org.xwiki.cache.eviction.LRUEvictionConfiguration;
+
+/**
+ * Default implementation of {@link CacheStatisticsMBean}.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class DefaultCacheStatisticsMBean implements CacheStatisticsMBean
+{
+    private static final double MEDIAN = 50;
+
+    private static final double PERCENTILE_95 = 95;
+
+    private static final double PERCENTILE_99 = 99;
+
+    private final CacheStatistics statistics;
+
+    private final CacheConfiguration configuration;
+
+    /**
+     * @param statistics the statistics to expose
+     * @param configuration the configuration of the cache
+     */
+    public DefaultCacheStatisticsMBean(CacheStatistics statistics, CacheConfiguration configuration)
+    {
+        this.statistics = statistics;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public int getMaxEntries()
+    {
+        Object eviction = this.configuration.get(EntryEvictionConfiguration.CONFIGURATIONID);
+
+        return eviction instanceof LRUEvictionConfiguration ? ((LRUEvictionConfiguration) eviction).getMaxEntries()
+            : 0;
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return this.statistics.getHitCount();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return this.statistics.getMissCount();
+    }
+
+    @Override
+    public double getHitRatio()
+    {
+        return this.statistics.getHitRatio();
+    }
+
+    @Override
+    public long getPutCount()
+    {
+        return this.statistics.getPutCount();
+    }
+
+    @Override
+    public long getEvictionCount()
+    {
+        return this.statistics.getEvictionCount();
+    }
+
+    @Override
+    public long getExpirationCount()
+    {
+        return this.statistics.getExpirationCount();
+    }
+
+    @Override
+    public long getLoadCount()
+    {
+        return this.statistics.getLoadCount();
+    }
+
+    @Override
+    public double getAverageLoadTime()
+    {
+        return this.statistics.getAverageLoadTime();
+    }
+
+    @Override
+    public long getLoadTimeMedian()
+    {
+        return this.statistics.getLoadTimePercentile(MEDIAN);
+    }
+
+    @Override
+    public long getLoadTime95thPercentile()
+    {
+        return this.statistics.getLoadTimePercentile(PERCENTILE_95);
+    }
+
+    @Override
+    public long getLoadTime99thPercentile()
+    {
+        return this.statistics.getLoadTimePercentile(PERCENTILE_99);
+    }
+
+    @Override
+    public void resetStatistics()
+    {
+        this.statistics.reset();
+    }
+}
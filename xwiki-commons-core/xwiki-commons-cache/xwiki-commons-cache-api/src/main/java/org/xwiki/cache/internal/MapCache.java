@@ -21,6 +21,11 @@
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 import org.xwiki.cache.Cache;
 import org.xwiki.cache.CacheEntry;
@@ -37,7 +42,50 @@
  */
 public class MapCache<T> extends AbstractCache<T>
 {
-    private Map<String, T> map = new HashMap<>();
+    /**
+     * Used in place of the {@code null} key which is not supported by {@link ConcurrentHashMap}.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private ConcurrentMap<Object, T> map = new ConcurrentHashMap<>();
+
+    /**
+     * The values currently being loaded by {@link #computeIfAbsent(String, Function)}, shared by all the threads asking
+     * for the same key.
+     */
+    private final ConcurrentMap<Object, Loading<T>> loadings = new ConcurrentHashMap<>();
+
+    /**
+     * A value being loaded by a thread.
+     *
+     * @param <V> the class of the loaded value
+     */
+    private static final class Loading<V> extends CompletableFuture<V>
+    {
+        private final Thread thread = Thread.currentThread();
+
+        private boolean stored;
+
+        V getValue()
+        {
+            if (this.thread == Thread.currentThread()) {
+                throw new IllegalStateException("Recursive load of the same cache key");
+            }
+
+            try {
+                return join();
+            } catch (CompletionException e) {
+                // Propagate the failure of the loader as is
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+
+                throw e;
+            }
+        }
+    }
 
     class MapCacheEntry implements CacheEntry<T>
     {
@@ -78,6 +126,11 @@ public MapCache()
         super(null);
     }
 
+    private static Object toMapKey(String key)
+    {
+        return key != null ? key : NULL_KEY;
+    }
+
     private CacheEntryEvent<T> toEvent(final String key, final T value)
     {
         return new CacheEntryEvent<T>()
@@ -99,38 +152,107 @@ public Cache<T> getCache()
     @Override
     public void set(String key, T value)
     {
-        this.map.put(key, value);
+        if (value != null) {
+            this.map.put(toMapKey(key), value);
+            this.statistics.recordPut();
 
-        sendEntryAddedEvent(toEvent(key, value));
+            sendEntryAddedEvent(toEvent(key, value));
+        } else {
+            remove(key);
+        }
     }
 
     @Override
     public T get(String key)
     {
-        return this.map.get(key);
+        return recordLookup(this.map.get(toMapKey(key)));
+    }
+
+    @Override
+    public T computeIfAbsent(String key, Function<String, ? extends T> loader)
+    {
+        Object mapKey = toMapKey(key);
+
+        T value = this.map.get(mapKey);
+        if (value != null) {
+            this.statistics.recordHit();
+
+            return value;
+        }
+
+        Loading<T> loading = new Loading<>();
+        Loading<T> currentLoading = this.loadings.putIfAbsent(mapKey, loading);
+        if (currentLoading != null) {
+            return currentLoading.getValue();
+        }
+
+        // The loader is called outside of any lock so that it can use the cache and does not block other keys
+        T loadedValue;
+        try {
+            loadedValue = load(key, loader);
+        } catch (RuntimeException | Error e) {
+            this.loadings.remove(mapKey, loading);
+            loading.completeExceptionally(e);
+
+            throw e;
+        }
+
+        // Don't store the loaded value if the key was removed in the meantime and don't overwrite a value set in the
+        // meantime
+        this.loadings.computeIfPresent(mapKey, (k, current) -> {
+            if (current != loading) {
+                return current;
+            }
+
+            if (loadedValue != null) {
+                T currentValue = this.map.putIfAbsent(mapKey, loadedValue);
+                loading.stored = currentValue == null;
+                loading.complete(loading.stored ? loadedValue : currentValue);
+            }
+
+            return null;
+        });
+
+        // Does nothing if the loaded value was stored
+        loading.complete(loadedValue);
+
+        value = loading.join();
+
+        if (loading.stored) {
+            this.statistics.recordPut();
+
+            sendEntryAddedEvent(toEvent(key, value));
+        }
+
+        return value;
     }
 
     @Override
     public void remove(String key)
     {
-        if (this.map.containsKey(key)) {
-            T value = this.map.remove(key);
+        Object mapKey = toMapKey(key);
+
+        // Make sure a value being loaded is not stored once removed
+        this.loadings.remove(mapKey);
+
+        T value = this.map.remove(mapKey);
 
+        if (value != null) {
             sendEntryRemovedEvent(toEvent(key, value));
-        } else {
-            this.map.remove(key);
         }
     }
 
     @Override
     public void removeAll()
     {
-        this.map.clear();
+        Map<Object, T> eventMap = new HashMap<>(this.map);
 
-        Map<String, T> eventMap = new HashMap<>(this.map);
+        this.loadings.clear();
+        this.map.clear();
 
-        for (Map.Entry<String, T> entry : eventMap.entrySet()) {
-            sendEntryRemovedEvent(toEvent(entry.getKey(), entry.getValue()));
+        for (Map.Entry<Object, T> entry : eventMap.entrySet()) {
+            sendEntryRemovedEvent(
+                toEvent(entry.getKey() != NULL_KEY ? (String) entry.getKey() : null, entry.getValue()));
         }
     }
 
@@ -0,0 +1,451 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheEntry;
+import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.cache.event.CacheEntryEvent;
+import org.xwiki.cache.event.CacheEntryListener;
+import org.xwiki.cache.offheap.CacheValueCodec;
+import org.xwiki.cache.util.AbstractCache;
+
+/**
+ * A {@link Cache} keeping all its values serialized outside of the heap and the most recently used ones deserialized
+ * in an hot tier.
+ * <p>
+ * Writes go to both tiers and reads which miss the hot tier deserialize the value from the off-heap store and promote
+ * it. Values which cannot be serialized, or which are too large for the off-heap store, are only kept in the hot tier.
+ * <p>
+ * Values are only disposed when they really leave the cache (removed, evicted from the off-heap store, or evicted from
+ * the hot tier when they are not stored off-heap), not when the hot tier drops a value which is still stored off-heap.
+ * 
+ * @param <T> the class of the data stored in the cache
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class OffHeapCache<T> extends AbstractCache<T>
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapCache.class);
+
+    private static final int LOCK_COUNT = 64;
+
+    private final Cache<Object> hot;
+
+    /**
+     * The entries which are only stored in the hot tier.
+     */
+    private final ConcurrentMap<String, HotValue<T>> hotOnly = new ConcurrentHashMap<>();
+
+    private final OffHeapStore store;
+
+    private final CacheValueCodec<T> codec;
+
+    /**
+     * Make sure the two tiers are updated consistently for a given key.
+     */
+    private final Object[] locks = new Object[LOCK_COUNT];
+
+    private volatile boolean disposed;
+
+    /**
+     * Wrap the values stored in the hot tier so that it does not dispose them when it evicts them.
+     * 
+     * @param <T> the class of the data stored in the cache
+     */
+    private static final class HotValue<T>
+    {
+        private final T value;
+
+        /**
+         * True if the value is also stored off-heap.
+         */
+        private final boolean offHeap;
+
+        /**
+         * True if the entry was removed from the hot tier by the off-heap cache itself.
+         */
+        private volatile boolean removed;
+
+        HotValue(T value, boolean offHeap)
+        {
+            this.value = value;
+            this.offHeap = offHeap;
+        }
+    }
+
+    /**
+     * Take care of the values which leave the cache when they are dropped by the hot tier.
+     */
+    private class HotTierListener implements CacheEntryListener<Object>
+    {
+        @Override
+        public void cacheEntryAdded(CacheEntryEvent<Object> event)
+        {
+            // Nothing to do
+        }
+
+        @Override
+        public void cacheEntryModified(CacheEntryEvent<Object> event)
+        {
+            // Nothing to do
+        }
+
+        @Override
+        public void cacheEntryRemoved(CacheEntryEvent<Object> event)
+        {
+            HotValue<T> hotValue = (HotValue<T>) event.getEntry().getValue();
+
+            if (hotValue != null && !hotValue.removed) {
+                if (disposed) {
+                    disposeCacheValue(hotValue.value);
+                } else if (!hotValue.offHeap) {
+                    // The value is not stored anywhere else
+                    String key = event.getEntry().getKey();
+                    hotOnly.remove(key, hotValue);
+
+                    statistics.recordEviction();
+
+                    sendEntryRemovedEvent(new OffHeapCacheEntry(key, hotValue.value));
+                }
+            }
+        }
+    }
+
+    private class OffHeapCacheEntry implements CacheEntry<T>, CacheEntryEvent<T>
+    {
+        private final String key;
+
+        private final T value;
+
+        OffHeapCacheEntry(String key, T value)
+        {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Cache<T> getCache()
+        {
+            return OffHeapCache.this;
+        }
+
+        @Override
+        public CacheEntry<T> getEntry()
+        {
+            return this;
+        }
+
+        @Override
+        public String getKey()
+        {
+            return this.key;
+        }
+
+        @Override
+        public T getValue()
+        {
+            return this.value;
+        }
+    }
+
+    /**
+     * @param configuration the configuration of the cache
+     * @param hot the cache used to store the deserialized values (wrapped by the off-heap cache)
+     * @param store the store used to keep the serialized values
+     * @param codec the codec used to serialize the values
+     */
+    public OffHeapCache(CacheConfiguration configuration, Cache<Object> hot, OffHeapStore store,
+        CacheValueCodec<T> codec)
+    {
+        super(configuration);
+
+        this.hot = hot;
+        this.store = store;
+        this.codec = codec;
+
+        for (int i = 0; i < this.locks.length; ++i) {
+            this.locks[i] = new Object();
+        }
+
+        this.hot.addCacheEntryListener(new HotTierListener());
+    }
+
+    private Object getLock(String key)
+    {
+        return this.locks[(Objects.hashCode(key) & Integer.MAX_VALUE) % this.locks.length];
+    }
+
+    private boolean hasListeners()
+    {
+        return this.cacheEntryListeners.getListenerCount(CacheEntryListener.class) > 0;
+    }
+
+    @Override
+    public void set(String key, T value)
+    {
+        if (value == null) {
+            remove(key);
+
+            return;
+        }
+
+        boolean existed;
+        HotValue<T> previous;
+        List<String> evicted;
+        synchronized (getLock(key)) {
+            existed = this.store.contains(key);
+            previous = getHotValue(key);
+            evicted = put(key, value);
+        }
+
+        if (previous != null && previous.value != value) {
+            disposeCacheValue(previous.value);
+        }
+
+        notifyPut(key, value, existed || previous != null);
+        evict(evicted);
+    }
+
+    @Override
+    public T get(String key)
+    {
+        return recordLookup(getValue(key));
+    }
+
+    @Override
+    public T computeIfAbsent(String key, Function<String, ? extends T> loader)
+    {
+        T value = getValue(key);
+
+        if (value != null) {
+            this.statistics.recordHit();
+
+            return value;
+        }
+
+        List<String> evicted = null;
+        synchronized (getLock(key)) {
+            value = getValue(key);
+
+            if (value == null) {
+                value = load(key, loader);
+
+                if (value != null) {
+                    evicted = put(key, value);
+                }
+            } else {
+                this.statistics.recordHit();
+
+                return value;
+            }
+        }
+
+        if (value != null) {
+            notifyPut(key, value, false);
+            evict(evicted);
+        }
+
+        return value;
+    }
+
+    @Override
+    public void remove(String key)
+    {
+        T value;
+        boolean removed;
+        synchronized (getLock(key)) {
+            value = removeHotValue(key);
+            if (value == null && hasListeners()) {
+                value = read(key);
+            }
+
+            removed = this.store.remove(key) || value != null;
+        }
+
+        if (removed) {
+            sendEntryRemovedEvent(new OffHeapCacheEntry(key, value));
+        }
+    }
+
+    @Override
+    public void removeAll()
+    {
+        Set<String> keys = new LinkedHashSet<>(this.store.getKeys());
+        keys.addAll(this.hotOnly.keySet());
+
+        for (String key : keys) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        super.dispose();
+
+        // Dispose the values still in the hot tier
+        this.disposed = true;
+        this.hot.removeAll();
+
+        this.hot.dispose();
+        this.store.dispose();
+    }
+
+    private HotValue<T> getHotValue(String key)
+    {
+        return (HotValue<T>) this.hot.get(key);
+    }
+
+    private T removeHotValue(String key)
+    {
+        HotValue<T> hotValue = getHotValue(key);
+
+        if (hotValue != null) {
+            hotValue.removed = true;
+            this.hot.remove(key);
+            this.hotOnly.remove(key, hotValue);
+
+            return hotValue.value;
+        }
+
+        return null;
+    }
+
+    private T getValue(String key)
+    {
+        HotValue<T> hotValue = getHotValue(key);
+
+        if (hotValue == null) {
+            synchronized (getLock(key)) {
+                hotValue = getHotValue(key);
+
+                if (hotValue == null) {
+                    T value = read(key);
+
+                    if (value != null) {
+                        this.hot.set(key, new HotValue<>(value, true));
+                    }
+
+                    return value;
+                }
+            }
+        }
+
+        return hotValue.value;
+    }
+
+    private T read(String key)
+    {
+        byte[] data = this.store.get(key);
+
+        if (data != null) {
+            try {
+                return this.codec.decode(data);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to unserialize the value of entry [{}] in cache [{}]: {}", key, getId(),
+                    ExceptionUtils.getRootCauseMessage(e));
+
+                this.store.remove(key);
+            }
+        }
+
+        return null;
+    }
+
+    private List<String> put(String key, T value)
+    {
+        List<String> evicted = null;
+
+        try {
+            evicted = this.store.put(key, this.codec.encode(value));
+
+            if (evicted == null) {
+                LOGGER.debug("The value of entry [{}] in cache [{}] is too large to be stored off-heap", key, getId());
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to serialize the value of entry [{}] in cache [{}], keeping it only in the heap: {}",
+                key, getId(), ExceptionUtils.getRootCauseMessage(e));
+
+            this.store.remove(key);
+        }
+
+        HotValue<T> hotValue = new HotValue<>(value, evicted != null);
+        if (hotValue.offHeap) {
+            this.hotOnly.remove(key);
+        } else {
+            this.hotOnly.put(key, hotValue);
+        }
+        this.hot.set(key, hotValue);
+
+        return evicted;
+    }
+
+    private void notifyPut(String key, T value, boolean existed)
+    {
+        this.statistics.recordPut();
+
+        if (hasListeners()) {
+            if (existed) {
+                sendEntryModifiedEvent(new OffHeapCacheEntry(key, value));
+            } else {
+                sendEntryAddedEvent(new OffHeapCacheEntry(key, value));
+            }
+        }
+    }
+
+    private void evict(List<String> keys)
+    {
+        if (keys != null) {
+            for (String key : keys) {
+                T value;
+                synchronized (getLock(key)) {
+                    // The entry might have been set again in the meantime
+                    if (this.store.contains(key)) {
+                        continue;
+                    }
+
+                    value = removeHotValue(key);
+                }
+
+                this.statistics.recordEviction();
+
+                sendEntryRemovedEvent(new OffHeapCacheEntry(key, value));
+            }
+        }
+    }
+
+    private String getId()
+    {
+        return this.configuration != null ? this.configuration.getConfigurationId() : null;
+    }
+}
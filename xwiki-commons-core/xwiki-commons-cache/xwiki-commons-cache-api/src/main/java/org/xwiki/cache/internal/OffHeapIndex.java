@@ -0,0 +1,347 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Access ordered index of the entries of an {@link OffHeapStore} stripe, mapping each key to the location of its value.
+ * <p>
+ * The locations and the access order are kept in primitive arrays (a hash table with chained buckets and a doubly
+ * linked list of slots) instead of one map entry and one {@link Long} object per entry. This class is not thread
+ * safe.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class OffHeapIndex
+{
+    /**
+     * The location returned when a key is not indexed.
+     */
+    public static final long NO_LOCATION = -1;
+
+    private static final int NO_SLOT = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The first slot of each bucket.
+     */
+    private int[] buckets;
+
+    private String[] keys;
+
+    private int[] hashes;
+
+    private long[] locations;
+
+    /**
+     * The next slot in the same bucket, or in the free list for unused slots.
+     */
+    private int[] bucketNext;
+
+    /**
+     * The previous slot in the access order.
+     */
+    private int[] before;
+
+    /**
+     * The next slot in the access order.
+     */
+    private int[] after;
+
+    /**
+     * The least recently used slot.
+     */
+    private int eldest = NO_SLOT;
+
+    /**
+     * The most recently used slot.
+     */
+    private int youngest = NO_SLOT;
+
+    private int freeSlot = NO_SLOT;
+
+    /**
+     * The number of slots used at least once.
+     */
+    private int usedSlots;
+
+    private int size;
+
+    /**
+     * Default constructor.
+     */
+    public OffHeapIndex()
+    {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity)
+    {
+        this.buckets = new int[capacity];
+        Arrays.fill(this.buckets, NO_SLOT);
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.locations = new long[capacity];
+        this.bucketNext = new int[capacity];
+        this.before = new int[capacity];
+        this.after = new int[capacity];
+    }
+
+    private static int hash(String key)
+    {
+        int hash = Objects.hashCode(key);
+
+        return hash ^ (hash >>> 16);
+    }
+
+    private int getBucket(int hash)
+    {
+        return hash & (this.buckets.length - 1);
+    }
+
+    private int find(String key, int hash)
+    {
+        for (int slot = this.buckets[getBucket(hash)]; slot != NO_SLOT; slot = this.bucketNext[slot]) {
+            if (this.hashes[slot] == hash && Objects.equals(this.keys[slot], key)) {
+                return slot;
+            }
+        }
+
+        return NO_SLOT;
+    }
+
+    /**
+     * @param key the key of the entry
+     * @return the location of the entry, {@link #NO_LOCATION} if there is none; the entry becomes the most recently
+     *         used one
+     */
+    public long get(String key)
+    {
+        int slot = find(key, hash(key));
+
+        if (slot == NO_SLOT) {
+            return NO_LOCATION;
+        }
+
+        unlinkOrder(slot);
+        linkOrder(slot);
+
+        return this.locations[slot];
+    }
+
+    /**
+     * @param key the key of the entry
+     * @return true if the key is indexed
+     */
+    public boolean contains(String key)
+    {
+        return find(key, hash(key)) != NO_SLOT;
+    }
+
+    /**
+     * Index the passed entry as the most recently used one.
+     *
+     * @param key the key of the entry
+     * @param location the location of the entry value, must be positive
+     */
+    public void put(String key, long location)
+    {
+        int hash = hash(key);
+        int slot = find(key, hash);
+
+        if (slot != NO_SLOT) {
+            unlinkOrder(slot);
+        } else {
+            slot = newSlot();
+
+            this.keys[slot] = key;
+            this.hashes[slot] = hash;
+            int bucket = getBucket(hash);
+            this.bucketNext[slot] = this.buckets[bucket];
+            this.buckets[bucket] = slot;
+
+            ++this.size;
+        }
+
+        this.locations[slot] = location;
+        linkOrder(slot);
+    }
+
+    /**
+     * @param key the key of the entry to remove
+     * @return the location of the removed entry, {@link #NO_LOCATION} if there was none
+     */
+    public long remove(String key)
+    {
+        int hash = hash(key);
+        int bucket = getBucket(hash);
+
+        int previous = NO_SLOT;
+        for (int slot = this.buckets[bucket]; slot != NO_SLOT; slot = this.bucketNext[slot]) {
+            if (this.hashes[slot] == hash && Objects.equals(this.keys[slot], key)) {
+                if (previous == NO_SLOT) {
+                    this.buckets[bucket] = this.bucketNext[slot];
+                } else {
+                    this.bucketNext[previous] = this.bucketNext[slot];
+                }
+
+                unlinkOrder(slot);
+
+                long location = this.locations[slot];
+
+                this.keys[slot] = null;
+                this.bucketNext[slot] = this.freeSlot;
+                this.freeSlot = slot;
+                --this.size;
+
+                return location;
+            }
+
+            previous = slot;
+        }
+
+        return NO_LOCATION;
+    }
+
+    /**
+     * @return the key of the least recently used entry
+     * @throws IllegalStateException when the index is empty
+     */
+    public String getEldestKey()
+    {
+        if (this.eldest == NO_SLOT) {
+            throw new IllegalStateException("The index is empty");
+        }
+
+        return this.keys[this.eldest];
+    }
+
+    /**
+     * @return the indexed keys, from the least to the most recently used
+     */
+    public List<String> getKeys()
+    {
+        List<String> result = new ArrayList<>(this.size);
+        for (int slot = this.eldest; slot != NO_SLOT; slot = this.after[slot]) {
+            result.add(this.keys[slot]);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the number of indexed entries
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Remove all the entries and release the memory used by the index.
+     */
+    public void clear()
+    {
+        allocate(INITIAL_CAPACITY);
+
+        this.eldest = NO_SLOT;
+        this.youngest = NO_SLOT;
+        this.freeSlot = NO_SLOT;
+        this.usedSlots = 0;
+        this.size = 0;
+    }
+
+    private int newSlot()
+    {
+        if (this.freeSlot != NO_SLOT) {
+            int slot = this.freeSlot;
+            this.freeSlot = this.bucketNext[slot];
+
+            return slot;
+        }
+
+        if (this.usedSlots == this.keys.length) {
+            grow();
+        }
+
+        return this.usedSlots++;
+    }
+
+    /**
+     * Double the capacity of the index (all the slots are used at this point).
+     */
+    private void grow()
+    {
+        int capacity = this.keys.length * 2;
+
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        this.hashes = Arrays.copyOf(this.hashes, capacity);
+        this.locations = Arrays.copyOf(this.locations, capacity);
+        this.bucketNext = Arrays.copyOf(this.bucketNext, capacity);
+        this.before = Arrays.copyOf(this.before, capacity);
+        this.after = Arrays.copyOf(this.after, capacity);
+
+        this.buckets = new int[capacity];
+        Arrays.fill(this.buckets, NO_SLOT);
+        for (int slot = 0; slot < this.usedSlots; ++slot) {
+            int bucket = getBucket(this.hashes[slot]);
+            this.bucketNext[slot] = this.buckets[bucket];
+            this.buckets[bucket] = slot;
+        }
+    }
+
+    private void linkOrder(int slot)
+    {
+        this.before[slot] = this.youngest;
+        this.after[slot] = NO_SLOT;
+
+        if (this.youngest != NO_SLOT) {
+            this.after[this.youngest] = slot;
+        } else {
+            this.eldest = slot;
+        }
+
+        this.youngest = slot;
+    }
+
+    private void unlinkOrder(int slot)
+    {
+        int previous = this.before[slot];
+        int next = this.after[slot];
+
+        if (previous != NO_SLOT) {
+            this.after[previous] = next;
+        } else {
+            this.eldest = next;
+        }
+
+        if (next != NO_SLOT) {
+            this.before[next] = previous;
+        } else {
+            this.youngest = previous;
+        }
+    }
+}
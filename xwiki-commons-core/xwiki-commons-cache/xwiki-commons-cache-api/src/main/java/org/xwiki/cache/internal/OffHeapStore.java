@@ -0,0 +1,415 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Store byte arrays in direct memory.
+ * <p>
+ * The store is divided into independent stripes, each with its own lock, a key being associated to a stripe according
+ * to its hash. The memory of a stripe is divided into fixed size blocks allocated lazily by segments. A value is stored
+ * in a chain of blocks, the first 4 bytes of each block containing the index of the next block. Only the index (key,
+ * first block and length) is kept in the heap. When a stripe is full, its least recently used entries are evicted, and
+ * values larger than a stripe cannot be stored.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class OffHeapStore
+{
+    private static final int MAX_SEGMENT_SIZE = 1 << 26;
+
+    private static final int NO_BLOCK = -1;
+
+    private static final int LINK_SIZE = Integer.BYTES;
+
+    private static final int MAX_STRIPES = 16;
+
+    /**
+     * The minimum number of blocks of a stripe when the number of stripes is chosen by the store.
+     */
+    private static final int MIN_STRIPE_BLOCKS = 1024;
+
+    private final Stripe[] stripes;
+
+    /**
+     * A part of the store, protected by its own lock.
+     */
+    private static final class Stripe
+    {
+        private final int blockSize;
+
+        private final int payloadSize;
+
+        private final int blocksPerSegment;
+
+        private final int blockCount;
+
+        private final ByteBuffer[] segments;
+
+        /**
+         * The blocks which have been freed, used as a stack.
+         */
+        private final int[] freeBlocks;
+
+        private int freeBlockCount;
+
+        /**
+         * The first block which was never allocated.
+         */
+        private int nextBlock;
+
+        /**
+         * Access ordered index of the stored entries: the first block in the high bits and the length in the low bits.
+         */
+        private final OffHeapIndex index = new OffHeapIndex();
+
+        Stripe(int blockCount, int blockSize)
+        {
+            this.blockSize = blockSize;
+            this.payloadSize = blockSize - LINK_SIZE;
+            this.blockCount = blockCount;
+            this.blocksPerSegment = Math.min(MAX_SEGMENT_SIZE / blockSize, this.blockCount);
+            int segmentCount = 0;
+            if (this.blocksPerSegment > 0) {
+                segmentCount = (this.blockCount + this.blocksPerSegment - 1) / this.blocksPerSegment;
+            }
+            this.segments = new ByteBuffer[segmentCount];
+            this.freeBlocks = new int[this.blockCount];
+        }
+
+        synchronized List<String> put(String key, byte[] data)
+        {
+            remove(key);
+
+            int needed = Math.max(1, (data.length + this.payloadSize - 1) / this.payloadSize);
+            if (needed > this.blockCount) {
+                return null;
+            }
+
+            List<String> evicted = Collections.emptyList();
+            while (needed > getAvailableBlocks()) {
+                String eldest = this.index.getEldestKey();
+                remove(eldest);
+
+                if (evicted.isEmpty()) {
+                    evicted = new ArrayList<>();
+                }
+                evicted.add(eldest);
+            }
+
+            int first = write(data, needed);
+            this.index.put(key, ((long) first << Integer.SIZE) | data.length);
+
+            return evicted;
+        }
+
+        synchronized byte[] get(String key)
+        {
+            long location = this.index.get(key);
+
+            return location != OffHeapIndex.NO_LOCATION ? read(location) : null;
+        }
+
+        synchronized boolean contains(String key)
+        {
+            return this.index.contains(key);
+        }
+
+        synchronized boolean remove(String key)
+        {
+            long location = this.index.remove(key);
+
+            if (location != OffHeapIndex.NO_LOCATION) {
+                release(location);
+
+                return true;
+            }
+
+            return false;
+        }
+
+        synchronized List<String> getKeys()
+        {
+            return this.index.getKeys();
+        }
+
+        synchronized void clear()
+        {
+            this.index.clear();
+            this.freeBlockCount = 0;
+            this.nextBlock = 0;
+        }
+
+        synchronized void dispose()
+        {
+            clear();
+
+            for (int i = 0; i < this.segments.length; ++i) {
+                this.segments[i] = null;
+            }
+        }
+
+        synchronized int size()
+        {
+            return this.index.size();
+        }
+
+        synchronized long getUsedSize()
+        {
+            return (long) (this.nextBlock - this.freeBlockCount) * this.blockSize;
+        }
+
+        private int getAvailableBlocks()
+        {
+            return this.freeBlockCount + this.blockCount - this.nextBlock;
+        }
+
+        private int allocate()
+        {
+            if (this.freeBlockCount > 0) {
+                return this.freeBlocks[--this.freeBlockCount];
+            }
+
+            int block = this.nextBlock++;
+
+            int segment = block / this.blocksPerSegment;
+            if (this.segments[segment] == null) {
+                int segmentBlocks = Math.min(this.blocksPerSegment, this.blockCount - segment * this.blocksPerSegment);
+                this.segments[segment] = ByteBuffer.allocateDirect(segmentBlocks * this.blockSize);
+            }
+
+            return block;
+        }
+
+        private ByteBuffer getSegment(int block)
+        {
+            return this.segments[block / this.blocksPerSegment];
+        }
+
+        private int getOffset(int block)
+        {
+            return (block % this.blocksPerSegment) * this.blockSize;
+        }
+
+        private int write(byte[] data, int blocks)
+        {
+            int first = allocate();
+
+            int block = first;
+            for (int i = 0; i < blocks; ++i) {
+                int next = i < blocks - 1 ? allocate() : NO_BLOCK;
+
+                ByteBuffer segment = getSegment(block).duplicate();
+                // Cast to Buffer to stay binary compatible with Java 8 (ByteBuffer#position(int) is covariant since
+                // Java 9)
+                ((Buffer) segment).position(getOffset(block));
+                segment.putInt(next);
+
+                int start = i * this.payloadSize;
+                segment.put(data, start, Math.min(this.payloadSize, data.length - start));
+
+                block = next;
+            }
+
+            return first;
+        }
+
+        private byte[] read(long location)
+        {
+            byte[] data = new byte[(int) location];
+
+            int block = (int) (location >>> Integer.SIZE);
+            for (int start = 0; start < data.length; start += this.payloadSize) {
+                ByteBuffer segment = getSegment(block).duplicate();
+                ((Buffer) segment).position(getOffset(block) + LINK_SIZE);
+                segment.get(data, start, Math.min(this.payloadSize, data.length - start));
+
+                block = getSegment(block).getInt(getOffset(block));
+            }
+
+            return data;
+        }
+
+        private void release(long location)
+        {
+            for (int block = (int) (location >>> Integer.SIZE); block != NO_BLOCK;) {
+                int next = getSegment(block).getInt(getOffset(block));
+                this.freeBlocks[this.freeBlockCount++] = block;
+                block = next;
+            }
+        }
+    }
+
+    /**
+     * Create a store with a number of stripes adapted to its size (a small store has a single stripe).
+     * 
+     * @param maxSize the maximum number of bytes to allocate
+     * @param blockSize the size of the blocks the memory is divided into
+     */
+    public OffHeapStore(long maxSize, int blockSize)
+    {
+        this(maxSize, blockSize, (int) Math.max(1, Math.min(MAX_STRIPES, getBlockCount(maxSize, blockSize)
+            / MIN_STRIPE_BLOCKS)));
+    }
+
+    /**
+     * @param maxSize the maximum number of bytes to allocate
+     * @param blockSize the size of the blocks the memory is divided into
+     * @param stripeCount the number of independent parts of the store
+     */
+    public OffHeapStore(long maxSize, int blockSize, int stripeCount)
+    {
+        if (blockSize <= LINK_SIZE || blockSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Invalid block size [" + blockSize + "]");
+        }
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Invalid stripe count [" + stripeCount + "]");
+        }
+
+        long stripeBlocks = getBlockCount(maxSize, blockSize) / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; ++i) {
+            this.stripes[i] = new Stripe((int) Math.min(stripeBlocks, Integer.MAX_VALUE), blockSize);
+        }
+    }
+
+    private static long getBlockCount(long maxSize, int blockSize)
+    {
+        return maxSize / blockSize;
+    }
+
+    private Stripe getStripe(String key)
+    {
+        return this.stripes[Math.floorMod(Objects.hashCode(key), this.stripes.length)];
+    }
+
+    /**
+     * Store the passed data, evicting the least recently used entries of the same stripe if needed.
+     * 
+     * @param key the key of the entry
+     * @param data the data to store
+     * @return the keys of the evicted entries, {@code null} if the data is too large to be stored
+     */
+    public List<String> put(String key, byte[] data)
+    {
+        return getStripe(key).put(key, data);
+    }
+
+    /**
+     * @param key the key of the entry
+     * @return the stored data, {@code null} if there is none
+     */
+    public byte[] get(String key)
+    {
+        return getStripe(key).get(key);
+    }
+
+    /**
+     * @param key the key of the entry
+     * @return true if data is associated to the passed key
+     */
+    public boolean contains(String key)
+    {
+        return getStripe(key).contains(key);
+    }
+
+    /**
+     * @param key the key of the entry to remove
+     * @return true if an entry was removed
+     */
+    public boolean remove(String key)
+    {
+        return getStripe(key).remove(key);
+    }
+
+    /**
+     * @return the keys of the stored entries
+     */
+    public List<String> getKeys()
+    {
+        List<String> keys = new ArrayList<>();
+        for (Stripe stripe : this.stripes) {
+            keys.addAll(stripe.getKeys());
+        }
+
+        return keys;
+    }
+
+    /**
+     * Remove all the entries, the allocated memory is kept for reuse.
+     */
+    public void clear()
+    {
+        for (Stripe stripe : this.stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Remove all the entries and release the allocated memory.
+     */
+    public void dispose()
+    {
+        for (Stripe stripe : this.stripes) {
+            stripe.dispose();
+        }
+    }
+
+    /**
+     * @return the number of stored entries
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Stripe stripe : this.stripes) {
+            size += stripe.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * @return the number of bytes of memory currently used to store entries
+     */
+    public long getUsedSize()
+    {
+        long usedSize = 0;
+        for (Stripe stripe : this.stripes) {
+            usedSize += stripe.getUsedSize();
+        }
+
+        return usedSize;
+    }
+
+    /**
+     * @return the number of independent parts of the store
+     */
+    public int getStripeCount()
+    {
+        return this.stripes.length;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.offheap;
+
+import java.io.IOException;
+
+import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Convert cache values to bytes and back so that they can be stored outside of the Java heap.
+ * <p>
+ * The default component implementing this role (provided by {@code xwiki-commons-cache-xstream}) is used for the
+ * off-heap caches without a specific codec.
+ * 
+ * @param <T> the class of the data stored in the cache
+ * @version $Id$
+ * @since 12.9RC1
+ * @see OffHeapConfiguration
+ */
+@Role
+@Unstable
+public interface CacheValueCodec<T>
+{
+    /**
+     * @param value the value to serialize
+     * @return the serialized value
+     * @throws IOException when failing to serialize the value
+     */
+    byte[] encode(T value) throws IOException;
+
+    /**
+     * @param data the serialized value
+     * @return the value
+     * @throws IOException when failing to unserialize the value
+     */
+    T decode(byte[] data) throws IOException;
+}
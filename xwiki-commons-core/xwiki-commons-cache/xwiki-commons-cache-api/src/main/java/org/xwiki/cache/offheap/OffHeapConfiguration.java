@@ -0,0 +1,178 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.offheap;
+
+import java.util.HashMap;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * This configuration class is used to keep the values of a cache serialized outside of the Java heap, so that very
+ * large caches don't weigh on the garbage collector.
+ * <p>
+ * The cache created by the factory is used as an hot tier containing the most recently used values and all the values
+ * are serialized (using the configured {@link CacheValueCodec} or the default {@link CacheValueCodec} component) in
+ * direct memory. When the maximum size of the off-heap storage is reached, the least recently used entries are
+ * evicted.
+ * <p>
+ * <code>
+ * CacheConfiguration conf = new CacheConfiguration("mycache");
+ * conf.put(OffHeapConfiguration.CONFIGURATIONID, new OffHeapConfiguration(1024 * 1024 * 1024, 1000));
+ * </code>
+ * <p>
+ * The maximum number of entries of the eviction configuration is replaced by the number of hot entries, the time to
+ * live and lifespan only apply to the hot tier.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Unstable
+public class OffHeapConfiguration extends HashMap<String, Object>
+{
+    /**
+     * The key use to access off-heap configuration in the {@link org.xwiki.cache.config.CacheConfiguration}.
+     */
+    public static final String CONFIGURATIONID = "offheap";
+
+    /**
+     * The key to access the maximum number of bytes used to store the values outside of the heap.
+     */
+    public static final String MAXSIZE_ID = "maxsize";
+
+    /**
+     * The key to access the maximum number of deserialized entries kept in the heap.
+     */
+    public static final String HOTENTRIES_ID = "hotentries";
+
+    /**
+     * The key to access the size of the blocks the off-heap memory is divided into.
+     */
+    public static final String BLOCKSIZE_ID = "blocksize";
+
+    /**
+     * The key to access the {@link CacheValueCodec} used to serialize the values.
+     */
+    public static final String CODEC_ID = "codec";
+
+    /**
+     * The default number of deserialized entries kept in the heap.
+     */
+    public static final int DEFAULT_HOTENTRIES = 1000;
+
+    /**
+     * The default size of the blocks the off-heap memory is divided into.
+     */
+    public static final int DEFAULT_BLOCKSIZE = 256;
+
+    /**
+     * Since this class is a Map it needs to be serializable and thus have a unique id for Serialization.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a new empty off-heap configuration.
+     */
+    public OffHeapConfiguration()
+    {
+    }
+
+    /**
+     * @param maxSize the maximum number of bytes used to store the values outside of the heap
+     * @param hotEntries the maximum number of deserialized entries kept in the heap
+     */
+    public OffHeapConfiguration(long maxSize, int hotEntries)
+    {
+        setMaxSize(maxSize);
+        setHotEntries(hotEntries);
+    }
+
+    /**
+     * @param maxSize see {@link #getMaxSize()}
+     */
+    public void setMaxSize(long maxSize)
+    {
+        put(MAXSIZE_ID, maxSize);
+    }
+
+    /**
+     * @return the maximum number of bytes used to store the values outside of the heap, 0 to disable the off-heap
+     *         storage
+     */
+    public long getMaxSize()
+    {
+        Object obj = get(MAXSIZE_ID);
+
+        return obj instanceof Number ? ((Number) obj).longValue() : 0;
+    }
+
+    /**
+     * @param hotEntries see {@link #getHotEntries()}
+     */
+    public void setHotEntries(int hotEntries)
+    {
+        put(HOTENTRIES_ID, hotEntries);
+    }
+
+    /**
+     * @return the maximum number of deserialized entries kept in the heap
+     */
+    public int getHotEntries()
+    {
+        Object obj = get(HOTENTRIES_ID);
+
+        return obj instanceof Number ? ((Number) obj).intValue() : DEFAULT_HOTENTRIES;
+    }
+
+    /**
+     * @param blockSize see {@link #getBlockSize()}
+     */
+    public void setBlockSize(int blockSize)
+    {
+        put(BLOCKSIZE_ID, blockSize);
+    }
+
+    /**
+     * @return the size of the blocks the off-heap memory is divided into, each value use at least one block
+     */
+    public int getBlockSize()
+    {
+        Object obj = get(BLOCKSIZE_ID);
+
+        return obj instanceof Number ? ((Number) obj).intValue() : DEFAULT_BLOCKSIZE;
+    }
+
+    /**
+     * @param codec see {@link #getCodec()}
+     */
+    public void setCodec(CacheValueCodec<?> codec)
+    {
+        put(CODEC_ID, codec);
+    }
+
+    /**
+     * @param <T> the class of the data stored in the cache
+     * @return the component used to serialize the values, {@code null} to use the default {@link CacheValueCodec}
+     *         component
+     */
+    public <T> CacheValueCodec<T> getCodec()
+    {
+        return (CacheValueCodec<T>) get(CODEC_ID);
+    }
+}
@@ -19,18 +19,24 @@
  */
 package org.xwiki.cache.util;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
 import javax.swing.event.EventListenerList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheStatistics;
 import org.xwiki.cache.DisposableCacheValue;
 import org.xwiki.cache.config.CacheConfiguration;
 import org.xwiki.cache.event.CacheEntryEvent;
 import org.xwiki.cache.event.CacheEntryListener;
 
 /**
- * Base class for {@link Cache} implementations. It provides events {@link DisposableCacheValue} management.
+ * Base class for {@link Cache} implementations. It provides events {@link DisposableCacheValue} management and
+ * {@link CacheStatistics} recording.
  * 
  * @param <T> the class of the data stored in the cache.
  * @version $Id$
@@ -52,6 +58,18 @@
      */
     protected final EventListenerList cacheEntryListeners = new EventListenerList();
 
+    /**
+     * The statistics of the cache.
+     * 
+     * @since 12.9RC1
+     */
+    protected final CacheStatisticsRecorder statistics = new CacheStatisticsRecorder();
+
+    /**
+     * The actions to execute when the cache is disposed.
+     */
+    private final List<Runnable> disposeActions = new CopyOnWriteArrayList<>();
+
     /**
      * @deprecated since 8.3RC1, use {@link #AbstractCache(CacheConfiguration)} instead
      */
@@ -75,6 +93,36 @@ public void dispose()
         for (CacheEntryListener<T> listener : this.cacheEntryListeners.getListeners(CacheEntryListener.class)) {
             this.cacheEntryListeners.remove(CacheEntryListener.class, listener);
         }
+
+        for (Runnable action : this.disposeActions) {
+            action.run();
+        }
+        this.disposeActions.clear();
+    }
+
+    /**
+     * @param action an action to execute when the cache is disposed (for example to release resources associated to
+     *            the cache by its creator)
+     * @since 12.9RC1
+     */
+    public void addDisposeAction(Runnable action)
+    {
+        this.disposeActions.add(action);
+    }
+
+    /**
+     * @return the configuration used to create the cache
+     * @since 12.9RC1
+     */
+    public CacheConfiguration getConfiguration()
+    {
+        return this.configuration;
+    }
+
+    @Override
+    public CacheStatistics getStatistics()
+    {
+        return this.statistics;
     }
 
     @Override
@@ -89,6 +137,44 @@ public void removeCacheEntryListener(CacheEntryListener<T> listener)
         cacheEntryListeners.remove(CacheEntryListener.class, listener);
     }
 
+    /**
+     * Helper method to load a missing value and record the time it took in the statistics.
+     * 
+     * @param key the key of the value to load
+     * @param loader the function used to produce the value
+     * @return the loaded value
+     * @since 12.9RC1
+     */
+    protected T load(String key, Function<String, ? extends T> loader)
+    {
+        this.statistics.recordMiss();
+
+        long start = System.nanoTime();
+        try {
+            return loader.apply(key);
+        } finally {
+            this.statistics.recordLoad(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Helper method to record in the statistics the result of a lookup.
+     * 
+     * @param value the value found in the cache, {@code null} if there was none
+     * @return the passed value
+     * @since 12.9RC1
+     */
+    protected T recordLookup(T value)
+    {
+        if (value != null) {
+            this.statistics.recordHit();
+        } else {
+            this.statistics.recordMiss();
+        }
+
+        return value;
+    }
+
     /**
      * Helper method to send event when a new cache entry is inserted.
      * 
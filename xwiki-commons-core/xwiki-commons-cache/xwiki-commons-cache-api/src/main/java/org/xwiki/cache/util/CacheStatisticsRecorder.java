@@ -0,0 +1,179 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.xwiki.cache.CacheStatistics;
+import org.xwiki.management.LatencyRecorder;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Lock-free implementation of {@link CacheStatistics} to be fed by {@link org.xwiki.cache.Cache} implementations.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Unstable
+public class CacheStatisticsRecorder implements CacheStatistics
+{
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder puts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private final LatencyRecorder loadTimes = new LatencyRecorder();
+
+    /**
+     * Record a lookup which found a value in the cache.
+     */
+    public void recordHit()
+    {
+        this.hits.increment();
+    }
+
+    /**
+     * @param count the number of lookups which found a value in the cache
+     */
+    public void recordHits(int count)
+    {
+        this.hits.add(count);
+    }
+
+    /**
+     * Record a lookup which did not find any value in the cache.
+     */
+    public void recordMiss()
+    {
+        this.misses.increment();
+    }
+
+    /**
+     * @param count the number of lookups which did not find any value in the cache
+     */
+    public void recordMisses(int count)
+    {
+        this.misses.add(count);
+    }
+
+    /**
+     * Record a value stored in the cache.
+     */
+    public void recordPut()
+    {
+        this.puts.increment();
+    }
+
+    /**
+     * @param count the number of values stored in the cache
+     */
+    public void recordPuts(int count)
+    {
+        this.puts.add(count);
+    }
+
+    /**
+     * Record an entry removed because the cache reached its maximum size.
+     */
+    public void recordEviction()
+    {
+        this.evictions.increment();
+    }
+
+    /**
+     * Record an entry removed because it reached its maximum idle time or lifespan.
+     */
+    public void recordExpiration()
+    {
+        this.expirations.increment();
+    }
+
+    /**
+     * @param nanos the time it took to load a value, in nanoseconds
+     */
+    public void recordLoad(long nanos)
+    {
+        this.loadTimes.record(nanos);
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return this.misses.sum();
+    }
+
+    @Override
+    public long getPutCount()
+    {
+        return this.puts.sum();
+    }
+
+    @Override
+    public long getEvictionCount()
+    {
+        return this.evictions.sum();
+    }
+
+    @Override
+    public long getExpirationCount()
+    {
+        return this.expirations.sum();
+    }
+
+    @Override
+    public long getLoadCount()
+    {
+        return this.loadTimes.getCount();
+    }
+
+    @Override
+    public double getAverageLoadTime()
+    {
+        return this.loadTimes.getMean();
+    }
+
+    @Override
+    public long getLoadTimePercentile(double percentile)
+    {
+        return this.loadTimes.getPercentile(percentile);
+    }
+
+    @Override
+    public void reset()
+    {
+        this.hits.reset();
+        this.misses.reset();
+        this.puts.reset();
+        this.evictions.reset();
+        this.expirations.reset();
+        this.loadTimes.reset();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheFactory;
+import org.xwiki.cache.CacheManagerConfiguration;
+import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.cache.eviction.EntryEvictionConfiguration;
+import org.xwiki.cache.eviction.LRUEvictionConfiguration;
+import org.xwiki.cache.offheap.CacheValueCodec;
+import org.xwiki.cache.offheap.OffHeapConfiguration;
+import org.xwiki.management.JMXBeanRegistration;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectComponentManager;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+import org.xwiki.test.mockito.MockitoComponentManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link DefaultCacheManager}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+class DefaultCacheManagerTest
+{
+    private static final String MBEAN_NAME = "type=Cache,name=\"cache.id\"";
+
+    @InjectMockComponents
+    private DefaultCacheManager cacheManager;
+
+    @InjectComponentManager
+    private MockitoComponentManager componentManager;
+
+    @MockComponent
+    private CacheManagerConfiguration configuration;
+
+    @MockComponent
+    private JMXBeanRegistration registration;
+
+    @Test
+    void createNewCacheRegistersStatistics() throws Exception
+    {
+        CacheFactory factory = this.componentManager.registerMockComponent(CacheFactory.class, "test");
+        when(this.configuration.getDefaultCache()).thenReturn("test");
+
+        CacheConfiguration configuration = new CacheConfiguration("cache.id");
+        Cache<Object> cache = new MapCache<>();
+        when(factory.newCache(configuration)).thenReturn(cache);
+
+        assertSame(cache, this.cacheManager.createNewCache(configuration));
+
+        verify(this.registration).registerMBean(any(DefaultCacheStatisticsMBean.class), eq(MBEAN_NAME));
+        verify(this.registration, never()).unregisterMBean(MBEAN_NAME);
+
+        cache.dispose();
+
+        verify(this.registration).unregisterMBean(MBEAN_NAME);
+    }
+
+    @Test
+    void createNewCachesWithSameIdentifier() throws Exception
+    {
+        CacheFactory factory = this.componentManager.registerMockComponent(CacheFactory.class, "test");
+        when(this.configuration.getDefaultCache()).thenReturn("test");
+
+        CacheConfiguration configuration = new CacheConfiguration("cache.id");
+        Cache<Object> cache1 = new MapCache<>();
+        Cache<Object> cache2 = new MapCache<>();
+        when(factory.newCache(configuration)).thenReturn(cache1);
+        this.cacheManager.createNewCache(configuration);
+        when(factory.newCache(configuration)).thenReturn(cache2);
+        this.cacheManager.createNewCache(configuration);
+
+        String secondName = MBEAN_NAME + ",instance=1";
+        verify(this.registration).registerMBean(any(DefaultCacheStatisticsMBean.class), eq(MBEAN_NAME));
+        verify(this.registration).registerMBean(any(DefaultCacheStatisticsMBean.class), eq(secondName));
+
+        cache1.dispose();
+
+        verify(this.registration).unregisterMBean(MBEAN_NAME);
+        verify(this.registration, never()).unregisterMBean(secondName);
+
+        // The name of the disposed cache can be reused
+        Cache<Object> cache3 = new MapCache<>();
+        when(factory.newCache(configuration)).thenReturn(cache3);
+        this.cacheManager.createNewCache(configuration);
+
+        verify(this.registration, times(2)).registerMBean(any(DefaultCacheStatisticsMBean.class), eq(MBEAN_NAME));
+
+        cache2.dispose();
+
+        verify(this.registration).unregisterMBean(secondName);
+        verify(this.registration).unregisterMBean(MBEAN_NAME);
+    }
+
+    @Test
+    void createNewCacheWithOffHeapStorage() throws Exception
+    {
+        CacheFactory factory = this.componentManager.registerMockComponent(CacheFactory.class, "test");
+        when(this.configuration.getDefaultCache()).thenReturn("test");
+        Cache<Object> hot = new MapCache<>();
+        when(factory.newCache(any())).thenReturn(hot);
+
+        CacheConfiguration configuration = new CacheConfiguration("cache.id", new LRUEvictionConfiguration(1000));
+        OffHeapConfiguration offHeapConfiguration = new OffHeapConfiguration(1024, 10);
+        offHeapConfiguration.setCodec(new CacheValueCodec<String>()
+        {
+            @Override
+            public byte[] encode(String value)
+            {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] data)
+            {
+                return new String(data, StandardCharsets.UTF_8);
+            }
+        });
+        configuration.put(OffHeapConfiguration.CONFIGURATIONID, offHeapConfiguration);
+
+        Cache<String> cache = this.cacheManager.createNewCache(configuration);
+
+        assertTrue(cache instanceof OffHeapCache);
+
+        ArgumentCaptor<CacheConfiguration> hotConfiguration = ArgumentCaptor.forClass(CacheConfiguration.class);
+        verify(factory).newCache(hotConfiguration.capture());
+        assertNull(hotConfiguration.getValue().get(OffHeapConfiguration.CONFIGURATIONID));
+        assertEquals(10, ((LRUEvictionConfiguration) hotConfiguration.getValue()
+            .get(EntryEvictionConfiguration.CONFIGURATIONID)).getMaxEntries());
+
+        cache.set("key", "value");
+        assertNotNull(hot.get("key"));
+
+        // Values evicted from the hot tier are reloaded from the off-heap storage
+        hot.remove("key");
+        assertEquals("value", cache.get("key"));
+        assertNotNull(hot.get("key"));
+
+        cache.remove("key");
+        assertNull(cache.get("key"));
+        assertEquals(1, cache.getStatistics().getHitCount());
+
+        cache.dispose();
+    }
+}
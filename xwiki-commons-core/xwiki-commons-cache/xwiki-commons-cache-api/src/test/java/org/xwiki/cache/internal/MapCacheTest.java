@@ -0,0 +1,149 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.cache.CacheStatistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Validate {@link MapCache}.
+ *
+ * @version $Id$
+ */
+class MapCacheTest
+{
+    @Test
+    void statistics()
+    {
+        MapCache<String> cache = new MapCache<>();
+        CacheStatistics statistics = cache.getStatistics();
+
+        assertNull(cache.get("key"));
+        cache.set("key", "value");
+        assertEquals("value", cache.get("key"));
+        assertEquals("value", cache.computeIfAbsent("key", k -> "other"));
+        assertEquals("loaded", cache.computeIfAbsent("key2", k -> "loaded"));
+
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(2, statistics.getPutCount());
+        assertEquals(1, statistics.getLoadCount());
+        assertEquals(0.5, statistics.getHitRatio());
+
+        statistics.reset();
+
+        assertEquals(0, statistics.getHitCount());
+        assertEquals(0, statistics.getLoadCount());
+    }
+
+    @Test
+    void nullKey()
+    {
+        MapCache<String> cache = new MapCache<>();
+
+        assertNull(cache.get(null));
+        cache.set(null, "value");
+        assertEquals("value", cache.get(null));
+        cache.remove(null);
+        assertNull(cache.get(null));
+        assertEquals("loaded", cache.computeIfAbsent(null, k -> "loaded"));
+    }
+
+    @Test
+    void computeIfAbsentUsingTheCache()
+    {
+        MapCache<String> cache = new MapCache<>();
+
+        // The loader can access other keys of the cache
+        assertEquals("value1value2",
+            cache.computeIfAbsent("key1", k -> "value1" + cache.computeIfAbsent("key2", k2 -> "value2")));
+        assertEquals("value2", cache.get("key2"));
+
+        assertThrows(IllegalStateException.class,
+            () -> cache.computeIfAbsent("key3", k -> cache.computeIfAbsent("key3", k3 -> "value3")));
+        assertEquals("value3", cache.computeIfAbsent("key3", k -> "value3"));
+    }
+
+    @Test
+    void computeIfAbsentConcurrently() throws Exception
+    {
+        MapCache<String> cache = new MapCache<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.computeIfAbsent("key", k -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                loaded.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return "value";
+        }));
+
+        loading.await();
+
+        // Other keys are not blocked by the slow load
+        assertEquals("other", cache.computeIfAbsent("other", k -> "other"));
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.computeIfAbsent("key", k -> {
+            loads.incrementAndGet();
+
+            return "value2";
+        }));
+
+        loaded.countDown();
+
+        assertEquals("value", first.get());
+        assertEquals("value", second.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void removeWhileLoading()
+    {
+        MapCache<String> cache = new MapCache<>();
+
+        assertEquals("value", cache.computeIfAbsent("key", k -> {
+            cache.remove(k);
+
+            return "value";
+        }));
+        assertNull(cache.get("key"));
+
+        assertEquals("other", cache.computeIfAbsent("key", k -> {
+            cache.set(k, "other");
+
+            return "value";
+        }));
+        assertEquals("other", cache.get("key"));
+    }
+}
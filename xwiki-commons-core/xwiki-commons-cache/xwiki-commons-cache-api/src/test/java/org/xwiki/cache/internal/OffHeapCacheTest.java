@@ -0,0 +1,203 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xwiki.cache.DisposableCacheValue;
+import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.cache.event.CacheEntryEvent;
+import org.xwiki.cache.event.CacheEntryListener;
+import org.xwiki.cache.offheap.CacheValueCodec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link OffHeapCache}.
+ *
+ * @version $Id$
+ */
+class OffHeapCacheTest
+{
+    private static final int STORE_SIZE = 1024;
+
+    private MapCache<Object> hot;
+
+    private OffHeapCache<TestValue> cache;
+
+    private final List<String> removedKeys = new ArrayList<>();
+
+    private static class TestValue implements DisposableCacheValue
+    {
+        private final String name;
+
+        /**
+         * False if the value is too large to be stored off-heap.
+         */
+        private final boolean small;
+
+        private boolean disposed;
+
+        TestValue(String name, boolean small)
+        {
+            this.name = name;
+            this.small = small;
+        }
+
+        @Override
+        public void dispose()
+        {
+            this.disposed = true;
+        }
+    }
+
+    private static class TestValueCodec implements CacheValueCodec<TestValue>
+    {
+        @Override
+        public byte[] encode(TestValue value)
+        {
+            if (!value.small) {
+                return new byte[STORE_SIZE * 2];
+            }
+
+            return value.name.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public TestValue decode(byte[] data)
+        {
+            return new TestValue(new String(data, StandardCharsets.UTF_8), true);
+        }
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        this.hot = new MapCache<>();
+        this.cache = new OffHeapCache<>(new CacheConfiguration(), this.hot, new OffHeapStore(STORE_SIZE, 16),
+            new TestValueCodec());
+        this.cache.addCacheEntryListener(new CacheEntryListener<TestValue>()
+        {
+            @Override
+            public void cacheEntryAdded(CacheEntryEvent<TestValue> event)
+            {
+                // Not tested
+            }
+
+            @Override
+            public void cacheEntryRemoved(CacheEntryEvent<TestValue> event)
+            {
+                removedKeys.add(event.getEntry().getKey());
+            }
+
+            @Override
+            public void cacheEntryModified(CacheEntryEvent<TestValue> event)
+            {
+                // Not tested
+            }
+        });
+    }
+
+    @Test
+    void hotTierEviction()
+    {
+        TestValue value = new TestValue("value", true);
+        this.cache.set("key", value);
+
+        // The value is still stored off-heap
+        this.hot.remove("key");
+        assertFalse(value.disposed);
+        assertTrue(this.removedKeys.isEmpty());
+
+        TestValue promoted = this.cache.get("key");
+        assertNotSame(value, promoted);
+        assertEquals("value", promoted.name);
+
+        // The value is only stored in the hot tier
+        TestValue hotValue = new TestValue("hot", false);
+        this.cache.set("hot", hotValue);
+        this.hot.remove("hot");
+        assertTrue(hotValue.disposed);
+        assertEquals(Arrays.asList("hot"), this.removedKeys);
+        assertNull(this.cache.get("hot"));
+        assertEquals(1, this.cache.getStatistics().getEvictionCount());
+
+        this.cache.remove("key");
+        assertTrue(promoted.disposed);
+        assertEquals(Arrays.asList("hot", "key"), this.removedKeys);
+    }
+
+    @Test
+    void setDisposesReplacedValue()
+    {
+        TestValue value = new TestValue("value", true);
+        this.cache.set("key", value);
+        this.cache.set("key", new TestValue("other", true));
+
+        assertTrue(value.disposed);
+        assertEquals("other", this.cache.get("key").name);
+    }
+
+    @Test
+    void removeAll()
+    {
+        TestValue value1 = new TestValue("value1", true);
+        TestValue value2 = new TestValue("value2", true);
+        TestValue hotValue = new TestValue("hot", false);
+        this.cache.set("key1", value1);
+        this.cache.set("key2", value2);
+        this.cache.set("hot", hotValue);
+        this.hot.remove("key2");
+
+        this.cache.removeAll();
+
+        assertEquals(new HashSet<>(Arrays.asList("key1", "key2", "hot")), new HashSet<>(this.removedKeys));
+        assertTrue(value1.disposed);
+        assertFalse(value2.disposed);
+        assertTrue(hotValue.disposed);
+        assertNull(this.cache.get("key1"));
+        assertNull(this.cache.get("key2"));
+        assertNull(this.cache.get("hot"));
+    }
+
+    @Test
+    void dispose()
+    {
+        TestValue value = new TestValue("value", true);
+        TestValue hotValue = new TestValue("hot", false);
+        this.cache.set("key", value);
+        this.cache.set("hot", hotValue);
+
+        this.cache.dispose();
+
+        assertTrue(value.disposed);
+        assertTrue(hotValue.disposed);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link OffHeapIndex}.
+ *
+ * @version $Id$
+ */
+class OffHeapIndexTest
+{
+    @Test
+    void putGetRemove()
+    {
+        OffHeapIndex index = new OffHeapIndex();
+
+        index.put("key1", 1);
+        index.put(null, 2);
+        index.put("key3", 3);
+
+        assertEquals(3, index.size());
+        assertEquals(1, index.get("key1"));
+        assertEquals(2, index.get(null));
+        assertEquals(OffHeapIndex.NO_LOCATION, index.get("missing"));
+        assertTrue(index.contains("key3"));
+
+        index.put("key1", 10);
+        assertEquals(10, index.get("key1"));
+        assertEquals(3, index.size());
+
+        assertEquals(2, index.remove(null));
+        assertEquals(OffHeapIndex.NO_LOCATION, index.remove(null));
+        assertFalse(index.contains(null));
+        assertEquals(2, index.size());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertFalse(index.contains("key1"));
+        assertThrows(IllegalStateException.class, index::getEldestKey);
+    }
+
+    @Test
+    void accessOrder()
+    {
+        OffHeapIndex index = new OffHeapIndex();
+
+        index.put("key1", 1);
+        index.put("key2", 2);
+        index.put("key3", 3);
+        index.get("key1");
+        index.put("key2", 20);
+
+        assertEquals(Arrays.asList("key3", "key1", "key2"), index.getKeys());
+        assertEquals("key3", index.getEldestKey());
+
+        index.remove("key1");
+        assertEquals(Arrays.asList("key3", "key2"), index.getKeys());
+    }
+
+    @Test
+    void grow()
+    {
+        OffHeapIndex index = new OffHeapIndex();
+
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            keys.add("key" + i);
+            index.put("key" + i, i);
+        }
+
+        // Reuse the slots of the removed entries
+        for (int i = 0; i < 1000; i += 2) {
+            index.remove("key" + i);
+            keys.remove("key" + i);
+        }
+        for (int i = 1000; i < 1500; ++i) {
+            keys.add("key" + i);
+            index.put("key" + i, i);
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(keys, index.getKeys());
+        for (String key : keys) {
+            assertEquals(Integer.parseInt(key.substring(3)), index.get(key));
+        }
+        assertEquals(OffHeapIndex.NO_LOCATION, index.get("key0"));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link OffHeapStore}.
+ *
+ * @version $Id$
+ */
+class OffHeapStoreTest
+{
+    private static byte[] bytes(int length, int seed)
+    {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            data[i] = (byte) (i + seed);
+        }
+
+        return data;
+    }
+
+    @Test
+    void putGetRemove()
+    {
+        OffHeapStore store = new OffHeapStore(1024, 16);
+
+        byte[] empty = new byte[0];
+        byte[] small = bytes(5, 1);
+        byte[] large = bytes(100, 2);
+
+        assertEquals(Collections.emptyList(), store.put("empty", empty));
+        assertEquals(Collections.emptyList(), store.put("small", small));
+        assertEquals(Collections.emptyList(), store.put("large", large));
+
+        assertArrayEquals(empty, store.get("empty"));
+        assertArrayEquals(small, store.get("small"));
+        assertArrayEquals(large, store.get("large"));
+        assertNull(store.get("missing"));
+        assertEquals(3, store.size());
+        // 1 + 1 + 9 blocks of 16 bytes
+        assertEquals(176, store.getUsedSize());
+
+        assertTrue(store.remove("large"));
+        assertFalse(store.remove("large"));
+        assertNull(store.get("large"));
+        assertEquals(32, store.getUsedSize());
+
+        byte[] replacement = bytes(30, 3);
+        store.put("small", replacement);
+        assertArrayEquals(replacement, store.get("small"));
+        assertEquals(2, store.size());
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(0, store.getUsedSize());
+        assertFalse(store.contains("empty"));
+    }
+
+    @Test
+    void evictLeastRecentlyUsed()
+    {
+        // 8 blocks of 12 bytes of payload
+        OffHeapStore store = new OffHeapStore(128, 16);
+
+        store.put("key1", bytes(24, 1));
+        store.put("key2", bytes(24, 2));
+        store.put("key3", bytes(24, 3));
+        store.get("key1");
+
+        assertEquals(Arrays.asList("key2", "key3"), store.put("key4", bytes(60, 4)));
+
+        assertArrayEquals(bytes(24, 1), store.get("key1"));
+        assertArrayEquals(bytes(60, 4), store.get("key4"));
+        assertFalse(store.contains("key2"));
+        assertFalse(store.contains("key3"));
+
+        // Larger than the whole store
+        assertNull(store.put("key5", bytes(200, 5)));
+        assertFalse(store.contains("key5"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void stripes()
+    {
+        // 4 stripes of 8 blocks of 12 bytes of payload
+        OffHeapStore store = new OffHeapStore(512, 16, 4);
+
+        assertEquals(4, store.getStripeCount());
+        assertEquals(1, new OffHeapStore(512, 16).getStripeCount());
+
+        for (int i = 0; i < 16; ++i) {
+            assertEquals(Collections.emptyList(), store.put("key" + i, bytes(12, i)));
+        }
+
+        assertEquals(16, store.size());
+        assertEquals(16, store.getKeys().size());
+        assertEquals(256, store.getUsedSize());
+        for (int i = 0; i < 16; ++i) {
+            assertArrayEquals(bytes(12, i), store.get("key" + i));
+        }
+
+        // A value larger than a stripe cannot be stored
+        assertNull(store.put("large", bytes(100, 0)));
+
+        store.dispose();
+        assertEquals(0, store.size());
+        assertEquals(0, store.getUsedSize());
+    }
+}
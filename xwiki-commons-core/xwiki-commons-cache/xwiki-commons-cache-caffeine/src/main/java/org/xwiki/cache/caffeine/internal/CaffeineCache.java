@@ -0,0 +1,266 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.caffeine.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.cache.eviction.EntryEvictionConfiguration;
+import org.xwiki.cache.eviction.LRUEvictionConfiguration;
+import org.xwiki.cache.eviction.Weigher;
+import org.xwiki.cache.eviction.WeightEvictionConfiguration;
+import org.xwiki.cache.util.AbstractCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+
+/**
+ * Implements {@link org.xwiki.cache.Cache} based on Caffeine (which uses a concurrent W-TinyLFU eviction policy).
+ * <p>
+ * Entry events are only produced when at least one {@link org.xwiki.cache.event.CacheEntryListener} is registered.
+ * 
+ * @param <T> the class of the data stored in the cache.
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class CaffeineCache<T> extends AbstractCache<T>
+{
+    /**
+     * Used in place of the {@code null} key which is not supported by Caffeine.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private final Cache<Object, T> cache;
+
+    private final ConcurrentMap<Object, T> map;
+
+    /**
+     * @param configuration the XWiki Cache configuration
+     * @param scheduler the scheduler used to remove expired entries
+     */
+    CaffeineCache(CacheConfiguration configuration, Scheduler scheduler)
+    {
+        super(configuration);
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+
+        // Call the removal listener and execute the maintenance tasks in the calling thread so that events are
+        // produced in the order of the modifications
+        builder.executor(Runnable::run);
+        builder.scheduler(scheduler);
+
+        EntryEvictionConfiguration eviction =
+            (EntryEvictionConfiguration) configuration.get(EntryEvictionConfiguration.CONFIGURATIONID);
+        if (eviction != null) {
+            customizeSize(builder, eviction);
+
+            int maxIdle = getInt(eviction, EntryEvictionConfiguration.TIMETOLIVE_ID);
+            if (maxIdle > 0) {
+                builder.expireAfterAccess(maxIdle, TimeUnit.SECONDS);
+            }
+
+            int lifespan = getInt(eviction, LRUEvictionConfiguration.LIFESPAN_ID);
+            if (lifespan > 0) {
+                builder.expireAfterWrite(lifespan, TimeUnit.SECONDS);
+            }
+        }
+
+        this.cache = builder.removalListener(this::onRemoval).build();
+        this.map = this.cache.asMap();
+    }
+
+    private void customizeSize(Caffeine<Object, Object> builder, EntryEvictionConfiguration eviction)
+    {
+        if (eviction instanceof WeightEvictionConfiguration && ((WeightEvictionConfiguration) eviction).isWeighted()) {
+            WeightEvictionConfiguration weightEviction = (WeightEvictionConfiguration) eviction;
+            Weigher<T> weigher = weightEviction.getWeigher();
+
+            builder.maximumWeight(weightEviction.getMaxWeight());
+            builder.<Object, T>weigher(
+                (key, value) -> (int) Math.min(weigher.weigh(toKey(key), value), Integer.MAX_VALUE));
+        } else {
+            int maxEntries = getInt(eviction, LRUEvictionConfiguration.MAXENTRIES_ID);
+            if (maxEntries > 0) {
+                builder.maximumSize(maxEntries);
+            }
+        }
+    }
+
+    private static int getInt(EntryEvictionConfiguration eviction, String key)
+    {
+        Object value = eviction.get(key);
+
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static Object toCacheKey(String key)
+    {
+        return key != null ? key : NULL_KEY;
+    }
+
+    private static String toKey(Object cacheKey)
+    {
+        return cacheKey != NULL_KEY ? (String) cacheKey : null;
+    }
+
+    private boolean hasListeners()
+    {
+        return this.cacheEntryListeners.getListenerCount() > 0;
+    }
+
+    @Override
+    public void set(String key, T value)
+    {
+        if (value != null) {
+            T previous = this.map.put(toCacheKey(key), value);
+            this.statistics.recordPut();
+
+            if (previous != null && previous != value) {
+                disposeCacheValue(previous);
+            }
+
+            if (hasListeners()) {
+                if (previous != null) {
+                    sendEntryModifiedEvent(new CaffeineCacheEntry<>(this, key, value));
+                } else {
+                    sendEntryAddedEvent(new CaffeineCacheEntry<>(this, key, value));
+                }
+            }
+        } else {
+            remove(key);
+        }
+    }
+
+    @Override
+    public T get(String key)
+    {
+        return recordLookup(this.cache.getIfPresent(toCacheKey(key)));
+    }
+
+    @Override
+    public Map<String, T> getAll(Collection<String> keys)
+    {
+        Map<Object, T> cacheValues = this.cache.getAllPresent(toCacheKeys(keys));
+
+        Map<String, T> values = new HashMap<>(cacheValues.size());
+        for (Map.Entry<Object, T> entry : cacheValues.entrySet()) {
+            values.put(toKey(entry.getKey()), entry.getValue());
+        }
+
+        this.statistics.recordHits(values.size());
+        this.statistics.recordMisses(keys.size() - values.size());
+
+        return values;
+    }
+
+    @Override
+    public T computeIfAbsent(String key, Function<String, ? extends T> loader)
+    {
+        boolean[] loaded = new boolean[1];
+
+        // Caffeine guarantees that the loader is called only once for a given key
+        T value = this.map.computeIfAbsent(toCacheKey(key), k -> {
+            loaded[0] = true;
+
+            return load(key, loader);
+        });
+
+        if (!loaded[0]) {
+            this.statistics.recordHit();
+        } else if (value != null) {
+            this.statistics.recordPut();
+
+            if (hasListeners()) {
+                sendEntryAddedEvent(new CaffeineCacheEntry<>(this, key, value));
+            }
+        }
+
+        return value;
+    }
+
+    @Override
+    public void remove(String key)
+    {
+        this.cache.invalidate(toCacheKey(key));
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys)
+    {
+        this.cache.invalidateAll(toCacheKeys(keys));
+    }
+
+    private static List<Object> toCacheKeys(Collection<String> keys)
+    {
+        List<Object> cacheKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            cacheKeys.add(toCacheKey(key));
+        }
+
+        return cacheKeys;
+    }
+
+    @Override
+    public void removeAll()
+    {
+        this.cache.invalidateAll();
+    }
+
+    @Override
+    public void dispose()
+    {
+        super.dispose();
+
+        this.cache.invalidateAll();
+        this.cache.cleanUp();
+    }
+
+    private void onRemoval(Object cacheKey, T value, RemovalCause cause)
+    {
+        switch (cause) {
+            case REPLACED:
+                // Already taken care of in #set()
+                return;
+            case SIZE:
+                this.statistics.recordEviction();
+                break;
+            case EXPIRED:
+                this.statistics.recordExpiration();
+                break;
+            default:
+                break;
+        }
+
+        if (hasListeners()) {
+            sendEntryRemovedEvent(new CaffeineCacheEntry<>(this, toKey(cacheKey), value));
+        } else {
+            disposeCacheValue(value);
+        }
+    }
+}
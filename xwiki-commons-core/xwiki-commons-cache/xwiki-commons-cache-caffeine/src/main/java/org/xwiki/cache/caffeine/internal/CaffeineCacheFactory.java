@@ -0,0 +1,79 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.caffeine.internal;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheException;
+import org.xwiki.cache.CacheFactory;
+import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.annotation.DisposePriority;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+
+import com.github.benmanes.caffeine.cache.Scheduler;
+
+/**
+ * Implements {@link CacheFactory} based on Caffeine. Meant for local (non clustered) caches, for example using
+ * {@code cache.defaultLocalCache=caffeine} in the XWiki configuration.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Component
+@Named("caffeine")
+@Singleton
+// Make sure the component is disposed at the end in case some components needs it for their own dispose
+@DisposePriority(10000)
+public class CaffeineCacheFactory implements CacheFactory, Initializable, Disposable
+{
+    private ScheduledExecutorService expirationExecutor;
+
+    private Scheduler scheduler;
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        // A single thread is enough to trigger the removal of expired entries, the actual work is done by the cache
+        this.expirationExecutor = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder().namingPattern("XWiki cache expiration").daemon(true).build());
+        this.scheduler = Scheduler.forScheduledExecutorService(this.expirationExecutor);
+    }
+
+    @Override
+    public void dispose()
+    {
+        this.expirationExecutor.shutdownNow();
+    }
+
+    @Override
+    public <T> Cache<T> newCache(CacheConfiguration configuration) throws CacheException
+    {
+        return new CaffeineCache<>(configuration, this.scheduler);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.caffeine;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.caffeine.internal.CaffeineCacheFactory;
+import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.cache.internal.DefaultCacheFactory;
+import org.xwiki.cache.internal.DefaultCacheManager;
+import org.xwiki.cache.internal.DefaultCacheManagerConfiguration;
+import org.xwiki.cache.test.AbstractEvictionGenericTestCache;
+import org.xwiki.test.annotation.ComponentList;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for {@link org.xwiki.cache.caffeine.internal.CaffeineCache}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+// @formatter:off
+@ComponentList({
+    CaffeineCacheFactory.class,
+    DefaultCacheManager.class,
+    DefaultCacheFactory.class,
+    DefaultCacheManagerConfiguration.class
+})
+// @formatter:on
+class CaffeineCacheTest extends AbstractEvictionGenericTestCache
+{
+    CaffeineCacheTest()
+    {
+        super("caffeine", true);
+    }
+
+    @Test
+    void nullKey() throws Exception
+    {
+        Cache<Object> cache = getCacheFactory().newCache(new CacheConfiguration());
+
+        cache.set(null, VALUE);
+        cache.set(KEY, VALUE2);
+
+        assertEquals(VALUE, cache.get(null));
+        assertEquals(VALUE, cache.computeIfAbsent(null, key -> VALUE2));
+        assertEquals(2, cache.getAll(Arrays.asList(null, KEY)).size());
+        assertEquals(VALUE, cache.getAll(Arrays.asList(null, KEY)).get(null));
+
+        cache.remove(null);
+
+        assertNull(cache.get(null));
+        assertEquals(VALUE2, cache.get(KEY));
+
+        cache.dispose();
+    }
+}
@@ -19,9 +19,12 @@
  */
 package org.xwiki.cache.infinispan.internal;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 import org.infinispan.Cache;
 import org.infinispan.manager.EmbeddedCacheManager;
@@ -58,7 +61,7 @@
     /**
      * The state of the node before modification.
      */
-    private ConcurrentMap<String, T> preEventData = new ConcurrentHashMap<>();
+    private Map<String, T> preEventData = new ConcurrentHashMap<>();
 
     /**
      * The Infinispan cache manager.
@@ -90,6 +93,7 @@ public void set(String key, T obj)
     {
         if (obj != null) {
             this.cache.put(key, obj);
+            this.statistics.recordPut();
         } else {
             this.cache.remove(key);
         }
@@ -98,7 +102,56 @@ public void set(String key, T obj)
     @Override
     public T get(String key)
     {
-        return this.cache.get(key);
+        return recordLookup(this.cache.get(key));
+    }
+
+    @Override
+    public Map<String, T> getAll(Collection<String> keys)
+    {
+        Map<String, T> values = this.cache.getAdvancedCache().getAll(new HashSet<>(keys));
+
+        this.statistics.recordHits(values.size());
+        this.statistics.recordMisses(keys.size() - values.size());
+
+        return values;
+    }
+
+    @Override
+    public void setAll(Map<String, ? extends T> entries)
+    {
+        Map<String, T> values = new HashMap<>(entries.size());
+
+        for (Map.Entry<String, ? extends T> entry : entries.entrySet()) {
+            if (entry.getValue() != null) {
+                values.put(entry.getKey(), entry.getValue());
+            } else {
+                this.cache.remove(entry.getKey());
+            }
+        }
+
+        this.cache.putAll(values);
+        this.statistics.recordPuts(values.size());
+    }
+
+    @Override
+    public T computeIfAbsent(String key, Function<String, ? extends T> loader)
+    {
+        boolean[] loaded = new boolean[1];
+
+        // Infinispan locks the entry while loading so the loader is called only once for a given key
+        T value = this.cache.computeIfAbsent(key, k -> {
+            loaded[0] = true;
+
+            return load(k, loader);
+        });
+
+        if (!loaded[0]) {
+            this.statistics.recordHit();
+        } else if (value != null) {
+            this.statistics.recordPut();
+        }
+
+        return value;
     }
 
     @Override
@@ -129,6 +182,8 @@ public void nodeEvicted(CacheEntriesEvictedEvent<String, T> event)
             String key = entry.getKey();
             T value = entry.getValue();
 
+            this.statistics.recordEviction();
+
             // Looks like eviction does not produce any pre event
             cacheEntryRemoved(key, value);
         }
@@ -143,6 +198,8 @@ public void nodeExpired(CacheEntryExpiredEvent<String, T> event)
         String key = event.getKey();
         T value = event.getValue();
 
+        this.statistics.recordExpiration();
+
         // Looks like eviction does not produce any pre event
         cacheEntryRemoved(key, value);
     }
@@ -34,6 +34,8 @@
 import org.xwiki.cache.config.CacheConfiguration;
 import org.xwiki.cache.eviction.EntryEvictionConfiguration;
 import org.xwiki.cache.eviction.LRUEvictionConfiguration;
+import org.xwiki.cache.eviction.Weigher;
+import org.xwiki.cache.eviction.WeightEvictionConfiguration;
 import org.xwiki.cache.util.AbstractCacheConfigurationLoader;
 import org.xwiki.environment.Environment;
 
@@ -78,8 +80,8 @@ private void customizeEviction(ConfigurationBuilder builder)
         if (eec != null && eec.getAlgorithm() == EntryEvictionConfiguration.Algorithm.LRU) {
             ////////////////////
             // Eviction
-            // Max entries
-            customizeEvictionMaxEntries(builder, eec);
+            // Max entries or weight
+            customizeEvictionSize(builder, eec);
 
             ////////////////////
             // Expiration
@@ -94,16 +96,38 @@ private void customizeEviction(ConfigurationBuilder builder)
         }
     }
 
-    private void customizeEvictionMaxEntries(ConfigurationBuilder builder, EntryEvictionConfiguration eec)
+    private void customizeEvictionSize(ConfigurationBuilder builder, EntryEvictionConfiguration eec)
     {
         Object maxEntries = eec.get(LRUEvictionConfiguration.MAXENTRIES_ID);
-        if (maxEntries instanceof Number) {
+        if (eec instanceof WeightEvictionConfiguration && ((WeightEvictionConfiguration) eec).isWeighted()) {
+            customizeWeightedEviction(builder, (WeightEvictionConfiguration) eec);
+        } else if (maxEntries instanceof Number) {
             builder.memory().evictionStrategy(EvictionStrategy.REMOVE);
             builder.memory().evictionType(EvictionType.COUNT).size(((Number) maxEntries).longValue());
         }
 
     }
 
+    /**
+     * Infinispan memory based eviction ({@link EvictionType#MEMORY}) cannot be used to evict entries based on a
+     * {@link Weigher}: it only supports values stored in binary or off-heap format and the entry size calculator it
+     * uses cannot be configured. Injecting a custom data container is the only way to plug the weigher.
+     * <p>
+     * {@link org.infinispan.configuration.cache.DataContainerConfigurationBuilder#dataContainer(
+     * org.infinispan.container.DataContainer)} is deprecated, this is the only place where it's used and it should be
+     * replaced with the equivalent configuration when upgrading to an Infinispan version which removes it.
+     * 
+     * @param builder the configuration builder
+     * @param weightEviction the weight based eviction configuration
+     */
+    @SuppressWarnings("deprecation")
+    private void customizeWeightedEviction(ConfigurationBuilder builder, WeightEvictionConfiguration weightEviction)
+    {
+        Weigher<Object> weigher = weightEviction.getWeigher();
+
+        builder.dataContainer().dataContainer(new WeightedDataContainer<>(weightEviction.getMaxWeight(), weigher));
+    }
+
     private void customizeExpirationWakeUpInterval(ConfigurationBuilder builder, EntryEvictionConfiguration eec)
     {
         if (eec.get(CONFX_EXPIRATION_WAKEUPINTERVAL) instanceof Number) {
@@ -0,0 +1,43 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.infinispan.internal;
+
+import org.infinispan.container.impl.DefaultDataContainer;
+import org.xwiki.cache.eviction.Weigher;
+
+/**
+ * Infinispan data container evicting entries based on the weight calculated by a {@link Weigher} (Infinispan only
+ * supports memory based eviction for values stored in binary format).
+ * 
+ * @param <T> the class of the data stored in the cache
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class WeightedDataContainer<T> extends DefaultDataContainer<String, T>
+{
+    /**
+     * @param maxWeight the maximum total weight of the entries
+     * @param weigher the component used to calculate the weight of each entry
+     */
+    public WeightedDataContainer(long maxWeight, Weigher<T> weigher)
+    {
+        super(maxWeight, (key, entry) -> weigher.weigh(key, entry.getValue()));
+    }
+}
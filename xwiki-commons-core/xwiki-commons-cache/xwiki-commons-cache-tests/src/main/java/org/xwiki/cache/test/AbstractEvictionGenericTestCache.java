@@ -26,6 +26,7 @@
 import org.xwiki.cache.config.LRUCacheConfiguration;
 import org.xwiki.cache.eviction.EntryEvictionConfiguration;
 import org.xwiki.cache.eviction.LRUEvictionConfiguration;
+import org.xwiki.cache.eviction.WeightEvictionConfiguration;
 import org.xwiki.cache.test.CacheEntryListenerTest.EventType;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -101,6 +102,7 @@ void createAndDestroyCacheLRUMaxEntries() throws Exception
         if (eventListener != null) {
             assertTrue(eventListener.waitForEntryEvent(EventType.REMOVE), "No value has been evicted from the cache");
             assertSame(VALUE, eventListener.getRemovedEvent().getEntry().getValue());
+            assertEquals(1, cache.getStatistics().getEvictionCount());
         }
 
         assertNull(cache.get(KEY));
@@ -109,6 +111,53 @@ void createAndDestroyCacheLRUMaxEntries() throws Exception
         cache.dispose();
     }
 
+    /**
+     * Validate the maximum weight constraint.
+     *
+     * @throws Exception error
+     */
+    @Test
+    void createAndDestroyCacheMaxWeight() throws Exception
+    {
+        CacheFactory factory = getCacheFactory();
+
+        CacheConfiguration conf = new CacheConfiguration();
+        WeightEvictionConfiguration wec =
+            new WeightEvictionConfiguration(10, (key, value) -> String.valueOf(value).length());
+        customizeEviction(wec);
+        conf.put(EntryEvictionConfiguration.CONFIGURATIONID, wec);
+
+        Cache<Object> cache = factory.newCache(conf);
+
+        assertNotNull(cache);
+
+        CacheEntryListenerTest eventListener;
+        if (this.supportEvictionEvent) {
+            eventListener = new CacheEntryListenerTest();
+            cache.addCacheEntryListener(eventListener);
+        } else {
+            eventListener = null;
+        }
+
+        // Small values (weight 1) don't trigger any eviction
+        cache.set(KEY, VALUE2);
+        cache.set(KEY2, VALUE2);
+
+        assertEquals(VALUE2, cache.get(KEY));
+        assertEquals(VALUE2, cache.get(KEY2));
+
+        // Reach the maximum weight
+        cache.set(KEY2, "0123456789");
+
+        if (eventListener != null) {
+            assertTrue(eventListener.waitForEntryEvent(EventType.REMOVE), "Maximum weight has been ignored");
+        }
+
+        assertTrue(cache.get(KEY) == null || cache.get(KEY2) == null);
+
+        cache.dispose();
+    }
+
     /**
      * Validate the maximum time to live constraint.
      *
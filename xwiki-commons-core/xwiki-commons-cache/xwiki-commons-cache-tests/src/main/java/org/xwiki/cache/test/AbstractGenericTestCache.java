@@ -19,9 +19,15 @@
  */
 package org.xwiki.cache.test;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 import org.xwiki.cache.Cache;
 import org.xwiki.cache.CacheFactory;
+import org.xwiki.cache.CacheStatistics;
 import org.xwiki.cache.config.CacheConfiguration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -124,6 +130,93 @@ void removeAll() throws Exception
         assertNull(cache.get(KEY2));
     }
 
+    /**
+     * Validate {@link Cache#getAll(java.util.Collection)}, {@link Cache#setAll(Map)} and
+     * {@link Cache#removeAll(java.util.Collection)}.
+     *
+     * @throws Exception error.
+     */
+    @Test
+    void bulkOperations() throws Exception
+    {
+        CacheFactory factory = getCacheFactory();
+
+        Cache<Object> cache = factory.newCache(new CacheConfiguration());
+
+        Map<String, Object> entries = new HashMap<>();
+        entries.put(KEY, VALUE);
+        entries.put(KEY2, VALUE2);
+        cache.setAll(entries);
+
+        assertEquals(VALUE, cache.get(KEY));
+        assertEquals(VALUE2, cache.get(KEY2));
+        String missingKey = "missingkey";
+
+        assertEquals(entries, cache.getAll(Arrays.asList(KEY, KEY2, missingKey)));
+
+        cache.removeAll(Arrays.asList(KEY, missingKey));
+
+        assertNull(cache.get(KEY));
+        assertEquals(VALUE2, cache.get(KEY2));
+    }
+
+    /**
+     * Validate {@link Cache#computeIfAbsent(String, java.util.function.Function)}.
+     *
+     * @throws Exception error.
+     */
+    @Test
+    void computeIfAbsent() throws Exception
+    {
+        CacheFactory factory = getCacheFactory();
+
+        Cache<Object> cache = factory.newCache(new CacheConfiguration());
+
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(VALUE, cache.computeIfAbsent(KEY, k -> {
+            calls.incrementAndGet();
+            return VALUE;
+        }));
+        assertEquals(VALUE, cache.computeIfAbsent(KEY, k -> {
+            calls.incrementAndGet();
+            return VALUE2;
+        }));
+        assertEquals(1, calls.get());
+        assertEquals(VALUE, cache.get(KEY));
+
+        assertNull(cache.computeIfAbsent(KEY2, k -> null));
+        assertNull(cache.get(KEY2));
+    }
+
+    /**
+     * Validate {@link Cache#getStatistics()}.
+     *
+     * @throws Exception error.
+     */
+    @Test
+    void statistics() throws Exception
+    {
+        CacheFactory factory = getCacheFactory();
+
+        Cache<Object> cache = factory.newCache(new CacheConfiguration());
+
+        CacheStatistics statistics = cache.getStatistics();
+
+        assertNotNull(statistics);
+
+        cache.set(KEY, VALUE);
+        cache.get(KEY);
+        cache.get(KEY2);
+        cache.computeIfAbsent(KEY, k -> VALUE);
+        cache.computeIfAbsent(KEY2, k -> VALUE2);
+
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(2, statistics.getPutCount());
+        assertEquals(1, statistics.getLoadCount());
+    }
+
     /**
      * Validate event management.
      *
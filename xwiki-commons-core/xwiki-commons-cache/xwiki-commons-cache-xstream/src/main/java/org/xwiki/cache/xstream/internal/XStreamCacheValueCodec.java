@@ -0,0 +1,67 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.cache.xstream.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.xwiki.cache.offheap.CacheValueCodec;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.xstream.internal.SafeXStream;
+
+import com.thoughtworks.xstream.XStreamException;
+
+/**
+ * A {@link CacheValueCodec} based on {@link SafeXStream}, used when no specific codec is configured.
+ * 
+ * @param <T> the class of the data stored in the cache
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Component(roles = CacheValueCodec.class)
+@Singleton
+public class XStreamCacheValueCodec<T> implements CacheValueCodec<T>
+{
+    @Inject
+    private SafeXStream xstream;
+
+    @Override
+    public byte[] encode(T value) throws IOException
+    {
+        try {
+            return this.xstream.toXML(value).getBytes(StandardCharsets.UTF_8);
+        } catch (XStreamException e) {
+            throw new IOException("Failed to serialize value", e);
+        }
+    }
+
+    @Override
+    public T decode(byte[] data) throws IOException
+    {
+        try {
+            return (T) this.xstream.fromXML(new String(data, StandardCharsets.UTF_8));
+        } catch (XStreamException e) {
+            throw new IOException("Failed to unserialize value", e);
+        }
+    }
+}
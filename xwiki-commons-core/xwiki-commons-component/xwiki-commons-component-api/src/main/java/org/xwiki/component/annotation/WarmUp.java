@@ -0,0 +1,59 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.xwiki.stability.Unstable;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>
+ * Indicate that a singleton Component should be instantiated and initialized during the startup of the Component
+ * Manager instead of lazily on its first lookup. This is useful for components which are expensive to initialize and
+ * are needed by the first requests anyway.
+ * </p>
+ * <p>
+ * The warm-up happens in parallel, components being instantiated after the components they depend on. It is only
+ * executed when the {@code xwiki.component.warmup} system property is set to {@code true}.
+ * </p>
+ * <p>
+ * Only the dependencies declared in the component descriptor (injected fields) are ordered, so a component annotated
+ * with {@link WarmUp} must not look up other components dynamically (through a {@link javax.inject.Provider} or the
+ * {@link org.xwiki.component.manager.ComponentManager}) in its initialization: two threads initializing components
+ * which need each other could block each other. When the warm-up does not finish in time (see the
+ * {@code xwiki.component.warmup.timeout} system property, in seconds) the components which are not yet initialized
+ * are left to be initialized on their first lookup.
+ * </p>
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(TYPE)
+@Unstable
+public @interface WarmUp
+{
+}
@@ -0,0 +1,42 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.manager;
+
+import org.xwiki.component.annotation.Role;
+import org.xwiki.component.annotation.WarmUp;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Prepare the environment of the threads in which the components annotated with {@link WarmUp} are initialized (for
+ * example to give them an execution context, like the one they usually have when looked up during a request).
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Role
+@Unstable
+public interface WarmUpTaskWrapper
+{
+    /**
+     * @param task the task initializing a component
+     * @return the task to execute in the warm-up thread
+     */
+    Runnable wrap(Runnable task);
+}
@@ -36,6 +36,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -46,6 +48,7 @@
 import org.xwiki.component.descriptor.ComponentDescriptor;
 import org.xwiki.component.descriptor.DefaultComponentDescriptor;
 import org.xwiki.component.internal.RoleHint;
+import org.xwiki.component.internal.index.ComponentIndex;
 import org.xwiki.component.manager.ComponentManager;
 import org.xwiki.component.util.DefaultParameterizedType;
 import org.xwiki.component.util.ReflectionUtils;
@@ -89,6 +92,22 @@
      */
     private ComponentDescriptorFactory factory = new ComponentDescriptorFactory();
 
+    /**
+     * @see #setParallel(boolean)
+     */
+    private boolean parallel;
+
+    /**
+     * @param parallel true if the component classes should be loaded and introspected in parallel (on the common
+     *            fork-join pool), the registration itself is still done in the declaration order
+     * @since 12.9RC1
+     */
+    @Unstable
+    public void setParallel(boolean parallel)
+    {
+        this.parallel = parallel;
+    }
+
     /**
      * Loads all components defined using annotations.
      *
@@ -150,39 +169,69 @@ public void initialize(ComponentManager manager, ClassLoader classLoader,
     private Collection<ComponentDescriptor<?>> getComponentsDescriptors(ClassLoader classLoader,
         List<ComponentDeclaration> componentDeclarations)
     {
-        // For each component class name found, load its class and use introspection to find the necessary
-        // annotations required to create a Component Descriptor.
+        // For each component class name found, load its class and use the component index or introspection to find the
+        // necessary annotations required to create a Component Descriptor.
         Map<RoleHint<?>, ComponentDescriptor<?>> descriptorMap = new HashMap<>();
         Map<RoleHint<?>, Integer> priorityMap = new HashMap<>();
 
-        for (ComponentDeclaration componentDeclaration : componentDeclarations) {
-            Class<?> componentClass;
-            try {
-                componentClass = classLoader.loadClass(componentDeclaration.getImplementationClassName());
-            } catch (Exception e) {
-                throw new RuntimeException(
-                    String.format("Failed to load component class [%s] for annotation parsing",
-                        componentDeclaration.getImplementationClassName()), e);
-            }
+        // Descriptors precomputed at build time, when available
+        ComponentIndex index = loadIndex(classLoader);
 
-            // Look for ComponentRole annotations and register one component per ComponentRole found
-            for (Type componentRoleType : findComponentRoleTypes(componentClass)) {
-                for (ComponentDescriptor<?> componentDescriptor : this.factory.createComponentDescriptors(
-                    componentClass, componentRoleType)) {
-                    // If there's already a existing role/hint in the list of descriptors then decide which one
-                    // to keep by looking at their priorities. Highest priority wins (i.e. lowest integer value).
-                    RoleHint<?> roleHint =
-                        new RoleHint(componentDescriptor.getRoleType(), componentDescriptor.getRoleHint());
-
-                    addComponent(descriptorMap, priorityMap, roleHint, componentDescriptor, componentDeclaration,
-                        true);
-                }
+        // Loading and introspecting the classes is the expensive part so it can be done in parallel, but the
+        // descriptors are merged in the declaration order to keep the priorities resolution stable
+        Stream<ComponentDeclaration> declarationStream =
+            this.parallel ? componentDeclarations.parallelStream() : componentDeclarations.stream();
+        List<List<ComponentDescriptor<?>>> declarationDescriptors = declarationStream
+            .map(componentDeclaration -> getComponentsDescriptors(classLoader, index, componentDeclaration))
+            .collect(Collectors.toList());
+
+        for (int i = 0; i < componentDeclarations.size(); ++i) {
+            ComponentDeclaration componentDeclaration = componentDeclarations.get(i);
+
+            for (ComponentDescriptor<?> componentDescriptor : declarationDescriptors.get(i)) {
+                // If there's already a existing role/hint in the list of descriptors then decide which one
+                // to keep by looking at their priorities. Highest priority wins (i.e. lowest integer value).
+                RoleHint<?> roleHint =
+                    new RoleHint(componentDescriptor.getRoleType(), componentDescriptor.getRoleHint());
+
+                addComponent(descriptorMap, priorityMap, roleHint, componentDescriptor, componentDeclaration, true);
             }
         }
 
         return descriptorMap.values();
     }
 
+    private List<ComponentDescriptor<?>> getComponentsDescriptors(ClassLoader classLoader, ComponentIndex index,
+        ComponentDeclaration componentDeclaration)
+    {
+        Class<?> componentClass;
+        try {
+            componentClass = classLoader.loadClass(componentDeclaration.getImplementationClassName());
+        } catch (Exception e) {
+            throw new RuntimeException(
+                String.format("Failed to load component class [%s] for annotation parsing",
+                    componentDeclaration.getImplementationClassName()), e);
+        }
+
+        // Fallback on introspection for components which are not indexed (e.g. JARs built without the index)
+        List<ComponentDescriptor<?>> componentDescriptors = index.getComponentDescriptors(componentClass);
+        if (componentDescriptors == null) {
+            componentDescriptors = getComponentsDescriptors(componentClass);
+        }
+
+        return componentDescriptors;
+    }
+
+    private ComponentIndex loadIndex(ClassLoader classLoader)
+    {
+        try {
+            return ComponentIndex.load(classLoader);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                String.format("Failed to load the component index [%s]", ComponentIndex.INDEX_FILE), e);
+        }
+    }
+
     /**
      * @param manager the component manager to use to dynamically register components
      * @param componentDescriptors the descriptors of components to register
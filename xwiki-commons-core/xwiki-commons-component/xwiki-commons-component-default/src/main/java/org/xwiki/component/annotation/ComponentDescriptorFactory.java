@@ -47,9 +47,21 @@
      * Load all Component Descriptor Factories implementations using the JDK's Service Loader facility. Note that we
      * cannot use Components to do this since it would be a chicken and egg issue since this factory class is used to
      * initialize Components...
+     * <p>
+     * The factories are loaded right away since {@link ServiceLoader} iteration is not thread safe and descriptors can
+     * be created by several threads (see {@link ComponentAnnotationLoader#setParallel(boolean)}).
      */
-    private ServiceLoader<ComponentDependencyFactory> componentDependencyFactories = ServiceLoader
-        .load(ComponentDependencyFactory.class);
+    private final List<ComponentDependencyFactory> componentDependencyFactories = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     */
+    public ComponentDescriptorFactory()
+    {
+        for (ComponentDependencyFactory factory : ServiceLoader.load(ComponentDependencyFactory.class)) {
+            this.componentDependencyFactories.add(factory);
+        }
+    }
 
     /**
      * Create component descriptors for the passed component implementation class and component role class. There can be
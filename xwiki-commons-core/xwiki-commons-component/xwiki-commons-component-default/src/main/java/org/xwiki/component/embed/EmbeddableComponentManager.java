@@ -21,6 +21,7 @@
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -29,18 +30,28 @@
 import java.util.Objects;
 import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Provider;
+import javax.management.JMException;
 
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xwiki.component.annotation.ComponentAnnotationLoader;
 import org.xwiki.component.annotation.DisposePriority;
+import org.xwiki.component.annotation.WarmUp;
 import org.xwiki.component.descriptor.ComponentDependency;
 import org.xwiki.component.descriptor.ComponentDescriptor;
 import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
 import org.xwiki.component.descriptor.DefaultComponentDescriptor;
 import org.xwiki.component.internal.RoleHint;
+import org.xwiki.component.internal.embed.ComponentInjector;
+import org.xwiki.component.internal.embed.ComponentProfiler;
+import org.xwiki.component.internal.embed.ComponentWarmUp;
+import org.xwiki.component.internal.embed.WarmUpThreadFactory;
 import org.xwiki.component.manager.ComponentEventManager;
 import org.xwiki.component.manager.ComponentLifecycleException;
 import org.xwiki.component.manager.ComponentLookupException;
@@ -48,8 +59,10 @@
 import org.xwiki.component.manager.ComponentManagerInitializer;
 import org.xwiki.component.manager.ComponentRepositoryException;
 import org.xwiki.component.manager.NamespacedComponentManager;
+import org.xwiki.component.manager.WarmUpTaskWrapper;
 import org.xwiki.component.phase.Disposable;
 import org.xwiki.component.util.ReflectionUtils;
+import org.xwiki.stability.Unstable;
 
 /**
  * Simple implementation of {@link ComponentManager} to be used when using some XWiki modules standalone.
@@ -59,11 +72,37 @@
  */
 public class EmbeddableComponentManager implements NamespacedComponentManager, Disposable
 {
+    /**
+     * The name of the system property used to enable the startup mode where component classes are loaded in parallel
+     * and the components annotated with {@link WarmUp} are instantiated during {@link #initialize(ClassLoader)}.
+     *
+     * @since 12.9RC1
+     */
+    @Unstable
+    public static final String WARMUP_PROPERTY = "xwiki.component.warmup";
+
+    /**
+     * The name of the system property used to configure the maximum time (in seconds) to wait for the warm-up of the
+     * components annotated with {@link WarmUp}, the remaining components being initialized on their first lookup.
+     *
+     * @since 12.9RC1
+     */
+    @Unstable
+    public static final String WARMUP_TIMEOUT_PROPERTY = "xwiki.component.warmup.timeout";
+
+    private static final long DEFAULT_WARMUP_TIMEOUT = 120;
+
     /**
      * Logger to use to log shutdown information (opposite of initialization).
      */
     private static final Logger SHUTDOWN_LOGGER = LoggerFactory.getLogger("org.xwiki.shutdown");
 
+    /**
+     * Source of the versions stamped on component managers when their content changes. Shared by all the instances so
+     * that a version is never reused, even when a component manager parent is replaced.
+     */
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
     /**
      * @see #getNamespace()
      */
@@ -96,6 +135,11 @@ public class EmbeddableComponentManager implements NamespacedComponentManager, D
          */
         public boolean disposing = false;
 
+        /**
+         * Used to create and inject the instances of the component. Lazily initialized when needed.
+         */
+        public volatile ComponentInjector<R> injector;
+
         public ComponentEntry(ComponentDescriptor<R> descriptor, R instance)
         {
             this.descriptor = descriptor;
@@ -103,8 +147,48 @@ public ComponentEntry(ComponentDescriptor<R> descriptor, R instance)
         }
     }
 
+    /**
+     * Immutable view of the components associated with a role, including the ones inherited from the parent, as it was
+     * for a given version of the component manager hierarchy.
+     *
+     * @param <V> the type of the values
+     */
+    private static final class RoleSnapshot<V>
+    {
+        private final long version;
+
+        private final Map<String, V> values;
+
+        RoleSnapshot(long version, Map<String, V> values)
+        {
+            this.version = version;
+            this.values = Collections.unmodifiableMap(values);
+        }
+    }
+
     private Map<Type, Map<String, ComponentEntry<?>>> componentEntries = new ConcurrentHashMap<>();
 
+    /**
+     * Cached instances per role. Only roles fully made of singleton components are cached.
+     */
+    private final Map<Type, RoleSnapshot<Object>> instanceSnapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Cached descriptors per role.
+     */
+    private final Map<Type, RoleSnapshot<ComponentDescriptor<?>>> descriptorSnapshots = new ConcurrentHashMap<>();
+
+    /**
+     * The version of the content of this component manager, updated each time a component is registered, unregistered
+     * or released and when the parent changes.
+     */
+    private volatile long version = VERSIONS.incrementAndGet();
+
+    /**
+     * Collect statistics about the lookups and instantiations when profiling is enabled.
+     */
+    private volatile ComponentProfiler profiler;
+
     private Logger logger = LoggerFactory.getLogger(EmbeddableComponentManager.class);
 
     /**
@@ -152,7 +236,21 @@ private void registerThis()
      */
     public void initialize(ClassLoader classLoader)
     {
+        boolean warmUp = Boolean.getBoolean(WARMUP_PROPERTY);
+
+        if (ComponentProfiler.isEnabled()) {
+            ComponentProfiler newProfiler = new ComponentProfiler();
+            try {
+                newProfiler.register();
+            } catch (JMException e) {
+                this.logger.warn("Failed to register the component profiler MBean: {}",
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+            this.profiler = newProfiler;
+        }
+
         ComponentAnnotationLoader loader = new ComponentAnnotationLoader();
+        loader.setParallel(warmUp);
         loader.initialize(this, classLoader);
 
         // Extension point to allow component to manipulate ComponentManager initialized state.
@@ -165,6 +263,67 @@ public void initialize(ClassLoader classLoader)
             // Should never happen
             this.logger.error("Failed to lookup ComponentManagerInitializer components", e);
         }
+
+        if (warmUp) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Instantiate and initialize in parallel the registered singleton components annotated with {@link WarmUp} which
+     * are not yet instantiated, along with the singleton components they depend on.
+     *
+     * @since 12.9RC1
+     */
+    @Unstable
+    public void warmUp()
+    {
+        List<ComponentDescriptor<?>> descriptors = new ArrayList<>();
+        for (Map<String, ComponentEntry<?>> entries : this.componentEntries.values()) {
+            for (ComponentEntry<?> entry : entries.values()) {
+                ComponentDescriptor<?> descriptor = entry.descriptor;
+                if (entry.instance == null
+                    && descriptor.getInstantiationStrategy() == ComponentInstantiationStrategy.SINGLETON
+                    && descriptor.getImplementation() != null
+                    && descriptor.getImplementation().isAnnotationPresent(WarmUp.class)) {
+                    descriptors.add(descriptor);
+                }
+            }
+        }
+
+        if (!descriptors.isEmpty()) {
+            List<WarmUpTaskWrapper> wrappers = getWarmUpTaskWrappers();
+
+            ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                new WarmUpThreadFactory(), null, false);
+            try {
+                new ComponentWarmUp(this, task -> pool.execute(wrapWarmUpTask(task, wrappers))).run(descriptors,
+                    TimeUnit.SECONDS.toMillis(Long.getLong(WARMUP_TIMEOUT_PROPERTY, DEFAULT_WARMUP_TIMEOUT)));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private List<WarmUpTaskWrapper> getWarmUpTaskWrappers()
+    {
+        try {
+            return getInstanceList(WarmUpTaskWrapper.class);
+        } catch (ComponentLookupException e) {
+            this.logger.warn("Failed to lookup the warm-up task wrappers: {}", ExceptionUtils.getRootCauseMessage(e));
+
+            return Collections.emptyList();
+        }
+    }
+
+    private Runnable wrapWarmUpTask(Runnable task, List<WarmUpTaskWrapper> wrappers)
+    {
+        Runnable wrappedTask = task;
+        for (WarmUpTaskWrapper wrapper : wrappers) {
+            wrappedTask = wrapper.wrap(wrappedTask);
+        }
+
+        return wrappedTask;
     }
 
     @Override
@@ -197,6 +356,8 @@ public <T> T getInstance(Type roleType, String roleHint) throws ComponentLookupE
         ComponentEntry<T> componentEntry = (ComponentEntry<T>) getComponentEntry(roleType, roleHint);
 
         if (componentEntry != null) {
+            ComponentProfiler currentProfiler = getProfiler();
+            long start = currentProfiler != null ? System.nanoTime() : 0;
             try {
                 instance = getComponentInstance(componentEntry);
             } catch (Throwable e) {
@@ -204,6 +365,11 @@ public <T> T getInstance(Type roleType, String roleHint) throws ComponentLookupE
                     String.format("Failed to lookup component [%s] identified by type [%s] and hint [%s]",
                         componentEntry.descriptor.getImplementation().getName(), roleType, roleHint),
                     e);
+            } finally {
+                if (currentProfiler != null) {
+                    currentProfiler.lookup(componentEntry.descriptor.getRoleType(),
+                        componentEntry.descriptor.getRoleHint(), System.nanoTime() - start);
+                }
             }
         } else {
             if (getParent() != null) {
@@ -228,14 +394,58 @@ public <T> List<T> getInstanceList(Type role) throws ComponentLookupException
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> Map<String, T> getInstanceMap(Type roleType) throws ComponentLookupException
     {
+        ComponentProfiler currentProfiler = getProfiler();
+        if (currentProfiler == null) {
+            return lookupInstanceMap(roleType);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return lookupInstanceMap(roleType);
+        } finally {
+            currentProfiler.lookupAll(roleType, System.nanoTime() - start);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<String, T> lookupInstanceMap(Type roleType) throws ComponentLookupException
+    {
+        RoleSnapshot<Object> snapshot = getInstanceSnapshot(roleType);
+
+        // Always return a copy since callers (and injected fields) are free to modify the returned map
+        if (snapshot != null) {
+            return new HashMap<>((Map<String, T>) snapshot.values);
+        }
+
         Map<String, T> components = new HashMap<>();
 
+        // Add local components
+        addLocalInstances(roleType, components);
+
+        // Add parent components
+        if (getParent() != null) {
+            // If the hint already exists in the children Component Manager then don't add the one from the parent.
+            // Don't go through the public API of a parent EmbeddableComponentManager to not profile the lookup twice.
+            Map<String, T> parentComponents = getParent() instanceof EmbeddableComponentManager
+                ? ((EmbeddableComponentManager) getParent()).<T>lookupInstanceMap(roleType)
+                : getParent().<T>getInstanceMap(roleType);
+            for (Map.Entry<String, T> entry : parentComponents.entrySet()) {
+                if (!components.containsKey(entry.getKey())) {
+                    components.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        return components;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void addLocalInstances(Type roleType, Map<String, T> components) throws ComponentLookupException
+    {
         Map<String, ComponentEntry<?>> entries = this.componentEntries.get(roleType);
 
-        // Add local components
         if (entries != null) {
             for (Map.Entry<String, ComponentEntry<?>> entry : entries.entrySet()) {
                 try {
@@ -246,18 +456,86 @@ public <T> Map<String, T> getInstanceMap(Type roleType) throws ComponentLookupEx
                 }
             }
         }
+    }
 
-        // Add parent components
+    /**
+     * @param roleType the type of the components role
+     * @return the cached instances associated with the passed role or {@code null} if they can't be cached (some of
+     *         the components are not singletons or the parent is not an {@link EmbeddableComponentManager})
+     */
+    private RoleSnapshot<Object> getInstanceSnapshot(Type roleType) throws ComponentLookupException
+    {
+        // Get the version before gathering the instances so that any concurrent modification invalidates the result
+        long currentVersion = getVersion();
+
+        RoleSnapshot<Object> snapshot = this.instanceSnapshots.get(roleType);
+        if (snapshot != null && snapshot.version == currentVersion) {
+            return snapshot;
+        }
+
+        if (!isSnapshotable(roleType)) {
+            return null;
+        }
+
+        Map<String, Object> instances = new HashMap<>();
+
+        // Add parent components first so that the local ones with the same hint override them
         if (getParent() != null) {
-            // If the hint already exists in the children Component Manager then don't add the one from the parent.
-            for (Map.Entry<String, T> entry : getParent().<T>getInstanceMap(roleType).entrySet()) {
-                if (!components.containsKey(entry.getKey())) {
-                    components.put(entry.getKey(), entry.getValue());
+            RoleSnapshot<Object> parentSnapshot = ((EmbeddableComponentManager) getParent()).getInstanceSnapshot(roleType);
+            if (parentSnapshot == null) {
+                return null;
+            }
+            instances.putAll(parentSnapshot.values);
+        }
+
+        // Add local components
+        addLocalInstances(roleType, instances);
+
+        snapshot = new RoleSnapshot<>(currentVersion, instances);
+        this.instanceSnapshots.put(roleType, snapshot);
+
+        return snapshot;
+    }
+
+    private boolean isSnapshotable(Type roleType)
+    {
+        if (getParent() != null && !(getParent() instanceof EmbeddableComponentManager)) {
+            return false;
+        }
+
+        Map<String, ComponentEntry<?>> entries = this.componentEntries.get(roleType);
+        if (entries != null) {
+            for (ComponentEntry<?> entry : entries.values()) {
+                if (entry.descriptor.getInstantiationStrategy() != ComponentInstantiationStrategy.SINGLETON) {
+                    return false;
                 }
             }
         }
 
-        return components;
+        return true;
+    }
+
+    /**
+     * @return the version of the content of this component manager and its parents
+     */
+    private long getVersion()
+    {
+        long currentVersion = this.version;
+
+        ComponentManager currentParent = getParent();
+        if (currentParent instanceof EmbeddableComponentManager) {
+            currentVersion = Math.max(currentVersion, ((EmbeddableComponentManager) currentParent).getVersion());
+        }
+
+        return currentVersion;
+    }
+
+    /**
+     * Invalidate the cached snapshots. Must be called after the modification is visible.
+     */
+    private void updateVersion()
+    {
+        this.version = VERSIONS.incrementAndGet();
     }
 
     private ComponentEntry<?> getComponentEntry(Type role, String hint)
@@ -294,15 +572,15 @@ public <T> ComponentDescriptor<T> getComponentDescriptor(Type role, String hint)
     @SuppressWarnings("unchecked")
     public <T> List<ComponentDescriptor<T>> getComponentDescriptorList(Type role)
     {
+        RoleSnapshot<ComponentDescriptor<?>> snapshot = getDescriptorSnapshot(role);
+        if (snapshot != null) {
+            return new ArrayList<>((Collection<ComponentDescriptor<T>>) (Collection) snapshot.values.values());
+        }
+
         Map<String, ComponentDescriptor<T>> descriptors = new HashMap<>();
 
         // Add local descriptors
-        Map<String, ComponentEntry<?>> enries = this.componentEntries.get(role);
-        if (enries != null) {
-            for (Map.Entry<String, ComponentEntry<?>> entry : enries.entrySet()) {
-                descriptors.put(entry.getKey(), (ComponentDescriptor<T>) entry.getValue().descriptor);
-            }
-        }
+        addLocalDescriptors(role, descriptors);
 
         // Add parent descriptors
         if (getParent() != null) {
@@ -318,6 +596,48 @@ public <T> List<ComponentDescriptor<T>> getComponentDescriptorList(Type role)
         return new ArrayList<>(descriptors.values());
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> void addLocalDescriptors(Type role, Map<String, T> descriptors)
+    {
+        Map<String, ComponentEntry<?>> entries = this.componentEntries.get(role);
+        if (entries != null) {
+            for (Map.Entry<String, ComponentEntry<?>> entry : entries.entrySet()) {
+                descriptors.put(entry.getKey(), (T) entry.getValue().descriptor);
+            }
+        }
+    }
+
+    private RoleSnapshot<ComponentDescriptor<?>> getDescriptorSnapshot(Type role)
+    {
+        long currentVersion = getVersion();
+
+        RoleSnapshot<ComponentDescriptor<?>> snapshot = this.descriptorSnapshots.get(role);
+        if (snapshot != null && snapshot.version == currentVersion) {
+            return snapshot;
+        }
+
+        Map<String, ComponentDescriptor<?>> descriptors = new HashMap<>();
+
+        if (getParent() != null) {
+            if (!(getParent() instanceof EmbeddableComponentManager)) {
+                return null;
+            }
+            RoleSnapshot<ComponentDescriptor<?>> parentSnapshot =
+                ((EmbeddableComponentManager) getParent()).getDescriptorSnapshot(role);
+            if (parentSnapshot == null) {
+                return null;
+            }
+            descriptors.putAll(parentSnapshot.values);
+        }
+
+        addLocalDescriptors(role, descriptors);
+
+        snapshot = new RoleSnapshot<>(currentVersion, descriptors);
+        this.descriptorSnapshots.put(role, snapshot);
+
+        return snapshot;
+    }
+
     @Override
     public ComponentEventManager getComponentEventManager()
     {
@@ -340,11 +660,47 @@ public ComponentManager getParent()
     public void setParent(ComponentManager parentComponentManager)
     {
         this.parent = parentComponentManager;
+
+        updateVersion();
     }
 
-    private <T> T createInstance(ComponentDescriptor<T> descriptor) throws Exception
+    private <T> T createInstance(ComponentEntry<T> componentEntry) throws Exception
     {
-        T instance = descriptor.getImplementation().newInstance();
+        ComponentProfiler currentProfiler = getProfiler();
+        if (currentProfiler == null) {
+            T instance = newInstance(componentEntry);
+            handleLifecycle(instance, componentEntry.descriptor);
+
+            return instance;
+        }
+
+        long start = currentProfiler.startInstantiation(componentEntry.descriptor);
+        long initializationDuration = 0;
+        try {
+            T instance = newInstance(componentEntry);
+
+            long initializationStart = System.nanoTime();
+            handleLifecycle(instance, componentEntry.descriptor);
+            initializationDuration = System.nanoTime() - initializationStart;
+
+            return instance;
+        } finally {
+            currentProfiler.endInstantiation(componentEntry.descriptor, start, initializationDuration);
+        }
+    }
+
+    private <T> T newInstance(ComponentEntry<T> componentEntry) throws Exception
+    {
+        ComponentDescriptor<T> descriptor = componentEntry.descriptor;
+
+        // The injector is immutable so it does not matter if several threads create it at the same time
+        ComponentInjector<T> injector = componentEntry.injector;
+        if (injector == null) {
+            injector = ComponentInjector.create(descriptor);
+            componentEntry.injector = injector;
+        }
+
+        T instance = injector.newInstance();
 
         // Set each dependency
         for (ComponentDependency<?> dependency : descriptor.getComponentDependencies()) {
@@ -354,18 +710,43 @@ private <T> T createInstance(ComponentDescriptor<T> descriptor) throws Exception
             // Handle different field types
             Object fieldValue = getDependencyInstance(descriptor, instance, dependency);
 
-            // Set the field by introspection
+            // Set the field
             if (fieldValue != null) {
-                ReflectionUtils.setFieldValue(instance, dependency.getName(), fieldValue);
+                injector.inject(instance, dependency.getName(), fieldValue);
             }
         }
 
+        return instance;
+    }
+
+    private <T> void handleLifecycle(T instance, ComponentDescriptor<T> descriptor) throws Exception
+    {
         // Call Lifecycle Handlers
         for (LifecycleHandler lifecycleHandler : this.lifecycleHandlers) {
             lifecycleHandler.handle(instance, descriptor, this);
         }
+    }
 
-        return instance;
+    /**
+     * @return the profiler collecting statistics for this component manager (inherited from the parent component
+     *         manager when not set), {@code null} if profiling is disabled
+     */
+    ComponentProfiler getProfiler()
+    {
+        ComponentProfiler currentProfiler = this.profiler;
+        if (currentProfiler == null && this.parent instanceof EmbeddableComponentManager) {
+            currentProfiler = ((EmbeddableComponentManager) this.parent).getProfiler();
+        }
+
+        return currentProfiler;
+    }
+
+    /**
+     * @param profiler the profiler collecting statistics for this component manager and its children
+     */
+    void setProfiler(ComponentProfiler profiler)
+    {
+        this.profiler = profiler;
     }
 
     protected Object getDependencyInstance(ComponentDescriptor<?> descriptor, Object parentInstance,
@@ -439,22 +820,21 @@ private <T> T getComponentInstance(ComponentEntry<T> componentEntry) throws Exce
         ComponentDescriptor<T> descriptor = componentEntry.descriptor;
 
         if (descriptor.getInstantiationStrategy() == ComponentInstantiationStrategy.SINGLETON) {
-            if (componentEntry.instance != null) {
-                // If the instance exists return it
-                instance = componentEntry.instance;
-            } else {
+            // Read the volatile field only once: once created the instance is safely published and returned without
+            // taking the monitor
+            instance = componentEntry.instance;
+            if (instance == null) {
                 synchronized (componentEntry) {
                     // Re-check in case it has been created while we were waiting
-                    if (componentEntry.instance != null) {
-                        instance = componentEntry.instance;
-                    } else {
-                        componentEntry.instance = createInstance(descriptor);
-                        instance = componentEntry.instance;
+                    instance = componentEntry.instance;
+                    if (instance == null) {
+                        instance = createInstance(componentEntry);
+                        componentEntry.instance = instance;
                     }
                 }
             }
         } else {
-            instance = createInstance(descriptor);
+            instance = createInstance(componentEntry);
         }
 
         return instance;
@@ -490,6 +870,8 @@ private <T> void addComponent(ComponentDescriptor<T> descriptor, T instance)
         }
         entries.put(descriptor.getRoleHint(), componentEntry);
 
+        updateVersion();
+
         // Send event about component registration
         if (this.eventManager != null) {
             this.eventManager.notifyComponentRegistered(descriptor, this);
@@ -563,6 +945,8 @@ private void releaseInstance(ComponentEntry<?> componentEntry) throws ComponentL
 
             componentEntry.instance = null;
         }
+
+        updateVersion();
     }
 
     private void releaseComponentEntry(ComponentEntry<?> componentEntry) throws ComponentLifecycleException
@@ -581,6 +965,8 @@ private void removeComponent(Type role, String hint) throws ComponentLifecycleEx
             ComponentEntry<?> componentEntry = entries.remove(hint != null ? hint : RoleHint.DEFAULT_HINT);
 
             if (componentEntry != null) {
+                updateVersion();
+
                 ComponentDescriptor<?> oldDescriptor = componentEntry.descriptor;
 
                 // We don't want the component manager to dispose itself just because it's not registered as component*
@@ -698,6 +1084,17 @@ private int getPriority(RoleHint<?> rh)
         for (RoleHint<?> key : keys) {
             this.componentEntries.get(key.getRoleType()).remove(key.getHint());
         }
+
+        if (this.profiler != null) {
+            try {
+                this.profiler.unregister();
+            } catch (JMException e) {
+                this.logger.warn("Failed to unregister the component profiler MBean: {}",
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+
+        updateVersion();
     }
 
     // Deprecated
@@ -28,6 +28,7 @@
 import org.xwiki.component.annotation.ComponentRole;
 import org.xwiki.component.annotation.Role;
 import org.xwiki.component.internal.RoleHint;
+import org.xwiki.component.internal.embed.ComponentProfiler;
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.manager.ComponentManager;
 import org.xwiki.component.util.ReflectionUtils;
@@ -65,8 +66,24 @@ public GenericProvider(ComponentManager componentManager, RoleHint<T> roleHint)
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public T get()
+    {
+        ComponentProfiler profiler = this.componentManager instanceof EmbeddableComponentManager
+            ? ((EmbeddableComponentManager) this.componentManager).getProfiler() : null;
+        if (profiler == null) {
+            return resolve();
+        }
+
+        long start = System.nanoTime();
+        try {
+            return resolve();
+        } finally {
+            profiler.provide(this.roleHint.getRoleType(), this.roleHint.getHint(), System.nanoTime() - start);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T resolve()
     {
         T component;
 
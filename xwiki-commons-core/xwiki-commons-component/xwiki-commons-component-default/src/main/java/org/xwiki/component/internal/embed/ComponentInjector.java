@@ -0,0 +1,163 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.internal.embed;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xwiki.component.descriptor.ComponentDependency;
+import org.xwiki.component.descriptor.ComponentDescriptor;
+import org.xwiki.component.util.ReflectionUtils;
+
+/**
+ * Create component instances and inject their dependencies through {@link MethodHandle}s resolved once per component
+ * descriptor, instead of looking up and unlocking the fields through reflection for each new instance.
+ * <p>
+ * When a {@link MethodHandle} cannot be created (non public constructor, final field, security restrictions, etc.) the
+ * reflective path ({@link Class#newInstance()}, {@link ReflectionUtils#setFieldValue(Object, String, Object)}) is
+ * used instead.
+ *
+ * @param <T> the type of the component implementation
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public final class ComponentInjector<T>
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentInjector.class);
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<? extends T> implementation;
+
+    private final MethodHandle constructor;
+
+    private final Map<String, MethodHandle> setters;
+
+    private ComponentInjector(Class<? extends T> implementation, MethodHandle constructor,
+        Map<String, MethodHandle> setters)
+    {
+        this.implementation = implementation;
+        this.constructor = constructor;
+        this.setters = setters;
+    }
+
+    /**
+     * @param <T> the type of the component implementation
+     * @param descriptor the descriptor of the component
+     * @return the injector for the passed component
+     */
+    public static <T> ComponentInjector<T> create(ComponentDescriptor<T> descriptor)
+    {
+        Class<? extends T> implementation = descriptor.getImplementation();
+
+        MethodHandle constructor = null;
+        try {
+            constructor = MethodHandles.publicLookup()
+                .findConstructor(implementation, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE);
+        } catch (Exception e) {
+            LOGGER.debug("Falling back on reflection to create instances of [{}]", implementation, e);
+        }
+
+        Map<String, MethodHandle> setters = new HashMap<>();
+        for (ComponentDependency<?> dependency : descriptor.getComponentDependencies()) {
+            MethodHandle setter = createSetter(implementation, dependency.getName());
+            if (setter != null) {
+                setters.put(dependency.getName(), setter);
+            }
+        }
+
+        return new ComponentInjector<>(implementation, constructor, setters);
+    }
+
+    private static MethodHandle createSetter(Class<?> implementation, String fieldName)
+    {
+        // Same resolution as ReflectionUtils#setFieldValue
+        for (Class<?> targetClass = implementation; targetClass != null; targetClass = targetClass.getSuperclass()) {
+            for (Field field : targetClass.getDeclaredFields()) {
+                if (field.getName().equalsIgnoreCase(fieldName)) {
+                    try {
+                        field.setAccessible(true);
+
+                        return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+                    } catch (Exception e) {
+                        LOGGER.debug("Falling back on reflection to inject field [{}] of [{}]", fieldName,
+                            implementation, e);
+
+                        return null;
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return a new instance of the component implementation
+     * @throws Exception when failing to create the instance
+     */
+    public T newInstance() throws Exception
+    {
+        if (this.constructor == null) {
+            return this.implementation.newInstance();
+        }
+
+        try {
+            Object instance = this.constructor.invokeExact();
+
+            return (T) instance;
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InstantiationException(e.getMessage());
+        }
+    }
+
+    /**
+     * @param instance the instance in which to inject the dependency
+     * @param fieldName the name of the field to set
+     * @param value the value to set
+     */
+    public void inject(T instance, String fieldName, Object value)
+    {
+        MethodHandle setter = this.setters.get(fieldName);
+
+        if (setter == null || instance.getClass() != this.implementation) {
+            ReflectionUtils.setFieldValue(instance, fieldName, value);
+        } else {
+            try {
+                setter.invokeExact((Object) instance, value);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(String.format("Failed to set field [%s] in instance of [%s]", fieldName,
+                    this.implementation.getName()), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.internal.embed;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.xwiki.component.descriptor.ComponentRole;
+import org.xwiki.component.util.ReflectionUtils;
+
+/**
+ * Collects statistics about the component lookups and instantiations: how many times each component is looked up
+ * (directly or through a lazy {@link javax.inject.Provider}), how long it takes, how long it takes to create and
+ * initialize each component and which chain of dependencies triggered its instantiation.
+ * <p>
+ * The profiler is disabled by default and is enabled with the {@value #PROFILING_PROPERTY} system property.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class ComponentProfiler implements ComponentProfilerMXBean
+{
+    /**
+     * The system property used to enable the profiling of the component manager.
+     */
+    public static final String PROFILING_PROPERTY = "xwiki.component.profiling";
+
+    /**
+     * The name under which the profiler is registered in the platform MBean server.
+     */
+    public static final String OBJECT_NAME = "org.xwiki:type=ComponentProfiler";
+
+    private static final String ALL_HINTS = "*";
+
+    private static final String CHAIN_SEPARATOR = " > ";
+
+    private static final String REPORT_FORMAT = "%-60s %8s %10s %10s %8s %10s %8s %10s %10s %10s  %s%n";
+
+    private static final class Counters
+    {
+        private final LongAdder lookupCount = new LongAdder();
+
+        private final LongAdder lookupTime = new LongAdder();
+
+        private final LongAccumulator lookupMaxTime = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder providerCount = new LongAdder();
+
+        private final LongAdder providerTime = new LongAdder();
+
+        private final LongAdder instantiationCount = new LongAdder();
+
+        private final LongAdder instantiationTime = new LongAdder();
+
+        private final LongAccumulator instantiationMaxTime = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder initializationTime = new LongAdder();
+
+        private volatile String instantiationChain;
+    }
+
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Deque<String>> instantiating = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * @return true if the profiling of the component manager is enabled in the system properties
+     */
+    public static boolean isEnabled()
+    {
+        return Boolean.getBoolean(PROFILING_PROPERTY);
+    }
+
+    private static String getName(Type role, String hint)
+    {
+        return ReflectionUtils.serializeType(role) + '/' + hint;
+    }
+
+    private Counters getCounters(Type role, String hint)
+    {
+        return this.counters.computeIfAbsent(getName(role, hint), k -> new Counters());
+    }
+
+    /**
+     * Record the lookup of a component.
+     *
+     * @param role the role of the component
+     * @param hint the hint of the component
+     * @param duration the duration of the lookup in nanoseconds
+     */
+    public void lookup(Type role, String hint, long duration)
+    {
+        Counters roleCounters = getCounters(role, hint);
+        roleCounters.lookupCount.increment();
+        roleCounters.lookupTime.add(duration);
+        roleCounters.lookupMaxTime.accumulate(duration);
+    }
+
+    /**
+     * Record the lookup of all the components implementing a role.
+     *
+     * @param role the role of the components
+     * @param duration the duration of the lookup in nanoseconds
+     */
+    public void lookupAll(Type role, long duration)
+    {
+        lookup(role, ALL_HINTS, duration);
+    }
+
+    /**
+     * Record the resolution of a component (or of all the components implementing a role) through a lazy
+     * {@link javax.inject.Provider}.
+     *
+     * @param role the role of the component
+     * @param hint the hint of the component, {@code null} if all the components implementing the role were resolved
+     * @param duration the duration of the resolution in nanoseconds
+     */
+    public void provide(Type role, String hint, long duration)
+    {
+        Counters roleCounters = getCounters(role, hint != null ? hint : ALL_HINTS);
+        roleCounters.providerCount.increment();
+        roleCounters.providerTime.add(duration);
+    }
+
+    /**
+     * Indicate that a new instance of a component is being created. Must always be followed by a call to
+     * {@link #endInstantiation(ComponentRole, long, long)} in the same thread.
+     *
+     * @param descriptor the component being instantiated
+     * @return the start time of the instantiation
+     */
+    public long startInstantiation(ComponentRole<?> descriptor)
+    {
+        Deque<String> stack = this.instantiating.get();
+
+        String name = getName(descriptor.getRoleType(), descriptor.getRoleHint());
+        Counters roleCounters = this.counters.computeIfAbsent(name, k -> new Counters());
+        if (roleCounters.instantiationChain == null) {
+            roleCounters.instantiationChain = getChain(stack);
+        }
+
+        stack.push(name);
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Indicate that a component instance has been created, injected and initialized.
+     *
+     * @param descriptor the component being instantiated
+     * @param start the value returned by {@link #startInstantiation(ComponentRole)}
+     * @param initializationDuration the time spent in the lifecycle handlers, in nanoseconds
+     */
+    public void endInstantiation(ComponentRole<?> descriptor, long start, long initializationDuration)
+    {
+        long duration = System.nanoTime() - start;
+
+        this.instantiating.get().poll();
+
+        Counters roleCounters = getCounters(descriptor.getRoleType(), descriptor.getRoleHint());
+        roleCounters.instantiationCount.increment();
+        roleCounters.instantiationTime.add(duration);
+        roleCounters.instantiationMaxTime.accumulate(duration);
+        roleCounters.initializationTime.add(initializationDuration);
+    }
+
+    private String getChain(Deque<String> stack)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (Iterator<String> it = stack.descendingIterator(); it.hasNext();) {
+            builder.append(it.next());
+            if (it.hasNext()) {
+                builder.append(CHAIN_SEPARATOR);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    @Override
+    public List<ComponentStatistics> getComponents()
+    {
+        List<ComponentStatistics> statistics = new ArrayList<>(this.counters.size());
+        for (Map.Entry<String, Counters> entry : this.counters.entrySet()) {
+            Counters roleCounters = entry.getValue();
+            statistics.add(new ComponentStatistics(entry.getKey(),
+                new long[] { roleCounters.lookupCount.sum(), roleCounters.lookupTime.sum(),
+                    roleCounters.lookupMaxTime.get() },
+                new long[] { roleCounters.providerCount.sum(), roleCounters.providerTime.sum() },
+                new long[] { roleCounters.instantiationCount.sum(), roleCounters.instantiationTime.sum(),
+                    roleCounters.instantiationMaxTime.get(), roleCounters.initializationTime.sum() },
+                roleCounters.instantiationChain != null ? roleCounters.instantiationChain : ""));
+        }
+
+        statistics.sort(Comparator.comparingLong(ComponentStatistics::getTotalTime).reversed());
+
+        return statistics;
+    }
+
+    @Override
+    public String getReport()
+    {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(String.format(REPORT_FORMAT, "Component", "Lookups", "Lookup ms", "Lookup max", "Provided",
+            "Prov. ms", "Created", "Create ms", "Create max", "Init ms", "Instantiated by"));
+
+        for (ComponentStatistics component : getComponents()) {
+            builder.append(String.format(REPORT_FORMAT, component.getName(), component.getLookupCount(),
+                toMillis(component.getLookupTime()), toMillis(component.getLookupMaxTime()),
+                component.getProviderCount(), toMillis(component.getProviderTime()),
+                component.getInstantiationCount(), toMillis(component.getInstantiationTime()),
+                toMillis(component.getInstantiationMaxTime()), toMillis(component.getInitializationTime()),
+                component.getInstantiationChain()));
+        }
+
+        return builder.toString();
+    }
+
+    private static String toMillis(long nanos)
+    {
+        return String.format("%.3f", (double) nanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Override
+    public void reset()
+    {
+        this.counters.clear();
+    }
+
+    /**
+     * Register the profiler in the platform MBean server.
+     *
+     * @throws JMException when failing to register the MBean
+     */
+    public void register() throws JMException
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+
+        server.registerMBean(this, name);
+    }
+
+    /**
+     * Unregister the profiler from the platform MBean server.
+     *
+     * @throws JMException when failing to unregister the MBean
+     */
+    public void unregister() throws JMException
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+}
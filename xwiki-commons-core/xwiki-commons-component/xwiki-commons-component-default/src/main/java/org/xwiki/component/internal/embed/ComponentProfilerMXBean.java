@@ -0,0 +1,47 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.internal.embed;
+
+import java.util.List;
+
+/**
+ * Exposes the statistics collected by the {@link ComponentProfiler} as a JMX MXBean.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public interface ComponentProfilerMXBean
+{
+    /**
+     * @return the statistics of the components which have been looked up or instantiated, the ones which took the
+     *         most time first
+     */
+    List<ComponentStatistics> getComponents();
+
+    /**
+     * @return a human readable report of the collected statistics
+     */
+    String getReport();
+
+    /**
+     * Forget all the collected statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,175 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.internal.embed;
+
+/**
+ * A snapshot of the statistics of a component collected by the {@link ComponentProfiler}. All durations are in
+ * nanoseconds.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class ComponentStatistics
+{
+    private final String name;
+
+    private final long lookupCount;
+
+    private final long lookupTime;
+
+    private final long lookupMaxTime;
+
+    private final long providerCount;
+
+    private final long providerTime;
+
+    private final long instantiationCount;
+
+    private final long instantiationTime;
+
+    private final long instantiationMaxTime;
+
+    private final long initializationTime;
+
+    private final String instantiationChain;
+
+    /**
+     * @param name the name of the component (role and hint)
+     * @param lookups the number of lookups, their total and maximum durations
+     * @param providerLookups the number of lookups through a lazy {@link javax.inject.Provider} and their total
+     *            duration
+     * @param instantiations the number of instantiations, their total and maximum durations and the total duration of
+     *            the initializations
+     * @param instantiationChain the chain of components being instantiated when this component was first instantiated
+     */
+    public ComponentStatistics(String name, long[] lookups, long[] providerLookups, long[] instantiations,
+        String instantiationChain)
+    {
+        this.name = name;
+        this.lookupCount = lookups[0];
+        this.lookupTime = lookups[1];
+        this.lookupMaxTime = lookups[2];
+        this.providerCount = providerLookups[0];
+        this.providerTime = providerLookups[1];
+        this.instantiationCount = instantiations[0];
+        this.instantiationTime = instantiations[1];
+        this.instantiationMaxTime = instantiations[2];
+        this.initializationTime = instantiations[3];
+        this.instantiationChain = instantiationChain;
+    }
+
+    /**
+     * @return the role and hint of the component
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return the number of times the component was looked up
+     */
+    public long getLookupCount()
+    {
+        return this.lookupCount;
+    }
+
+    /**
+     * @return the total time spent looking up the component (including its instantiation)
+     */
+    public long getLookupTime()
+    {
+        return this.lookupTime;
+    }
+
+    /**
+     * @return the longest lookup
+     */
+    public long getLookupMaxTime()
+    {
+        return this.lookupMaxTime;
+    }
+
+    /**
+     * @return the number of times the component was resolved by a lazy {@link javax.inject.Provider}
+     */
+    public long getProviderCount()
+    {
+        return this.providerCount;
+    }
+
+    /**
+     * @return the total time spent resolving the component through a lazy {@link javax.inject.Provider}
+     */
+    public long getProviderTime()
+    {
+        return this.providerTime;
+    }
+
+    /**
+     * @return the number of instances created
+     */
+    public long getInstantiationCount()
+    {
+        return this.instantiationCount;
+    }
+
+    /**
+     * @return the total time spent creating, injecting and initializing instances of the component
+     */
+    public long getInstantiationTime()
+    {
+        return this.instantiationTime;
+    }
+
+    /**
+     * @return the longest instantiation
+     */
+    public long getInstantiationMaxTime()
+    {
+        return this.instantiationMaxTime;
+    }
+
+    /**
+     * @return the total time spent in the lifecycle handlers (e.g.
+     *         {@link org.xwiki.component.phase.Initializable#initialize()})
+     */
+    public long getInitializationTime()
+    {
+        return this.initializationTime;
+    }
+
+    /**
+     * @return the components which were being instantiated when this component was first instantiated (the one which
+     *         started the chain first), empty if it was directly looked up
+     */
+    public String getInstantiationChain()
+    {
+        return this.instantiationChain;
+    }
+
+    /**
+     * @return the total time spent in the component system because of this component
+     */
+    long getTotalTime()
+    {
+        return this.lookupTime + this.providerTime + this.instantiationTime;
+    }
+}
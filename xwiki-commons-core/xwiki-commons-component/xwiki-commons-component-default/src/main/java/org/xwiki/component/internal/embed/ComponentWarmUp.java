@@ -0,0 +1,242 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.internal.embed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.inject.Provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xwiki.component.descriptor.ComponentDependency;
+import org.xwiki.component.descriptor.ComponentDescriptor;
+import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
+import org.xwiki.component.internal.RoleHint;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.component.util.ReflectionUtils;
+
+/**
+ * Instantiate and initialize a set of singleton components in parallel, each component being instantiated only after
+ * the singleton components it depends on (according to {@link ComponentDescriptor#getComponentDependencies()}).
+ * <p>
+ * Dependency cycles are broken arbitrarily. Dependencies which are not declared (dynamic lookups during the
+ * initialization) are not taken into account and are instantiated by the component needing them, which can block two
+ * threads waiting for each other: when the warm-up does not finish in time, the components which did not start their
+ * initialization yet are skipped and left to the usual sequential instantiation on their first lookup.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class ComponentWarmUp
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentWarmUp.class);
+
+    private final ComponentManager componentManager;
+
+    private final Executor executor;
+
+    private final Map<RoleHint<?>, CompletableFuture<Void>> tasks = new HashMap<>();
+
+    private final Map<RoleHint<?>, Long> durations = new ConcurrentHashMap<>();
+
+    private final Set<RoleHint<?>> running = ConcurrentHashMap.newKeySet();
+
+    private long totalDuration;
+
+    private volatile boolean cancelled;
+
+    /**
+     * @param componentManager the component manager used to lookup the components
+     * @param executor the executor in which to instantiate the components
+     */
+    public ComponentWarmUp(ComponentManager componentManager, Executor executor)
+    {
+        this.componentManager = componentManager;
+        this.executor = executor;
+    }
+
+    /**
+     * Instantiate the passed components and their singleton dependencies, and wait for the end of their
+     * initialization. Failing components are logged and skipped, they will fail again on their first lookup.
+     *
+     * @param descriptors the descriptors of the components to instantiate
+     */
+    public void run(Collection<ComponentDescriptor<?>> descriptors)
+    {
+        run(descriptors, Long.MAX_VALUE);
+    }
+
+    /**
+     * Instantiate the passed components and their singleton dependencies, and wait for the end of their
+     * initialization, at most for the passed time. The components which did not start their initialization when the
+     * time is elapsed are skipped (they will be instantiated on their first lookup).
+     *
+     * @param descriptors the descriptors of the components to instantiate
+     * @param timeout the maximum time to wait, in milliseconds
+     */
+    public void run(Collection<ComponentDescriptor<?>> descriptors, long timeout)
+    {
+        long start = System.nanoTime();
+
+        List<CompletableFuture<Void>> roots = new ArrayList<>(descriptors.size());
+        for (ComponentDescriptor<?> descriptor : descriptors) {
+            roots.add(schedule(descriptor, new HashSet<>()));
+        }
+
+        try {
+            CompletableFuture.allOf(roots.toArray(new CompletableFuture[0])).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            this.cancelled = true;
+
+            LOGGER.warn("The component warm-up did not finish after [{}] ms, the components [{}] are still being"
+                + " initialized and the remaining ones will be initialized on their first lookup. Make sure the"
+                + " components annotated with @WarmUp don't look up undeclared components during their"
+                + " initialization.", timeout, this.running);
+        } catch (InterruptedException e) {
+            this.cancelled = true;
+
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Should never happen since the failures are caught in #instantiate()
+            LOGGER.error("Unexpected error during the component warm-up", e);
+        }
+
+        this.totalDuration = System.nanoTime() - start;
+
+        LOGGER.info("Warmed up [{}] components in [{}] ms", this.durations.size(),
+            TimeUnit.NANOSECONDS.toMillis(this.totalDuration));
+
+        if (LOGGER.isDebugEnabled()) {
+            List<Map.Entry<RoleHint<?>, Long>> entries = new ArrayList<>(this.durations.entrySet());
+            entries.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+            for (Map.Entry<RoleHint<?>, Long> entry : entries) {
+                LOGGER.debug("  - Component [{}] initialized in [{}] ms", entry.getKey(),
+                    TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * @return the time spent instantiating and initializing each component (excluding its dependencies) in
+     *         nanoseconds
+     */
+    public Map<RoleHint<?>, Long> getDurations()
+    {
+        return Collections.unmodifiableMap(this.durations);
+    }
+
+    /**
+     * @return the total time spent in {@link #run(Collection)} in nanoseconds
+     */
+    public long getTotalDuration()
+    {
+        return this.totalDuration;
+    }
+
+    private CompletableFuture<Void> schedule(ComponentDescriptor<?> descriptor, Set<RoleHint<?>> path)
+    {
+        RoleHint<?> roleHint = new RoleHint<>(descriptor.getRoleType(), descriptor.getRoleHint());
+
+        CompletableFuture<Void> task = this.tasks.get(roleHint);
+        if (task != null) {
+            return task;
+        }
+
+        path.add(roleHint);
+
+        List<CompletableFuture<Void>> dependencyTasks = new ArrayList<>();
+        for (ComponentDescriptor<?> dependency : getDependencies(descriptor)) {
+            // Break dependency cycles
+            if (!path.contains(new RoleHint<>(dependency.getRoleType(), dependency.getRoleHint()))) {
+                dependencyTasks.add(schedule(dependency, path));
+            }
+        }
+
+        path.remove(roleHint);
+
+        task = CompletableFuture.allOf(dependencyTasks.toArray(new CompletableFuture[0]))
+            .thenRunAsync(() -> instantiate(roleHint), this.executor);
+        this.tasks.put(roleHint, task);
+
+        return task;
+    }
+
+    private List<ComponentDescriptor<?>> getDependencies(ComponentDescriptor<?> descriptor)
+    {
+        List<ComponentDescriptor<?>> dependencies = new ArrayList<>();
+
+        for (ComponentDependency<?> dependency : descriptor.getComponentDependencies()) {
+            Class<?> dependencyRoleClass = ReflectionUtils.getTypeClass(dependency.getRoleType());
+
+            // Same resolution as EmbeddableComponentManager#getDependencyInstance (providers are lazy by definition)
+            if (dependencyRoleClass.isAssignableFrom(List.class) || dependencyRoleClass.isAssignableFrom(Map.class)) {
+                dependencies.addAll(this.componentManager
+                    .getComponentDescriptorList(ReflectionUtils.getLastTypeGenericArgument(dependency.getRoleType())));
+            } else if (!dependencyRoleClass.isAssignableFrom(Provider.class)
+                && !dependencyRoleClass.isAssignableFrom(Logger.class)
+                && !dependencyRoleClass.isAssignableFrom(ComponentDescriptor.class)) {
+                ComponentDescriptor<?> dependencyDescriptor =
+                    this.componentManager.getComponentDescriptor(dependency.getRoleType(), dependency.getRoleHint());
+                if (dependencyDescriptor != null) {
+                    dependencies.add(dependencyDescriptor);
+                }
+            }
+        }
+
+        dependencies.removeIf(
+            dependency -> dependency.getInstantiationStrategy() != ComponentInstantiationStrategy.SINGLETON);
+
+        return dependencies;
+    }
+
+    private void instantiate(RoleHint<?> roleHint)
+    {
+        if (this.cancelled) {
+            return;
+        }
+
+        this.running.add(roleHint);
+
+        long start = System.nanoTime();
+
+        try {
+            this.componentManager.getInstance(roleHint.getRoleType(), roleHint.getHint());
+        } catch (Exception e) {
+            LOGGER.warn("Failed to warm up component [{}]", roleHint, e);
+        }
+
+        this.durations.put(roleHint, System.nanoTime() - start);
+
+        this.running.remove(roleHint);
+    }
+}
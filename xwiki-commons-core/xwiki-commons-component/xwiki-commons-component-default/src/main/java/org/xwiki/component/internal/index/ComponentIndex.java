@@ -0,0 +1,247 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.internal.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xwiki.component.descriptor.ComponentDescriptor;
+import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
+import org.xwiki.component.descriptor.DefaultComponentDependency;
+import org.xwiki.component.descriptor.DefaultComponentDescriptor;
+import org.xwiki.component.util.ReflectionUtils;
+
+/**
+ * Component descriptors precomputed at build time by the annotation processor of the
+ * {@code xwiki-commons-component-index} module and stored in {@value #INDEX_FILE} files, to avoid introspecting the
+ * component implementation classes at runtime.
+ * <p>
+ * The index is a UTF-8 text file where each line is made of tab separated values:
+ * <ul>
+ * <li>{@code component <implementation class> <instantiation strategy>}: start the entry of a component
+ * implementation</li>
+ * <li>{@code role <role type>}: a role implemented by the current component</li>
+ * <li>{@code hint <role hint>}: a hint of the current component</li>
+ * <li>{@code dependency <field name> <role type> [<role hint>]}: an injected field of the current component</li>
+ * </ul>
+ * One descriptor is created for each role and hint combination, like
+ * {@link org.xwiki.component.annotation.ComponentAnnotationLoader} does.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public final class ComponentIndex
+{
+    /**
+     * Location in the classloader of the files containing the precomputed component descriptors.
+     */
+    public static final String INDEX_FILE = "META-INF/components-index.txt";
+
+    /**
+     * The type of the line starting the entry of a component implementation.
+     */
+    public static final String COMPONENT = "component";
+
+    /**
+     * The type of the line declaring a role of the current component.
+     */
+    public static final String ROLE = "role";
+
+    /**
+     * The type of the line declaring a hint of the current component.
+     */
+    public static final String HINT = "hint";
+
+    /**
+     * The type of the line declaring an injected field of the current component.
+     */
+    public static final String DEPENDENCY = "dependency";
+
+    /**
+     * The separator between the values of a line.
+     */
+    public static final char SEPARATOR = '\t';
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentIndex.class);
+
+    private static final class Entry
+    {
+        private final ComponentInstantiationStrategy strategy;
+
+        private final List<String> roles = new ArrayList<>();
+
+        private final List<String> hints = new ArrayList<>();
+
+        private final List<String[]> dependencies = new ArrayList<>();
+
+        Entry(ComponentInstantiationStrategy strategy)
+        {
+            this.strategy = strategy;
+        }
+    }
+
+    private final Map<String, Entry> entries;
+
+    private ComponentIndex(Map<String, Entry> entries)
+    {
+        this.entries = entries;
+    }
+
+    /**
+     * Load all the indexes available in the passed classloader.
+     *
+     * @param classLoader the classloader where to look for the {@value #INDEX_FILE} files
+     * @return the index
+     * @throws IOException when failing to read an index file
+     */
+    public static ComponentIndex load(ClassLoader classLoader) throws IOException
+    {
+        Map<String, Entry> entries = new HashMap<>();
+
+        Enumeration<URL> urls = classLoader.getResources(INDEX_FILE);
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+
+            LOGGER.debug("Loading component index from [{}]", url);
+
+            try (InputStream stream = url.openStream()) {
+                read(stream, entries);
+            }
+        }
+
+        return new ComponentIndex(entries.isEmpty() ? Collections.emptyMap() : entries);
+    }
+
+    private static void read(InputStream stream, Map<String, Entry> entries) throws IOException
+    {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+
+        // Entries already loaded from another index file take precedence, so parse the duplicates in a dummy entry
+        Entry current = null;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            String[] values = line.split(String.valueOf(SEPARATOR), -1);
+
+            if (values[0].equals(COMPONENT) && values.length == 3) {
+                current = new Entry(ComponentInstantiationStrategy.valueOf(values[2]));
+                entries.putIfAbsent(values[1], current);
+            } else if (current != null && values.length > 1) {
+                add(current, values);
+            }
+        }
+    }
+
+    private static void add(Entry entry, String[] values)
+    {
+        switch (values[0]) {
+            case ROLE:
+                entry.roles.add(values[1]);
+                break;
+            case HINT:
+                entry.hints.add(values[1]);
+                break;
+            case DEPENDENCY:
+                entry.dependencies.add(values);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return true if the index does not contain any component
+     */
+    public boolean isEmpty()
+    {
+        return this.entries.isEmpty();
+    }
+
+    /**
+     * @param componentClass the component implementation class
+     * @return the descriptors of the passed component or {@code null} if it's not indexed or if the index could not be
+     *         resolved against the passed class
+     */
+    public List<ComponentDescriptor<?>> getComponentDescriptors(Class<?> componentClass)
+    {
+        Entry entry = this.entries.get(componentClass.getName());
+
+        if (entry == null) {
+            return null;
+        }
+
+        try {
+            return createComponentDescriptors(componentClass, entry);
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOGGER.debug("Failed to resolve the indexed descriptors of component [{}], falling back on introspection",
+                componentClass.getName(), e);
+
+            return null;
+        }
+    }
+
+    private List<ComponentDescriptor<?>> createComponentDescriptors(Class<?> componentClass, Entry entry)
+        throws ClassNotFoundException
+    {
+        ClassLoader classLoader = componentClass.getClassLoader();
+
+        List<DefaultComponentDependency<?>> dependencies = new ArrayList<>(entry.dependencies.size());
+        for (String[] values : entry.dependencies) {
+            DefaultComponentDependency<?> dependency = new DefaultComponentDependency<>();
+            dependency.setName(values[1]);
+            dependency.setRoleType(ReflectionUtils.unserializeType(values[2], classLoader));
+            if (values.length > 3) {
+                dependency.setRoleHint(values[3]);
+            }
+            dependencies.add(dependency);
+        }
+
+        List<ComponentDescriptor<?>> descriptors = new ArrayList<>(entry.roles.size() * entry.hints.size());
+        for (String role : entry.roles) {
+            Type roleType = ReflectionUtils.unserializeType(role, classLoader);
+
+            for (String hint : entry.hints) {
+                DefaultComponentDescriptor<Object> descriptor = new DefaultComponentDescriptor<>();
+                descriptor.setRoleType(roleType);
+                descriptor.setImplementation((Class<Object>) componentClass);
+                descriptor.setRoleHint(hint);
+                descriptor.setInstantiationStrategy(entry.strategy);
+                for (DefaultComponentDependency<?> dependency : dependencies) {
+                    descriptor.addComponentDependency(new DefaultComponentDependency<>(dependency));
+                }
+
+                descriptors.add(descriptor);
+            }
+        }
+
+        return descriptors;
+    }
+}
@@ -185,8 +185,24 @@ void setupLogger()
      * priority wins (ie the smallest integer value).
      */
     @Test
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     void priorities() throws Exception
+    {
+        assertPriorities();
+    }
+
+    /**
+     * Verify that loading the classes in parallel does not change the result.
+     */
+    @Test
+    void prioritiesWhenParallel() throws Exception
+    {
+        this.loader.setParallel(true);
+
+        assertPriorities();
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void assertPriorities() throws Exception
     {
         ComponentManager componentManager = mock(ComponentManager.class);
 
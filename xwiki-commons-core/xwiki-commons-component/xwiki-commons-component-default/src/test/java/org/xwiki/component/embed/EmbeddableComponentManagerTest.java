@@ -29,8 +29,11 @@
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +44,9 @@
 import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
 import org.xwiki.component.descriptor.DefaultComponentDependency;
 import org.xwiki.component.descriptor.DefaultComponentDescriptor;
+import org.xwiki.component.internal.RoleHint;
+import org.xwiki.component.internal.embed.ComponentProfiler;
+import org.xwiki.component.internal.embed.ComponentStatistics;
 import org.xwiki.component.manager.ComponentEventManager;
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.manager.ComponentManager;
@@ -131,6 +137,16 @@ public Logger getLogger()
         }
     }
 
+    public static class DependentRoleImpl implements Role
+    {
+        private Role dependency;
+
+        public Role getDependency()
+        {
+            return this.dependency;
+        }
+    }
+
     @Test
     void lookupThisComponentManager() throws ComponentLookupException
     {
@@ -170,6 +186,27 @@ void getComponentDescriptorListInParent() throws Exception
         assertEquals(1, cds.size());
     }
 
+    @Test
+    void getComponentDescriptorListWhenGrandParentIsNotEmbeddable() throws Exception
+    {
+        DefaultComponentDescriptor<Role> grandParentDescriptor = new DefaultComponentDescriptor<>();
+        grandParentDescriptor.setRoleType(Role.class);
+        grandParentDescriptor.setRoleHint("grandparent");
+        ComponentManager grandParent = mock(ComponentManager.class);
+        when(grandParent.<Role>getComponentDescriptorList((Type) Role.class))
+            .thenReturn(Collections.<ComponentDescriptor<Role>>singletonList(grandParentDescriptor));
+
+        EmbeddableComponentManager parent = (EmbeddableComponentManager) createParentComponentManager();
+        parent.setParent(grandParent);
+
+        EmbeddableComponentManager ecm = new EmbeddableComponentManager();
+        ecm.setParent(parent);
+
+        List<ComponentDescriptor<Role>> cds = ecm.getComponentDescriptorList((Type) Role.class);
+        assertEquals(2, cds.size());
+        assertTrue(cds.contains(grandParentDescriptor));
+    }
+
     @Test
     void getComponentDescriptorInParent() throws Exception
     {
@@ -309,6 +346,53 @@ void getInstanceListAndMapWhenSomeComponentsInParent() throws Exception
         assertSame(roleImpl, instances.get("default"));
     }
 
+    @Test
+    void getInstanceMapWhenParentChanges() throws Exception
+    {
+        EmbeddableComponentManager parent = new EmbeddableComponentManager();
+        EmbeddableComponentManager ecm = new EmbeddableComponentManager();
+        ecm.setParent(parent);
+
+        assertTrue(ecm.getInstanceMap(Role.class).isEmpty());
+
+        DefaultComponentDescriptor<Role> cd = new DefaultComponentDescriptor<>();
+        cd.setRoleType(Role.class);
+        cd.setImplementation(RoleImpl.class);
+        parent.registerComponent(cd);
+
+        Map<String, Role> instances = ecm.getInstanceMap(Role.class);
+        assertEquals(1, instances.size());
+        assertSame(instances.get("default"), ecm.getInstanceMap(Role.class).get("default"));
+        assertEquals(1, ecm.getComponentDescriptorList((Type) Role.class).size());
+
+        // The returned map is a copy
+        instances.clear();
+        assertEquals(1, ecm.getInstanceMap(Role.class).size());
+
+        parent.unregisterComponent(Role.class, "default");
+
+        assertTrue(ecm.getInstanceMap(Role.class).isEmpty());
+        assertTrue(ecm.getComponentDescriptorList((Type) Role.class).isEmpty());
+
+        ecm.setParent(createParentComponentManager());
+
+        assertEquals(1, ecm.getInstanceList(Role.class).size());
+    }
+
+    @Test
+    void getInstanceMapWithPerLookupComponent() throws Exception
+    {
+        EmbeddableComponentManager ecm = new EmbeddableComponentManager();
+
+        DefaultComponentDescriptor<Role> cd = new DefaultComponentDescriptor<>();
+        cd.setRoleType(Role.class);
+        cd.setImplementation(RoleImpl.class);
+        cd.setInstantiationStrategy(ComponentInstantiationStrategy.PER_LOOKUP);
+        ecm.registerComponent(cd);
+
+        assertNotSame(ecm.getInstanceMap(Role.class).get("default"), ecm.getInstanceMap(Role.class).get("default"));
+    }
+
     @Test
     void hasComponent() throws Exception
     {
@@ -353,6 +437,64 @@ void loggingInjection() throws Exception
         assertNotNull(impl.getLogger());
     }
 
+    @Test
+    void profiling() throws Exception
+    {
+        EmbeddableComponentManager parent = new EmbeddableComponentManager();
+        ComponentProfiler profiler = new ComponentProfiler();
+        parent.setProfiler(profiler);
+
+        DefaultComponentDescriptor<Role> cd = new DefaultComponentDescriptor<>();
+        cd.setRoleType(Role.class);
+        cd.setImplementation(InitializableRoleImpl.class);
+        parent.registerComponent(cd);
+
+        EmbeddableComponentManager ecm = new EmbeddableComponentManager();
+        ecm.setParent(parent);
+
+        DefaultComponentDescriptor<Role> dependentDescriptor = new DefaultComponentDescriptor<>();
+        dependentDescriptor.setRoleType(Role.class);
+        dependentDescriptor.setRoleHint("dependent");
+        dependentDescriptor.setImplementation(DependentRoleImpl.class);
+        DefaultComponentDependency<Role> dependency = new DefaultComponentDependency<>();
+        dependency.setRoleType(Role.class);
+        dependency.setName("dependency");
+        dependentDescriptor.addComponentDependency(dependency);
+        ecm.registerComponent(dependentDescriptor);
+
+        DependentRoleImpl dependent = ecm.getInstance(Role.class, "dependent");
+        assertTrue(((InitializableRoleImpl) dependent.getDependency()).isInitialized());
+        ecm.getInstance(Role.class, "dependent");
+        ecm.getInstanceList(Role.class);
+        new GenericProvider<>(ecm, new RoleHint<Role>(Role.class)).get();
+
+        Map<String, ComponentStatistics> statistics = new HashMap<>();
+        for (ComponentStatistics component : profiler.getComponents()) {
+            statistics.put(component.getName(), component);
+        }
+
+        String roleName = Role.class.getName();
+
+        ComponentStatistics dependentStatistics = statistics.get(roleName + "/dependent");
+        assertEquals(2, dependentStatistics.getLookupCount());
+        assertEquals(1, dependentStatistics.getInstantiationCount());
+        assertEquals("", dependentStatistics.getInstantiationChain());
+
+        ComponentStatistics defaultStatistics = statistics.get(roleName + "/default");
+        assertEquals(2, defaultStatistics.getLookupCount());
+        assertEquals(1, defaultStatistics.getProviderCount());
+        assertEquals(1, defaultStatistics.getInstantiationCount());
+        assertEquals(roleName + "/dependent", defaultStatistics.getInstantiationChain());
+
+        assertEquals(1, statistics.get(roleName + "/*").getLookupCount());
+
+        assertTrue(profiler.getReport().contains(roleName + "/dependent"));
+
+        profiler.reset();
+
+        assertTrue(profiler.getComponents().isEmpty());
+    }
+
     private ComponentManager createParentComponentManager() throws Exception
     {
         return createParentComponentManager(null);
@@ -0,0 +1,109 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.internal.embed;
+
+import java.lang.reflect.Field;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.component.descriptor.DefaultComponentDependency;
+import org.xwiki.component.descriptor.DefaultComponentDescriptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * Validate {@link ComponentInjector}.
+ *
+ * @version $Id$
+ */
+class ComponentInjectorTest
+{
+    public static class SuperComponent
+    {
+        private String superField;
+
+        String getSuperField()
+        {
+            return this.superField;
+        }
+    }
+
+    public static class PublicComponent extends SuperComponent
+    {
+        private Integer field;
+
+        private final String finalField = null;
+    }
+
+    static class PackageComponent
+    {
+        private String field;
+    }
+
+    private <T> DefaultComponentDescriptor<T> descriptor(Class<T> implementation, String... fields)
+    {
+        DefaultComponentDescriptor<T> descriptor = new DefaultComponentDescriptor<>();
+        descriptor.setImplementation(implementation);
+        for (String field : fields) {
+            DefaultComponentDependency<Object> dependency = new DefaultComponentDependency<>();
+            dependency.setName(field);
+            dependency.setRoleType(Object.class);
+            descriptor.addComponentDependency(dependency);
+        }
+
+        return descriptor;
+    }
+
+    @Test
+    void publicComponent() throws Exception
+    {
+        ComponentInjector<PublicComponent> injector =
+            ComponentInjector.create(descriptor(PublicComponent.class, "superField", "field", "finalField"));
+
+        PublicComponent instance = injector.newInstance();
+        assertNotSame(instance, injector.newInstance());
+
+        injector.inject(instance, "superField", "value");
+        injector.inject(instance, "field", 42);
+        // Final fields go through reflection
+        injector.inject(instance, "finalField", "final");
+
+        assertEquals("value", instance.getSuperField());
+        assertEquals(42, instance.field);
+        Field finalField = PublicComponent.class.getDeclaredField("finalField");
+        finalField.setAccessible(true);
+        assertEquals("final", finalField.get(instance));
+    }
+
+    @Test
+    void packageComponent() throws Exception
+    {
+        ComponentInjector<PackageComponent> injector =
+            ComponentInjector.create(descriptor(PackageComponent.class, "field"));
+
+        PackageComponent instance = injector.newInstance();
+        assertNotNull(instance);
+
+        injector.inject(instance, "field", "value");
+
+        assertEquals("value", instance.field);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.internal.embed;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.annotation.ComponentAnnotationLoader;
+import org.xwiki.component.annotation.ComponentDeclaration;
+import org.xwiki.component.annotation.InstantiationStrategy;
+import org.xwiki.component.annotation.Role;
+import org.xwiki.component.annotation.WarmUp;
+import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
+import org.xwiki.component.embed.EmbeddableComponentManager;
+import org.xwiki.component.internal.RoleHint;
+import org.xwiki.component.manager.WarmUpTaskWrapper;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.test.LogLevel;
+import org.xwiki.test.junit5.LogCaptureExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link ComponentWarmUp} through {@link EmbeddableComponentManager#warmUp()}.
+ *
+ * @version $Id$
+ */
+class ComponentWarmUpTest
+{
+    private static final List<String> INITIALIZED = new CopyOnWriteArrayList<>();
+
+    @Role
+    public interface TestRole
+    {
+    }
+
+    public abstract static class AbstractTestComponent implements TestRole, Initializable
+    {
+        @Override
+        public void initialize()
+        {
+            INITIALIZED.add(getClass().getSimpleName());
+        }
+    }
+
+    @Component
+    @Named("dependency")
+    @Singleton
+    public static class DependencyComponent extends AbstractTestComponent
+    {
+    }
+
+    @Component
+    @Named("warmup")
+    @Singleton
+    @WarmUp
+    public static class WarmUpComponent extends AbstractTestComponent
+    {
+        @Inject
+        @Named("dependency")
+        private TestRole dependency;
+    }
+
+    @Component
+    @Named("perlookup")
+    @InstantiationStrategy(ComponentInstantiationStrategy.PER_LOOKUP)
+    @WarmUp
+    public static class PerLookupComponent extends AbstractTestComponent
+    {
+    }
+
+    @Component
+    @Named("lazy")
+    @Singleton
+    public static class LazyComponent extends AbstractTestComponent
+    {
+    }
+
+    @Component
+    @Singleton
+    public static class TestWarmUpTaskWrapper implements WarmUpTaskWrapper
+    {
+        @Override
+        public Runnable wrap(Runnable task)
+        {
+            return () -> {
+                INITIALIZED.add(Thread.currentThread().getName());
+
+                task.run();
+            };
+        }
+    }
+
+    @RegisterExtension
+    LogCaptureExtension logCapture = new LogCaptureExtension(LogLevel.INFO);
+
+    private EmbeddableComponentManager componentManager;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        INITIALIZED.clear();
+
+        this.componentManager = new EmbeddableComponentManager();
+        new ComponentAnnotationLoader().register(this.componentManager, getClass().getClassLoader(),
+            Arrays.asList(new ComponentDeclaration(DependencyComponent.class.getName()),
+                new ComponentDeclaration(WarmUpComponent.class.getName()),
+                new ComponentDeclaration(PerLookupComponent.class.getName()),
+                new ComponentDeclaration(LazyComponent.class.getName())));
+    }
+
+    @Test
+    void warmUp()
+    {
+        this.componentManager.warmUp();
+
+        // The singleton dependencies are initialized first, the per lookup and lazy ones are not initialized
+        assertEquals(2, INITIALIZED.size());
+        assertEquals("DependencyComponent", INITIALIZED.get(0));
+        assertEquals("WarmUpComponent", INITIALIZED.get(1));
+        assertTrue(this.logCapture.getMessage(0).startsWith("Warmed up [2] components in ["));
+
+        // Already initialized components are not initialized again
+        this.componentManager.warmUp();
+        assertEquals(2, INITIALIZED.size());
+    }
+
+    @Test
+    void warmUpWithWrapper()
+    {
+        new ComponentAnnotationLoader().register(this.componentManager, getClass().getClassLoader(),
+            Arrays.asList(new ComponentDeclaration(TestWarmUpTaskWrapper.class.getName())));
+
+        this.componentManager.warmUp();
+
+        // Each task is wrapped and executed in a warm-up thread
+        assertEquals(4, INITIALIZED.size());
+        assertTrue(INITIALIZED.get(0).startsWith("Component warm-up thread "));
+        assertEquals("DependencyComponent", INITIALIZED.get(1));
+        assertTrue(INITIALIZED.get(2).startsWith("Component warm-up thread "));
+        assertEquals("WarmUpComponent", INITIALIZED.get(3));
+        assertTrue(this.logCapture.getMessage(0).startsWith("Warmed up [2] components in ["));
+    }
+
+    @Test
+    void timeout()
+    {
+        List<Runnable> queue = new ArrayList<>();
+        ComponentWarmUp warmUp = new ComponentWarmUp(this.componentManager, queue::add);
+        warmUp.run(new ArrayList<>(this.componentManager.getComponentDescriptorList((Type) TestRole.class)), 10);
+
+        assertEquals("The component warm-up did not finish after [10] ms, the components [[]] are still being"
+            + " initialized and the remaining ones will be initialized on their first lookup. Make sure the"
+            + " components annotated with @WarmUp don't look up undeclared components during their"
+            + " initialization.", this.logCapture.getMessage(0));
+        assertTrue(this.logCapture.getMessage(1).startsWith("Warmed up [0] components in ["));
+
+        // The tasks executed after the timeout are skipped
+        while (!queue.isEmpty()) {
+            queue.remove(0).run();
+        }
+        assertTrue(INITIALIZED.isEmpty());
+        assertTrue(warmUp.getDurations().isEmpty());
+    }
+
+    @Test
+    void durations() throws Exception
+    {
+        ComponentWarmUp warmUp = new ComponentWarmUp(this.componentManager, Runnable::run);
+        warmUp.run(new ArrayList<>(this.componentManager.getComponentDescriptorList((Type) TestRole.class)));
+
+        // The per lookup component is explicitly asked for
+        assertEquals(4, warmUp.getDurations().size());
+        assertTrue(warmUp.getDurations().containsKey(new RoleHint<>(TestRole.class, "lazy")));
+        assertTrue(warmUp.getTotalDuration() > 0);
+        assertEquals("DependencyComponent", INITIALIZED.get(0));
+        assertTrue(this.logCapture.getMessage(0).startsWith("Warmed up [4] components in ["));
+    }
+}
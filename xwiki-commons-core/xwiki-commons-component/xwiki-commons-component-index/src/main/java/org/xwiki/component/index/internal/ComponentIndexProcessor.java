@@ -0,0 +1,403 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.index.internal;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.annotation.ComponentRole;
+import org.xwiki.component.annotation.InstantiationStrategy;
+import org.xwiki.component.annotation.Role;
+import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
+import org.xwiki.component.internal.index.ComponentIndex;
+
+/**
+ * Annotation processor generating the {@value ComponentIndex#INDEX_FILE} file containing the descriptors of the
+ * {@link Component} classes being compiled.
+ * <p>
+ * It applies the same rules as {@link org.xwiki.component.annotation.ComponentAnnotationLoader} and
+ * {@link org.xwiki.component.annotation.ComponentDescriptorFactory}. Components using something that cannot be
+ * represented in the index (type variables or wildcards in injected types, generic member types, legacy
+ * {@code @Requirement} annotations) are not indexed and are introspected at runtime as before.
+ * <p>
+ * This module is a build tool which should never end up in the runtime classpath of a module. A module generates its
+ * index by enabling the annotation processing (disabled by default in XWiki builds) and listing this module in the
+ * {@code annotationProcessorPaths} of the compiler plugin.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@SupportedAnnotationTypes("org.xwiki.component.annotation.Component")
+public class ComponentIndexProcessor extends AbstractProcessor
+{
+    private static final String DEFAULT_HINT = "default";
+
+    private static final String REQUIREMENT = "org.xwiki.component.annotation.Requirement";
+
+    private final StringBuilder index = new StringBuilder();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        if (roundEnv.processingOver()) {
+            if (this.index.length() > 0) {
+                write();
+            }
+        } else {
+            for (TypeElement element : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(Component.class))) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    String entry = createEntry(element);
+                    if (entry != null) {
+                        this.index.append(entry);
+                    }
+                }
+            }
+        }
+
+        // Don't claim the annotation, other processors might be interested in it
+        return false;
+    }
+
+    private void write()
+    {
+        try {
+            FileObject file = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                ComponentIndex.INDEX_FILE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write(this.index.toString());
+            }
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "Failed to write the component index [" + ComponentIndex.INDEX_FILE + "]: " + e.getMessage());
+        }
+    }
+
+    private String createEntry(TypeElement element)
+    {
+        StringBuilder entry = new StringBuilder();
+
+        line(entry, ComponentIndex.COMPONENT, binaryName(element), getInstantiationStrategy(element).name());
+
+        for (TypeMirror role : findRoleTypes((DeclaredType) element.asType())) {
+            String serializedRole = serialize(role);
+            if (serializedRole == null) {
+                return null;
+            }
+            line(entry, ComponentIndex.ROLE, serializedRole);
+        }
+
+        for (String hint : getHints(element)) {
+            line(entry, ComponentIndex.HINT, hint);
+        }
+
+        if (!addDependencies(entry, element)) {
+            return null;
+        }
+
+        return entry.toString();
+    }
+
+    private void line(StringBuilder builder, String... values)
+    {
+        for (int i = 0; i < values.length; ++i) {
+            if (i > 0) {
+                builder.append(ComponentIndex.SEPARATOR);
+            }
+            builder.append(values[i]);
+        }
+        builder.append('\n');
+    }
+
+    private ComponentInstantiationStrategy getInstantiationStrategy(TypeElement element)
+    {
+        if (element.getAnnotation(Singleton.class) != null) {
+            return ComponentInstantiationStrategy.SINGLETON;
+        }
+
+        InstantiationStrategy strategy = element.getAnnotation(InstantiationStrategy.class);
+
+        return strategy != null ? strategy.value() : ComponentInstantiationStrategy.SINGLETON;
+    }
+
+    private List<String> getHints(TypeElement element)
+    {
+        List<String> hints = new ArrayList<>();
+
+        Named named = element.getAnnotation(Named.class);
+        Component component = element.getAnnotation(Component.class);
+        if (named != null) {
+            hints.add(named.value());
+        } else if (component.hints().length > 0) {
+            hints.addAll(Arrays.asList(component.hints()));
+        } else if (component.value().trim().length() > 0) {
+            hints.add(component.value().trim());
+        } else {
+            hints.add(DEFAULT_HINT);
+        }
+
+        return hints;
+    }
+
+    private Set<TypeMirror> findRoleTypes(DeclaredType type)
+    {
+        Set<TypeMirror> roles = new LinkedHashSet<>();
+
+        TypeElement element = (TypeElement) type.asElement();
+
+        // If the roles are specified by the user then don't auto-discover roles
+        Component component = element.getAnnotation(Component.class);
+        List<? extends TypeMirror> declaredRoles = getDeclaredRoles(component);
+        if (!declaredRoles.isEmpty()) {
+            for (TypeMirror declaredRole : declaredRoles) {
+                roles.add(this.processingEnv.getTypeUtils().erasure(declaredRole));
+            }
+
+            return roles;
+        }
+
+        TypeMirror superType = null;
+        for (TypeMirror directType : this.processingEnv.getTypeUtils().directSupertypes(type)) {
+            Element directElement = ((DeclaredType) directType).asElement();
+
+            if (directElement.getKind() == ElementKind.INTERFACE) {
+                addInterfaceRoleTypes((DeclaredType) directType, roles);
+            } else if (!((TypeElement) directElement).getQualifiedName().contentEquals(Object.class.getName())) {
+                superType = directType;
+            }
+        }
+
+        // The superclass can itself implement an interface that has the @Role annotation
+        if (superType != null) {
+            roles.addAll(findRoleTypes((DeclaredType) superType));
+        }
+
+        return roles;
+    }
+
+    private List<? extends TypeMirror> getDeclaredRoles(Component component)
+    {
+        if (component != null) {
+            try {
+                // Only the class mirrors are available at compile time
+                component.roles();
+            } catch (MirroredTypesException e) {
+                return e.getTypeMirrors();
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+    private void addInterfaceRoleTypes(DeclaredType interfaceType, Set<TypeMirror> roles)
+    {
+        // Interfaces with unresolved type parameters are registered with their raw type
+        TypeMirror roleType = interfaceType;
+        if (hasTypeVariable(interfaceType)) {
+            roleType = this.processingEnv.getTypeUtils().erasure(interfaceType);
+        }
+
+        // Handle superclass of interfaces
+        roles.addAll(findRoleTypes(interfaceType));
+
+        Element interfaceElement = interfaceType.asElement();
+        if (hasDirectAnnotation(interfaceElement, Role.class) || isProvider(interfaceType)) {
+            roles.add(roleType);
+        }
+
+        // Handle ComponentRole (retro-compatibility since 4.0M1)
+        if (hasDirectAnnotation(interfaceElement, ComponentRole.class)) {
+            roles.add(this.processingEnv.getTypeUtils().erasure(interfaceType));
+        }
+    }
+
+    private boolean isProvider(TypeMirror type)
+    {
+        TypeElement providerElement = this.processingEnv.getElementUtils().getTypeElement(Provider.class.getName());
+
+        return this.processingEnv.getTypeUtils().isAssignable(this.processingEnv.getTypeUtils().erasure(type),
+            this.processingEnv.getTypeUtils().erasure(providerElement.asType()));
+    }
+
+    private boolean hasTypeVariable(TypeMirror type)
+    {
+        if (type.getKind() == TypeKind.TYPEVAR) {
+            return true;
+        }
+
+        if (type.getKind() == TypeKind.DECLARED) {
+            for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                if (hasTypeVariable(argument)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean hasDirectAnnotation(Element element, Class<?> annotationClass)
+    {
+        return element.getAnnotationMirrors().stream().anyMatch(mirror -> ((TypeElement) mirror.getAnnotationType()
+            .asElement()).getQualifiedName().contentEquals(annotationClass.getName()));
+    }
+
+    private boolean addDependencies(StringBuilder entry, TypeElement element)
+    {
+        // Fields declared in a class hide the fields with the same name declared in its superclasses
+        Set<String> names = new HashSet<>();
+
+        for (TypeElement current = element; current != null; current = getSuperclass(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (!names.add(field.getSimpleName().toString())) {
+                    continue;
+                }
+
+                if (field.getAnnotationMirrors().stream().anyMatch(mirror -> ((TypeElement) mirror.getAnnotationType()
+                    .asElement()).getQualifiedName().contentEquals(REQUIREMENT))) {
+                    // Legacy dependency declaration handled by a dedicated ComponentDependencyFactory
+                    return false;
+                }
+
+                if (field.getAnnotation(Inject.class) != null && !addDependency(entry, field)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean addDependency(StringBuilder entry, VariableElement field)
+    {
+        TypeMirror fieldType = field.asType();
+
+        // Retro-compatibility: the generic type of a @ComponentRole used to not be taken into account
+        if (fieldType.getKind() == TypeKind.DECLARED) {
+            Element fieldElement = ((DeclaredType) fieldType).asElement();
+            if (hasDirectAnnotation(fieldElement, ComponentRole.class)
+                && !hasDirectAnnotation(fieldElement, Role.class)) {
+                fieldType = this.processingEnv.getTypeUtils().erasure(fieldType);
+            }
+        }
+
+        String roleType = serialize(fieldType);
+        if (roleType == null) {
+            return false;
+        }
+
+        Named named = field.getAnnotation(Named.class);
+        if (named != null) {
+            line(entry, ComponentIndex.DEPENDENCY, field.getSimpleName().toString(), roleType, named.value());
+        } else {
+            line(entry, ComponentIndex.DEPENDENCY, field.getSimpleName().toString(), roleType);
+        }
+
+        return true;
+    }
+
+    private TypeElement getSuperclass(TypeElement element)
+    {
+        TypeMirror superclass = element.getSuperclass();
+
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    private String binaryName(TypeElement element)
+    {
+        return this.processingEnv.getElementUtils().getBinaryName(element).toString();
+    }
+
+    /**
+     * @return the type in the format expected by
+     *         {@link org.xwiki.component.util.ReflectionUtils#unserializeType(String, ClassLoader)} or {@code null} if
+     *         it cannot be represented in this format
+     */
+    private String serialize(TypeMirror type)
+    {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        DeclaredType declaredType = (DeclaredType) type;
+        TypeElement element = (TypeElement) declaredType.asElement();
+
+        if (declaredType.getTypeArguments().isEmpty()) {
+            return binaryName(element);
+        }
+
+        // The runtime representation of a generic member type has an owner type which is not serialized
+        if (element.getNestingKind().isNested()) {
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder(binaryName(element));
+        builder.append('<');
+        for (TypeMirror argument : declaredType.getTypeArguments()) {
+            String serializedArgument = serialize(argument);
+            if (serializedArgument == null) {
+                return null;
+            }
+            if (builder.charAt(builder.length() - 1) != '<') {
+                builder.append(',');
+            }
+            builder.append(serializedArgument);
+        }
+        builder.append('>');
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.component.index.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xwiki.component.annotation.ComponentAnnotationLoader;
+import org.xwiki.component.descriptor.ComponentDescriptor;
+import org.xwiki.component.internal.index.ComponentIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link ComponentIndexProcessor} and {@link ComponentIndex}.
+ *
+ * @version $Id$
+ */
+class ComponentIndexProcessorTest
+{
+    private static final String PACKAGE = "org.xwiki.component.test.index";
+
+    @TempDir
+    static Path directory;
+
+    private static ClassLoader classLoader;
+
+    private static ComponentIndex index;
+
+    @BeforeAll
+    static void beforeAll() throws Exception
+    {
+        List<File> sources = new ArrayList<>();
+        sources.add(source("SimpleRole", "@Role public interface SimpleRole {}"));
+        sources.add(source("GenericRole", "@Role public interface GenericRole<T> {}"));
+        sources.add(source("AbstractComponent", "public abstract class AbstractComponent<T> implements GenericRole<T> {"
+            + " @Inject protected Logger logger;"
+            + " @Inject @Named(\"other\") private SimpleRole other; }"));
+        sources.add(source("MyComponent", "@Component @Named(\"hint\") @Singleton"
+            + " public class MyComponent extends AbstractComponent<String>"
+            + " implements SimpleRole, Provider<List<String>> {"
+            + " @Inject private Provider<ComponentManager> componentManagerProvider;"
+            + " @Inject private Map<String, SimpleRole> roles;"
+            + " @Inject @Named(\"\") private List<GenericRole<String>> list;"
+            + " public List<String> get() { return null; } }"));
+        sources.add(source("MultipleHintsComponent", "@Component(hints = {\"a\", \"b\"})"
+            + " @InstantiationStrategy(ComponentInstantiationStrategy.PER_LOOKUP)"
+            + " public class MultipleHintsComponent<T> implements GenericRole<T> {}"));
+        sources.add(source("RolesComponent", "@Component(roles = SimpleRole.class)"
+            + " public class RolesComponent implements SimpleRole, GenericRole<Integer> {"
+            + " @Role public interface NestedRole<T> {}"
+            + " @Component public static class Nested implements NestedRole<String>, GenericRole<Nested> {} }"));
+        sources.add(source("WildcardComponent", "@Component public class WildcardComponent implements SimpleRole {"
+            + " @Inject private Provider<? extends SimpleRole> provider; }"));
+
+        Path output = directory.resolve("classes");
+        Files.createDirectories(output);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sources);
+            List<String> options = Arrays.asList("-d", output.toString(), "-classpath",
+                System.getProperty("java.class.path"), "-processor", ComponentIndexProcessor.class.getName());
+
+            assertTrue(compiler.getTask(null, fileManager, null, options, null, units).call());
+        }
+
+        classLoader = new URLClassLoader(new URL[] { output.toUri().toURL() },
+            ComponentIndexProcessorTest.class.getClassLoader());
+        index = ComponentIndex.load(classLoader);
+    }
+
+    private static File source(String name, String content) throws IOException
+    {
+        Path file = directory.resolve("sources").resolve(name + ".java");
+        Files.createDirectories(file.getParent());
+
+        String source = "package " + PACKAGE + ";\n"
+            + "import java.util.*;\n"
+            + "import javax.inject.*;\n"
+            + "import org.slf4j.Logger;\n"
+            + "import org.xwiki.component.annotation.*;\n"
+            + "import org.xwiki.component.descriptor.ComponentInstantiationStrategy;\n"
+            + "import org.xwiki.component.manager.ComponentManager;\n"
+            + content;
+        Files.write(file, Collections.singletonList(source), StandardCharsets.UTF_8);
+
+        return file.toFile();
+    }
+
+    private void assertIndexed(String name) throws ClassNotFoundException
+    {
+        Class<?> componentClass = classLoader.loadClass(PACKAGE + '.' + name);
+
+        List<ComponentDescriptor<?>> expected = new ComponentAnnotationLoader().getComponentsDescriptors(componentClass);
+        List<ComponentDescriptor<?>> actual = index.getComponentDescriptors(componentClass);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void indexMatchesIntrospection() throws Exception
+    {
+        assertFalse(index.isEmpty());
+
+        assertIndexed("MyComponent");
+        assertIndexed("MultipleHintsComponent");
+        assertIndexed("RolesComponent");
+    }
+
+    @Test
+    void unsupportedComponentsAreNotIndexed() throws Exception
+    {
+        assertNull(index.getComponentDescriptors(classLoader.loadClass(PACKAGE + ".WildcardComponent")));
+        assertNull(index.getComponentDescriptors(classLoader.loadClass(PACKAGE + ".AbstractComponent")));
+        assertNull(index.getComponentDescriptors(classLoader.loadClass(PACKAGE + ".RolesComponent$Nested")));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.context.internal.concurrent;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.context.ExecutionContextManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link ExecutionContextWarmUpTaskWrapper}.
+ *
+ * @version $Id$
+ */
+class ExecutionContextWarmUpTaskWrapperTest
+{
+    @Test
+    void wrap() throws Exception
+    {
+        ComponentManager componentManager = mock(ComponentManager.class);
+        ExecutionContextManager executionContextManager = mock(ExecutionContextManager.class);
+        Execution execution = mock(Execution.class);
+        when(componentManager.getInstance(ExecutionContextManager.class)).thenReturn(executionContextManager);
+        when(componentManager.getInstance(Execution.class)).thenReturn(execution);
+
+        ExecutionContextWarmUpTaskWrapper wrapper = new ExecutionContextWarmUpTaskWrapper();
+        FieldUtils.writeField(wrapper, "componentManager", componentManager, true);
+
+        Runnable task = mock(Runnable.class);
+        wrapper.wrap(task).run();
+
+        InOrder order = inOrder(executionContextManager, task, execution);
+        order.verify(executionContextManager).initialize(any(ExecutionContext.class));
+        order.verify(task).run();
+        order.verify(execution).removeContext();
+    }
+}
@@ -32,6 +32,8 @@
 import org.xwiki.job.event.status.QuestionAnsweredEvent;
 import org.xwiki.job.event.status.QuestionAskedEvent;
 import org.xwiki.job.internal.DefaultJobProgress;
+import org.xwiki.job.internal.JobProgressThreadBinding;
+import org.xwiki.job.internal.JobUtils;
 import org.xwiki.logging.LogLevel;
 import org.xwiki.logging.LogQueue;
 import org.xwiki.logging.LoggerManager;
@@ -100,9 +102,9 @@
     private transient volatile Object question;
 
     /**
-     * Log sent during job execution. Kept as a cache for {@link #getLog()} and a way to unzerialize old status logs.
+     * Log sent during job execution when it's serialized with the status. Also a way to unzerialize old status logs.
      */
-    private LogQueue logs;
+    private LoggerTail logs;
 
     /**
      * @see #getJobType()
@@ -195,8 +197,10 @@ public AbstractJobStatus(String jobType, R request, JobStatus parentJobStatus,
      */
     public void startListening()
     {
-        // Register progress listener
-        this.observationManager.addListener(new WrappedThreadEventListener(this.progress));
+        // Bind the progress to the job thread (the job progress manager updates it directly). The progress does not
+        // listen to the progress events anymore so sending them directly to the observation manager has no effect on
+        // it.
+        JobProgressThreadBinding.bind(this.progress);
 
         // Isolate log for the job status
         this.logListener = new LoggerListener(LoggerListener.class.getName() + '_' + hashCode(), getLoggerTail());
@@ -217,7 +221,7 @@ public void stopListening()
         } else {
             this.observationManager.removeListener(this.logListener.getName());
         }
-        this.observationManager.removeListener(this.progress.getName());
+        JobProgressThreadBinding.unbind(this.progress);
 
         // Make sure the progress is closed
         this.progress.getRootStep().finish();
@@ -287,15 +291,29 @@ public LoggerTail getLoggerTail()
     {
         // Make sure to always return something
         if (this.loggerTail == null) {
-            if (this.logs == null) {
-                this.logs = new LogQueue();
+            if (this.logs != null) {
+                // Log unserialized with the status
+                this.loggerTail = this.logs;
+            } else {
+                this.loggerTail = createMemoryLoggerTail();
+
+                if (getRequest() != null && JobUtils.isSerializable(this)) {
+                    // The log has to be serialized with the status
+                    this.logs = this.loggerTail;
+                }
             }
-            this.loggerTail = this.logs;
         }
 
         return this.loggerTail;
     }
 
+    private LoggerTail createMemoryLoggerTail()
+    {
+        LoggerTail memoryLoggerTail = this.loggerManager != null ? this.loggerManager.createLoggerTail() : null;
+
+        return memoryLoggerTail != null ? memoryLoggerTail : new LogQueue();
+    }
+
     /**
      * @param loggerTail the logger tail
      * @since 11.9RC1
@@ -304,7 +322,7 @@ public void setLoggerTail(LoggerTail loggerTail)
     {
         this.loggerTail = loggerTail;
         if (this.loggerTail instanceof LogQueue) {
-            this.logs = (LogQueue) this.loggerTail;
+            this.logs = this.loggerTail;
         }
     }
 
@@ -507,17 +525,18 @@ public boolean isSerialized()
     @Deprecated
     public LogQueue getLog()
     {
-        LogQueue logQueue = this.logs;
+        if (this.logs instanceof LogQueue) {
+            return (LogQueue) this.logs;
+        }
 
         // Make sure to always return something
-        if (logQueue == null) {
-            logQueue = new LogQueue();
+        LogQueue logQueue = new LogQueue();
 
-            if (this.loggerTail != null) {
-                this.loggerTail.log(logQueue);
-            } else {
-                this.logs = logQueue;
-            }
+        LogTail logTail = this.logs != null ? this.logs : this.loggerTail;
+        if (logTail != null) {
+            logTail.log(logQueue);
+        } else {
+            this.logs = logQueue;
         }
 
         return logQueue;
@@ -527,7 +546,10 @@ public LogQueue getLog()
     @Deprecated
     public List<LogEvent> getLog(LogLevel level)
     {
-        return getLogTail().getLogEvents(level).stream().filter(log -> log.getLevel() == level)
+        // Don't force the creation of the logger tail to stay compatible with #getLog()
+        LogTail logTail = this.loggerTail != null ? this.loggerTail : getLog();
+
+        return logTail.getLogEvents(level).stream().filter(log -> log.getLevel() == level)
             .collect(Collectors.toList());
     }
 }
@@ -75,4 +75,29 @@ default long getGroupedJobThreadKeepAliveTime()
     {
         return 60000L;
     }
+
+    /**
+     * @return the type of executor used to run the jobs: {@code thread} (the default) to run single jobs and each job
+     *         group in dedicated thread pools, or {@code workstealing} to run all the jobs in a shared work-stealing
+     *         pool, which is more efficient for a lot of short jobs but less suited to jobs waiting for a long time
+     *         (for example for an answer to a question)
+     * @since 12.9RC1
+     */
+    @Unstable
+    default String getJobExecutorType()
+    {
+        return "thread";
+    }
+
+    /**
+     * @return the target number of threads actively running jobs in the shared work-stealing pool, see
+     *         {@link #getJobExecutorType()}
+     * @see java.util.concurrent.ForkJoinPool#getParallelism()
+     * @since 12.9RC1
+     */
+    @Unstable
+    default int getWorkStealingParallelism()
+    {
+        return Runtime.getRuntime().availableProcessors();
+    }
 }
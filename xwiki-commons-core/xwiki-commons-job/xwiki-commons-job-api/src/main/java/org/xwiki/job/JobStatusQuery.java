@@ -0,0 +1,226 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job;
+
+import java.util.Date;
+import java.util.List;
+
+import org.xwiki.job.event.status.JobStatus;
+import org.xwiki.logging.LogLevel;
+import org.xwiki.stability.Unstable;
+
+/**
+ * The criteria used to search stored job statuses. Criteria left to {@code null} are ignored.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Unstable
+public class JobStatusQuery
+{
+    private List<String> idPrefix;
+
+    private String jobType;
+
+    private JobStatus.State state;
+
+    private Boolean error;
+
+    private LogLevel logLevel;
+
+    private Date startedAfter;
+
+    private Date startedBefore;
+
+    private int offset;
+
+    private int limit = -1;
+
+    /**
+     * @return the jobs to match are the ones with an id starting with these elements
+     */
+    public List<String> getIdPrefix()
+    {
+        return this.idPrefix;
+    }
+
+    /**
+     * @param idPrefix the jobs to match are the ones with an id starting with these elements
+     * @return this query
+     */
+    public JobStatusQuery setIdPrefix(List<String> idPrefix)
+    {
+        this.idPrefix = idPrefix;
+
+        return this;
+    }
+
+    /**
+     * @return the type of the jobs to match
+     */
+    public String getJobType()
+    {
+        return this.jobType;
+    }
+
+    /**
+     * @param jobType the type of the jobs to match
+     * @return this query
+     */
+    public JobStatusQuery setJobType(String jobType)
+    {
+        this.jobType = jobType;
+
+        return this;
+    }
+
+    /**
+     * @return the state of the jobs to match
+     */
+    public JobStatus.State getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * @param state the state of the jobs to match
+     * @return this query
+     */
+    public JobStatusQuery setState(JobStatus.State state)
+    {
+        this.state = state;
+
+        return this;
+    }
+
+    /**
+     * @return true to match only the jobs which failed with an error, false to match only the ones which did not
+     */
+    public Boolean getError()
+    {
+        return this.error;
+    }
+
+    /**
+     * @param error true to match only the jobs which failed with an error, false to match only the ones which did not
+     * @return this query
+     */
+    public JobStatusQuery setError(Boolean error)
+    {
+        this.error = error;
+
+        return this;
+    }
+
+    /**
+     * @return the jobs to match are the ones which logged something at this level or a more severe one
+     */
+    public LogLevel getLogLevel()
+    {
+        return this.logLevel;
+    }
+
+    /**
+     * @param logLevel the jobs to match are the ones which logged something at this level or a more severe one
+     * @return this query
+     */
+    public JobStatusQuery setLogLevel(LogLevel logLevel)
+    {
+        this.logLevel = logLevel;
+
+        return this;
+    }
+
+    /**
+     * @return the jobs to match are the ones started at or after this date
+     */
+    public Date getStartedAfter()
+    {
+        return this.startedAfter;
+    }
+
+    /**
+     * @param startedAfter the jobs to match are the ones started at or after this date
+     * @return this query
+     */
+    public JobStatusQuery setStartedAfter(Date startedAfter)
+    {
+        this.startedAfter = startedAfter;
+
+        return this;
+    }
+
+    /**
+     * @return the jobs to match are the ones started before this date
+     */
+    public Date getStartedBefore()
+    {
+        return this.startedBefore;
+    }
+
+    /**
+     * @param startedBefore the jobs to match are the ones started before this date
+     * @return this query
+     */
+    public JobStatusQuery setStartedBefore(Date startedBefore)
+    {
+        this.startedBefore = startedBefore;
+
+        return this;
+    }
+
+    /**
+     * @return the index of the first result to return
+     */
+    public int getOffset()
+    {
+        return this.offset;
+    }
+
+    /**
+     * @param offset the index of the first result to return
+     * @return this query
+     */
+    public JobStatusQuery setOffset(int offset)
+    {
+        this.offset = offset;
+
+        return this;
+    }
+
+    /**
+     * @return the maximum number of results to return, -1 for no limit
+     */
+    public int getLimit()
+    {
+        return this.limit;
+    }
+
+    /**
+     * @param limit the maximum number of results to return, -1 for no limit
+     * @return this query
+     */
+    public JobStatusQuery setLimit(int limit)
+    {
+        this.limit = limit;
+
+        return this;
+    }
+}
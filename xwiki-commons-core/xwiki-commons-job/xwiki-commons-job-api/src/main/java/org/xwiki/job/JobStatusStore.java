@@ -19,12 +19,16 @@
  */
 package org.xwiki.job;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.xwiki.component.annotation.Role;
 import org.xwiki.job.event.status.JobStatus;
 import org.xwiki.logging.LogQueue;
 import org.xwiki.logging.tail.LoggerTail;
+import org.xwiki.stability.Unstable;
 
 /**
  * Store and retrieve {@link JobStatus} instances.
@@ -41,6 +45,54 @@
      */
     JobStatus getJobStatus(List<String> id);
 
+    /**
+     * Get a job status which might be loaded lazily: the job type, state, start and end dates and global progress are
+     * available right away while the rest (request, progress tree, log, etc.) is loaded only when asked. It's meant to
+     * be used to display many job statuses, the returned instance is not necessarily of the same type as the stored
+     * job status so {@link #getJobStatus(List)} should be used when the actual type matters.
+     *
+     * @param id the id of the job
+     * @return the job status or null if there's no matching job id
+     * @since 12.9RC1
+     */
+    @Unstable
+    default JobStatus getLazyJobStatus(List<String> id)
+    {
+        return getJobStatus(id);
+    }
+
+    /**
+     * Search the stored job statuses. The returned job statuses are loaded lazily (see
+     * {@link #getLazyJobStatus(List)}).
+     *
+     * @param query the criteria of the job statuses to find
+     * @return the matching job statuses, ordered by start date
+     * @since 12.9RC1
+     */
+    @Unstable
+    default List<JobStatus> search(JobStatusQuery query)
+    {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Get several job statuses at once, which gives the store a chance to load them in parallel.
+     *
+     * @param ids the ids of the jobs
+     * @return the job statuses, in the same order as the passed ids ({@code null} for the ids without matching job)
+     * @since 12.9RC1
+     */
+    @Unstable
+    default List<JobStatus> getJobStatuses(Collection<List<String>> ids)
+    {
+        List<JobStatus> statuses = new ArrayList<>(ids.size());
+        for (List<String> id : ids) {
+            statuses.add(getJobStatus(id));
+        }
+
+        return statuses;
+    }
+
     /**
      * @param status the job status
      */
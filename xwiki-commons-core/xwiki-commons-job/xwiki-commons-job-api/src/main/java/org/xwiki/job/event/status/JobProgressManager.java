@@ -26,6 +26,10 @@
 
 /**
  * Helper to manipulate current progress.
+ * <p>
+ * Since 12.9RC1 this is the only way to update the progress of the jobs running in the current thread: the
+ * {@link ProgressEvent}s sent directly to the {@link org.xwiki.observation.ObservationManager} are still received by
+ * the listeners but they are not applied to the job progress anymore.
  *
  * @version $Id$
  * @since 6.1M1
@@ -23,6 +23,9 @@
 
 /**
  * Progress related events.
+ * <p>
+ * Since 12.9RC1 the job progress is not updated by these events anymore but directly by {@link JobProgressManager}
+ * which only sends them to the {@link org.xwiki.observation.ObservationManager} for the listeners interested in them.
  * 
  * @version $Id$
  * @since 7.1M2
@@ -0,0 +1,83 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Associate the progress of the jobs running in a thread with this thread so that the progress can be updated
+ * directly instead of going through the {@link org.xwiki.observation.ObservationManager}.
+ * <p>
+ * Several progresses can be bound to the same thread when a job is executed in the thread of another job, in which
+ * case all of them receive the progress of the thread.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public final class JobProgressThreadBinding
+{
+    private static final ThreadLocal<List<DefaultJobProgress>> PROGRESSES = new ThreadLocal<>();
+
+    private JobProgressThreadBinding()
+    {
+        // Utility class
+    }
+
+    /**
+     * @param progress the progress to update with the progress events of the current thread
+     */
+    public static void bind(DefaultJobProgress progress)
+    {
+        List<DefaultJobProgress> progresses = PROGRESSES.get();
+        if (progresses == null) {
+            progresses = new ArrayList<>();
+            PROGRESSES.set(progresses);
+        }
+
+        progresses.add(progress);
+    }
+
+    /**
+     * @param progress the progress to stop updating with the progress events of the current thread
+     */
+    public static void unbind(DefaultJobProgress progress)
+    {
+        List<DefaultJobProgress> progresses = PROGRESSES.get();
+        if (progresses != null) {
+            progresses.removeIf(boundProgress -> boundProgress == progress);
+
+            if (progresses.isEmpty()) {
+                PROGRESSES.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the progresses bound to the current thread, in binding order
+     */
+    public static List<DefaultJobProgress> getProgresses()
+    {
+        List<DefaultJobProgress> progresses = PROGRESSES.get();
+
+        return progresses != null ? progresses : Collections.emptyList();
+    }
+}
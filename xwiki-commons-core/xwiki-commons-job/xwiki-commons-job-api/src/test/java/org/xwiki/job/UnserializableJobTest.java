@@ -22,11 +22,15 @@
 import org.junit.jupiter.api.Test;
 import org.xwiki.job.test.UnserializableJob;
 import org.xwiki.job.test.UnserializableJobStatus;
-import org.xwiki.logging.LogQueue;
+import org.xwiki.logging.LoggerManager;
+import org.xwiki.logging.internal.tail.MemoryLoggerTail;
 import org.xwiki.test.junit5.mockito.ComponentTest;
 import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
 
 /**
  * Validate {@link AbstractJob} behavior for unserializable status.
@@ -39,14 +43,20 @@
     @InjectMockComponents
     private UnserializableJob job;
 
+    @MockComponent
+    private LoggerManager loggerManager;
+
     @Test
     void getLogTail()
     {
+        MemoryLoggerTail loggerTail = new MemoryLoggerTail();
+        when(this.loggerManager.createLoggerTail()).thenReturn(loggerTail);
+
         DefaultRequest request = new DefaultRequest();
 
         this.job.initialize(request);
 
         assertTrue(job.getStatus() instanceof UnserializableJobStatus);
-        assertTrue(job.getStatus().getLoggerTail() instanceof LogQueue);
+        assertSame(loggerTail, job.getStatus().getLoggerTail());
     }
 }
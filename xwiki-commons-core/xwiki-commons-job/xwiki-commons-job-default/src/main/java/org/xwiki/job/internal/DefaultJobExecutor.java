@@ -26,12 +26,14 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -65,6 +67,11 @@
 @Singleton
 public class DefaultJobExecutor implements JobExecutor, Initializable, Disposable
 {
+    /**
+     * The type of executor running all the jobs in a shared work-stealing pool.
+     */
+    private static final String EXECUTOR_WORKSTEALING = "workstealing";
+
     private class JobGroupExecutor extends JobThreadExecutor implements ThreadFactory
     {
         private final ThreadFactory threadFactory = Executors.defaultThreadFactory();
@@ -115,19 +122,7 @@ protected void afterExecute(Runnable r, Throwable t)
 
             super.afterExecute(r, t);
 
-            Job job = (Job) r;
-
-            List<String> jobId = job.getRequest().getId();
-            if (jobId != null) {
-                synchronized (DefaultJobExecutor.this.groupedJobs) {
-                    Queue<Job> jobQueue = DefaultJobExecutor.this.groupedJobs.get(jobId);
-                    if (jobQueue != null) {
-                        if (jobQueue.peek() == job) {
-                            jobQueue.poll();
-                        }
-                    }
-                }
-            }
+            removeGroupedJob((Job) r);
         }
 
         @Override
@@ -161,20 +156,114 @@ protected void beforeExecute(Thread t, Runnable r)
         @Override
         protected void afterExecute(Runnable r, Throwable t)
         {
-            Job job = (Job) r;
+            removeSingleJob((Job) r);
 
-            List<String> jobId = job.getRequest().getId();
-            if (jobId != null) {
-                synchronized (DefaultJobExecutor.this.jobs) {
-                    Job storedJob = DefaultJobExecutor.this.jobs.get(jobId);
-                    if (storedJob == job) {
-                        DefaultJobExecutor.this.jobs.remove(jobId);
+            // Reset thread name since it's not used anymore
+            Thread.currentThread().setName("Unused job pool thread");
+        }
+    }
+
+    /**
+     * Run the jobs of a group in the shared work-stealing pool, without running more jobs at the same time than the
+     * pool size of the group.
+     */
+    private class SharedJobGroup
+    {
+        private final JobGroupPath path;
+
+        private final int poolSize;
+
+        private final Queue<Job> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger running = new AtomicInteger();
+
+        private volatile Job currentJob;
+
+        SharedJobGroup(JobGroupPath path, GroupedJobInitializer initializer)
+        {
+            this.path = path;
+            this.poolSize = initializer.getPoolSize();
+        }
+
+        void execute(Job job)
+        {
+            this.queue.offer(job);
+
+            schedule();
+        }
+
+        /**
+         * Submit queued jobs to the shared pool as long as the group is running less jobs than its pool size.
+         */
+        private void schedule()
+        {
+            for (int count = this.running.get(); count < this.poolSize && !this.queue.isEmpty();
+                count = this.running.get()) {
+                if (this.running.compareAndSet(count, count + 1)) {
+                    Job job = this.queue.poll();
+
+                    if (job != null) {
+                        DefaultJobExecutor.this.sharedPool.execute(() -> run(job));
+                    } else {
+                        this.running.decrementAndGet();
                     }
                 }
             }
+        }
 
-            // Reset thread name since it's not used anymore
-            Thread.currentThread().setName("Unused job pool thread");
+        private void run(Job job)
+        {
+            try {
+                lockGroup(this.path);
+
+                try {
+                    this.currentJob = job;
+
+                    job.run();
+                } finally {
+                    this.currentJob = null;
+
+                    DefaultJobExecutor.this.lockTree.unlock(this.path);
+                }
+            } finally {
+                removeGroupedJob(job);
+
+                this.running.decrementAndGet();
+
+                // Make sure the jobs queued while this one was running are not forgotten
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Wait for a job group lock while allowing the work-stealing pool to start another thread in the meantime.
+     */
+    private class JobGroupLockBlocker implements ForkJoinPool.ManagedBlocker
+    {
+        private final JobGroupPath path;
+
+        private boolean locked;
+
+        JobGroupLockBlocker(JobGroupPath path)
+        {
+            this.path = path;
+        }
+
+        @Override
+        public boolean block()
+        {
+            DefaultJobExecutor.this.lockTree.lock(this.path);
+
+            this.locked = true;
+
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable()
+        {
+            return this.locked;
         }
     }
 
@@ -212,6 +301,16 @@ protected void afterExecute(Runnable r, Throwable t)
      */
     private JobThreadExecutor jobExecutor;
 
+    /**
+     * Execute all jobs when the work-stealing executor is enabled, {@code null} otherwise.
+     */
+    private ForkJoinPool sharedPool;
+
+    /**
+     * Map<groupname, group running in the shared pool>.
+     */
+    private final Map<JobGroupPath, SharedJobGroup> sharedGroups = new ConcurrentHashMap<>();
+
     private volatile boolean disposed;
 
     @Override
@@ -220,6 +319,14 @@ public void initialize() throws InitializationException
         this.jobExecutor =
             new JobThreadExecutor(0, Integer.MAX_VALUE, this.jobManagerConfiguration.getSingleJobThreadKeepAliveTime(),
                 TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+
+        if (EXECUTOR_WORKSTEALING.equals(this.jobManagerConfiguration.getJobExecutorType())) {
+            int parallelism = this.jobManagerConfiguration.getWorkStealingParallelism();
+
+            this.sharedPool =
+                new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                    new JobWorkerThreadFactory(), null, true);
+        }
     }
 
     @Override
@@ -232,6 +339,9 @@ public void dispose() throws ComponentLifecycleException
             for (JobGroupExecutor executor : this.groupExecutors.values()) {
                 executor.shutdownNow();
             }
+            if (this.sharedPool != null) {
+                this.sharedPool.shutdownNow();
+            }
         }
     }
 
@@ -240,6 +350,12 @@ public void dispose() throws ComponentLifecycleException
     @Override
     public Job getCurrentJob(JobGroupPath path)
     {
+        if (this.sharedPool != null) {
+            SharedJobGroup group = this.sharedGroups.get(path);
+
+            return group != null ? group.currentJob : null;
+        }
+
         JobGroupExecutor executor = this.groupExecutors.get(path);
 
         return executor != null ? executor.currentJob : null;
@@ -312,14 +428,38 @@ public void execute(Job job)
 
     private void executeSingleJob(Job job)
     {
-        this.jobExecutor.execute(job);
-
+        // Register the job before executing it so that a quick job cannot finish before being registered
         List<String> jobId = job.getRequest().getId();
         if (jobId != null) {
             synchronized (this.jobs) {
                 this.jobs.put(jobId, job);
             }
         }
+
+        if (this.sharedPool != null) {
+            this.sharedPool.execute(() -> {
+                try {
+                    job.run();
+                } finally {
+                    removeSingleJob(job);
+                }
+            });
+        } else {
+            this.jobExecutor.execute(job);
+        }
+    }
+
+    private void removeSingleJob(Job job)
+    {
+        List<String> jobId = job.getRequest().getId();
+        if (jobId != null) {
+            synchronized (this.jobs) {
+                Job storedJob = this.jobs.get(jobId);
+                if (storedJob == job) {
+                    this.jobs.remove(jobId);
+                }
+            }
+        }
     }
 
     private void executeGroupedJob(GroupedJob job)
@@ -334,16 +474,7 @@ private void executeGroupedJob(GroupedJob job)
                 return;
             }
 
-            JobGroupExecutor groupExecutor = this.groupExecutors.get(path);
-
-            if (groupExecutor == null) {
-                groupExecutor = new JobGroupExecutor(path,
-                    this.groupedJobInitializerManager.getGroupedJobInitializer(path));
-                this.groupExecutors.put(path, groupExecutor);
-            }
-
-            groupExecutor.execute(job);
-
+            // Register the job before executing it so that a quick job cannot finish before being registered
             List<String> jobId = job.getRequest().getId();
             if (jobId != null) {
                 synchronized (this.groupedJobs) {
@@ -355,6 +486,47 @@ private void executeGroupedJob(GroupedJob job)
                     jobQueue.offer(job);
                 }
             }
+
+            if (this.sharedPool != null) {
+                this.sharedGroups.computeIfAbsent(path,
+                    key -> new SharedJobGroup(key, this.groupedJobInitializerManager.getGroupedJobInitializer(key)))
+                    .execute(job);
+            } else {
+                JobGroupExecutor groupExecutor = this.groupExecutors.get(path);
+
+                if (groupExecutor == null) {
+                    groupExecutor = new JobGroupExecutor(path,
+                        this.groupedJobInitializerManager.getGroupedJobInitializer(path));
+                    this.groupExecutors.put(path, groupExecutor);
+                }
+
+                groupExecutor.execute(job);
+            }
+        }
+    }
+
+    private void removeGroupedJob(Job job)
+    {
+        List<String> jobId = job.getRequest().getId();
+        if (jobId != null) {
+            synchronized (this.groupedJobs) {
+                Queue<Job> jobQueue = this.groupedJobs.get(jobId);
+                if (jobQueue != null) {
+                    if (jobQueue.peek() == job) {
+                        jobQueue.poll();
+                    }
+                }
+            }
+        }
+    }
+
+    private void lockGroup(JobGroupPath path)
+    {
+        try {
+            ForkJoinPool.managedBlock(new JobGroupLockBlocker(path));
+        } catch (InterruptedException e) {
+            // Cannot really happen since waiting for the lock is not interruptible
+            Thread.currentThread().interrupt();
         }
     }
 }
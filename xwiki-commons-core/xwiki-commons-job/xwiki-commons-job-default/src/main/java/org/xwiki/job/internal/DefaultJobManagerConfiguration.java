@@ -106,4 +106,18 @@ public long getGroupedJobThreadKeepAliveTime()
     {
         return this.configuration.get().getProperty("job.groupedJobThreadKeepAliveTime", 60000L);
     }
+
+    @Override
+    public String getJobExecutorType()
+    {
+        return this.configuration.get().getProperty("job.executorType",
+            JobManagerConfiguration.super.getJobExecutorType());
+    }
+
+    @Override
+    public int getWorkStealingParallelism()
+    {
+        return this.configuration.get().getProperty("job.workStealingParallelism",
+            JobManagerConfiguration.super.getWorkStealingParallelism());
+    }
 }
@@ -33,9 +33,13 @@
 import org.xwiki.job.event.status.StepProgressEvent;
 import org.xwiki.logging.Message;
 import org.xwiki.observation.ObservationManager;
+import org.xwiki.observation.event.Event;
 
 /**
  * Default implementation of {@link JobProgressManager}.
+ * <p>
+ * The progress of the jobs running in the current thread is updated directly and the progress events are sent to the
+ * {@link ObservationManager} only when someone listens to them.
  *
  * @version $Id$
  * @since 6.1M1
@@ -50,20 +54,20 @@ public class DefaultJobProgressManager implements JobProgressManager
     @Override
     public void pushLevelProgress(Object source)
     {
-        this.observationManager.notify(new PushLevelProgressEvent(), source);
+        progress(new PushLevelProgressEvent(), source);
     }
 
     @Override
     public void pushLevelProgress(int steps, Object source)
     {
-        this.observationManager.notify(new PushLevelProgressEvent(steps), source);
+        progress(new PushLevelProgressEvent(steps), source);
     }
 
     @Override
     @Deprecated
     public void stepPropress(Object source)
     {
-        this.observationManager.notify(StepProgressEvent.INSTANCE, source);
+        progress(StepProgressEvent.INSTANCE, source);
     }
 
     @Override
@@ -81,7 +85,11 @@ public void startStep(Object source, String name)
     @Override
     public void startStep(Object source, Message message)
     {
-        this.observationManager.notify(StartStepProgressEvent.INSTANCE, source, message);
+        updateProgress(StartStepProgressEvent.INSTANCE, source, message);
+
+        if (this.observationManager.hasListener(StartStepProgressEvent.INSTANCE)) {
+            this.observationManager.notify(StartStepProgressEvent.INSTANCE, source, message);
+        }
     }
 
     @Override
@@ -93,13 +101,13 @@ public void startStep(Object source, String translationKey, String message, Obje
     @Override
     public void endStep(Object source)
     {
-        this.observationManager.notify(EndStepProgressEvent.INSTANCE, source);
+        progress(EndStepProgressEvent.INSTANCE, source);
     }
 
     @Override
     public void popLevelProgress(Object source)
     {
-        this.observationManager.notify(PopLevelProgressEvent.INSTANCE, source);
+        progress(PopLevelProgressEvent.INSTANCE, source);
     }
 
     @Override
@@ -126,6 +134,26 @@ public <T> T call(Callable<T> task, int steps, Object source) throws Exception
         }
     }
 
+    private void progress(Event event, Object source)
+    {
+        updateProgress(event, source, null);
+
+        if (this.observationManager.hasListener(event)) {
+            this.observationManager.notify(event, source);
+        }
+    }
+
+    /**
+     * Directly update the progress of the jobs running in the current thread instead of going through the observation
+     * manager which is much more expensive for events sent so often.
+     */
+    private void updateProgress(Event event, Object source, Message message)
+    {
+        for (DefaultJobProgress progress : JobProgressThreadBinding.getProgresses()) {
+            progress.onEvent(event, source, message);
+        }
+    }
+
     private Message toMessage(String name)
     {
         return name != null ? new Message(name) : null;
@@ -23,14 +23,21 @@
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -41,17 +48,21 @@
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.xwiki.cache.Cache;
 import org.xwiki.cache.CacheException;
 import org.xwiki.cache.CacheManager;
 import org.xwiki.cache.config.LRUCacheConfiguration;
 import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.component.phase.Disposable;
 import org.xwiki.component.phase.Initializable;
 import org.xwiki.component.phase.InitializationException;
 import org.xwiki.job.AbstractJobStatus;
 import org.xwiki.job.DefaultJobStatus;
 import org.xwiki.job.JobManagerConfiguration;
+import org.xwiki.job.JobStatusQuery;
 import org.xwiki.job.JobStatusStore;
 import org.xwiki.job.event.status.JobStatus;
 import org.xwiki.logging.LogQueue;
@@ -66,7 +77,7 @@
  */
 @Component
 @Singleton
-public class DefaultJobStatusStore implements JobStatusStore, Initializable
+public class DefaultJobStatusStore implements JobStatusStore, Initializable, Disposable
 {
     /**
      * The current version of the store. Should be upgraded if any change is made.
@@ -76,7 +87,12 @@ public class DefaultJobStatusStore implements JobStatusStore, Initializable
     /**
      * The name of the file where the job status is stored.
      */
-    private static final String FILENAME_STATUS = "status.xml";
+    private static final String FILENAME_STATUS = "status.bin";
+
+    /**
+     * The name of the file where the job status used to be stored, before the binary format.
+     */
+    private static final String FILENAME_STATUS_XML = "status.xml";
 
     /**
      * The name of the file where various information about the status store are stored (like the version of the store).
@@ -88,6 +104,11 @@ public class DefaultJobStatusStore implements JobStatusStore, Initializable
      */
     private static final String INDEX_FILE_VERSION = "version";
 
+    /**
+     * The name of the file containing the index of the stored job statuses.
+     */
+    private static final String INDEX_STATUSES_FILE = "index.bin";
+
     /**
      * Encoding used for file content and names.
      */
@@ -102,6 +123,23 @@ public class DefaultJobStatusStore implements JobStatusStore, Initializable
 
     private static final JobStatus NOSTATUS = new DefaultJobStatus<>(null, null, null, null, null);
 
+    private static final Object NULL_ID_KEY = new Object();
+
+    /**
+     * The number of locks protecting the access to the job folders.
+     */
+    private static final int LOCK_STRIPES = 32;
+
+    /**
+     * The maximum number of job statuses loaded in parallel.
+     */
+    private static final int LOADER_THREADS = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
+    /**
+     * The maximum time (in seconds) to wait for the pending serializations when disposing the store.
+     */
+    private static final long SERIALIZER_TERMINATION_TIMEOUT = 60;
+
     /**
      * Used to get the storage directory.
      */
@@ -123,16 +161,25 @@ public class DefaultJobStatusStore implements JobStatusStore, Initializable
     @Inject
     private Logger logger;
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-
-    private final ReadLock readLock = lock.readLock();
+    /**
+     * The locks protecting the access to the job folders, a job folder being associated to a lock according to its
+     * path.
+     */
+    private final ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
 
-    private final WriteLock writeLock = lock.writeLock();
+    /**
+     * The job statuses currently being loaded from the disk, shared by all the threads asking for the same job status.
+     */
+    private final ConcurrentMap<Object, CompletableFuture<JobStatus>> loadings = new ConcurrentHashMap<>();
 
     private ExecutorService executorService;
 
+    private ExecutorService loaderService;
+
     private Cache<JobStatus> cache;
 
+    private JobStatusIndex index;
+
     class JobStatusSerializerRunnable implements Runnable
     {
         /**
@@ -155,9 +202,16 @@ public void run()
     @Override
     public void initialize() throws InitializationException
     {
+        for (int i = 0; i < this.locks.length; ++i) {
+            this.locks[i] = new ReentrantReadWriteLock();
+        }
+
+        File folder = this.configuration.getStorage();
+
+        this.index = new JobStatusIndex(new File(folder, INDEX_STATUSES_FILE));
+
         try {
             // Check if the store need to be upgraded
-            File folder = this.configuration.getStorage();
             File file = new File(folder, INDEX_FILE);
 
             FileBasedConfigurationBuilder<PropertiesConfiguration> builder =
@@ -165,9 +219,15 @@ public void initialize() throws InitializationException
                     .configure(new Parameters().properties().setFile(file));
             PropertiesConfiguration properties = builder.getConfiguration();
             int version = properties.getInt(INDEX_FILE_VERSION, 0);
-            if (VERSION > version) {
+
+            // Rebuild the index from the stored job statuses if it's missing
+            boolean indexed = this.index.open();
+
+            if (VERSION > version || !indexed) {
                 repair();
+            }
 
+            if (VERSION > version) {
                 // Update version
                 properties.setProperty(INDEX_FILE_VERSION, VERSION);
                 builder.save();
@@ -181,6 +241,13 @@ public void initialize() throws InitializationException
         this.executorService =
             new ThreadPoolExecutor(0, 10, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
 
+        BasicThreadFactory loaderThreadFactory =
+            new BasicThreadFactory.Builder().namingPattern("Job status loader").daemon(true).build();
+        ThreadPoolExecutor loaderExecutor = new ThreadPoolExecutor(LOADER_THREADS, LOADER_THREADS, 60L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), loaderThreadFactory);
+        loaderExecutor.allowCoreThreadTimeOut(true);
+        this.loaderService = loaderExecutor;
+
         // Initialize cache
         LRUCacheConfiguration cacheConfiguration =
             new LRUCacheConfiguration("job.status", this.configuration.getJobStatusCacheSize());
@@ -191,6 +258,44 @@ public void initialize() throws InitializationException
         }
     }
 
+    @Override
+    public void dispose() throws ComponentLifecycleException
+    {
+        // Stop the threads prefetching job statuses (the already requested job statuses are still loaded since some
+        // threads might be waiting for them)
+        this.loaderService.shutdown();
+
+        // Let the asynchronous serializations update the index before closing it
+        this.executorService.shutdown();
+        try {
+            if (!this.executorService.awaitTermination(SERIALIZER_TERMINATION_TIMEOUT, TimeUnit.SECONDS)) {
+                this.logger.warn("Some job statuses are still being serialized after [{}] seconds",
+                    SERIALIZER_TERMINATION_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            this.index.close();
+        } catch (IOException e) {
+            this.logger.warn("Failed to close the job status index: {}", ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    private ReadWriteLock getLock(File folder)
+    {
+        return this.locks[Math.floorMod(folder.hashCode(), this.locks.length)];
+    }
+
+    /**
+     * @return the key of the passed job id in the map of loading job statuses (which does not support null keys)
+     */
+    private Object toLoadingKey(String idString)
+    {
+        return idString != null ? idString : NULL_ID_KEY;
+    }
+
     private String toUniqueString(List<String> id)
     {
         return StringUtils.join(id, '/');
@@ -245,11 +350,13 @@ private void repairFolder(File folder)
         for (File file : folder.listFiles()) {
             if (file.isDirectory()) {
                 repairFolder(file);
-            } else if (file.getName().equals(FILENAME_STATUS)) {
+            } else if (file.getName().equals(FILENAME_STATUS) || file.getName().equals(FILENAME_STATUS_XML)) {
                 try {
                     JobStatus status = loadStatus(folder);
 
                     if (status != null) {
+                        this.index.put(new JobStatusHeader(status));
+
                         File properFolder = getJobFolder(status.getRequest().getId());
 
                         if (!folder.equals(properFolder)) {
@@ -268,21 +375,24 @@ private void repairFolder(File folder)
         }
     }
 
-    private JobStatus loadStatus(List<String> id)
+    private JobStatus loadStatus(List<String> id) throws IOException
     {
         return loadStatus(getJobFolder(id));
     }
 
     /**
      * @param folder the folder from where to load the job status
+     * @throws IOException when failing to load the job status
      */
-    private JobStatus loadStatus(File folder)
+    private JobStatus loadStatus(File folder) throws IOException
     {
-        this.readLock.lock();
+        ReadWriteLock folderLock = getLock(folder);
+
+        folderLock.readLock().lock();
 
         try {
-            File statusFile = new File(folder, FILENAME_STATUS);
-            if (statusFile.exists()) {
+            File statusFile = getStatusFile(folder);
+            if (statusFile != null) {
                 JobStatus status = loadJobStatus(statusFile);
 
                 // Check if there is a separated log available
@@ -305,22 +415,64 @@ private JobStatus loadStatus(File folder)
                 return status;
             }
         } finally {
-            this.readLock.unlock();
+            folderLock.readLock().unlock();
         }
 
         return null;
     }
 
+    /**
+     * @param folder the folder of the job
+     * @return the file containing the job status, {@code null} if there is none
+     */
+    private File getStatusFile(File folder)
+    {
+        File statusFile = new File(folder, FILENAME_STATUS);
+        if (statusFile.exists()) {
+            return statusFile;
+        }
+
+        // Fallback on the old format
+        statusFile = new File(folder, FILENAME_STATUS_XML);
+
+        return statusFile.exists() ? statusFile : null;
+    }
+
     /**
      * @param statusFile the file containing job status to load
      * @return the job status
-     * @throws Exception when failing to load the job status from the file
+     * @throws IOException when failing to load the job status from the file
      */
-    private JobStatus loadJobStatus(File statusFile)
+    private JobStatus loadJobStatus(File statusFile) throws IOException
     {
         return this.serializer.read(statusFile);
     }
 
+    /**
+     * @param id the id of the job
+     * @return the header of the job status or {@code null} if the job status is not stored in the binary format
+     */
+    private JobStatusHeader loadHeader(List<String> id)
+    {
+        File folder = getJobFolder(id);
+        ReadWriteLock folderLock = getLock(folder);
+
+        folderLock.readLock().lock();
+
+        try {
+            File statusFile = new File(folder, FILENAME_STATUS);
+            if (statusFile.exists()) {
+                return this.serializer.readHeader(statusFile);
+            }
+        } catch (Exception e) {
+            this.logger.warn("Failed to load the header of job status [{}]", id, e);
+        } finally {
+            folderLock.readLock().unlock();
+        }
+
+        return null;
+    }
+
     // JobStatusStorage
 
     /**
@@ -352,17 +504,24 @@ private File getJobLogBaseFile(List<String> id)
     private void saveJobStatus(JobStatus status)
     {
         try {
-            this.writeLock.lock();
+            File folder = getJobFolder(status.getRequest().getId());
+            ReadWriteLock folderLock = getLock(folder);
+
+            folderLock.writeLock().lock();
 
             try {
-                File statusFile = getJobFolder(status.getRequest().getId());
-                statusFile = new File(statusFile, FILENAME_STATUS);
+                File statusFile = new File(folder, FILENAME_STATUS);
 
                 this.logger.debug("Serializing status [{}] in [{}]", status.getRequest().getId(), statusFile);
 
-                this.serializer.write(status, statusFile);
+                this.serializer.writeBinary(status, statusFile);
+
+                // Get rid of the status in the old format
+                Files.deleteIfExists(new File(folder, FILENAME_STATUS_XML).toPath());
+
+                this.index.put(new JobStatusHeader(status));
             } finally {
-                this.writeLock.unlock();
+                folderLock.writeLock().unlock();
             }
         } catch (Exception e) {
             this.logger.warn("Failed to save job status [{}]", status, e);
@@ -377,29 +536,135 @@ public JobStatus getJobStatus(List<String> id)
         JobStatus status = this.cache.get(idString);
 
         if (status == null) {
-            status = maybeLoadStatus(id, idString);
+            status = loadSharedStatus(id, idString);
         }
 
         return status == NOSTATUS ? null : status;
     }
 
-    private synchronized JobStatus maybeLoadStatus(List<String> id, String idString)
+    @Override
+    public JobStatus getLazyJobStatus(List<String> id)
     {
+        String idString = toUniqueString(id);
+
         JobStatus status = this.cache.get(idString);
 
         if (status == null) {
-            try {
-                status = loadStatus(id);
+            JobStatusHeader header = loadHeader(id);
 
-                this.cache.set(idString, status);
-            } catch (Exception e) {
-                this.logger.warn("Failed to load job status for id {}", id, e);
-
-                this.cache.remove(idString);
+            if (header != null) {
+                return new LazyJobStatus(header, () -> getJobStatus(id));
             }
+
+            status = loadSharedStatus(id, idString);
+        }
+
+        return status == NOSTATUS ? null : status;
+    }
+
+    @Override
+    public List<JobStatus> getJobStatuses(Collection<List<String>> ids)
+    {
+        // Start loading all the missing statuses before waiting for any of them
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        List<CompletableFuture<JobStatus>> futures = new ArrayList<>(ids.size());
+        for (List<String> id : ids) {
+            String idString = toUniqueString(id);
+
+            JobStatus status = this.cache.get(idString);
+
+            futures.add(status != null ? CompletableFuture.completedFuture(status)
+                : prefetchStatus(id, idString, contextClassLoader));
+        }
+
+        List<JobStatus> statuses = new ArrayList<>(futures.size());
+        for (CompletableFuture<JobStatus> future : futures) {
+            JobStatus status = future.join();
+
+            statuses.add(status == NOSTATUS ? null : status);
+        }
+
+        return statuses;
+    }
+
+    /**
+     * Load the job status in the current thread, unless another thread is already loading it.
+     */
+    private JobStatus loadSharedStatus(List<String> id, String idString)
+    {
+        CompletableFuture<JobStatus> future = new CompletableFuture<>();
+
+        CompletableFuture<JobStatus> currentFuture = this.loadings.putIfAbsent(toLoadingKey(idString), future);
+        if (currentFuture != null) {
+            return currentFuture.join();
+        }
+
+        loadStatus(id, idString, future);
+
+        return future.join();
+    }
+
+    /**
+     * Load the job status in the loader pool (with the passed context class loader, used to resolve the classes of the
+     * job status), unless another thread is already loading it.
+     */
+    private CompletableFuture<JobStatus> prefetchStatus(List<String> id, String idString,
+        ClassLoader contextClassLoader)
+    {
+        CompletableFuture<JobStatus> future = new CompletableFuture<>();
+
+        CompletableFuture<JobStatus> currentFuture = this.loadings.putIfAbsent(toLoadingKey(idString), future);
+        if (currentFuture != null) {
+            return currentFuture;
         }
 
-        return status;
+        try {
+            this.loaderService.execute(() -> {
+                Thread thread = Thread.currentThread();
+                ClassLoader loaderClassLoader = thread.getContextClassLoader();
+                thread.setContextClassLoader(contextClassLoader);
+                try {
+                    loadStatus(id, idString, future);
+                } finally {
+                    thread.setContextClassLoader(loaderClassLoader);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The store is being disposed
+            loadStatus(id, idString, future);
+        }
+
+        return future;
+    }
+
+    private void loadStatus(List<String> id, String idString, CompletableFuture<JobStatus> future)
+    {
+        JobStatus status = null;
+
+        try {
+            // The status might have been loaded or stored since the cache was checked
+            status = this.cache.get(idString);
+
+            if (status == null) {
+                status = loadStatus(id);
+            }
+        } catch (Exception e) {
+            this.logger.warn("Failed to load job status for id {}", id, e);
+        } finally {
+            JobStatus loadedStatus = status;
+
+            // Don't cache the loaded status if the job status was stored or removed in the meantime
+            this.loadings.computeIfPresent(toLoadingKey(idString), (key, currentFuture) -> {
+                if (currentFuture == future && loadedStatus != null) {
+                    this.cache.set(idString, loadedStatus);
+                }
+
+                return currentFuture == future ? null : currentFuture;
+            });
+
+            // Does nothing if the future was already completed by a store or remove
+            future.complete(loadedStatus);
+        }
     }
 
     @Override
@@ -417,13 +682,20 @@ public void storeAsync(JobStatus status)
     private void store(JobStatus status, boolean async)
     {
         if (status != null && status.getRequest() != null && status.getRequest().getId() != null) {
-            synchronized (this.cache) {
-                String id = toUniqueString(status.getRequest().getId());
+            String id = toUniqueString(status.getRequest().getId());
 
-                this.logger.debug("Store status [{}] in cache", id);
+            this.logger.debug("Store status [{}] in cache", id);
 
+            // Make sure a concurrent load does not overwrite the stored status with the previous one
+            this.loadings.compute(toLoadingKey(id), (key, future) -> {
                 this.cache.set(id, status);
-            }
+
+                if (future != null) {
+                    future.complete(status);
+                }
+
+                return null;
+            });
 
             // Only store Serializable job status on file system
             if (JobUtils.isSerializable(status)) {
@@ -439,7 +711,10 @@ private void store(JobStatus status, boolean async)
     @Override
     public void remove(List<String> id)
     {
-        this.writeLock.lock();
+        // Removing a job folder also removes the folders of the jobs with a longer id so lock everything
+        for (ReadWriteLock folderLock : this.locks) {
+            folderLock.writeLock().lock();
+        }
 
         try {
             File jobFolder = getJobFolder(id);
@@ -452,10 +727,44 @@ public void remove(List<String> id)
                 }
             }
 
-            this.cache.remove(toUniqueString(id));
+            try {
+                this.index.remove(id);
+            } catch (IOException e) {
+                this.logger.warn("Failed to remove job [{}] from the index", id, e);
+            }
+
+            String idString = toUniqueString(id);
+            this.loadings.compute(toLoadingKey(idString), (key, future) -> {
+                this.cache.remove(idString);
+
+                if (future != null) {
+                    future.complete(null);
+                }
+
+                return null;
+            });
         } finally {
-            this.writeLock.unlock();
+            for (ReadWriteLock folderLock : this.locks) {
+                folderLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<JobStatus> search(JobStatusQuery query)
+    {
+        List<JobStatusHeader> headers = this.index.search(query);
+
+        List<JobStatus> statuses = new ArrayList<>(headers.size());
+        for (JobStatusHeader header : headers) {
+            List<String> id = header.getId();
+
+            // Don't load the job status until it's really needed
+            JobStatus status = this.cache.get(toUniqueString(id));
+            statuses.add(status != null ? status : new LazyJobStatus(header, () -> getJobStatus(id)));
         }
+
+        return statuses;
     }
 
     @Override
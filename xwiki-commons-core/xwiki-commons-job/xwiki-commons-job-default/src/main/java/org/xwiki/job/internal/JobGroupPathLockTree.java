@@ -19,8 +19,8 @@
  */
 package org.xwiki.job.internal;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -31,6 +31,10 @@
 
 /**
  * Helper for hierarchical locking.
+ * <p>
+ * Locking a job group takes a write lock on the group and an intention (read) lock on each of its parents. Each group
+ * keeps a direct reference to the locks of its parents so that locking does not need any lookup (or any monitor) once
+ * the group is known.
  *
  * @version $Id$
  * @since 6.1M2
@@ -39,22 +43,53 @@
 @Singleton
 public class JobGroupPathLockTree
 {
+    private static final ReadWriteSemaphore[] NO_ANCESTORS = new ReadWriteSemaphore[0];
+
+    private static final class Node
+    {
+        private final ReadWriteSemaphore semaphore;
+
+        /**
+         * The semaphores of the parents, starting with the direct parent.
+         */
+        private final ReadWriteSemaphore[] ancestors;
+
+        Node(int poolSize, Node parent)
+        {
+            this.semaphore = new ReadWriteSemaphore(poolSize);
+
+            if (parent != null) {
+                this.ancestors = new ReadWriteSemaphore[parent.ancestors.length + 1];
+                this.ancestors[0] = parent.semaphore;
+                System.arraycopy(parent.ancestors, 0, this.ancestors, 1, parent.ancestors.length);
+            } else {
+                this.ancestors = NO_ANCESTORS;
+            }
+        }
+    }
+
     @Inject
     private GroupedJobInitializerManager groupedJobInitializerManager;
 
-    private final Map<JobGroupPath, ReadWriteSemaphore> tree = new ConcurrentHashMap<>();
+    private final ConcurrentMap<JobGroupPath, Node> tree = new ConcurrentHashMap<>();
 
-    private synchronized ReadWriteSemaphore getSemaphore(JobGroupPath key)
+    private Node getNode(JobGroupPath key)
     {
-        ReadWriteSemaphore semaphore = this.tree.get(key);
+        Node node = this.tree.get(key);
+
+        if (node == null) {
+            // Resolve the parent first since the map does not support recursive updates
+            Node parent = key.getParent() != null ? getNode(key.getParent()) : null;
 
-        if (semaphore == null) {
-            semaphore = new ReadWriteSemaphore(this.groupedJobInitializerManager.getGroupedJobInitializer(key)
-                .getPoolSize());
-            this.tree.put(key, semaphore);
+            node = this.tree.computeIfAbsent(key, path -> new Node(getPoolSize(path), parent));
         }
 
-        return semaphore;
+        return node;
+    }
+
+    private int getPoolSize(JobGroupPath path)
+    {
+        return this.groupedJobInitializerManager.getGroupedJobInitializer(path).getPoolSize();
     }
 
     /**
@@ -62,10 +97,12 @@ private synchronized ReadWriteSemaphore getSemaphore(JobGroupPath key)
      */
     public void lock(JobGroupPath key)
     {
-        getSemaphore(key).lockWrite();
+        Node node = getNode(key);
+
+        node.semaphore.lockWrite();
 
-        for (JobGroupPath path = key.getParent(); path != null; path = path.getParent()) {
-            getSemaphore(path).lockRead();
+        for (ReadWriteSemaphore ancestor : node.ancestors) {
+            ancestor.lockRead();
         }
     }
 
@@ -74,10 +111,12 @@ public void lock(JobGroupPath key)
      */
     public void unlock(JobGroupPath key)
     {
-        getSemaphore(key).unlockWrite();
+        Node node = getNode(key);
+
+        node.semaphore.unlockWrite();
 
-        for (JobGroupPath path = key.getParent(); path != null; path = path.getParent()) {
-            getSemaphore(path).unlockRead();
+        for (ReadWriteSemaphore ancestor : node.ancestors) {
+            ancestor.unlockRead();
         }
     }
 }
@@ -0,0 +1,239 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.xwiki.job.event.status.JobProgress;
+import org.xwiki.job.event.status.JobStatus;
+import org.xwiki.job.event.status.JobStatus.State;
+import org.xwiki.logging.LogLevel;
+import org.xwiki.logging.tail.LogTail;
+
+/**
+ * The information about a job status stored at the beginning of a binary job status file, which can be read without
+ * unserializing the whole job status.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class JobStatusHeader
+{
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final List<String> id;
+
+    private final String jobType;
+
+    private final State state;
+
+    private final Date startDate;
+
+    private final Date endDate;
+
+    private final double progressOffset;
+
+    private final boolean error;
+
+    private final LogLevel logLevel;
+
+    /**
+     * @param status the job status to extract the header from
+     */
+    public JobStatusHeader(JobStatus status)
+    {
+        this.id = status.getRequest() != null ? status.getRequest().getId() : null;
+        this.jobType = status.getJobType();
+        this.state = status.getState();
+        this.startDate = status.getStartDate();
+        this.endDate = status.getEndDate();
+
+        JobProgress progress = status.getProgress();
+        this.progressOffset = progress != null ? progress.getOffset() : 0;
+
+        this.error = status.getError() != null;
+        this.logLevel = getLogLevel(status.getLogTail());
+    }
+
+    private JobStatusHeader(DataInput input) throws IOException
+    {
+        int idSize = input.readInt();
+        if (idSize >= 0) {
+            this.id = new ArrayList<>(idSize);
+            for (int i = 0; i < idSize; ++i) {
+                this.id.add(readString(input));
+            }
+        } else {
+            this.id = null;
+        }
+
+        this.jobType = readString(input);
+        String stateName = readString(input);
+        this.state = stateName != null ? State.valueOf(stateName) : null;
+        this.startDate = readDate(input);
+        this.endDate = readDate(input);
+        this.progressOffset = input.readDouble();
+        this.error = input.readBoolean();
+        String logLevelName = readString(input);
+        this.logLevel = logLevelName != null ? LogLevel.valueOf(logLevelName) : null;
+    }
+
+    private static LogLevel getLogLevel(LogTail logTail)
+    {
+        if (logTail != null) {
+            // The levels are ordered from the most severe to the least severe
+            for (LogLevel level : LogLevel.values()) {
+                if (logTail.hasLogLevel(level)) {
+                    return level;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param input the input to read the header from
+     * @return the header
+     * @throws IOException when failing to read the header
+     */
+    public static JobStatusHeader read(DataInput input) throws IOException
+    {
+        return new JobStatusHeader(input);
+    }
+
+    /**
+     * @param output the output to write the header to
+     * @throws IOException when failing to write the header
+     */
+    public void write(DataOutput output) throws IOException
+    {
+        if (this.id != null) {
+            output.writeInt(this.id.size());
+            for (String idElement : this.id) {
+                writeString(idElement, output);
+            }
+        } else {
+            output.writeInt(-1);
+        }
+
+        writeString(this.jobType, output);
+        writeString(this.state != null ? this.state.name() : null, output);
+        writeDate(this.startDate, output);
+        writeDate(this.endDate, output);
+        output.writeDouble(this.progressOffset);
+        output.writeBoolean(this.error);
+        writeString(this.logLevel != null ? this.logLevel.name() : null, output);
+    }
+
+    private static String readString(DataInput input) throws IOException
+    {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static void writeString(String value, DataOutput output) throws IOException
+    {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static Date readDate(DataInput input) throws IOException
+    {
+        long time = input.readLong();
+
+        return time != NO_DATE ? new Date(time) : null;
+    }
+
+    private static void writeDate(Date date, DataOutput output) throws IOException
+    {
+        output.writeLong(date != null ? date.getTime() : NO_DATE);
+    }
+
+    /**
+     * @return the id of the job
+     */
+    public List<String> getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * @return the type of the job
+     */
+    public String getJobType()
+    {
+        return this.jobType;
+    }
+
+    /**
+     * @return the state of the job
+     */
+    public State getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * @return the date when the job started
+     */
+    public Date getStartDate()
+    {
+        return this.startDate;
+    }
+
+    /**
+     * @return the date when the job ended
+     */
+    public Date getEndDate()
+    {
+        return this.endDate;
+    }
+
+    /**
+     * @return the global progress of the job, between 0 and 1
+     */
+    public double getProgressOffset()
+    {
+        return this.progressOffset;
+    }
+
+    /**
+     * @return true if the job failed with an error
+     */
+    public boolean isError()
+    {
+        return this.error;
+    }
+
+    /**
+     * @return the most severe level of the job log, {@code null} if the log is empty
+     */
+    public LogLevel getLogLevel()
+    {
+        return this.logLevel;
+    }
+}
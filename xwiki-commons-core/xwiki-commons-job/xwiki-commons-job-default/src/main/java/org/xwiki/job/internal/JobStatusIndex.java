@@ -0,0 +1,362 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.xwiki.job.JobStatusQuery;
+
+/**
+ * A persistent index of the stored job statuses allowing to search them without loading them.
+ * <p>
+ * The index is kept in memory and persisted in an append-only file: each modification is appended to the file and the
+ * file is replayed when the index is opened. The file is rewritten when it contains too many outdated records.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class JobStatusIndex
+{
+    /**
+     * The first bytes of the index file ("XJSI").
+     */
+    private static final int MAGIC = 0x584A5349;
+
+    private static final int VERSION = 1;
+
+    private static final int FILE_HEADER_SIZE = Integer.BYTES + 1;
+
+    private static final int RECORD_PUT = 1;
+
+    private static final int RECORD_REMOVE = 2;
+
+    /**
+     * The minimum number of records in the file before considering rewriting it.
+     */
+    private static final int COMPACTION_THRESHOLD = 1000;
+
+    private static final Comparator<JobStatusHeader> START_DATE_COMPARATOR =
+        Comparator.comparing(JobStatusHeader::getStartDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final File file;
+
+    private final Map<List<String>, JobStatusHeader> entries = new ConcurrentHashMap<>();
+
+    private DataOutputStream output;
+
+    private int records;
+
+    /**
+     * @param file the file where the index is persisted
+     */
+    public JobStatusIndex(File file)
+    {
+        this.file = file;
+    }
+
+    /**
+     * Load the index from the file.
+     *
+     * @return false if the index could not be loaded from the file (because it does not exist or is invalid) and need
+     *         to be rebuilt from the stored job statuses
+     * @throws IOException when failing to open the file
+     */
+    public synchronized boolean open() throws IOException
+    {
+        boolean loaded = this.file.exists() && load();
+
+        if (loaded) {
+            this.output = openOutput(this.file, true);
+        } else {
+            this.entries.clear();
+
+            rewrite();
+        }
+
+        return loaded;
+    }
+
+    private boolean load() throws IOException
+    {
+        long validLength;
+
+        try (CountingInputStream counter =
+            new CountingInputStream(new BufferedInputStream(FileUtils.openInputStream(this.file)))) {
+            DataInputStream input = new DataInputStream(counter);
+
+            if (input.readInt() != MAGIC || input.readUnsignedByte() != VERSION) {
+                return false;
+            }
+
+            validLength = counter.getByteCount();
+            for (int type = input.read(); type != -1; type = input.read()) {
+                try {
+                    if (!readRecord(type, input)) {
+                        return false;
+                    }
+                } catch (EOFException e) {
+                    // The last record was not completely written, ignore it
+                    break;
+                }
+
+                validLength = counter.getByteCount();
+            }
+        } catch (EOFException e) {
+            // Incomplete file header
+            return false;
+        }
+
+        if (validLength < this.file.length()) {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "rw")) {
+                randomAccessFile.setLength(validLength);
+            }
+        }
+
+        return true;
+    }
+
+    private boolean readRecord(int type, DataInput input) throws IOException
+    {
+        if (type == RECORD_PUT) {
+            JobStatusHeader header = JobStatusHeader.read(input);
+            this.entries.put(header.getId(), header);
+        } else if (type == RECORD_REMOVE) {
+            removeEntries(readId(input));
+        } else {
+            return false;
+        }
+
+        ++this.records;
+
+        return true;
+    }
+
+    private static List<String> readId(DataInput input) throws IOException
+    {
+        int size = input.readInt();
+        List<String> id = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            id.add(input.readBoolean() ? input.readUTF() : null);
+        }
+
+        return id;
+    }
+
+    private static void writeId(List<String> id, DataOutput output) throws IOException
+    {
+        output.writeInt(id.size());
+        for (String element : id) {
+            output.writeBoolean(element != null);
+            if (element != null) {
+                output.writeUTF(element);
+            }
+        }
+    }
+
+    private static DataOutputStream openOutput(File file, boolean append) throws IOException
+    {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, append)));
+    }
+
+    /**
+     * Write a new file containing only the current entries.
+     */
+    private void rewrite() throws IOException
+    {
+        if (this.output != null) {
+            this.output.close();
+            this.output = null;
+        }
+
+        this.file.getParentFile().mkdirs();
+
+        File tempFile = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+        try (DataOutputStream tempOutput = openOutput(tempFile, false)) {
+            tempOutput.writeInt(MAGIC);
+            tempOutput.writeByte(VERSION);
+            for (JobStatusHeader header : this.entries.values()) {
+                tempOutput.writeByte(RECORD_PUT);
+                header.write(tempOutput);
+            }
+        }
+
+        Files.move(tempFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        this.records = this.entries.size();
+        this.output = openOutput(this.file, true);
+    }
+
+    private void maybeRewrite() throws IOException
+    {
+        if (this.records > COMPACTION_THRESHOLD && this.records > this.entries.size() * 2) {
+            rewrite();
+        }
+    }
+
+    private void removeEntries(List<String> idPrefix)
+    {
+        this.entries.keySet().removeIf(id -> startsWith(id, idPrefix));
+    }
+
+    private static boolean startsWith(List<String> id, List<String> prefix)
+    {
+        return id.size() >= prefix.size() && id.subList(0, prefix.size()).equals(prefix);
+    }
+
+    /**
+     * @param header the header of the stored job status
+     * @throws IOException when failing to update the index file
+     */
+    public synchronized void put(JobStatusHeader header) throws IOException
+    {
+        if (header.getId() != null) {
+            this.entries.put(header.getId(), header);
+
+            if (this.output != null) {
+                this.output.writeByte(RECORD_PUT);
+                header.write(this.output);
+                this.output.flush();
+
+                ++this.records;
+
+                maybeRewrite();
+            }
+        }
+    }
+
+    /**
+     * Remove a job status and all the job statuses with an id starting with the same elements.
+     *
+     * @param id the id of the removed job status, {@code null} to remove everything
+     * @throws IOException when failing to update the index file
+     */
+    public synchronized void remove(List<String> id) throws IOException
+    {
+        List<String> idPrefix = id != null ? id : Collections.emptyList();
+
+        removeEntries(idPrefix);
+
+        if (this.output != null) {
+            this.output.writeByte(RECORD_REMOVE);
+            writeId(idPrefix, this.output);
+            this.output.flush();
+
+            ++this.records;
+
+            maybeRewrite();
+        }
+    }
+
+    /**
+     * @param query the criteria of the job statuses to find
+     * @return the headers of the matching job statuses, ordered by start date
+     */
+    public List<JobStatusHeader> search(JobStatusQuery query)
+    {
+        Stream<JobStatusHeader> stream = this.entries.values().stream().filter(header -> matches(header, query))
+            .sorted(START_DATE_COMPARATOR).skip(query.getOffset());
+
+        if (query.getLimit() >= 0) {
+            stream = stream.limit(query.getLimit());
+        }
+
+        return stream.collect(Collectors.toList());
+    }
+
+    private boolean matches(JobStatusHeader header, JobStatusQuery query)
+    {
+        if (query.getIdPrefix() != null && !startsWith(header.getId(), query.getIdPrefix())) {
+            return false;
+        }
+
+        if (query.getJobType() != null && !query.getJobType().equals(header.getJobType())) {
+            return false;
+        }
+
+        if (query.getState() != null && query.getState() != header.getState()) {
+            return false;
+        }
+
+        if (query.getError() != null && query.getError() != header.isError()) {
+            return false;
+        }
+
+        return matchesLogLevel(header, query) && matchesStartDate(header.getStartDate(), query);
+    }
+
+    private boolean matchesLogLevel(JobStatusHeader header, JobStatusQuery query)
+    {
+        return query.getLogLevel() == null
+            || (header.getLogLevel() != null && header.getLogLevel().compareTo(query.getLogLevel()) <= 0);
+    }
+
+    private boolean matchesStartDate(Date startDate, JobStatusQuery query)
+    {
+        if (query.getStartedAfter() != null && (startDate == null || startDate.before(query.getStartedAfter()))) {
+            return false;
+        }
+
+        return query.getStartedBefore() == null || (startDate != null && startDate.before(query.getStartedBefore()));
+    }
+
+    /**
+     * @return the number of indexed job statuses
+     */
+    public int size()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * Close the index file.
+     *
+     * @throws IOException when failing to close the file
+     */
+    public synchronized void close() throws IOException
+    {
+        if (this.output != null) {
+            this.output.close();
+            this.output = null;
+        }
+    }
+}
@@ -19,6 +19,10 @@
  */
 package org.xwiki.job.internal;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -30,6 +34,8 @@
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -41,6 +47,13 @@
 
 /**
  * Serialize/unserialize tool for job statuses.
+ * <p>
+ * Two formats are supported:
+ * <ul>
+ * <li>the XML format produced by XStream</li>
+ * <li>the binary format, made of a magic number, a format version, a {@link JobStatusHeader} which can be read without
+ * reading the rest of the file and the gzipped XStream XML</li>
+ * </ul>
  *
  * @version $Id$
  * @since 5.2M2
@@ -54,6 +67,16 @@
      */
     private static final Charset DEFAULT_ENCODING = StandardCharsets.UTF_8;
 
+    /**
+     * The first bytes of a binary job status ("XJSB").
+     */
+    private static final int BINARY_MAGIC = 0x584A5342;
+
+    /**
+     * The current version of the binary format.
+     */
+    private static final int BINARY_VERSION = 1;
+
     /**
      * Used to serialize and unserialize status.
      */
@@ -66,11 +89,31 @@
      * @throws IOException when failing to serialize the status
      */
     public void write(JobStatus status, File file) throws IOException
+    {
+        write(status, file, false);
+    }
+
+    /**
+     * @param status the status to serialize
+     * @param file the file to serialize the status to, in the binary format
+     * @throws IOException when failing to serialize the status
+     * @since 12.9RC1
+     */
+    public void writeBinary(JobStatus status, File file) throws IOException
+    {
+        write(status, file, true);
+    }
+
+    private void write(JobStatus status, File file, boolean binary) throws IOException
     {
         File tempFile = File.createTempFile(file.getName(), ".tmp");
 
         try (FileOutputStream stream = FileUtils.openOutputStream(tempFile)) {
-            write(status, stream);
+            if (binary) {
+                writeBinary(status, stream);
+            } else {
+                write(status, stream);
+            }
         }
 
         // Copy the file to its final destination
@@ -107,12 +150,102 @@ public void write(JobStatus status, OutputStream stream) throws IOException
     }
 
     /**
-     * @param file the file to read
+     * @param status the status to serialize
+     * @param stream the stream to serialize the status to, in the binary format
+     * @throws IOException when failing to serialize the status
+     * @since 12.9RC1
+     */
+    public void writeBinary(JobStatus status, OutputStream stream) throws IOException
+    {
+        DataOutputStream output = new DataOutputStream(stream);
+
+        output.writeInt(BINARY_MAGIC);
+        output.writeByte(BINARY_VERSION);
+
+        // Prefix the header with its size to allow skipping it
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        new JobStatusHeader(status).write(new DataOutputStream(header));
+        output.writeInt(header.size());
+        header.writeTo(output);
+
+        GZIPOutputStream body = new GZIPOutputStream(output);
+        write(status, body);
+        body.finish();
+
+        output.flush();
+    }
+
+    /**
+     * @param file the file to read, in XML or binary format
      * @return the status
+     * @throws IOException when failing to read the file
      */
-    public JobStatus read(File file)
+    public JobStatus read(File file) throws IOException
     {
-        return (JobStatus) this.xstream.fromXML(file);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(FileUtils.openInputStream(file)))) {
+            if (readBinaryVersion(input) >= 0) {
+                // Skip the header
+                input.skipBytes(input.readInt());
+
+                return read(new GZIPInputStream(input));
+            } else {
+                return read(input);
+            }
+        }
+    }
+
+    /**
+     * @param file the file to read
+     * @return the header of the job status or {@code null} if the file is not in the binary format
+     * @throws IOException when failing to read the file
+     * @since 12.9RC1
+     */
+    public JobStatusHeader readHeader(File file) throws IOException
+    {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(FileUtils.openInputStream(file)))) {
+            if (readBinaryVersion(input) >= 0) {
+                // Skip the header size
+                input.readInt();
+
+                return JobStatusHeader.read(input);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Read the beginning of the binary format, or go back to the beginning of the stream if it's not the binary format.
+     * 
+     * @return the version of the binary format, -1 if the stream is not in the binary format
+     */
+    private int readBinaryVersion(DataInputStream input) throws IOException
+    {
+        input.mark(Integer.BYTES);
+
+        byte[] magic = new byte[Integer.BYTES];
+        if (input.read(magic) == magic.length && toInt(magic) == BINARY_MAGIC) {
+            int version = input.readUnsignedByte();
+            if (version > BINARY_VERSION) {
+                throw new IOException(String.format("Unsupported job status format version [%s]", version));
+            }
+
+            return version;
+        }
+
+        input.reset();
+
+        return -1;
+    }
+
+    private int toInt(byte[] bytes)
+    {
+        int value = 0;
+        for (byte b : bytes) {
+            value = (value << Byte.SIZE) | (b & 0xFF);
+        }
+
+        return value;
     }
 
     /**
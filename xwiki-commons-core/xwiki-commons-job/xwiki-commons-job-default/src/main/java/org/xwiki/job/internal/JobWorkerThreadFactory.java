@@ -0,0 +1,57 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job.internal;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Create the threads of the work-stealing job pool with a recognizable name and the context class loader of the
+ * thread which created the factory (the default factory uses the system class loader since Java 9).
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class JobWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory
+{
+    private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    private static final class JobWorkerThread extends ForkJoinWorkerThread
+    {
+        JobWorkerThread(ForkJoinPool pool)
+        {
+            super(pool);
+        }
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(ForkJoinPool pool)
+    {
+        ForkJoinWorkerThread thread = new JobWorkerThread(pool);
+
+        thread.setName("Shared job pool thread " + this.threadNumber.incrementAndGet());
+        thread.setContextClassLoader(this.contextClassLoader);
+
+        return thread;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job.internal;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.xwiki.job.DefaultJobStatus;
+import org.xwiki.job.DefaultRequest;
+import org.xwiki.job.Request;
+import org.xwiki.job.event.status.JobProgress;
+import org.xwiki.job.event.status.JobProgressStep;
+import org.xwiki.job.event.status.JobStatus;
+import org.xwiki.logging.LogLevel;
+import org.xwiki.logging.LogQueue;
+import org.xwiki.logging.event.LogEvent;
+import org.xwiki.logging.tail.LogTail;
+
+/**
+ * A job status which exposes the information of a {@link JobStatusHeader} and only loads the complete job status (the
+ * request, the progress tree, the log, etc.) when one of them is asked.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class LazyJobStatus implements JobStatus
+{
+    private final JobStatusHeader header;
+
+    private final Supplier<JobStatus> loader;
+
+    private final JobProgress progress = new LazyJobProgress();
+
+    private volatile JobStatus status;
+
+    private final class LazyJobProgress implements JobProgress
+    {
+        @Override
+        public double getOffset()
+        {
+            return header.getProgressOffset();
+        }
+
+        @Override
+        public double getCurrentLevelOffset()
+        {
+            return getStatus().getProgress().getCurrentLevelOffset();
+        }
+
+        @Override
+        public JobProgressStep getRootStep()
+        {
+            return getStatus().getProgress().getRootStep();
+        }
+
+        @Override
+        public JobProgressStep getCurrentStep()
+        {
+            return getStatus().getProgress().getCurrentStep();
+        }
+    }
+
+    /**
+     * @param header the header of the job status
+     * @param loader used to load the complete job status when needed
+     */
+    public LazyJobStatus(JobStatusHeader header, Supplier<JobStatus> loader)
+    {
+        this.header = header;
+        this.loader = loader;
+    }
+
+    /**
+     * @return the complete job status
+     */
+    public JobStatus getStatus()
+    {
+        JobStatus currentStatus = this.status;
+
+        if (currentStatus == null) {
+            currentStatus = this.loader.get();
+
+            if (currentStatus == null) {
+                // The job status has been removed in the meantime
+                currentStatus = createStatus();
+            }
+
+            this.status = currentStatus;
+        }
+
+        return currentStatus;
+    }
+
+    private JobStatus createStatus()
+    {
+        DefaultRequest request = new DefaultRequest();
+        request.setId(this.header.getId());
+
+        DefaultJobStatus<Request> emptyStatus =
+            new DefaultJobStatus<>(this.header.getJobType(), request, null, null, null);
+        emptyStatus.setState(this.header.getState());
+        emptyStatus.setStartDate(this.header.getStartDate());
+        emptyStatus.setEndDate(this.header.getEndDate());
+
+        return emptyStatus;
+    }
+
+    /**
+     * @return true if the complete job status has been loaded
+     */
+    public boolean isLoaded()
+    {
+        return this.status != null;
+    }
+
+    @Override
+    public String getJobType()
+    {
+        return this.header.getJobType();
+    }
+
+    @Override
+    public State getState()
+    {
+        return this.header.getState();
+    }
+
+    @Override
+    public Date getStartDate()
+    {
+        return this.header.getStartDate();
+    }
+
+    @Override
+    public Date getEndDate()
+    {
+        return this.header.getEndDate();
+    }
+
+    @Override
+    public JobProgress getProgress()
+    {
+        return this.progress;
+    }
+
+    @Override
+    public Throwable getError()
+    {
+        return getStatus().getError();
+    }
+
+    @Override
+    public Request getRequest()
+    {
+        return getStatus().getRequest();
+    }
+
+    @Override
+    public LogTail getLogTail()
+    {
+        return getStatus().getLogTail();
+    }
+
+    @Override
+    public boolean ask(Object question, long time, TimeUnit unit) throws InterruptedException
+    {
+        return getStatus().ask(question, time, unit);
+    }
+
+    @Override
+    public long getQuestionTimeLeft(TimeUnit unit)
+    {
+        return getStatus().getQuestionTimeLeft(unit);
+    }
+
+    @Override
+    public void ask(Object question) throws InterruptedException
+    {
+        getStatus().ask(question);
+    }
+
+    @Override
+    public Object getQuestion()
+    {
+        return getStatus().getQuestion();
+    }
+
+    @Override
+    public void answered()
+    {
+        getStatus().answered();
+    }
+
+    @Override
+    public boolean isSerialized()
+    {
+        return getStatus().isSerialized();
+    }
+
+    @Override
+    public boolean isIsolated()
+    {
+        return getStatus().isIsolated();
+    }
+
+    @Override
+    @Deprecated
+    public LogQueue getLog()
+    {
+        return getStatus().getLog();
+    }
+
+    @Override
+    @Deprecated
+    public List<LogEvent> getLog(LogLevel level)
+    {
+        return getStatus().getLog(level);
+    }
+}
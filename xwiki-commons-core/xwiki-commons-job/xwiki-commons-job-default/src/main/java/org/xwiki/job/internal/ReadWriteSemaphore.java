@@ -56,9 +56,8 @@ public ReadWriteSemaphore(int poolSize)
      */
     public void lockWrite()
     {
-        this.writeCounter.incrementAndGet();
-
-        if (this.writeCounter.get() == 1) {
+        // Use the counter value seen by this thread, another writer might be updating it concurrently
+        if (this.writeCounter.incrementAndGet() == 1) {
             this.semaphore.acquireUninterruptibly(this.readCounter.get() + 1);
         } else {
             this.semaphore.acquireUninterruptibly();
@@ -71,9 +70,7 @@ public void lockWrite()
      */
     public void unlockWrite()
     {
-        this.writeCounter.decrementAndGet();
-
-        if (this.writeCounter.get() == 0) {
+        if (this.writeCounter.decrementAndGet() == 0) {
             this.semaphore.release(this.readCounter.get() + 1);
         } else {
             this.semaphore.release();
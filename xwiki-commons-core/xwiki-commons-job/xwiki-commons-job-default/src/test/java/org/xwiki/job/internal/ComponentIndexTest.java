@@ -0,0 +1,66 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job.internal;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.component.annotation.ComponentAnnotationLoader;
+import org.xwiki.component.annotation.ComponentDeclaration;
+import org.xwiki.component.descriptor.ComponentDescriptor;
+import org.xwiki.component.internal.index.ComponentIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Validate the component index generated at build time for this module.
+ *
+ * @version $Id$
+ */
+class ComponentIndexTest
+{
+    @Test
+    void indexMatchesIntrospection() throws Exception
+    {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ComponentIndex index = ComponentIndex.load(classLoader);
+        ComponentAnnotationLoader loader = new ComponentAnnotationLoader();
+
+        assertNotNull(index.getComponentDescriptors(DefaultJobStatusStore.class));
+
+        int indexed = 0;
+        for (ComponentDeclaration declaration : loader.getDeclaredComponents(classLoader,
+            ComponentAnnotationLoader.COMPONENT_LIST)) {
+            if (declaration.getImplementationClassName().startsWith("org.xwiki.job.internal.")) {
+                Class<?> componentClass = classLoader.loadClass(declaration.getImplementationClassName());
+
+                // Components which cannot be represented in the index are introspected at runtime
+                List<ComponentDescriptor<?>> descriptors = index.getComponentDescriptors(componentClass);
+                if (descriptors != null) {
+                    assertEquals(loader.getComponentsDescriptors(componentClass), descriptors);
+                    indexed++;
+                }
+            }
+        }
+
+        assertEquals(14, indexed);
+    }
+}
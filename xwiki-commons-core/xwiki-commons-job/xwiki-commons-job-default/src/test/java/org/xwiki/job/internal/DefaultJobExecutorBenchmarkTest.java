@@ -0,0 +1,163 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.apache.commons.io.FileUtils;
+import org.xwiki.component.util.ReflectionUtils;
+import org.xwiki.job.DefaultRequest;
+import org.xwiki.job.GroupedJobInitializer;
+import org.xwiki.job.GroupedJobInitializerManager;
+import org.xwiki.job.JobGroupPath;
+import org.xwiki.job.JobManagerConfiguration;
+import org.xwiki.job.test.TestBasicGroupedJob;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compare the throughput of the {@link DefaultJobExecutor} backends when executing a lot of short jobs. Disabled by
+ * default, run it with {@code -Dxwiki.job.benchmark=true}. The results are written in
+ * {@code target/benchmark/DefaultJobExecutor.txt}.
+ *
+ * @version $Id$
+ */
+@EnabledIfSystemProperty(named = "xwiki.job.benchmark", matches = "true")
+class DefaultJobExecutorBenchmarkTest
+{
+    private static final File RESULT_FILE = new File("target/benchmark/DefaultJobExecutor.txt");
+
+    private static final int JOBS = 20000;
+
+    private static final int GROUPS = 10;
+
+    private static final int ROUNDS = 5;
+
+    private static class CountingJob extends TestBasicGroupedJob
+    {
+        private final CountDownLatch latch;
+
+        CountingJob(JobGroupPath path, CountDownLatch latch)
+        {
+            super("benchmark", path, new DefaultRequest());
+
+            this.latch = latch;
+        }
+
+        @Override
+        public void run()
+        {
+            super.run();
+
+            this.latch.countDown();
+        }
+    }
+
+    private DefaultJobExecutor createExecutor(String type) throws Exception
+    {
+        JobManagerConfiguration configuration = mock(JobManagerConfiguration.class);
+        when(configuration.getJobExecutorType()).thenReturn(type);
+        when(configuration.getSingleJobThreadKeepAliveTime()).thenReturn(60000L);
+        when(configuration.getGroupedJobThreadKeepAliveTime()).thenReturn(60000L);
+
+        GroupedJobInitializer initializer = mock(GroupedJobInitializer.class);
+        when(initializer.getPoolSize()).thenReturn(2);
+        when(initializer.getDefaultPriority()).thenReturn(Thread.NORM_PRIORITY);
+        GroupedJobInitializerManager initializerManager = mock(GroupedJobInitializerManager.class);
+        when(initializerManager.getGroupedJobInitializer(any())).thenReturn(initializer);
+
+        JobGroupPathLockTree lockTree = new JobGroupPathLockTree();
+        ReflectionUtils.setFieldValue(lockTree, "groupedJobInitializerManager", initializerManager);
+
+        DefaultJobExecutor executor = new DefaultJobExecutor();
+        ReflectionUtils.setFieldValue(executor, "jobManagerConfiguration", configuration);
+        ReflectionUtils.setFieldValue(executor, "groupedJobInitializerManager", initializerManager);
+        ReflectionUtils.setFieldValue(executor, "lockTree", lockTree);
+        executor.initialize();
+
+        return executor;
+    }
+
+    private long run(DefaultJobExecutor executor, boolean grouped) throws InterruptedException
+    {
+        CountDownLatch latch = new CountDownLatch(JOBS);
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < JOBS; ++i) {
+            JobGroupPath path = grouped ? new JobGroupPath(Arrays.asList("group", String.valueOf(i % GROUPS))) : null;
+
+            executor.execute(new CountingJob(path, latch));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.MINUTES));
+
+        return System.nanoTime() - start;
+    }
+
+    private void benchmark(String type, boolean grouped) throws Exception
+    {
+        DefaultJobExecutor executor = createExecutor(type);
+
+        try {
+            // Warm up
+            run(executor, grouped);
+
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < ROUNDS; ++i) {
+                best = Math.min(best, run(executor, grouped));
+            }
+
+            report(String.format("[%s] executor, %s jobs: %d jobs/s%n", type, grouped ? "grouped" : "single",
+                JOBS * TimeUnit.SECONDS.toNanos(1) / best));
+        } finally {
+            executor.dispose();
+        }
+    }
+
+    private void report(String result) throws IOException
+    {
+        FileUtils.writeStringToFile(RESULT_FILE, result, StandardCharsets.UTF_8, true);
+    }
+
+    @Test
+    void singleJobs() throws Exception
+    {
+        benchmark("thread", false);
+        benchmark("workstealing", false);
+    }
+
+    @Test
+    void groupedJobs() throws Exception
+    {
+        benchmark("thread", true);
+        benchmark("workstealing", true);
+    }
+}
@@ -19,12 +19,15 @@
  */
 package org.xwiki.job.internal;
 
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.Arrays;
 import java.util.Collections;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.xwiki.component.internal.ContextComponentManagerProvider;
+import org.xwiki.component.phase.InitializationException;
 import org.xwiki.job.DefaultRequest;
 import org.xwiki.job.GroupedJobInitializer;
 import org.xwiki.job.GroupedJobInitializerManager;
@@ -40,6 +43,7 @@
 
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -406,6 +410,92 @@ void matchingGroupPathAreBlockedPoolMultiSizeChildrenFirst() throws InterruptedE
         assertSame(State.FINISHED, jobAB3.getStatus().getState());
     }
 
+    private void enableWorkStealing() throws InitializationException
+    {
+        when(this.jobManagerConfiguration.getJobExecutorType()).thenReturn("workstealing");
+        when(this.jobManagerConfiguration.getWorkStealingParallelism()).thenReturn(8);
+
+        this.executor.initialize();
+    }
+
+    @Test
+    void matchingGroupPathAreBlockedWithWorkStealing() throws InitializationException
+    {
+        enableWorkStealing();
+
+        matchingGroupPathAreBlocked();
+    }
+
+    @Test
+    void matchingGroupPathAreBlockedPoolMultiSizeParentFirstWithWorkStealing() throws InitializationException
+    {
+        enableWorkStealing();
+
+        matchingGroupPathAreBlockedPoolMultiSizeParentFirst();
+    }
+
+    @Test
+    void matchingGroupPathAreBlockedPoolMultiSizeChildrenFirstWithWorkStealing() throws Exception
+    {
+        enableWorkStealing();
+
+        matchingGroupPathAreBlockedPoolMultiSizeChildrenFirst();
+    }
+
+    @Test
+    void getJobWithWorkStealing() throws Exception
+    {
+        enableWorkStealing();
+
+        DefaultRequest request = new DefaultRequest();
+        request.setId("single");
+        TestBasicGroupedJob job = new TestBasicGroupedJob("type", null, request);
+        job.lock();
+
+        this.executor.execute(job);
+        waitJobWaiting(job);
+
+        assertSame(job, this.executor.getJob(Arrays.asList("single")));
+
+        job.unlock();
+        waitJobFinished(job);
+
+        // The job is unregistered right after it's finished
+        for (int wait = 0; this.executor.getJob(Arrays.asList("single")) != null && wait < WAIT_VALUE; ++wait) {
+            Thread.sleep(1);
+        }
+
+        assertNull(this.executor.getJob(Arrays.asList("single")));
+    }
+
+    @Test
+    void workStealingThreadContextClassLoader() throws Exception
+    {
+        ClassLoader previousClassLoader = Thread.currentThread().getContextClassLoader();
+        ClassLoader classLoader = new URLClassLoader(new URL[0], previousClassLoader);
+        Thread.currentThread().setContextClassLoader(classLoader);
+        try {
+            enableWorkStealing();
+        } finally {
+            Thread.currentThread().setContextClassLoader(previousClassLoader);
+        }
+
+        DefaultRequest request = new DefaultRequest();
+        request.setId("single");
+        TestBasicGroupedJob job = new TestBasicGroupedJob("type", null, request);
+        job.lock();
+
+        this.executor.execute(job);
+        waitJobWaiting(job);
+
+        Thread thread = job.getThread();
+        assertSame(classLoader, thread.getContextClassLoader());
+        assertTrue(thread.getName().startsWith("Shared job pool thread"));
+
+        job.unlock();
+        waitJobFinished(job);
+    }
+
     private TestBasicGroupedJob groupedJob(String... path)
     {
         return new TestBasicGroupedJob("type", new JobGroupPath(Arrays.asList(path)), new DefaultRequest());
@@ -19,6 +19,7 @@
  */
 package org.xwiki.job.internal;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.xwiki.job.event.status.EndStepProgressEvent;
 import org.xwiki.job.event.status.PopLevelProgressEvent;
@@ -26,12 +27,18 @@
 import org.xwiki.job.event.status.StartStepProgressEvent;
 import org.xwiki.logging.Message;
 import org.xwiki.observation.ObservationManager;
+import org.xwiki.observation.event.Event;
 import org.xwiki.test.junit5.mockito.ComponentTest;
 import org.xwiki.test.junit5.mockito.InjectMockComponents;
 import org.xwiki.test.junit5.mockito.MockComponent;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Validate {@link DefaultJobProgressManager}.
@@ -47,6 +54,12 @@
     @MockComponent
     private ObservationManager observation;
 
+    @BeforeEach
+    void beforeEach()
+    {
+        when(this.observation.hasListener(any())).thenReturn(true);
+    }
+
     @Test
     void pushLevelProgress()
     {
@@ -95,4 +108,34 @@ void popLevelProgress()
 
         verify(this.observation).notify(PopLevelProgressEvent.INSTANCE, this);
     }
+
+    @Test
+    void progressWithBoundProgressAndNoListener()
+    {
+        when(this.observation.hasListener(any())).thenReturn(false);
+
+        DefaultJobProgress jobProgress = new DefaultJobProgress();
+        JobProgressThreadBinding.bind(jobProgress);
+
+        try {
+            this.progress.pushLevelProgress(2, this);
+            this.progress.startStep(this);
+            this.progress.endStep(this);
+
+            assertEquals(0.5D, jobProgress.getOffset());
+
+            this.progress.startStep(this);
+            this.progress.endStep(this);
+            this.progress.popLevelProgress(this);
+
+            assertEquals(1D, jobProgress.getOffset());
+        } finally {
+            JobProgressThreadBinding.unbind(jobProgress);
+        }
+
+        assertTrue(JobProgressThreadBinding.getProgresses().isEmpty());
+
+        verify(this.observation, never()).notify(any(Event.class), any());
+        verify(this.observation, never()).notify(any(Event.class), any(), any());
+    }
 }
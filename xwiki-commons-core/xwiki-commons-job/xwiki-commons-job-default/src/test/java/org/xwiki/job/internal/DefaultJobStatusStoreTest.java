@@ -20,9 +20,14 @@
 package org.xwiki.job.internal;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.inject.Provider;
 
@@ -39,6 +44,7 @@
 import org.xwiki.job.DefaultJobStatus;
 import org.xwiki.job.DefaultRequest;
 import org.xwiki.job.JobManagerConfiguration;
+import org.xwiki.job.JobStatusQuery;
 import org.xwiki.job.Request;
 import org.xwiki.job.annotation.Serializable;
 import org.xwiki.job.event.status.JobStatus;
@@ -348,6 +354,53 @@ void getJobStatusThatDoesNotExist()
         verifyNoMoreInteractions(mockSerializer);
     }
 
+    @Test
+    void getJobStatuses()
+    {
+        List<JobStatus> jobStatuses = this.store.getJobStatuses(
+            Arrays.asList(Arrays.asList("id1", "id2"), Arrays.asList("nostatus"), Arrays.asList("id1", "id2")));
+
+        assertEquals(3, jobStatuses.size());
+        assertEquals(Arrays.asList("id1", "id2"), jobStatuses.get(0).getRequest().getId());
+        assertNull(jobStatuses.get(1));
+        assertSame(jobStatuses.get(0), jobStatuses.get(2));
+        assertSame(jobStatuses.get(0), this.store.getJobStatus(Arrays.asList("id1", "id2")));
+    }
+
+    @Test
+    void getJobStatusesAfterDispose() throws Exception
+    {
+        this.store.dispose();
+
+        // The statuses are loaded in the calling thread once the loader pool is stopped
+        List<JobStatus> jobStatuses =
+            this.store.getJobStatuses(Arrays.asList(Arrays.asList("id1", "id2"), Arrays.asList("nostatus")));
+
+        assertEquals(Arrays.asList("id1", "id2"), jobStatuses.get(0).getRequest().getId());
+        assertNull(jobStatuses.get(1));
+    }
+
+    @Test
+    void getJobStatusConcurrently() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<JobStatus>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                futures.add(executor.submit(() -> this.store.getJobStatus(Arrays.asList("id1", "id2"))));
+            }
+
+            JobStatus jobStatus = futures.get(0).get();
+            assertNotNull(jobStatus);
+            for (Future<JobStatus> future : futures) {
+                assertSame(jobStatus, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void removeJobStatus()
     {
@@ -407,6 +460,7 @@ void storeUnserializableJobStatus()
         // Verify that the status hasn't been serialized, indirectly verifying that isSerializable() has been called and
         // returned true.
         assertFalse(new File(this.storeDirectory, "test/status.xml").exists());
+        assertFalse(new File(this.storeDirectory, "test/status.bin").exists());
     }
 
     @Test
@@ -423,6 +477,7 @@ void storeUnserializedJobStatus()
         // Verify that the status hasn't been serialized, indirectly verifying that isSerializable() has been called and
         // returned true.
         assertFalse(new File(this.storeDirectory, "test/status.xml").exists());
+        assertFalse(new File(this.storeDirectory, "test/status.bin").exists());
     }
 
     @Test
@@ -440,7 +495,206 @@ void storeJobStatusWhenSerializable()
 
         // Verify that the status has been serialized, indirectly verifying that isSerializable() has been called and
         // returned true.
-        assertTrue(new File(this.storeDirectory, "newstatus/status.xml").exists());
+        assertTrue(new File(this.storeDirectory, "newstatus/status.bin").exists());
+    }
+
+    @Test
+    void storeJobStatusInOldFormat() throws Exception
+    {
+        List<String> id = Arrays.asList("oldformat");
+
+        DefaultRequest request = new DefaultRequest();
+        request.setId(id);
+        DefaultJobStatus<Request> status = new DefaultJobStatus<>("type", request, null, null, null);
+        status.setState(JobStatus.State.FINISHED);
+        File xmlFile = new File(this.storeDirectory, "oldformat/status.xml");
+        this.componentManager.<JobStatusSerializer>getInstance(JobStatusSerializer.class).write(status, xmlFile);
+
+        JobStatus jobStatus = this.store.getJobStatus(id);
+
+        assertEquals(id, jobStatus.getRequest().getId());
+
+        this.store.store(jobStatus);
+
+        assertTrue(new File(this.storeDirectory, "oldformat/status.bin").exists());
+        assertFalse(xmlFile.exists());
+
+        this.store.flushCache();
+
+        jobStatus = this.store.getJobStatus(id);
+
+        assertEquals(id, jobStatus.getRequest().getId());
+        assertEquals(JobStatus.State.FINISHED, jobStatus.getState());
+    }
+
+    @Test
+    void getLazyJobStatus()
+    {
+        DefaultJobStatus<Request> status = createStatus(false);
+        status.setState(JobStatus.State.FINISHED);
+        status.setStartDate(new Date(42));
+
+        this.store.store(status);
+
+        assertSame(status, this.store.getLazyJobStatus(ID));
+
+        this.store.flushCache();
+
+        LazyJobStatus lazyStatus = (LazyJobStatus) this.store.getLazyJobStatus(ID);
+
+        assertEquals("type", lazyStatus.getJobType());
+        assertEquals(JobStatus.State.FINISHED, lazyStatus.getState());
+        assertEquals(new Date(42), lazyStatus.getStartDate());
+        assertNull(lazyStatus.getEndDate());
+        assertEquals(0, lazyStatus.getProgress().getOffset());
+        assertFalse(lazyStatus.isLoaded());
+
+        assertEquals(ID, lazyStatus.getRequest().getId());
+        assertTrue(lazyStatus.isLoaded());
+        assertSame(this.store.getJobStatus(ID), lazyStatus.getStatus());
+    }
+
+    @Test
+    void getLazyJobStatusInOldFormat()
+    {
+        JobStatus jobStatus = this.store.getLazyJobStatus(Arrays.asList("id1", "id2"));
+
+        assertSame(this.store.getJobStatus(Arrays.asList("id1", "id2")), jobStatus);
+    }
+
+    private DefaultJobStatus<Request> storeStatus(List<String> id, String type, JobStatus.State state, long startDate)
+    {
+        DefaultRequest request = new DefaultRequest();
+        request.setId(id);
+
+        DefaultJobStatus<Request> status = new DefaultJobStatus<>(type, request, null, null, null);
+        status.setState(state);
+        status.setStartDate(new Date(startDate));
+
+        this.store.store(status);
+
+        return status;
+    }
+
+    private List<List<String>> searchIds(JobStatusQuery query)
+    {
+        List<List<String>> ids = new ArrayList<>();
+        for (JobStatus status : this.store.search(query)) {
+            ids.add(status.getRequest().getId());
+        }
+
+        return ids;
+    }
+
+    @Test
+    void search()
+    {
+        List<String> id1 = Arrays.asList("search", "id1");
+        List<String> id2 = Arrays.asList("search", "id2");
+        List<String> id3 = Arrays.asList("search", "id3");
+
+        storeStatus(id3, "type1", JobStatus.State.FINISHED, 30);
+        DefaultJobStatus<Request> status2 = storeStatus(id2, "type2", JobStatus.State.FINISHED, 20);
+        storeStatus(id1, "type1", JobStatus.State.RUNNING, 10);
+
+        status2.setError(new Exception());
+        this.store.store(status2);
+
+        JobStatusQuery query = new JobStatusQuery().setIdPrefix(Arrays.asList("search"));
+
+        assertEquals(Arrays.asList(id1, id2, id3), searchIds(query));
+        assertEquals(Arrays.asList(id2, id3), searchIds(query.setOffset(1)));
+        assertEquals(Arrays.asList(id2), searchIds(query.setLimit(1)));
+
+        query = new JobStatusQuery().setIdPrefix(Arrays.asList("search"));
+
+        assertEquals(Arrays.asList(id1, id3), searchIds(query.setJobType("type1")));
+        assertEquals(Arrays.asList(id3), searchIds(query.setState(JobStatus.State.FINISHED)));
+        assertEquals(Arrays.asList(), searchIds(query.setError(true)));
+        assertEquals(Arrays.asList(id2), searchIds(query.setJobType(null).setState(null)));
+
+        query = new JobStatusQuery().setIdPrefix(Arrays.asList("search"));
+
+        assertEquals(Arrays.asList(id2, id3), searchIds(query.setStartedAfter(new Date(20))));
+        assertEquals(Arrays.asList(id2), searchIds(query.setStartedBefore(new Date(30))));
+    }
+
+    @Test
+    void searchReturnsLazyStatuses()
+    {
+        List<String> id = Arrays.asList("search", "lazy");
+
+        DefaultJobStatus<Request> status = storeStatus(id, "type", JobStatus.State.FINISHED, 0);
+
+        JobStatusQuery query = new JobStatusQuery().setIdPrefix(id);
+
+        assertSame(status, this.store.search(query).get(0));
+
+        this.store.flushCache();
+
+        LazyJobStatus lazyStatus = (LazyJobStatus) this.store.search(query).get(0);
+
+        assertFalse(lazyStatus.isLoaded());
+        assertEquals(JobStatus.State.FINISHED, lazyStatus.getState());
+        assertEquals(id, lazyStatus.getRequest().getId());
+        assertTrue(lazyStatus.isLoaded());
+    }
+
+    @Test
+    void searchAfterRemove()
+    {
+        List<String> id = Arrays.asList("search", "removed");
+
+        storeStatus(id, "type", JobStatus.State.FINISHED, 0);
+        storeStatus(Arrays.asList("search", "removed", "child"), "type", JobStatus.State.FINISHED, 0);
+
+        this.store.remove(id);
+
+        assertTrue(this.store.search(new JobStatusQuery().setIdPrefix(id)).isEmpty());
+    }
+
+    @Test
+    void searchExistingStatuses()
+    {
+        // The index is built from the statuses already stored when it does not exist yet
+        assertEquals(Arrays.asList(Arrays.asList("id1", "id2")),
+            searchIds(new JobStatusQuery().setIdPrefix(Arrays.asList("id1", "id2")).setLimit(1)));
+    }
+
+    @Test
+    void searchAfterInitialize() throws Exception
+    {
+        List<String> id = Arrays.asList("search", "persisted");
+
+        storeStatus(id, "persisted", JobStatus.State.FINISHED, 0);
+
+        // Get rid of the status file to make sure the index is not rebuilt from the stored statuses
+        FileUtils.deleteDirectory(new File(this.storeDirectory, "search"));
+
+        this.store.initialize();
+
+        assertEquals(Arrays.asList(id), searchIds(new JobStatusQuery().setJobType("persisted")));
+    }
+
+    @Test
+    void searchAfterDispose() throws Exception
+    {
+        List<String> id = Arrays.asList("search", "disposed");
+
+        DefaultRequest request = new DefaultRequest();
+        request.setId(id);
+        DefaultJobStatus<Request> status = new DefaultJobStatus<>("disposed", request, null, null, null);
+        status.setState(JobStatus.State.FINISHED);
+
+        // The pending serializations are finished and the index is closed
+        this.store.storeAsync(status);
+        this.store.dispose();
+
+        FileUtils.deleteDirectory(new File(this.storeDirectory, "search"));
+
+        this.store.initialize();
+
+        assertEquals(Arrays.asList(id), searchIds(new JobStatusQuery().setJobType("disposed")));
     }
 
     @Test
@@ -456,6 +710,19 @@ void serializeUnserializeWhenLogMessage() throws Exception
         assertEquals("error message", status.getLog().peek().getMessage());
     }
 
+    @Test
+    void serializeUnserializeWhenLogMessageWithoutLogTail() throws Exception
+    {
+        DefaultJobStatus<Request> status = createStatus(false);
+
+        status.getLoggerTail().error("error message");
+
+        status = storeGet(status);
+
+        assertEquals(1, status.getLogTail().size());
+        assertEquals("error message", status.getLogTail().getLogEvent(0).getMessage());
+    }
+
     @Test
     void serializeUnserializeWhenLogMarker() throws Exception
     {
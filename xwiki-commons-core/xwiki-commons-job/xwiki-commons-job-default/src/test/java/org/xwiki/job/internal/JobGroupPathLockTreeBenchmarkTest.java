@@ -0,0 +1,122 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job.internal;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.xwiki.component.util.ReflectionUtils;
+import org.xwiki.job.GroupedJobInitializer;
+import org.xwiki.job.GroupedJobInitializerManager;
+import org.xwiki.job.JobGroupPath;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measure the contention on {@link JobGroupPathLockTree} with many concurrent groups under a shared root. Disabled by
+ * default, run it with {@code -Dxwiki.job.benchmark=true}. The results are written in
+ * {@code target/benchmark/JobGroupPathLockTree.txt}.
+ *
+ * @version $Id$
+ */
+@EnabledIfSystemProperty(named = "xwiki.job.benchmark", matches = "true")
+class JobGroupPathLockTreeBenchmarkTest
+{
+    private static final File RESULT_FILE = new File("target/benchmark/JobGroupPathLockTree.txt");
+
+    private static final long DURATION = TimeUnit.SECONDS.toMillis(2);
+
+    private JobGroupPathLockTree createLockTree()
+    {
+        GroupedJobInitializer initializer = mock(GroupedJobInitializer.class);
+        when(initializer.getPoolSize()).thenReturn(1);
+        GroupedJobInitializerManager initializerManager = mock(GroupedJobInitializerManager.class);
+        when(initializerManager.getGroupedJobInitializer(any())).thenReturn(initializer);
+
+        JobGroupPathLockTree lockTree = new JobGroupPathLockTree();
+        ReflectionUtils.setFieldValue(lockTree, "groupedJobInitializerManager", initializerManager);
+
+        return lockTree;
+    }
+
+    private long run(int threads, int depth) throws InterruptedException
+    {
+        JobGroupPathLockTree lockTree = createLockTree();
+
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder operations = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; ++i) {
+            // Each thread uses its own group, all the groups sharing the same root
+            List<String> elements = new ArrayList<>(Arrays.asList("root", "group" + i));
+            for (int level = 2; level < depth; ++level) {
+                elements.add("level" + level);
+            }
+            JobGroupPath path = new JobGroupPath(elements);
+
+            workers.add(new Thread(() -> {
+                long count = 0;
+                while (!stop.get()) {
+                    lockTree.lock(path);
+                    lockTree.unlock(path);
+                    ++count;
+                }
+                operations.add(count);
+                done.countDown();
+            }));
+        }
+
+        workers.forEach(Thread::start);
+        Thread.sleep(DURATION);
+        stop.set(true);
+        done.await();
+
+        return operations.sum() * TimeUnit.SECONDS.toMillis(1) / DURATION;
+    }
+
+    @Test
+    void concurrentGroupsUnderSharedRoot() throws Exception
+    {
+        StringBuilder result = new StringBuilder();
+
+        for (int depth : new int[] {2, 5}) {
+            for (int threads : new int[] {1, 4, 16}) {
+                result.append(String.format("depth %d, %d threads: %d lock/unlock per second%n", depth, threads,
+                    run(threads, depth)));
+            }
+        }
+
+        FileUtils.writeStringToFile(RESULT_FILE, result.toString(), StandardCharsets.UTF_8, true);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.job.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xwiki.job.DefaultJobStatus;
+import org.xwiki.job.DefaultRequest;
+import org.xwiki.job.JobStatusQuery;
+import org.xwiki.job.Request;
+import org.xwiki.test.XWikiTempDirUtil;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link JobStatusIndex}.
+ *
+ * @version $Id$
+ */
+class JobStatusIndexTest
+{
+    private File file;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        this.file = new File(XWikiTempDirUtil.createTemporaryDirectory(), "index.bin");
+    }
+
+    private JobStatusHeader createHeader(String... id)
+    {
+        DefaultRequest request = new DefaultRequest();
+        request.setId(id);
+
+        return new JobStatusHeader(new DefaultJobStatus<Request>("type", request, null, null, null));
+    }
+
+    private JobStatusIndex reopen(JobStatusIndex index) throws IOException
+    {
+        index.close();
+
+        JobStatusIndex newIndex = new JobStatusIndex(this.file);
+        assertTrue(newIndex.open());
+
+        return newIndex;
+    }
+
+    @Test
+    void openWhenMissing() throws IOException
+    {
+        JobStatusIndex index = new JobStatusIndex(this.file);
+
+        assertFalse(index.open());
+        assertTrue(this.file.exists());
+
+        index = reopen(index);
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void putRemoveAndReopen() throws IOException
+    {
+        JobStatusIndex index = new JobStatusIndex(this.file);
+        index.open();
+
+        index.put(createHeader("a", "1"));
+        index.put(createHeader("a", "1", "child"));
+        index.put(createHeader("b"));
+        index.put(createHeader("b"));
+        index.remove(Arrays.asList("a", "1"));
+
+        index = reopen(index);
+
+        List<JobStatusHeader> headers = index.search(new JobStatusQuery());
+        assertEquals(1, headers.size());
+        assertEquals(Arrays.asList("b"), headers.get(0).getId());
+    }
+
+    @Test
+    void openWithIncompleteRecord() throws IOException
+    {
+        JobStatusIndex index = new JobStatusIndex(this.file);
+        index.open();
+
+        index.put(createHeader("a"));
+        index.put(createHeader("b"));
+        index.close();
+
+        // Simulate a crash while writing the last record
+        long length = this.file.length();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "rw")) {
+            randomAccessFile.setLength(length - 3);
+        }
+
+        index = reopen(index);
+
+        assertEquals(1, index.size());
+
+        // Make sure new records are not appended after the incomplete one
+        index.put(createHeader("c"));
+        index = reopen(index);
+
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void compaction() throws IOException
+    {
+        JobStatusIndex index = new JobStatusIndex(this.file);
+        index.open();
+
+        index.put(createHeader("a"));
+        long initialLength = this.file.length();
+
+        for (int i = 0; i < 2000; ++i) {
+            index.put(createHeader("b"));
+        }
+
+        assertTrue(this.file.length() < initialLength * 1000);
+
+        index = reopen(index);
+
+        assertEquals(2, index.size());
+    }
+}
@@ -21,12 +21,20 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.apache.commons.io.FileUtils;
 
 import org.junit.jupiter.api.Test;
 import org.xwiki.job.DefaultJobStatus;
 import org.xwiki.job.DefaultRequest;
 import org.xwiki.job.Request;
 import org.xwiki.job.event.status.JobStatus;
+import org.xwiki.logging.LogLevel;
+import org.xwiki.logging.LogQueue;
+import org.xwiki.logging.LoggerManager;
+import org.xwiki.logging.internal.tail.MemoryLoggerTail;
 import org.xwiki.test.annotation.ComponentList;
 import org.xwiki.test.junit5.mockito.ComponentTest;
 import org.xwiki.test.junit5.mockito.InjectMockComponents;
@@ -35,6 +43,10 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Validate {@link JobStatusSerializer}.
@@ -67,6 +79,86 @@ void serializeUnserialize() throws IOException
         assertEquals("type", status.getJobType());
     }
 
+    @Test
+    void serializeUnserializeMemoryLog() throws IOException
+    {
+        LoggerManager loggerManager = mock(LoggerManager.class);
+        when(loggerManager.createLoggerTail()).thenReturn(new MemoryLoggerTail());
+
+        DefaultRequest request = new DefaultRequest();
+        request.setId("id");
+        DefaultJobStatus<Request> status = new DefaultJobStatus<>("type", request, null, null, loggerManager);
+        status.getLoggerTail().info("info");
+        status.getLoggerTail().warn("warning");
+
+        JobStatus unserializedStatus = writeRead(status);
+
+        assertTrue(unserializedStatus.getLogTail() instanceof LogQueue);
+        assertEquals(2, unserializedStatus.getLogTail().size());
+        assertEquals("info", unserializedStatus.getLogTail().getLogEvent(0).getMessage());
+        assertEquals(LogLevel.WARN, unserializedStatus.getLogTail().getLogEvent(1).getLevel());
+    }
+
+    @Test
+    void serializeUnserializeLogQueue() throws IOException
+    {
+        DefaultRequest request = new DefaultRequest();
+        request.setId("id");
+        DefaultJobStatus<Request> status = new DefaultJobStatus<>("type", request, null, null, null);
+        status.setLoggerTail(new LogQueue());
+        status.getLoggerTail().info("info");
+
+        JobStatus unserializedStatus = writeRead(status);
+
+        // Same format as when the log was stored in a LogQueue field
+        assertTrue(FileUtils.readFileToString(this.testFile, "UTF-8").contains("<logs serialization=\"custom\">"));
+        assertEquals(1, unserializedStatus.getLogTail().size());
+        assertEquals("info", unserializedStatus.getLogTail().getLogEvent(0).getMessage());
+    }
+
+    @Test
+    void serializeUnserializeBinary() throws IOException
+    {
+        DefaultRequest request = new DefaultRequest();
+        request.setId("id1", "id2");
+        DefaultJobStatus<Request> status = new DefaultJobStatus<>("type", request, null, null, null);
+        status.setState(JobStatus.State.FINISHED);
+        status.setEndDate(new Date(42));
+        status.setError(new Exception("error"));
+        status.getLoggerTail().info("info");
+        status.getLoggerTail().warn("warning");
+
+        File binaryFile = new File("target/test/status.bin");
+        this.serializer.writeBinary(status, binaryFile);
+
+        JobStatusHeader header = this.serializer.readHeader(binaryFile);
+
+        assertEquals(Arrays.asList("id1", "id2"), header.getId());
+        assertEquals("type", header.getJobType());
+        assertEquals(JobStatus.State.FINISHED, header.getState());
+        assertNull(header.getStartDate());
+        assertEquals(new Date(42), header.getEndDate());
+        assertEquals(0, header.getProgressOffset());
+        assertTrue(header.isError());
+        assertEquals(LogLevel.WARN, header.getLogLevel());
+
+        JobStatus unserializedStatus = this.serializer.read(binaryFile);
+
+        assertEquals("type", unserializedStatus.getJobType());
+        assertEquals(Arrays.asList("id1", "id2"), unserializedStatus.getRequest().getId());
+        assertEquals(JobStatus.State.FINISHED, unserializedStatus.getState());
+        assertEquals(new Date(42), unserializedStatus.getEndDate());
+    }
+
+    @Test
+    void readHeaderWhenXML() throws IOException
+    {
+        this.serializer.write(new DefaultJobStatus<Request>("type", new DefaultRequest(), null, null, null),
+            this.testFile);
+
+        assertNull(this.serializer.readHeader(this.testFile));
+    }
+
     @Test
     void serializeUnserializeProgress() throws IOException
     {
@@ -97,4 +97,16 @@ default LoggerTail createLoggerTail(Path file, boolean readonly) throws IOExcept
     {
         return new LogQueue();
     }
+
+    /**
+     * Create an in-memory {@link LoggerTail}. The returned instance is serialized as a {@link LogQueue}.
+     * 
+     * @return the {@link LoggerTail} instance
+     * @since 12.9RC1
+     */
+    @Unstable
+    default LoggerTail createLoggerTail()
+    {
+        return new LogQueue();
+    }
 }
@@ -35,7 +35,6 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.inject.Inject;
 
@@ -68,7 +67,7 @@ public abstract class AbstractFileLoggerTail extends AbstractLoggerTail implemen
     @Inject
     protected org.slf4j.Logger componentLogger;
 
-    protected final List<IndexEntry> index = new CopyOnWriteArrayList<>();
+    protected final LoggerTailIndex index = new LoggerTailIndex();
 
     protected File logFile;
 
@@ -80,25 +79,6 @@ public abstract class AbstractFileLoggerTail extends AbstractLoggerTail implemen
 
     protected Writer indexStore;
 
-    protected class IndexEntry
-    {
-        private final LogLevel level;
-
-        private Long position;
-
-        public IndexEntry(Long position, LogLevel level)
-        {
-            this.level = level;
-            this.position = position;
-        }
-
-        @Override
-        public String toString()
-        {
-            return this.position + ":" + this.level;
-        }
-    }
-
     protected class FileLoggerTailIterator implements Iterator<LogEvent>
     {
         private int current;
@@ -245,8 +225,7 @@ private void loadIndex()
             while ((line = reader.readLine()) != null) {
                 int i = line.indexOf(':');
 
-                this.index
-                    .add(new IndexEntry(Long.valueOf(line.substring(0, i)), LogLevel.valueOf(line.substring(i + 1))));
+                this.index.add(Long.parseLong(line.substring(0, i)), LogLevel.valueOf(line.substring(i + 1)));
             }
         } catch (Exception e) {
             this.componentLogger.warn("Failed to read log index file [{}]: {}", indexFile,
@@ -269,11 +248,11 @@ private void writeLog(LogEvent logEvent)
         if (FAILED_STORE_LOG != logEvent.getMessage()) {
             synchronized (this) {
                 try {
-                    IndexEntry indexEntry = new IndexEntry(this.logStore.length(), logEvent.getLevel());
-                    this.index.add(indexEntry);
+                    long position = this.logStore.length();
+                    this.index.add(position, logEvent.getLevel());
 
                     // Go to the end of the file
-                    this.logStore.seek(indexEntry.position);
+                    this.logStore.seek(position);
 
                     write(logEvent, this.logStore);
 
@@ -282,7 +261,7 @@ private void writeLog(LogEvent logEvent)
 
                     this.logStoreLength = this.logFile.length();
 
-                    writeIndex(indexEntry.position, logEvent.getLevel());
+                    writeIndex(position, logEvent.getLevel());
                 } catch (Exception e) {
                     this.componentLogger.error(Logger.ROOT_MARKER, FAILED_STORE_LOG, e);
                 }
@@ -303,29 +282,29 @@ public LogEvent getLogEvent(int index)
     {
         checkChanged();
 
-        IndexEntry indexEntry = getIndexEntry(index);
-        if (indexEntry == null) {
+        if (index < 0 || !checkIndexEntry(index)) {
             // Not entry associated with this index
             return null;
         }
 
-        return getLogEvent(index, indexEntry);
+        return readLogEvent(index);
     }
 
-    private LogEvent getLogEvent(int index, IndexEntry indexEntry)
+    private LogEvent readLogEvent(int index)
     {
         try {
             synchronized (this) {
                 boolean open = open();
 
                 try {
-                    this.logStore.seek(indexEntry.position);
+                    long position = this.index.getPosition(index);
+                    this.logStore.seek(position);
 
-                    Long toPosition =
-                        this.index.size() > index + 1 ? this.index.get(index + 1).position : this.logStore.length();
+                    long toPosition =
+                        this.index.size() > index + 1 ? this.index.getPosition(index + 1) : this.logStore.length();
 
-                    BoundedInputStream stream = new BoundedInputStream(new InputStreamDataInput(this.logStore),
-                        toPosition - indexEntry.position);
+                    BoundedInputStream stream =
+                        new BoundedInputStream(new InputStreamDataInput(this.logStore), toPosition - position);
 
                     return read(stream);
                 } finally {
@@ -342,7 +321,7 @@ private LogEvent getLogEvent(int index, IndexEntry indexEntry)
     private void checkChanged()
     {
         // Make sure the log still exist and is not empty
-        if (isReadOnly() && !this.index.isEmpty()
+        if (isReadOnly() && this.index.size() > 0
             && (!this.logFile.exists() || this.logFile.length() != this.logStoreLength)) {
             // Reset the this log index if something else started modifying the log file
             this.index.clear();
@@ -354,30 +333,16 @@ public LogEvent getFirstLogEvent(LogLevel from)
     {
         checkChanged();
 
-        for (int i = 0; i < this.index.size(); ++i) {
-            IndexEntry indexEntry = getIndexEntry(i);
-            if (indexEntry == null) {
-                // Generally means the log has been modify by another process during the for loop
-                break;
-            }
-
-            if (isLogLevel(indexEntry, from)) {
-                return getLogEvent(i, indexEntry);
-            }
-        }
-
-        return null;
+        return getLogEvent(this.index.getFirst(from));
     }
 
-    private IndexEntry getIndexEntry(int i)
+    private boolean checkIndexEntry(int i)
     {
         if (this.index.size() <= i) {
-            return null;
+            return false;
         }
 
-        IndexEntry indexEntry = this.index.get(i);
-
-        if (this.logFile.length() < indexEntry.position) {
+        if (this.logFile.length() < this.index.getPosition(i)) {
             synchronized (this) {
                 if (this.logFile.length() == 0) {
                     // Looks like the log file was deleted/emptied by another thread
@@ -389,16 +354,11 @@ private IndexEntry getIndexEntry(int i)
                     loadIndex();
                 }
 
-                indexEntry = i < this.index.size() ? this.index.get(i) : null;
+                return i < this.index.size();
             }
         }
 
-        return indexEntry;
-    }
-
-    private boolean isLogLevel(IndexEntry indexEntry, LogLevel from)
-    {
-        return from == null || indexEntry.level.compareTo(from) <= 0;
+        return true;
     }
 
     @Override
@@ -406,23 +366,7 @@ public LogEvent getLastLogEvent(LogLevel from)
     {
         checkChanged();
 
-        IndexEntry lastIndexEntry = null;
-        int lastIndex = -1;
-
-        for (int i = 0; i < this.index.size(); ++i) {
-            IndexEntry indexEntry = getIndexEntry(i);
-            if (indexEntry == null) {
-                // Generally means the log has been modify by another process during the for loop
-                break;
-            }
-
-            if (isLogLevel(indexEntry, from)) {
-                lastIndexEntry = indexEntry;
-                lastIndex = i;
-            }
-        }
-
-        return lastIndexEntry != null ? getLogEvent(lastIndex, lastIndexEntry) : null;
+        return getLogEvent(this.index.getLast(from));
     }
 
     @Override
@@ -442,10 +386,13 @@ public LogTailResult getLogEvents(LogLevel from, int offset, int limit)
                 toIndex = this.index.size();
             }
 
-            List<LogEvent> events = new ArrayList<>(toIndex - fromIndex);
+            // Only go through the matching entries
+            int[] entries = this.index.getEntries(from, fromIndex, toIndex);
+
+            List<LogEvent> events = new ArrayList<>(entries.length);
 
             try {
-                getLogEvents(toIndex, fromIndex, from, events);
+                getLogEvents(entries, events);
             } catch (Exception e) {
                 this.componentLogger.error("Faile to retrieve log for [{}]", this.logFile, e);
             }
@@ -454,17 +401,13 @@ public LogTailResult getLogEvents(LogLevel from, int offset, int limit)
         }
     }
 
-    private void getLogEvents(int toIndex, int fromIndex, LogLevel from, List<LogEvent> events) throws IOException
+    private void getLogEvents(int[] entries, List<LogEvent> events) throws IOException
     {
         boolean open = open();
 
         try {
-            for (int i = fromIndex; i < toIndex; ++i) {
-                IndexEntry indexEntry = this.index.get(i);
-
-                if (isLogLevel(indexEntry, from)) {
-                    events.add(getLogEvent(i));
-                }
+            for (int entry : entries) {
+                events.add(getLogEvent(entry));
             }
         } finally {
             close(open);
@@ -474,13 +417,7 @@ private void getLogEvents(int toIndex, int fromIndex, LogLevel from, List<LogEve
     @Override
     public boolean hasLogLevel(LogLevel from)
     {
-        for (IndexEntry indexEntry : this.index) {
-            if (isLogLevel(indexEntry, from)) {
-                return true;
-            }
-        }
-
-        return false;
+        return this.index.size(from) > 0;
     }
 
     @Override
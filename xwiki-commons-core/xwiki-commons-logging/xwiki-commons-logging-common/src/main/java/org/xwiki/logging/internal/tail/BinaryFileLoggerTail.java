@@ -0,0 +1,484 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.internal.tail;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.inject.Inject;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.annotation.InstantiationStrategy;
+import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.logging.LogLevel;
+import org.xwiki.logging.Logger;
+import org.xwiki.logging.event.LogEvent;
+import org.xwiki.logging.internal.ListLogTailResult;
+import org.xwiki.logging.tail.EmptyLogTailResult;
+import org.xwiki.logging.tail.LogTailResult;
+import org.xwiki.xstream.internal.SafeXStream;
+
+/**
+ * Read and write the log in a compact binary format.
+ * <p>
+ * Each log event is stored as a binary record (level, date, message, arguments) in the log file and the position and
+ * level of each record is stored as a fixed width entry in a separated index file. Only the values which don't have a
+ * binary representation (markers, throwables, custom arguments) are serialized with XStream. Writes are buffered and
+ * committed to the files by groups of records instead of one by one. A group is committed when it's full, when a new
+ * record is written more than a second after the last commit, when a pending record is read, or on
+ * {@link #flush()}/{@link #close()}: there is no background commit, so the last records of an idle log stay in memory
+ * until one of those happens.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Component(roles = BinaryFileLoggerTail.class)
+@InstantiationStrategy(ComponentInstantiationStrategy.PER_LOOKUP)
+public class BinaryFileLoggerTail extends AbstractLoggerTail implements Disposable
+{
+    /**
+     * The extension of the file containing the log.
+     */
+    public static final String FILE_EXTENSION = ".bin";
+
+    /**
+     * The extension of the file containing the index of the log.
+     */
+    public static final String INDEX_EXTENSION = ".bidx";
+
+    private static final String FAILED_STORE_LOG = "Failed to store the log";
+
+    private static final String FAILED_READ_LOG = "Failed to retrieve log for [{}]";
+
+    private static final int COMMIT_RECORDS = 1024;
+
+    /**
+     * The time in milliseconds after which the next write commits the pending records.
+     */
+    private static final long COMMIT_INTERVAL = 1000L;
+
+    @Inject
+    protected org.slf4j.Logger componentLogger;
+
+    protected final LoggerTailIndex index = new LoggerTailIndex();
+
+    protected File logFile;
+
+    protected File indexFile;
+
+    @Inject
+    private SafeXStream xstream;
+
+    private BinaryLogFormat format;
+
+    /**
+     * Protect the log channel from being closed while it's being read.
+     */
+    private final ReadWriteLock channelLock = new ReentrantReadWriteLock();
+
+    private FileChannel logChannel;
+
+    private CountingOutputStream logCounter;
+
+    private DataOutputStream logStore;
+
+    private DataOutputStream indexStore;
+
+    /**
+     * The position in the log file after the last record which was committed.
+     */
+    private volatile long committedPosition;
+
+    /**
+     * The number of records which were committed.
+     */
+    private volatile int committedRecords;
+
+    /**
+     * The length of the log file when the index was loaded, to catch external modifications.
+     */
+    private long logStoreLength = -1;
+
+    private int pendingRecords;
+
+    private long lastCommit;
+
+    protected class BinaryFileLoggerTailIterator implements Iterator<LogEvent>
+    {
+        private int current;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.current < index.size();
+        }
+
+        @Override
+        public LogEvent next()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return getLogEvent(this.current++);
+        }
+    }
+
+    /**
+     * @param path the base path of the log
+     * @return true of a log has been stored at this location
+     */
+    public static boolean exist(Path path)
+    {
+        return AbstractFileLoggerTail.exist(path, FILE_EXTENSION);
+    }
+
+    /**
+     * @param path the base path of the log
+     * @param readonly true of the log is readonly
+     * @throws IOException when failing to create the log files
+     */
+    public void initialize(Path path, boolean readonly) throws IOException
+    {
+        synchronized (this) {
+            this.format = new BinaryLogFormat(this.xstream);
+
+            // The log file
+            this.logFile = AbstractFileLoggerTail.getLogFile(path, FILE_EXTENSION);
+            this.logFile.getParentFile().mkdirs();
+
+            // The index file
+            String name = this.logFile.getName();
+            this.indexFile = new File(this.logFile.getParentFile(),
+                name.substring(0, name.length() - FILE_EXTENSION.length()) + INDEX_EXTENSION);
+
+            this.index.clear();
+
+            if (!readonly) {
+                // Overwrite the current log if it exist
+                this.logChannel = FileChannel.open(this.logFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                this.logCounter = new CountingOutputStream(this.format.newOutputStream(this.logChannel));
+                this.logStore = new DataOutputStream(this.logCounter);
+                this.indexStore = new DataOutputStream(this.format.newOutputStream(FileChannel.open(
+                    this.indexFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)));
+
+                this.format.writeHeader(this.logStore);
+                this.format.writeHeader(this.indexStore);
+                commit();
+            } else if (this.indexFile.exists()) {
+                // Load the existing index
+                loadIndex();
+            }
+        }
+    }
+
+    private void loadIndex()
+    {
+        long logLength = this.logFile.length();
+
+        try {
+            if (!this.format.readIndex(this.indexFile, logLength, this.index)) {
+                this.componentLogger.warn("Unsupported log index file [{}]", this.indexFile);
+            }
+        } catch (Exception e) {
+            this.componentLogger.warn("Failed to read log index file [{}]: {}", this.indexFile,
+                ExceptionUtils.getRootCauseMessage(e));
+        }
+
+        this.committedPosition = logLength;
+        this.committedRecords = this.index.size();
+        this.logStoreLength = logLength;
+    }
+
+    protected boolean isReadOnly()
+    {
+        return this.logStore == null;
+    }
+
+    @Override
+    public void log(LogEvent logEvent)
+    {
+        if (this.logStore != null) {
+            writeLog(logEvent);
+        }
+    }
+
+    private void writeLog(LogEvent logEvent)
+    {
+        // We can't store this log since it has a good chance of creating a infinine loop
+        // We don't use #equals for performance reason, it works because it's the exact same String instance
+        if (FAILED_STORE_LOG != logEvent.getMessage()) {
+            synchronized (this) {
+                if (this.logStore != null) {
+                    try {
+                        long position = this.logCounter.getByteCount();
+
+                        this.format.write(logEvent, this.logStore);
+                        this.format.writeIndexEntry(position, logEvent.getLevel(), this.indexStore);
+
+                        this.index.add(position, logEvent.getLevel());
+
+                        // Group commit
+                        ++this.pendingRecords;
+                        if (this.pendingRecords >= COMMIT_RECORDS
+                            || System.currentTimeMillis() - this.lastCommit >= COMMIT_INTERVAL) {
+                            commit();
+                        }
+                    } catch (Exception e) {
+                        this.componentLogger.error(Logger.ROOT_MARKER, FAILED_STORE_LOG, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void commit() throws IOException
+    {
+        // Write the log before the index so that the index never reference a missing record
+        this.logStore.flush();
+        this.indexStore.flush();
+
+        this.committedPosition = this.logCounter.getByteCount();
+        this.committedRecords = this.index.size();
+        this.pendingRecords = 0;
+        this.lastCommit = System.currentTimeMillis();
+    }
+
+    @Override
+    public LogEvent getLogEvent(int index)
+    {
+        checkChanged();
+
+        if (index < 0 || index >= this.index.size()) {
+            // Not entry associated with this index
+            return null;
+        }
+
+        this.channelLock.readLock().lock();
+
+        try {
+            FileChannel channel = openChannel();
+
+            try {
+                return readLogEvent(channel, index);
+            } finally {
+                closeChannel(channel);
+            }
+        } catch (Exception e) {
+            this.componentLogger.error(FAILED_READ_LOG, this.logFile, e);
+
+            return null;
+        } finally {
+            this.channelLock.readLock().unlock();
+        }
+    }
+
+    private FileChannel openChannel() throws IOException
+    {
+        if (this.logChannel != null) {
+            return this.logChannel;
+        }
+
+        return FileChannel.open(this.logFile.toPath(), StandardOpenOption.READ);
+    }
+
+    private void closeChannel(FileChannel channel) throws IOException
+    {
+        if (channel != this.logChannel) {
+            channel.close();
+        }
+    }
+
+    private LogEvent readLogEvent(FileChannel channel, int index) throws IOException
+    {
+        if (index >= this.committedRecords) {
+            // Make sure the record is fully available in the file
+            synchronized (this) {
+                if (this.logStore != null && this.pendingRecords > 0) {
+                    commit();
+                }
+            }
+        }
+
+        long position = this.index.getPosition(index);
+        long end = index + 1 < this.committedRecords ? this.index.getPosition(index + 1) : this.committedPosition;
+
+        return this.format.read(channel, position, (int) (end - position));
+    }
+
+    private void checkChanged()
+    {
+        // Make sure the log still exist and was not modified
+        if (isReadOnly() && this.index.size() > 0
+            && (!this.logFile.exists() || this.logFile.length() != this.logStoreLength)) {
+            // Reset the this log index if something else started modifying the log file
+            this.index.clear();
+        }
+    }
+
+    @Override
+    public LogEvent getFirstLogEvent(LogLevel from)
+    {
+        checkChanged();
+
+        int first = this.index.getFirst(from);
+
+        return first >= 0 ? getLogEvent(first) : null;
+    }
+
+    @Override
+    public LogEvent getLastLogEvent(LogLevel from)
+    {
+        checkChanged();
+
+        int last = this.index.getLast(from);
+
+        return last >= 0 ? getLogEvent(last) : null;
+    }
+
+    @Override
+    public LogTailResult getLogEvents(LogLevel from, int offset, int limit)
+    {
+        checkChanged();
+
+        int size = this.index.size();
+        if (size <= offset) {
+            return EmptyLogTailResult.INSTANCE;
+        }
+
+        int fromIndex = offset;
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        int toIndex = fromIndex + limit;
+        if (toIndex <= fromIndex || toIndex > size) {
+            toIndex = size;
+        }
+
+        // Only go through the matching entries
+        int[] entries = this.index.getEntries(from, fromIndex, toIndex);
+
+        List<LogEvent> events = new ArrayList<>(entries.length);
+
+        this.channelLock.readLock().lock();
+
+        try {
+            FileChannel channel = openChannel();
+
+            try {
+                for (int entry : entries) {
+                    events.add(readLogEvent(channel, entry));
+                }
+            } finally {
+                closeChannel(channel);
+            }
+        } catch (Exception e) {
+            this.componentLogger.error(FAILED_READ_LOG, this.logFile, e);
+        } finally {
+            this.channelLock.readLock().unlock();
+        }
+
+        return new ListLogTailResult(events);
+    }
+
+    @Override
+    public boolean hasLogLevel(LogLevel from)
+    {
+        return this.index.size(from) > 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.index.size();
+    }
+
+    @Override
+    public Iterator<LogEvent> iterator()
+    {
+        return new BinaryFileLoggerTailIterator();
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        synchronized (this) {
+            if (this.logStore != null) {
+                commit();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.channelLock.writeLock().lock();
+
+        try {
+            synchronized (this) {
+                if (this.logStore != null) {
+                    // Make sure to write everything
+                    commit();
+
+                    this.logStore.close();
+                    this.logStore = null;
+                    this.logCounter = null;
+                    this.logChannel = null;
+
+                    this.indexStore.close();
+                    this.indexStore = null;
+
+                    // Remember the size of log file to catch external modifications
+                    this.logStoreLength = this.logFile.length();
+                }
+            }
+        } finally {
+            this.channelLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void dispose() throws ComponentLifecycleException
+    {
+        try {
+            close();
+        } catch (Exception e) {
+            throw new ComponentLifecycleException("Failed to close the logger", e);
+        }
+
+        this.index.clear();
+    }
+}
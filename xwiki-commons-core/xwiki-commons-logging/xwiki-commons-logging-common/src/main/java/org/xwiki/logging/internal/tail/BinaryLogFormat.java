@@ -0,0 +1,373 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.internal.tail;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Marker;
+import org.xwiki.logging.LogLevel;
+import org.xwiki.logging.event.BeginLogEvent;
+import org.xwiki.logging.event.EndLogEvent;
+import org.xwiki.logging.event.LogEvent;
+import org.xwiki.xstream.internal.SafeXStream;
+
+/**
+ * The binary format used by {@link BinaryFileLoggerTail} to store log events and their index.
+ * <p>
+ * Both the log and the index files start with a magic number and a version. Each log event is then stored as a record
+ * containing its type, level, date, marker, message, arguments and throwable. Strings, numbers and booleans have a
+ * binary representation while the other values are serialized with XStream. Each index entry is made of the position
+ * of the record in the log file and its level, so that the entry of a given log event can be located without parsing.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class BinaryLogFormat
+{
+    /**
+     * The size of the header of the log and index files.
+     */
+    public static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * The size of an entry in the index file.
+     */
+    public static final int INDEX_ENTRY_SIZE = Long.BYTES + 1;
+
+    private static final int MAGIC = 0x58574C42;
+
+    private static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private static final byte TYPE_NULL = 0;
+
+    private static final byte TYPE_STRING = 1;
+
+    private static final byte TYPE_INTEGER = 2;
+
+    private static final byte TYPE_LONG = 3;
+
+    private static final byte TYPE_BOOLEAN = 4;
+
+    private static final byte TYPE_DOUBLE = 5;
+
+    private static final byte TYPE_OBJECT = 6;
+
+    private static final byte EVENT_LOG = 0;
+
+    private static final byte EVENT_BEGIN = 1;
+
+    private static final byte EVENT_END = 2;
+
+    private static final byte EVENT_OBJECT = 3;
+
+    private final SafeXStream xstream;
+
+    /**
+     * @param xstream the XStream instance used to serialize the values without binary representation
+     */
+    public BinaryLogFormat(SafeXStream xstream)
+    {
+        this.xstream = xstream;
+    }
+
+    /**
+     * @param channel the channel where to write
+     * @return a buffered stream writing in the passed channel
+     */
+    public OutputStream newOutputStream(FileChannel channel)
+    {
+        return new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+    }
+
+    /**
+     * @param output the output where to write the header of the file
+     * @throws IOException when failing to write the header
+     */
+    public void writeHeader(DataOutput output) throws IOException
+    {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+    }
+
+    /**
+     * @param input the input from where to read the header of the file
+     * @return true if the header is supported
+     * @throws IOException when failing to read the header
+     */
+    public boolean readHeader(DataInput input) throws IOException
+    {
+        return input.readInt() == MAGIC && input.readInt() == VERSION;
+    }
+
+    /**
+     * @param position the position of the record in the log file
+     * @param level the level of the log event
+     * @param output the output where to write the index entry
+     * @throws IOException when failing to write the index entry
+     */
+    public void writeIndexEntry(long position, LogLevel level, DataOutput output) throws IOException
+    {
+        output.writeLong(position);
+        output.writeByte(level.ordinal());
+    }
+
+    /**
+     * Load the entries of the passed index file, ignoring the ones which are not (fully) part of the log file.
+     * 
+     * @param indexFile the index file to read
+     * @param logLength the length of the log file
+     * @param index the index to fill
+     * @return true if the index file is supported
+     * @throws IOException when failing to read the index file
+     */
+    public boolean readIndex(File indexFile, long logLength, LoggerTailIndex index) throws IOException
+    {
+        try (DataInputStream input =
+            new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile), BUFFER_SIZE))) {
+            if (!readHeader(input)) {
+                return false;
+            }
+
+            long entries = (indexFile.length() - HEADER_SIZE) / INDEX_ENTRY_SIZE;
+            for (long i = 0; i < entries; ++i) {
+                long position = input.readLong();
+                int level = input.readByte();
+
+                if (position >= logLength || level < 0 || level >= LEVELS.length) {
+                    break;
+                }
+
+                index.add(position, LEVELS[level]);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @param logEvent the log event to write
+     * @param output the output where to write the record
+     * @throws IOException when failing to write the record
+     */
+    public void write(LogEvent logEvent, DataOutput output) throws IOException
+    {
+        Class<?> eventClass = logEvent.getClass();
+        if (eventClass == LogEvent.class) {
+            output.writeByte(EVENT_LOG);
+        } else if (eventClass == BeginLogEvent.class) {
+            output.writeByte(EVENT_BEGIN);
+        } else if (eventClass == EndLogEvent.class) {
+            output.writeByte(EVENT_END);
+        } else {
+            // Unknown kind of log event, keep it as is
+            output.writeByte(EVENT_OBJECT);
+            writeObject(logEvent, output);
+
+            return;
+        }
+
+        output.writeByte(logEvent.getLevel().ordinal());
+        output.writeLong(logEvent.getTimeStamp());
+        writeObject(logEvent.getMarker(), output);
+        writeString(logEvent.getMessage(), output);
+
+        Object[] arguments = logEvent.getArgumentArray();
+        if (arguments != null) {
+            output.writeInt(arguments.length);
+            for (Object argument : arguments) {
+                writeArgument(argument, output);
+            }
+        } else {
+            output.writeInt(-1);
+        }
+
+        writeObject(logEvent.getThrowable(), output);
+    }
+
+    private void writeArgument(Object argument, DataOutput output) throws IOException
+    {
+        if (argument == null) {
+            output.writeByte(TYPE_NULL);
+        } else if (argument instanceof String) {
+            output.writeByte(TYPE_STRING);
+            writeString((String) argument, output);
+        } else if (argument instanceof Integer) {
+            output.writeByte(TYPE_INTEGER);
+            output.writeInt((Integer) argument);
+        } else if (argument instanceof Long) {
+            output.writeByte(TYPE_LONG);
+            output.writeLong((Long) argument);
+        } else if (argument instanceof Boolean) {
+            output.writeByte(TYPE_BOOLEAN);
+            output.writeBoolean((Boolean) argument);
+        } else if (argument instanceof Double) {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble((Double) argument);
+        } else {
+            output.writeByte(TYPE_OBJECT);
+            writeObject(argument, output);
+        }
+    }
+
+    private void writeObject(Object value, DataOutput output) throws IOException
+    {
+        writeString(value != null ? this.xstream.toXML(value) : null, output);
+    }
+
+    private void writeString(String value, DataOutput output) throws IOException
+    {
+        if (value != null) {
+            // Not using DataOutput#writeUTF since it's limited to 65535 bytes
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        } else {
+            output.writeInt(-1);
+        }
+    }
+
+    /**
+     * @param channel the channel from where to read the record
+     * @param position the position of the record in the file
+     * @param length the length of the record
+     * @return the log event
+     * @throws IOException when failing to read the record
+     */
+    public LogEvent read(FileChannel channel, long position, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of log file at position [" + position + "]");
+            }
+        }
+
+        return read(new DataInputStream(new ByteArrayInputStream(buffer.array())));
+    }
+
+    /**
+     * @param input the input from where to read the record
+     * @return the log event
+     * @throws IOException when failing to read the record
+     */
+    public LogEvent read(DataInput input) throws IOException
+    {
+        byte eventType = input.readByte();
+        if (eventType == EVENT_OBJECT) {
+            return (LogEvent) readObject(input);
+        }
+
+        LogLevel level = LEVELS[input.readByte()];
+        long timeStamp = input.readLong();
+        Marker marker = (Marker) readObject(input);
+        String message = readString(input);
+
+        Object[] arguments = null;
+        int argumentCount = input.readInt();
+        if (argumentCount >= 0) {
+            arguments = new Object[argumentCount];
+            for (int i = 0; i < argumentCount; ++i) {
+                arguments[i] = readArgument(input);
+            }
+        }
+
+        Throwable throwable = (Throwable) readObject(input);
+
+        if (eventType == EVENT_BEGIN) {
+            return new BeginLogEvent(marker, level, message, arguments, throwable, timeStamp);
+        } else if (eventType == EVENT_END) {
+            return new EndLogEvent(marker, level, message, arguments, throwable, timeStamp);
+        }
+
+        return new LogEvent(marker, level, message, arguments, throwable, timeStamp);
+    }
+
+    private Object readArgument(DataInput input) throws IOException
+    {
+        byte type = input.readByte();
+
+        Object argument;
+        switch (type) {
+            case TYPE_NULL:
+                argument = null;
+                break;
+            case TYPE_STRING:
+                argument = readString(input);
+                break;
+            case TYPE_INTEGER:
+                argument = input.readInt();
+                break;
+            case TYPE_LONG:
+                argument = input.readLong();
+                break;
+            case TYPE_BOOLEAN:
+                argument = input.readBoolean();
+                break;
+            case TYPE_DOUBLE:
+                argument = input.readDouble();
+                break;
+            case TYPE_OBJECT:
+                argument = readObject(input);
+                break;
+            default:
+                throw new IOException("Unknown argument type [" + type + "]");
+        }
+
+        return argument;
+    }
+
+    private Object readObject(DataInput input) throws IOException
+    {
+        String xml = readString(input);
+
+        return xml != null ? this.xstream.fromXML(xml) : null;
+    }
+
+    private String readString(DataInput input) throws IOException
+    {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.internal.tail;
+
+import java.util.Arrays;
+
+import org.xwiki.logging.LogLevel;
+
+/**
+ * An in-memory index of the levels of a list of log events, based on primitive arrays.
+ * <p>
+ * On top of the level of each entry, the index maintains, for each level, the sorted list of the entries having this
+ * level or more. This allows counting the entries or finding the first/last entries or a page of entries of a given
+ * level without going through all the entries of the log.
+ * <p>
+ * Entries are only added by a single writer at a time (the caller is expected to synchronize writes). Levels can be
+ * read concurrently without locking while the level lists are protected by a short lock which is never held during
+ * I/O.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class LogLevelIndex
+{
+    protected static final int INITIAL_CAPACITY = 128;
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    /**
+     * All entries have the last level or more so there is no need for a dedicated list.
+     */
+    private static final int LEVEL_LISTS = LEVELS.length - 1;
+
+    private byte[] levels = new byte[INITIAL_CAPACITY];
+
+    private volatile int size;
+
+    private final int[][] levelEntries = new int[LEVEL_LISTS][INITIAL_CAPACITY];
+
+    private final int[] levelSizes = new int[LEVEL_LISTS];
+
+    /**
+     * @param level the level of the log event
+     * @return the index of the new entry
+     */
+    public int add(LogLevel level)
+    {
+        int index = this.size;
+
+        if (index == this.levels.length) {
+            this.levels = Arrays.copyOf(this.levels, index * 2);
+        }
+
+        this.levels[index] = (byte) level.ordinal();
+
+        synchronized (this.levelEntries) {
+            for (int i = level.ordinal(); i < LEVEL_LISTS; ++i) {
+                int levelSize = this.levelSizes[i];
+                if (levelSize == this.levelEntries[i].length) {
+                    this.levelEntries[i] = Arrays.copyOf(this.levelEntries[i], levelSize * 2);
+                }
+                this.levelEntries[i][levelSize] = index;
+                this.levelSizes[i] = levelSize + 1;
+            }
+
+            // Publish the new entry
+            this.size = index + 1;
+        }
+
+        return index;
+    }
+
+    /**
+     * @param index the index of the log event
+     * @return the level of the log event
+     */
+    public LogLevel getLevel(int index)
+    {
+        return LEVELS[this.levels[index]];
+    }
+
+    /**
+     * @param index the index of the log event
+     * @param from the log level from which to select log events
+     * @return true if the log event has the passed level or more
+     */
+    public boolean isLogLevel(int index, LogLevel from)
+    {
+        return from == null || this.levels[index] <= from.ordinal();
+    }
+
+    /**
+     * @return the number of entries in the index
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * @param from the log level from which to select log events
+     * @return the number of entries with the passed level or more
+     */
+    public int size(LogLevel from)
+    {
+        if (isAll(from)) {
+            return this.size;
+        }
+
+        synchronized (this.levelEntries) {
+            return this.levelSizes[from.ordinal()];
+        }
+    }
+
+    /**
+     * @param from the log level from which to select log events
+     * @return the index of the first entry with the passed level or more, -1 if there is none
+     */
+    public int getFirst(LogLevel from)
+    {
+        if (isAll(from)) {
+            return this.size > 0 ? 0 : -1;
+        }
+
+        synchronized (this.levelEntries) {
+            int level = from.ordinal();
+
+            return this.levelSizes[level] > 0 ? this.levelEntries[level][0] : -1;
+        }
+    }
+
+    /**
+     * @param from the log level from which to select log events
+     * @return the index of the last entry with the passed level or more, -1 if there is none
+     */
+    public int getLast(LogLevel from)
+    {
+        if (isAll(from)) {
+            return this.size - 1;
+        }
+
+        synchronized (this.levelEntries) {
+            int level = from.ordinal();
+
+            return this.levelSizes[level] > 0 ? this.levelEntries[level][this.levelSizes[level] - 1] : -1;
+        }
+    }
+
+    /**
+     * @param from the log level from which to select log events
+     * @param fromIndex the index of the first entry to consider (inclusive)
+     * @param toIndex the index of the last entry to consider (exclusive)
+     * @return the indexes of the entries between the passed indexes with the passed level or more
+     */
+    public int[] getEntries(LogLevel from, int fromIndex, int toIndex)
+    {
+        return getEntries(from, fromIndex, toIndex, -1);
+    }
+
+    /**
+     * @param from the log level from which to select log events
+     * @param fromIndex the index of the first entry to consider (inclusive)
+     * @param toIndex the index of the last entry to consider (exclusive)
+     * @param limit the maximum number of entries to return, -1 for no limit
+     * @return the indexes of the entries between the passed indexes with the passed level or more
+     */
+    public int[] getEntries(LogLevel from, int fromIndex, int toIndex, int limit)
+    {
+        int start = Math.max(fromIndex, 0);
+        int end = Math.min(toIndex, this.size);
+
+        if (start >= end) {
+            return new int[0];
+        }
+
+        if (isAll(from)) {
+            int[] entries = new int[limit >= 0 ? Math.min(end - start, limit) : end - start];
+            for (int i = 0; i < entries.length; ++i) {
+                entries[i] = start + i;
+            }
+
+            return entries;
+        }
+
+        synchronized (this.levelEntries) {
+            int level = from.ordinal();
+            int[] list = this.levelEntries[level];
+            int listSize = this.levelSizes[level];
+
+            int listStart = lowerBound(list, listSize, start);
+            int listEnd = lowerBound(list, listSize, end);
+            if (limit >= 0 && listEnd - listStart > limit) {
+                listEnd = listStart + limit;
+            }
+
+            return Arrays.copyOfRange(list, listStart, listEnd);
+        }
+    }
+
+    private boolean isAll(LogLevel from)
+    {
+        return from == null || from.ordinal() >= LEVEL_LISTS;
+    }
+
+    private int lowerBound(int[] list, int listSize, int value)
+    {
+        int index = Arrays.binarySearch(list, 0, listSize, value);
+
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear()
+    {
+        synchronized (this.levelEntries) {
+            this.size = 0;
+            Arrays.fill(this.levelSizes, 0);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.internal.tail;
+
+import java.util.Arrays;
+
+import org.xwiki.logging.LogLevel;
+
+/**
+ * An in-memory index of the log events stored in a file, based on primitive arrays.
+ * <p>
+ * Positions can be read concurrently without locking, see {@link LogLevelIndex} for the details.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class LoggerTailIndex extends LogLevelIndex
+{
+    private long[] positions = new long[INITIAL_CAPACITY];
+
+    /**
+     * @param position the position of the log event in the file
+     * @param level the level of the log event
+     */
+    public void add(long position, LogLevel level)
+    {
+        int index = size();
+
+        if (index == this.positions.length) {
+            this.positions = Arrays.copyOf(this.positions, index * 2);
+        }
+
+        this.positions[index] = position;
+
+        // Publish the new entry
+        add(level);
+    }
+
+    /**
+     * @param index the index of the log event
+     * @return the position of the log event in the file
+     */
+    public long getPosition(int index)
+    {
+        return this.positions[index];
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.internal.tail;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.xwiki.logging.LogLevel;
+import org.xwiki.logging.LogQueue;
+import org.xwiki.logging.event.LogEvent;
+import org.xwiki.logging.internal.ListLogTailResult;
+import org.xwiki.logging.tail.LogTailResult;
+
+/**
+ * An append-only in-memory {@link org.xwiki.logging.tail.LoggerTail}.
+ * <p>
+ * The log events are stored in fixed size chunks which are never moved or copied once allocated so that accessing a
+ * log event by index and the size are constant time operations. The levels of the log events are indexed so that
+ * finding the log events of a given level does not require going through the whole log. Log events are added by a
+ * single thread at a time but can be read concurrently without locking.
+ * <p>
+ * The log is serialized as a {@link LogQueue} so that it can be kept in serialized job statuses.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class MemoryLoggerTail extends AbstractLoggerTail implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private static final int CHUNK_SHIFT = 10;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final transient LogLevelIndex levels = new LogLevelIndex();
+
+    private transient LogEvent[][] chunks = new LogEvent[1][];
+
+    private class MemoryLoggerTailIterator implements Iterator<LogEvent>
+    {
+        private int current;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.current < size();
+        }
+
+        @Override
+        public LogEvent next()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return getLogEvent(this.current++);
+        }
+    }
+
+    @Override
+    public void log(LogEvent logEvent)
+    {
+        synchronized (this) {
+            int index = this.levels.size();
+            int chunk = index >> CHUNK_SHIFT;
+
+            if (chunk == this.chunks.length) {
+                this.chunks = Arrays.copyOf(this.chunks, chunk * 2);
+            }
+            if (this.chunks[chunk] == null) {
+                this.chunks[chunk] = new LogEvent[CHUNK_SIZE];
+            }
+
+            this.chunks[chunk][index & CHUNK_MASK] = logEvent;
+
+            // Publish the new log event
+            this.levels.add(logEvent.getLevel());
+        }
+    }
+
+    @Override
+    public LogEvent getLogEvent(int index)
+    {
+        if (index < 0 || index >= this.levels.size()) {
+            return null;
+        }
+
+        return this.chunks[index >> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public LogEvent getFirstLogEvent(LogLevel from)
+    {
+        return getLogEvent(this.levels.getFirst(from));
+    }
+
+    @Override
+    public LogEvent getLastLogEvent(LogLevel from)
+    {
+        return getLogEvent(this.levels.getLast(from));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Same as {@link org.xwiki.logging.LogQueue}, the limit is the maximum number of matching log events to return.
+     */
+    @Override
+    public LogTailResult getLogEvents(LogLevel from, int offset, int limit)
+    {
+        int[] entries = this.levels.getEntries(from, offset, Integer.MAX_VALUE, limit > 0 ? limit : -1);
+
+        List<LogEvent> events = new ArrayList<>(entries.length);
+        for (int entry : entries) {
+            events.add(getLogEvent(entry));
+        }
+
+        return new ListLogTailResult(events);
+    }
+
+    @Override
+    public boolean hasLogLevel(LogLevel from)
+    {
+        return this.levels.size(from) > 0;
+    }
+
+    /**
+     * @param from the log level from which to select log events
+     * @return the number of log events with the passed level or more
+     */
+    public int size(LogLevel from)
+    {
+        return this.levels.size(from);
+    }
+
+    @Override
+    public int size()
+    {
+        return this.levels.size();
+    }
+
+    @Override
+    public Iterator<LogEvent> iterator()
+    {
+        return new MemoryLoggerTailIterator();
+    }
+
+    @Override
+    public void flush()
+    {
+        // Nothing to flush
+    }
+
+    @Override
+    public void close()
+    {
+        // Nothing to close
+    }
+
+    private Object writeReplace()
+    {
+        LogQueue queue = new LogQueue();
+
+        for (LogEvent logEvent : this) {
+            queue.log(logEvent);
+        }
+
+        return queue;
+    }
+}
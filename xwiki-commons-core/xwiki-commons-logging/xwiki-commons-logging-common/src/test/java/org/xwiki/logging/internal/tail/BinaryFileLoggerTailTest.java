@@ -0,0 +1,320 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.internal.tail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.logging.LogLevel;
+import org.xwiki.logging.event.BeginLogEvent;
+import org.xwiki.logging.event.LogEvent;
+import org.xwiki.logging.marker.TranslationMarker;
+import org.xwiki.test.annotation.ComponentList;
+import org.xwiki.test.junit5.LogCaptureExtension;
+import org.xwiki.test.junit5.XWikiTempDir;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.xstream.internal.SafeXStream;
+import org.xwiki.xstream.internal.XStreamUtils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link BinaryFileLoggerTail}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+// @formatter:off
+@ComponentList({
+    SafeXStream.class,
+    XStreamUtils.class
+})
+// @formatter:off
+class BinaryFileLoggerTailTest
+{
+    @InjectMockComponents
+    private BinaryFileLoggerTail tail;
+
+    @XWikiTempDir
+    private File tmpDir;
+
+    @RegisterExtension
+    LogCaptureExtension logCapture = new LogCaptureExtension(org.xwiki.test.LogLevel.WARN);
+
+    @AfterEach
+    void afterEach() throws Exception
+    {
+        this.tail.close();
+    }
+
+    @Test
+    void writeread() throws IOException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        this.tail.error("error0");
+        this.tail.error("error1");
+
+        assertEquals("error0", this.tail.getLogEvent(0).getMessage());
+        assertEquals("error1", this.tail.getLogEvent(1).getMessage());
+        assertNull(this.tail.getLogEvent(2));
+        assertNull(this.tail.getLogEvent(-1));
+    }
+
+    @Test
+    void writereadContent() throws IOException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        Object[] arguments = new Object[] {"string", 42, 42L, true, 4.2D, null, LogLevel.WARN};
+        Exception exception = new Exception("message");
+        TranslationMarker marker = new TranslationMarker("translation.key");
+
+        this.tail.warn(marker, "message {} {} {} {} {} {} {}", arguments);
+        this.tail.error("error", exception);
+        this.tail.log(new BeginLogEvent(null, LogLevel.INFO, "begin", null, null));
+
+        LogEvent logEvent = this.tail.getLogEvent(0);
+        assertEquals(LogLevel.WARN, logEvent.getLevel());
+        assertEquals("message {} {} {} {} {} {} {}", logEvent.getMessage());
+        assertArrayEquals(arguments, logEvent.getArgumentArray());
+        assertEquals("translation.key", logEvent.getTranslationKey());
+        assertNull(logEvent.getThrowable());
+
+        logEvent = this.tail.getLogEvent(1);
+        assertEquals(LogLevel.ERROR, logEvent.getLevel());
+        assertEquals("message", logEvent.getThrowable().getMessage());
+        assertNull(logEvent.getMarker());
+
+        assertTrue(this.tail.getLogEvent(2) instanceof BeginLogEvent);
+    }
+
+    @Test
+    void readonly() throws IOException, ComponentLifecycleException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        this.tail.error("error0");
+        this.tail.error("error1");
+
+        long timeStamp = this.tail.getLogEvent(1).getTimeStamp();
+
+        this.tail.dispose();
+
+        assertTrue(BinaryFileLoggerTail.exist(new File(this.tmpDir, "log").toPath()));
+
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), true);
+
+        assertEquals("error0", this.tail.getLogEvent(0).getMessage());
+        assertEquals("error1", this.tail.getLogEvent(1).getMessage());
+        assertEquals(timeStamp, this.tail.getLogEvent(1).getTimeStamp());
+        assertEquals(2, this.tail.getLogEvents(0, -1).stream().count());
+
+        this.tail.error("error2");
+
+        assertNull(this.tail.getLogEvent(2));
+    }
+
+    @Test
+    void readonlyWithPartialCommit() throws IOException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        this.tail.error("error0");
+        this.tail.error("error1");
+
+        this.tail.close();
+
+        // Simulate a crash during the write of the last record
+        try (RandomAccessFile file = new RandomAccessFile(this.tail.logFile, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), true);
+
+        assertEquals(2, this.tail.size());
+        assertEquals("error0", this.tail.getLogEvent(0).getMessage());
+        assertNull(this.tail.getLogEvent(1));
+        assertTrue(this.logCapture.getMessage(0).startsWith("Failed to retrieve log for"));
+
+        // Simulate a crash during the write of the index
+        try (RandomAccessFile file = new RandomAccessFile(this.tail.indexFile, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), true);
+
+        assertEquals(1, this.tail.size());
+        assertEquals("error0", this.tail.getLogEvent(0).getMessage());
+    }
+
+    @Test
+    void groupCommit() throws IOException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        this.tail.info("info0");
+        this.tail.info("info1");
+
+        // The log events are buffered
+        assertEquals(BinaryLogFormat.HEADER_SIZE, this.tail.logFile.length());
+        assertEquals(BinaryLogFormat.HEADER_SIZE, this.tail.indexFile.length());
+
+        // Reading a log event commits it
+        assertEquals("info1", this.tail.getLogEvent(1).getMessage());
+        assertEquals(BinaryLogFormat.HEADER_SIZE + 2 * BinaryLogFormat.INDEX_ENTRY_SIZE,
+            this.tail.indexFile.length());
+
+        this.tail.info("info2");
+
+        this.tail.flush();
+
+        assertEquals(BinaryLogFormat.HEADER_SIZE + 3 * BinaryLogFormat.INDEX_ENTRY_SIZE,
+            this.tail.indexFile.length());
+    }
+
+    @Test
+    void getFirstLogEvent() throws IOException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        assertNull(this.tail.getFirstLogEvent());
+        assertNull(this.tail.getFirstLogEvent(LogLevel.ERROR));
+
+        this.tail.info("info0");
+        this.tail.info("info1");
+        this.tail.warn("warn0");
+        this.tail.warn("warn1");
+        this.tail.error("error0");
+        this.tail.error("error1");
+
+        assertEquals("info0", this.tail.getFirstLogEvent().getMessage());
+        assertEquals("info0", this.tail.getFirstLogEvent(LogLevel.TRACE).getMessage());
+        assertEquals("info0", this.tail.getFirstLogEvent(LogLevel.INFO).getMessage());
+        assertEquals("warn0", this.tail.getFirstLogEvent(LogLevel.WARN).getMessage());
+        assertEquals("error0", this.tail.getFirstLogEvent(LogLevel.ERROR).getMessage());
+    }
+
+    @Test
+    void getLastLogEvent() throws IOException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        assertNull(this.tail.getLastLogEvent());
+        assertNull(this.tail.getLastLogEvent(LogLevel.ERROR));
+
+        this.tail.error("error0");
+        this.tail.error("error1");
+        this.tail.warn("warn0");
+        this.tail.warn("warn1");
+        this.tail.info("info0");
+        this.tail.info("info1");
+
+        assertEquals("info1", this.tail.getLastLogEvent().getMessage());
+        assertEquals("info1", this.tail.getLastLogEvent(LogLevel.TRACE).getMessage());
+        assertEquals("info1", this.tail.getLastLogEvent(LogLevel.INFO).getMessage());
+        assertEquals("warn1", this.tail.getLastLogEvent(LogLevel.WARN).getMessage());
+        assertEquals("error1", this.tail.getLastLogEvent(LogLevel.ERROR).getMessage());
+    }
+
+    @Test
+    void getLogEvents() throws IOException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        assertEquals(0, this.tail.getLogEvents(null).stream().count());
+        assertEquals(0, this.tail.getLogEvents(LogLevel.DEBUG).stream().count());
+        assertFalse(this.tail.hasLogLevel(LogLevel.ERROR));
+
+        this.tail.info("info0");
+        this.tail.warn("warn0");
+        this.tail.error("error0");
+        this.tail.info("info1");
+        this.tail.warn("warn1");
+        this.tail.error("error1");
+        this.tail.info("info2");
+        this.tail.warn("warn2");
+        this.tail.error("error2");
+
+        assertTrue(this.tail.hasLogLevel(LogLevel.ERROR));
+
+        assertEquals(9, this.tail.getLogEvents(null).stream().count());
+        assertEquals(9, this.tail.getLogEvents(LogLevel.DEBUG).stream().count());
+        assertEquals(9, this.tail.getLogEvents(LogLevel.INFO).stream().count());
+        assertEquals(6, this.tail.getLogEvents(LogLevel.WARN).stream().count());
+        assertEquals(3, this.tail.getLogEvents(LogLevel.ERROR).stream().count());
+
+        assertEquals(9, this.tail.getLogEvents(0, -1).stream().count());
+        assertEquals(6, this.tail.getLogEvents(3, -1).stream().count());
+        assertEquals(3, this.tail.getLogEvents(0, 3).stream().count());
+        assertEquals(3, this.tail.getLogEvents(3, 3).stream().count());
+        assertEquals(6, this.tail.getLogEvents(3, 42).stream().count());
+        assertEquals(9, this.tail.getLogEvents(-1, -1).stream().count());
+    }
+
+    @Test
+    void getDeleteLog() throws IOException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        this.tail.info("info");
+
+        this.tail.close();
+
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), true);
+
+        assertEquals("info", this.tail.getLogEvent(0).getMessage());
+
+        this.tail.logFile.delete();
+
+        assertNull(this.tail.getLogEvent(0));
+    }
+
+    @Test
+    void getModifiedLog() throws IOException
+    {
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), false);
+
+        this.tail.info("info");
+
+        this.tail.close();
+
+        this.tail.initialize(new File(this.tmpDir, "log").toPath(), true);
+
+        assertEquals("info", this.tail.getLogEvent(0).getMessage());
+
+        try (FileOutputStream fw = new FileOutputStream(this.tail.logFile, false)) {
+            fw.flush();
+        }
+
+        assertNull(this.tail.getLogEvent(0));
+    }
+}
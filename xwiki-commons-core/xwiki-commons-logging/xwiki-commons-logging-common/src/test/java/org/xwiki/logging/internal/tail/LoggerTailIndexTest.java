@@ -0,0 +1,92 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.internal.tail;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.logging.LogLevel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link LoggerTailIndex}.
+ *
+ * @version $Id$
+ */
+class LoggerTailIndexTest
+{
+    private LoggerTailIndex index = new LoggerTailIndex();
+
+    @Test
+    void empty()
+    {
+        assertEquals(0, this.index.size());
+        assertEquals(0, this.index.size(LogLevel.ERROR));
+        assertEquals(-1, this.index.getFirst(null));
+        assertEquals(-1, this.index.getFirst(LogLevel.WARN));
+        assertEquals(-1, this.index.getLast(null));
+        assertEquals(-1, this.index.getLast(LogLevel.WARN));
+        assertArrayEquals(new int[0], this.index.getEntries(LogLevel.INFO, 0, 10));
+    }
+
+    @Test
+    void levels()
+    {
+        // INFO, WARN, ERROR, INFO, WARN, ERROR, ...
+        LogLevel[] levels = new LogLevel[] {LogLevel.INFO, LogLevel.WARN, LogLevel.ERROR};
+        for (int i = 0; i < 300; ++i) {
+            this.index.add(i * 10L, levels[i % 3]);
+        }
+
+        assertEquals(300, this.index.size());
+        assertEquals(300, this.index.size(null));
+        assertEquals(300, this.index.size(LogLevel.TRACE));
+        assertEquals(300, this.index.size(LogLevel.INFO));
+        assertEquals(200, this.index.size(LogLevel.WARN));
+        assertEquals(100, this.index.size(LogLevel.ERROR));
+
+        assertEquals(2990L, this.index.getPosition(299));
+        assertEquals(LogLevel.ERROR, this.index.getLevel(299));
+        assertTrue(this.index.isLogLevel(299, LogLevel.WARN));
+        assertFalse(this.index.isLogLevel(298, LogLevel.ERROR));
+
+        assertEquals(0, this.index.getFirst(null));
+        assertEquals(1, this.index.getFirst(LogLevel.WARN));
+        assertEquals(2, this.index.getFirst(LogLevel.ERROR));
+        assertEquals(299, this.index.getLast(LogLevel.DEBUG));
+        assertEquals(299, this.index.getLast(LogLevel.WARN));
+        assertEquals(299, this.index.getLast(LogLevel.INFO));
+        assertEquals(298, this.index.getEntries(LogLevel.WARN, 0, 299)[198]);
+
+        assertArrayEquals(new int[] {3, 4, 5}, this.index.getEntries(null, 3, 6));
+        assertArrayEquals(new int[] {4, 5, 7}, this.index.getEntries(LogLevel.WARN, 3, 8));
+        assertArrayEquals(new int[] {5}, this.index.getEntries(LogLevel.ERROR, 3, 8));
+        assertArrayEquals(new int[] {299}, this.index.getEntries(LogLevel.ERROR, 298, 1000));
+        assertArrayEquals(new int[0], this.index.getEntries(LogLevel.ERROR, 300, 1000));
+
+        this.index.clear();
+
+        assertEquals(0, this.index.size());
+        assertEquals(0, this.index.size(LogLevel.ERROR));
+        assertEquals(-1, this.index.getLast(LogLevel.ERROR));
+    }
+}
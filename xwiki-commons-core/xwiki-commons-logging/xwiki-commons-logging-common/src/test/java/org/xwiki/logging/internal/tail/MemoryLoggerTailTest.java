@@ -0,0 +1,163 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.internal.tail;
+
+import java.util.Iterator;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.Test;
+import org.xwiki.logging.LogLevel;
+import org.xwiki.logging.LogQueue;
+import org.xwiki.logging.event.LogEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link MemoryLoggerTail}.
+ *
+ * @version $Id$
+ */
+class MemoryLoggerTailTest
+{
+    private MemoryLoggerTail tail = new MemoryLoggerTail();
+
+    @Test
+    void getLogEvent()
+    {
+        assertNull(this.tail.getLogEvent(0));
+
+        // Make sure to use several chunks
+        for (int i = 0; i < 3000; ++i) {
+            this.tail.info("info{}", i);
+        }
+
+        assertEquals(3000, this.tail.size());
+        assertNull(this.tail.getLogEvent(-1));
+        assertNull(this.tail.getLogEvent(3000));
+        assertEquals("info0", this.tail.getLogEvent(0).getFormattedMessage());
+        assertEquals("info1024", this.tail.getLogEvent(1024).getFormattedMessage());
+        assertEquals("info2999", this.tail.getLogEvent(2999).getFormattedMessage());
+
+        Iterator<LogEvent> iterator = this.tail.iterator();
+        for (int i = 0; i < 3000; ++i) {
+            assertEquals("info" + i, iterator.next().getFormattedMessage());
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void serialize()
+    {
+        this.tail.info("info0");
+        this.tail.warn("warn0");
+
+        Object serialized = SerializationUtils.roundtrip(this.tail);
+
+        assertTrue(serialized instanceof LogQueue);
+
+        LogQueue queue = (LogQueue) serialized;
+        assertEquals(2, queue.size());
+        assertEquals("info0", queue.getLogEvent(0).getMessage());
+        assertEquals(LogLevel.WARN, queue.getLogEvent(1).getLevel());
+    }
+
+    @Test
+    void getFirstLogEvent()
+    {
+        assertNull(this.tail.getFirstLogEvent());
+        assertNull(this.tail.getFirstLogEvent(LogLevel.ERROR));
+
+        this.tail.info("info0");
+        this.tail.info("info1");
+        this.tail.warn("warn0");
+        this.tail.warn("warn1");
+        this.tail.error("error0");
+        this.tail.error("error1");
+
+        assertEquals("info0", this.tail.getFirstLogEvent().getMessage());
+        assertEquals("info0", this.tail.getFirstLogEvent(LogLevel.TRACE).getMessage());
+        assertEquals("info0", this.tail.getFirstLogEvent(LogLevel.INFO).getMessage());
+        assertEquals("warn0", this.tail.getFirstLogEvent(LogLevel.WARN).getMessage());
+        assertEquals("error0", this.tail.getFirstLogEvent(LogLevel.ERROR).getMessage());
+    }
+
+    @Test
+    void getLastLogEvent()
+    {
+        assertNull(this.tail.getLastLogEvent());
+        assertNull(this.tail.getLastLogEvent(LogLevel.ERROR));
+
+        this.tail.error("error0");
+        this.tail.error("error1");
+        this.tail.warn("warn0");
+        this.tail.warn("warn1");
+        this.tail.info("info0");
+        this.tail.info("info1");
+
+        assertEquals("info1", this.tail.getLastLogEvent().getMessage());
+        assertEquals("info1", this.tail.getLastLogEvent(LogLevel.TRACE).getMessage());
+        assertEquals("info1", this.tail.getLastLogEvent(LogLevel.INFO).getMessage());
+        assertEquals("warn1", this.tail.getLastLogEvent(LogLevel.WARN).getMessage());
+        assertEquals("error1", this.tail.getLastLogEvent(LogLevel.ERROR).getMessage());
+    }
+
+    @Test
+    void getLogEvents()
+    {
+        assertEquals(0, this.tail.getLogEvents(null).stream().count());
+        assertEquals(0, this.tail.getLogEvents(LogLevel.DEBUG).stream().count());
+        assertFalse(this.tail.hasLogLevel(LogLevel.ERROR));
+
+        this.tail.info("info0");
+        this.tail.warn("warn0");
+        this.tail.error("error0");
+        this.tail.info("info1");
+        this.tail.warn("warn1");
+        this.tail.error("error1");
+        this.tail.info("info2");
+        this.tail.warn("warn2");
+        this.tail.error("error2");
+
+        assertTrue(this.tail.hasLogLevel(LogLevel.ERROR));
+        assertEquals(3, this.tail.size(LogLevel.ERROR));
+        assertEquals(6, this.tail.size(LogLevel.WARN));
+
+        assertEquals(9, this.tail.getLogEvents(null).stream().count());
+        assertEquals(9, this.tail.getLogEvents(LogLevel.DEBUG).stream().count());
+        assertEquals(9, this.tail.getLogEvents(LogLevel.INFO).stream().count());
+        assertEquals(6, this.tail.getLogEvents(LogLevel.WARN).stream().count());
+        assertEquals(3, this.tail.getLogEvents(LogLevel.ERROR).stream().count());
+
+        assertEquals(9, this.tail.getLogEvents(0, -1).stream().count());
+        assertEquals(6, this.tail.getLogEvents(3, -1).stream().count());
+        assertEquals(3, this.tail.getLogEvents(0, 3).stream().count());
+        assertEquals(3, this.tail.getLogEvents(3, 3).stream().count());
+        assertEquals(6, this.tail.getLogEvents(3, 42).stream().count());
+        assertEquals(9, this.tail.getLogEvents(-1, -1).stream().count());
+
+        // The limit applies to the matching log events
+        assertEquals("error1", this.tail.getLogEvents(LogLevel.ERROR, 3, 2).iterator().next().getMessage());
+        assertEquals(2, this.tail.getLogEvents(LogLevel.ERROR, 3, 2).stream().count());
+        assertEquals(1, this.tail.getLogEvents(LogLevel.ERROR, 6, 2).stream().count());
+    }
+}
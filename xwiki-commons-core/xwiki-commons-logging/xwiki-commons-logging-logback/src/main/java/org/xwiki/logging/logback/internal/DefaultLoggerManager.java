@@ -22,9 +22,7 @@
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -37,11 +35,11 @@
 import org.xwiki.logging.LogLevel;
 import org.xwiki.logging.LogQueue;
 import org.xwiki.logging.LoggerManager;
+import org.xwiki.logging.internal.tail.BinaryFileLoggerTail;
+import org.xwiki.logging.internal.tail.MemoryLoggerTail;
 import org.xwiki.logging.internal.tail.XStreamFileLoggerTail;
 import org.xwiki.logging.tail.LoggerTail;
 import org.xwiki.observation.EventListener;
-import org.xwiki.observation.ObservationManager;
-import org.xwiki.observation.WrappedThreadEventListener;
 
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
@@ -58,24 +56,25 @@
 public class DefaultLoggerManager implements LoggerManager, Initializable
 {
     /**
-     * Used to register/unregister {@link org.xwiki.logging.event.LogEvent} listeners.
+     * Keep track of the {@link org.xwiki.logging.event.LogEvent} listeners capturing the logs of each thread.
      */
     @Inject
-    private ObservationManager observation;
+    private LogCaptureRegistry captures;
 
     @Inject
-    private Provider<XStreamFileLoggerTail> loggerTailProvider;
+    private Provider<BinaryFileLoggerTail> loggerTailProvider;
 
     /**
-     * The logger.
+     * Used to read the logs stored by older versions.
      */
     @Inject
-    private Logger logger;
+    private Provider<XStreamFileLoggerTail> xstreamLoggerTailProvider;
 
     /**
-     * The stack of listeners for the current thread.
+     * The logger.
      */
-    private ThreadLocal<Deque<EventListener>> listeners = new ThreadLocal<>();
+    @Inject
+    private Logger logger;
 
     /**
      * Logback utilities.
@@ -112,47 +111,21 @@ public void initialize() throws InitializationException
     @Override
     public void pushLogListener(EventListener listener)
     {
-        Deque<EventListener> listenerStack = this.listeners.get();
-
-        if (listenerStack == null) {
-            listenerStack = new LinkedList<>();
-            this.listeners.set(listenerStack);
-        }
-
-        if (!listenerStack.isEmpty()) {
-            this.observation.removeListener(listenerStack.peek().getName());
-        }
-
-        if (listener != null) {
-            this.observation.addListener(new WrappedThreadEventListener(listener));
-        }
-        if (listenerStack.isEmpty()) {
+        // The logs are sent directly to the listener by LogbackEventGenerator
+        if (this.captures.push(listener)) {
             grabLog(Thread.currentThread());
         }
-        listenerStack.push(listener);
     }
 
     @Override
     public EventListener popLogListener()
     {
-        Deque<EventListener> listenerStack = this.listeners.get();
+        boolean capturing = this.captures.isCapturing();
 
-        EventListener listener;
-        if (listenerStack != null && !listenerStack.isEmpty()) {
-            listener = listenerStack.pop();
-            if (listener != null) {
-                this.observation.removeListener(listener.getName());
-            }
-            if (listenerStack.isEmpty()) {
-                ungrabLog(Thread.currentThread());
-            } else {
-                EventListener topListener = listenerStack.peek();
-                if (topListener != null) {
-                    this.observation.addListener(new WrappedThreadEventListener(topListener));
-                }
-            }
-        } else {
-            listener = null;
+        EventListener listener = this.captures.pop();
+
+        if (capturing && !this.captures.isCapturing()) {
+            ungrabLog(Thread.currentThread());
         }
 
         return listener;
@@ -230,14 +203,28 @@ protected LoggerContext getLoggerContext()
     @Override
     public LoggerTail createLoggerTail(Path path, boolean readonly) throws IOException
     {
-        if (readonly && !XStreamFileLoggerTail.exist(path)) {
+        if (readonly && !BinaryFileLoggerTail.exist(path)) {
+            if (XStreamFileLoggerTail.exist(path)) {
+                XStreamFileLoggerTail loggerTail = this.xstreamLoggerTailProvider.get();
+
+                loggerTail.initialize(path, true);
+
+                return loggerTail;
+            }
+
             return new LogQueue();
         } else {
-            XStreamFileLoggerTail loggerTail = this.loggerTailProvider.get();
+            BinaryFileLoggerTail loggerTail = this.loggerTailProvider.get();
 
             loggerTail.initialize(path, readonly);
 
             return loggerTail;
         }
     }
+
+    @Override
+    public LoggerTail createLoggerTail()
+    {
+        return new MemoryLoggerTail();
+    }
 }
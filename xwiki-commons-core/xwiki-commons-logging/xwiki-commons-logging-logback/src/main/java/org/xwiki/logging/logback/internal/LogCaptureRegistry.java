@@ -0,0 +1,127 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.logback.internal;
+
+import java.util.Deque;
+import java.util.LinkedList;
+
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.logging.event.LogEvent;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.event.Event;
+
+/**
+ * Keep track of the listeners capturing the logs of each thread so that a log can be sent directly to the listener
+ * capturing it, without going through the {@link org.xwiki.observation.ObservationManager} listeners.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Component(roles = LogCaptureRegistry.class)
+@Singleton
+public class LogCaptureRegistry
+{
+    /**
+     * The stack of listeners for each thread.
+     */
+    private final ThreadLocal<Deque<EventListener>> listeners = new ThreadLocal<>();
+
+    /**
+     * @param listener the listener which will receive the logs of the current thread, {@code null} to ignore them
+     * @return true if the current thread was not capturing logs yet
+     */
+    public boolean push(EventListener listener)
+    {
+        Deque<EventListener> listenerStack = this.listeners.get();
+
+        if (listenerStack == null) {
+            listenerStack = new LinkedList<>();
+            this.listeners.set(listenerStack);
+        }
+
+        // The stack may contain null listeners so don't rely on it to find out if it's empty
+        boolean first = listenerStack.isEmpty();
+
+        listenerStack.push(listener);
+
+        return first;
+    }
+
+    /**
+     * @return the removed listener or {@code null} if there is none
+     */
+    public EventListener pop()
+    {
+        Deque<EventListener> listenerStack = this.listeners.get();
+
+        if (listenerStack != null && !listenerStack.isEmpty()) {
+            EventListener listener = listenerStack.pop();
+
+            if (listenerStack.isEmpty()) {
+                this.listeners.remove();
+            }
+
+            return listener;
+        }
+
+        return null;
+    }
+
+    /**
+     * @return true if the logs of the current thread are captured
+     */
+    public boolean isCapturing()
+    {
+        return this.listeners.get() != null;
+    }
+
+    /**
+     * @return the listener currently capturing the logs of the current thread, {@code null} if there is none
+     */
+    public EventListener getListener()
+    {
+        Deque<EventListener> listenerStack = this.listeners.get();
+
+        return listenerStack != null ? listenerStack.peek() : null;
+    }
+
+    /**
+     * Send the passed log to the listener capturing the logs of the current thread, if any.
+     *
+     * @param event the log event
+     * @param source the source of the log (generally the name of the logger)
+     */
+    public void send(LogEvent event, Object source)
+    {
+        EventListener listener = getListener();
+
+        if (listener != null) {
+            for (Event listenedEvent : listener.getEvents()) {
+                if (listenedEvent.matches(event)) {
+                    listener.onEvent(event, source, null);
+
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.logback.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xwiki.logging.event.LogEvent;
+
+/**
+ * Dispatch log events from a single thread, the log events being queued in a preallocated ring buffer.
+ * <p>
+ * The events are dispatched in the order they were published. When the buffer is full, publishing a lossy event drops
+ * it while publishing a lossless event waits for some room in the buffer. The number of dropped events is regularly
+ * logged as a warning.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class LogEventDispatcher
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogEventDispatcher.class);
+
+    private static final long STOP_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    private static final long DROPPED_WARNING_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    private final LogEvent[] events;
+
+    private final Object[] sources;
+
+    private final LogEvent[] batchEvents;
+
+    private final Object[] batchSources;
+
+    private final BiConsumer<LogEvent, Object> target;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = this.lock.newCondition();
+
+    private final Condition notFull = this.lock.newCondition();
+
+    private final Thread thread;
+
+    /**
+     * The sequence of the next event to dispatch.
+     */
+    private long head;
+
+    /**
+     * The sequence of the next published event.
+     */
+    private long tail;
+
+    private long dropped;
+
+    /**
+     * The number of dropped events at the time of the last warning.
+     */
+    private long warnedDropped;
+
+    private long lastDroppedWarning;
+
+    private boolean stopped;
+
+    /**
+     * @param capacity the maximum number of events waiting to be dispatched
+     * @param target the actual dispatching of an event (and its source)
+     */
+    public LogEventDispatcher(int capacity, BiConsumer<LogEvent, Object> target)
+    {
+        this.events = new LogEvent[capacity];
+        this.sources = new Object[capacity];
+        this.batchEvents = new LogEvent[capacity];
+        this.batchSources = new Object[capacity];
+        this.target = target;
+
+        this.thread = new Thread(this::run, "XWiki log event dispatcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Start the dispatcher thread.
+     */
+    public void start()
+    {
+        this.thread.start();
+    }
+
+    /**
+     * @param event the log event to dispatch
+     * @param source the source of the event
+     * @param lossy true if the event can be dropped when the buffer is full
+     * @return false if the event has been dropped
+     */
+    public boolean publish(LogEvent event, Object source, boolean lossy)
+    {
+        // Avoid a dead lock when a listener logs something
+        if (Thread.currentThread() == this.thread) {
+            this.target.accept(event, source);
+
+            return true;
+        }
+
+        this.lock.lock();
+
+        try {
+            while (this.tail - this.head == this.events.length && !this.stopped) {
+                if (lossy) {
+                    ++this.dropped;
+
+                    return false;
+                }
+
+                this.notFull.awaitUninterruptibly();
+            }
+
+            if (!this.stopped) {
+                int index = (int) (this.tail % this.events.length);
+                this.events[index] = event;
+                this.sources[index] = source;
+                ++this.tail;
+
+                this.notEmpty.signal();
+
+                return true;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        // The dispatcher thread is stopped
+        this.target.accept(event, source);
+
+        return true;
+    }
+
+    /**
+     * Dispatch the pending events and stop the dispatcher thread.
+     *
+     * @throws InterruptedException when interrupted while waiting for the dispatcher thread to stop
+     */
+    public void stop() throws InterruptedException
+    {
+        this.lock.lock();
+
+        try {
+            this.stopped = true;
+
+            this.notEmpty.signal();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+
+        this.thread.join(STOP_TIMEOUT);
+
+        warnDropped(true);
+    }
+
+    /**
+     * @return the number of events dropped because the buffer was full
+     */
+    public long getDropped()
+    {
+        this.lock.lock();
+
+        try {
+            return this.dropped;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void run()
+    {
+        for (int count = take(); count > 0; count = take()) {
+            for (int i = 0; i < count; ++i) {
+                this.target.accept(this.batchEvents[i], this.batchSources[i]);
+
+                this.batchEvents[i] = null;
+                this.batchSources[i] = null;
+            }
+
+            warnDropped(false);
+        }
+    }
+
+    /**
+     * Log the number of events dropped since the last warning, at most once per {@link #DROPPED_WARNING_INTERVAL}
+     * unless forced.
+     */
+    private void warnDropped(boolean force)
+    {
+        long newDropped;
+
+        this.lock.lock();
+
+        try {
+            newDropped = this.dropped - this.warnedDropped;
+
+            long now = System.nanoTime();
+            if (newDropped > 0
+                && (force || this.warnedDropped == 0 || now - this.lastDroppedWarning >= DROPPED_WARNING_INTERVAL)) {
+                this.warnedDropped = this.dropped;
+                this.lastDroppedWarning = now;
+            } else {
+                newDropped = 0;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (newDropped > 0) {
+            LOGGER.warn("[{}] log events have been dropped because too many were waiting to be sent", newDropped);
+        }
+    }
+
+    /**
+     * Move all the queued events to the batch arrays.
+     *
+     * @return the number of events to dispatch, 0 when the dispatcher is stopped
+     */
+    private int take()
+    {
+        this.lock.lock();
+
+        try {
+            while (this.head == this.tail && !this.stopped) {
+                this.notEmpty.awaitUninterruptibly();
+            }
+
+            int count = (int) (this.tail - this.head);
+            for (int i = 0; i < count; ++i) {
+                int index = (int) ((this.head + i) % this.events.length);
+
+                this.batchEvents[i] = this.events[index];
+                this.batchSources[i] = this.sources[index];
+                this.events[index] = null;
+                this.sources[index] = null;
+            }
+
+            this.head = this.tail;
+
+            this.notFull.signalAll();
+
+            return count;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
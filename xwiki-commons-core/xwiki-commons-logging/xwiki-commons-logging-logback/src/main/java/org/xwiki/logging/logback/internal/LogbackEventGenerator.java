@@ -67,6 +67,25 @@
 public class LogbackEventGenerator extends UnsynchronizedAppenderBase<ILoggingEvent>
     implements EventListener, Initializable, Disposable
 {
+    /**
+     * The system property indicating if the log events should be sent to the {@link ObservationManager} from a
+     * dedicated thread instead of the thread producing the log.
+     */
+    public static final String ASYNC_PROPERTY = "xwiki.logging.async";
+
+    /**
+     * The system property indicating the maximum number of log events waiting to be sent in asynchronous mode.
+     */
+    public static final String ASYNC_BUFFER_SIZE_PROPERTY = "xwiki.logging.async.bufferSize";
+
+    /**
+     * The system property indicating if debug and trace logs of threads which are not capturing their logs can be
+     * dropped in asynchronous mode when too many logs are waiting to be sent.
+     */
+    public static final String ASYNC_LOSSY_PROPERTY = "xwiki.logging.async.lossy";
+
+    private static final int DEFAULT_ASYNC_BUFFER_SIZE = 8192;
+
     /**
      * The logger to log.
      */
@@ -79,11 +98,26 @@ public class LogbackEventGenerator extends UnsynchronizedAppenderBase<ILoggingEv
     @Inject
     private ComponentManager componentManager;
 
+    /**
+     * Used to send the logs directly to the listener capturing the logs of the current thread.
+     */
+    @Inject
+    private LogCaptureRegistry captures;
+
     /**
      * Logback utilities.
      */
     private LogbackUtils utils = new LogbackUtils();
 
+    private volatile ObservationManager observationManager;
+
+    /**
+     * Send the log events to the {@link ObservationManager} in asynchronous mode, {@code null} otherwise.
+     */
+    private volatile LogEventDispatcher dispatcher;
+
+    private boolean lossy;
+
     @Override
     public String getName()
     {
@@ -105,6 +139,13 @@ public void initialize() throws InitializationException
         ch.qos.logback.classic.Logger rootLogger = getRootLogger();
 
         if (rootLogger != null) {
+            if (Boolean.getBoolean(ASYNC_PROPERTY)) {
+                this.dispatcher = new LogEventDispatcher(
+                    Integer.getInteger(ASYNC_BUFFER_SIZE_PROPERTY, DEFAULT_ASYNC_BUFFER_SIZE), this::notifyObservation);
+                this.lossy = Boolean.getBoolean(ASYNC_LOSSY_PROPERTY);
+                this.dispatcher.start();
+            }
+
             setContext(rootLogger.getLoggerContext());
             rootLogger.addAppender(this);
             start();
@@ -127,7 +168,16 @@ public void onEvent(Event event, Object source, Object data)
      */
     private ObservationManager getObservationManager() throws ComponentLookupException
     {
-        return this.componentManager.getInstance(ObservationManager.class);
+        if (this.observationManager == null) {
+            this.observationManager = this.componentManager.getInstance(ObservationManager.class);
+        }
+
+        return this.observationManager;
+    }
+
+    private void notifyObservation(LogEvent event, Object source)
+    {
+        this.observationManager.notify(event, source, null);
     }
 
     @Override
@@ -145,7 +195,20 @@ protected void append(ILoggingEvent event)
             LogEvent logevent = LogUtils.newLogEvent(event.getMarker(), logLevel, event.getMessage(),
                 event.getArgumentArray(), throwable, event.getTimeStamp());
 
-            getObservationManager().notify(logevent, event.getLoggerName(), null);
+            // Send the log to the listener capturing the current thread logs (if any) without going through the
+            // observation manager listeners (which would involve filtering out the logs of the other threads)
+            this.captures.send(logevent, event.getLoggerName());
+
+            if (getObservationManager().hasListener(logevent)) {
+                LogEventDispatcher currentDispatcher = this.dispatcher;
+                if (currentDispatcher != null) {
+                    // Background debug logs can be dropped under heavy load, but not the logs of a job
+                    currentDispatcher.publish(logevent, event.getLoggerName(),
+                        this.lossy && logLevel.compareTo(LogLevel.INFO) > 0 && !this.captures.isCapturing());
+                } else {
+                    notifyObservation(logevent, event.getLoggerName());
+                }
+            }
         } catch (IllegalArgumentException e) {
             this.logger.debug("Unsupported log level [{}]", event.getLevel());
         } catch (ComponentLookupException e) {
@@ -172,5 +235,17 @@ public void dispose() throws ComponentLifecycleException
         if (rootLogger != null) {
             rootLogger.detachAppender(this);
         }
+
+        if (this.dispatcher != null) {
+            try {
+                this.dispatcher.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new ComponentLifecycleException("Interrupted while sending the remaining log events", e);
+            }
+
+            this.dispatcher = null;
+        }
     }
 }
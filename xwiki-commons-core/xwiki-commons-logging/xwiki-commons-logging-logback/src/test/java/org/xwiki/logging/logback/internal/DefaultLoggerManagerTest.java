@@ -31,7 +31,10 @@
 import org.xwiki.logging.LogLevel;
 import org.xwiki.logging.LogQueue;
 import org.xwiki.logging.event.LogQueueListener;
+import org.xwiki.logging.internal.tail.BinaryFileLoggerTail;
 import org.xwiki.logging.internal.tail.XStreamFileLoggerTail;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.ObservationManager;
 import org.xwiki.observation.internal.DefaultObservationManager;
 import org.xwiki.test.XWikiTempDirUtil;
 import org.xwiki.test.annotation.ComponentList;
@@ -64,6 +67,8 @@
     DefaultLoggerManager.class,
     DefaultObservationManager.class,
     LogbackEventGenerator.class,
+    LogCaptureRegistry.class,
+    BinaryFileLoggerTail.class,
     XStreamFileLoggerTail.class
 })
 // @formatter:on
@@ -112,10 +117,13 @@ public FilterReply decide(ILoggingEvent event)
 
         this.logger = LoggerFactory.getLogger(getClass());
         this.loggerManager = this.mocker.getComponentUnderTest();
+
+        // Register the LogbackEventGenerator appender (usually done when the observation manager is initialized)
+        this.mocker.getInstance(EventListener.class, "LogbackEventGenerator");
     }
 
     @Test
-    public void testPushPopLogListener() throws InterruptedException
+    public void testPushPopLogListener() throws Exception
     {
         this.logger.error("[test] before push");
 
@@ -131,6 +139,9 @@ public void testPushPopLogListener() throws InterruptedException
         // Make sure the log has been added to the queue
         assertEquals("[test] after push", queue.poll().getMessage());
 
+        // Make sure the listener is not registered in the observation manager
+        assertNull(this.mocker.<ObservationManager>getInstance(ObservationManager.class).getListener("loglistenerid"));
+
         // Make sure the log has not been sent to the logback appender
         assertEquals(1, this.listAppender.list.size());
 
@@ -286,10 +297,23 @@ public void createLoggerTail() throws Exception
 
         File logFile = new File(XWikiTempDirUtil.createTemporaryDirectory(), "log");
 
-        assertTrue(
-            !(this.loggerManager.createLoggerTail(logFile.toPath(), true) instanceof XStreamFileLoggerTail));
+        assertTrue(this.loggerManager.createLoggerTail(logFile.toPath(), true) instanceof LogQueue);
+
+        assertTrue(this.loggerManager.createLoggerTail(logFile.toPath(), false) instanceof BinaryFileLoggerTail);
+
+        assertTrue(this.loggerManager.createLoggerTail(logFile.toPath(), true) instanceof BinaryFileLoggerTail);
+    }
+
+    @Test
+    public void createLoggerTailWithXStreamLog() throws Exception
+    {
+        this.mocker.registerMockComponent(SafeXStream.class);
+
+        File logFile = new File(XWikiTempDirUtil.createTemporaryDirectory(), "log");
 
-        assertTrue(this.loggerManager.createLoggerTail(logFile.toPath(), false) instanceof XStreamFileLoggerTail);
+        XStreamFileLoggerTail xstreamTail = this.mocker.getInstance(XStreamFileLoggerTail.class);
+        xstreamTail.initialize(logFile.toPath(), false);
+        xstreamTail.close();
 
         assertTrue(this.loggerManager.createLoggerTail(logFile.toPath(), true) instanceof XStreamFileLoggerTail);
     }
@@ -0,0 +1,153 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.logback.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.xwiki.logging.LogLevel;
+import org.xwiki.logging.event.LogEvent;
+import org.xwiki.test.junit5.LogCaptureExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link LogEventDispatcher}.
+ *
+ * @version $Id$
+ */
+class LogEventDispatcherTest
+{
+    @RegisterExtension
+    LogCaptureExtension logCapture = new LogCaptureExtension(org.xwiki.test.LogLevel.WARN);
+
+    private static LogEvent event(String message)
+    {
+        return new LogEvent(null, LogLevel.INFO, message, null, null);
+    }
+
+    @Test
+    void dispatchInOrder() throws InterruptedException
+    {
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        List<Object> sources = Collections.synchronizedList(new ArrayList<>());
+        LogEventDispatcher dispatcher = new LogEventDispatcher(4, (event, source) -> {
+            messages.add(event.getMessage());
+            sources.add(source);
+        });
+        dispatcher.start();
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            assertTrue(dispatcher.publish(event("message" + i), "source", false));
+            expected.add("message" + i);
+        }
+
+        dispatcher.stop();
+
+        assertEquals(expected, messages);
+        assertEquals(Collections.nCopies(100, "source"), sources);
+    }
+
+    @Test
+    void dropLossyEventsWhenFull() throws InterruptedException
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        LogEventDispatcher dispatcher = new LogEventDispatcher(2, (event, source) -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getMessage());
+        });
+        dispatcher.start();
+
+        // Block the dispatcher thread on the first event
+        dispatcher.publish(event("first"), null, false);
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+        // Fill the buffer
+        assertTrue(dispatcher.publish(event("second"), null, true));
+        assertTrue(dispatcher.publish(event("third"), null, true));
+
+        assertFalse(dispatcher.publish(event("dropped"), null, true));
+        assertEquals(1, dispatcher.getDropped());
+
+        release.countDown();
+        dispatcher.stop();
+
+        assertEquals(3, messages.size());
+        assertFalse(messages.contains("dropped"));
+
+        assertEquals("[1] log events have been dropped because too many were waiting to be sent",
+            this.logCapture.getMessage(0));
+    }
+
+    @Test
+    void stopDispatchRemainingEvents() throws InterruptedException
+    {
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        LogEventDispatcher dispatcher =
+            new LogEventDispatcher(16, (event, source) -> messages.add(event.getMessage()));
+        dispatcher.start();
+
+        dispatcher.publish(event("before stop"), null, false);
+        dispatcher.stop();
+
+        assertEquals(Collections.singletonList("before stop"), messages);
+
+        // Sent synchronously once the dispatcher is stopped
+        dispatcher.publish(event("after stop"), null, false);
+
+        assertEquals("after stop", messages.get(1));
+    }
+
+    @Test
+    void publishFromDispatcherThread() throws InterruptedException
+    {
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        LogEventDispatcher[] dispatcher = new LogEventDispatcher[1];
+        dispatcher[0] = new LogEventDispatcher(1, (event, source) -> {
+            messages.add(event.getMessage());
+
+            // Simulate a listener logging something
+            if (event.getMessage().equals("first")) {
+                dispatcher[0].publish(event("from listener"), null, false);
+            }
+        });
+        dispatcher[0].start();
+
+        dispatcher[0].publish(event("first"), null, false);
+        dispatcher[0].stop();
+
+        assertEquals(2, messages.size());
+    }
+}
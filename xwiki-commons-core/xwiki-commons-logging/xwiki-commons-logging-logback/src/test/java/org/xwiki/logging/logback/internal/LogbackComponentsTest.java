@@ -0,0 +1,52 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.logging.logback.internal;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.logging.LoggerManager;
+import org.xwiki.observation.EventListener;
+import org.xwiki.test.annotation.AllComponents;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectComponentManager;
+import org.xwiki.test.mockito.MockitoComponentManager;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate the components registered through {@code META-INF/components.txt}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+@AllComponents
+class LogbackComponentsTest
+{
+    @InjectComponentManager
+    private MockitoComponentManager componentManager;
+
+    @Test
+    void registeredComponents() throws Exception
+    {
+        assertTrue(this.componentManager.hasComponent(LoggerManager.class));
+        assertNotNull(this.componentManager.getInstance(LogCaptureRegistry.class));
+        assertTrue(this.componentManager.hasComponent(EventListener.class, "LogbackEventGenerator"));
+    }
+}
@@ -27,6 +27,7 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.InOrder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
@@ -47,6 +48,7 @@
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -63,7 +65,8 @@
 // @formatter:off
 @ComponentList({
     DefaultObservationManager.class,
-    LogbackEventGenerator.class
+    LogbackEventGenerator.class,
+    LogCaptureRegistry.class
 })
 // @formatter:on
 class LogbackEventGeneratorTest
@@ -107,6 +110,43 @@ void verifyThatLoggingGeneratesALogEvent()
         assertEquals("error message", this.logCapture.getMessage(0));
     }
 
+    @Test
+    void asyncLoggingGeneratesALogEvent() throws Exception
+    {
+        LogbackEventGenerator generator =
+            (LogbackEventGenerator) this.componentManager.getInstance(EventListener.class, "LogbackEventGenerator");
+
+        // Restart the generator in asynchronous mode
+        generator.dispose();
+        System.setProperty(LogbackEventGenerator.ASYNC_PROPERTY, "true");
+        try {
+            generator.initialize();
+        } finally {
+            System.clearProperty(LogbackEventGenerator.ASYNC_PROPERTY);
+        }
+
+        EventListener listener = mock(EventListener.class);
+        when(listener.getName()).thenReturn("mylistener");
+        when(listener.getEvents()).thenReturn(Arrays.asList(new LogEvent()));
+        this.observationManager.addListener(listener);
+
+        for (int i = 0; i < 10; ++i) {
+            this.logger.error("error message {}", i);
+        }
+
+        // Send the remaining log events
+        generator.dispose();
+
+        InOrder inOrder = inOrder(listener);
+        for (int i = 0; i < 10; ++i) {
+            inOrder.verify(listener).onEvent(eq(new LogEvent(null, LogLevel.ERROR, "error message {}",
+                new Object[] {i}, null)), eq(getClass().getName()), eq(null));
+        }
+
+        // We don't really care about the actual log
+        this.logCapture.ignoreAllMessages();
+    }
+
     @Test
     void initializeWhenNoLogback() throws Exception
     {
@@ -0,0 +1,173 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.management;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * Lock-free recorder of durations (or any other positive values) able to provide approximate percentiles.
+ * <p>
+ * Values are counted in logarithmic buckets (8 sub-buckets per power of two) so that recording a value never blocks
+ * and the returned percentiles are precise to within 12.5%. The unit of the recorded values is chosen by the caller.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Unstable
+public class LatencyRecorder
+{
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private static final double PERCENT = 100.0;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder total = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param value the value to record, negative values are recorded as 0
+     */
+    public void record(long value)
+    {
+        long positiveValue = Math.max(value, 0);
+
+        this.buckets.incrementAndGet(getBucketIndex(positiveValue));
+        this.count.increment();
+        this.total.add(positiveValue);
+        this.max.accumulate(positiveValue);
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount()
+    {
+        return this.count.sum();
+    }
+
+    /**
+     * @return the sum of all recorded values
+     */
+    public long getTotal()
+    {
+        return this.total.sum();
+    }
+
+    /**
+     * @return the highest recorded value
+     */
+    public long getMax()
+    {
+        return this.max.get();
+    }
+
+    /**
+     * @return the average of the recorded values
+     */
+    public double getMean()
+    {
+        long currentCount = getCount();
+
+        return currentCount > 0 ? (double) getTotal() / currentCount : 0;
+    }
+
+    /**
+     * @param percentile the percentile to return, between 0 and 100 (e.g. 99 for the 99th percentile)
+     * @return the approximate value below which the provided percentage of the recorded values fall, 0 if no value
+     *         was recorded
+     */
+    public long getPercentile(double percentile)
+    {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long snapshotCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            snapshot[i] = this.buckets.get(i);
+            snapshotCount += snapshot[i];
+        }
+
+        if (snapshotCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, PERCENT) / PERCENT * snapshotCount));
+
+        long cumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            cumulated += snapshot[i];
+
+            if (cumulated >= rank) {
+                return Math.min(getBucketUpperBound(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Forget all the recorded values.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            this.buckets.set(i, 0);
+        }
+        this.count.reset();
+        this.total.reset();
+        this.max.reset();
+    }
+
+    private static int getBucketIndex(long value)
+    {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getBucketUpperBound(int index)
+    {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.management;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link LatencyRecorder}.
+ *
+ * @version $Id$
+ */
+class LatencyRecorderTest
+{
+    @Test
+    void empty()
+    {
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        assertEquals(0, recorder.getCount());
+        assertEquals(0, recorder.getPercentile(99));
+        assertEquals(0, recorder.getMean());
+    }
+
+    @Test
+    void record()
+    {
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        for (int i = 1; i <= 1000; ++i) {
+            recorder.record(i);
+        }
+
+        assertEquals(1000, recorder.getCount());
+        assertEquals(500500, recorder.getTotal());
+        assertEquals(1000, recorder.getMax());
+        assertEquals(500.5, recorder.getMean());
+
+        assertPercentile(500, recorder.getPercentile(50));
+        assertPercentile(990, recorder.getPercentile(99));
+        assertEquals(1000, recorder.getPercentile(100));
+        assertEquals(1, recorder.getPercentile(0));
+    }
+
+    @Test
+    void recordLargeValues()
+    {
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        recorder.record(Long.MAX_VALUE);
+        recorder.record(-1);
+
+        assertEquals(0, recorder.getPercentile(50));
+        assertEquals(Long.MAX_VALUE, recorder.getPercentile(100));
+    }
+
+    @Test
+    void reset()
+    {
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        recorder.record(42);
+        recorder.reset();
+
+        assertEquals(0, recorder.getCount());
+        assertEquals(0, recorder.getMax());
+        assertEquals(0, recorder.getPercentile(50));
+    }
+
+    private void assertPercentile(long expected, long actual)
+    {
+        assertTrue(actual >= expected && actual <= expected * 1.125, "Unexpected percentile [" + actual + "]");
+    }
+}
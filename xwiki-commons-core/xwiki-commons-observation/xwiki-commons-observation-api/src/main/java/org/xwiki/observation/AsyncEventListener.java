@@ -0,0 +1,53 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * An {@link EventListener} which does not need to be called in the thread which notified the event.
+ * <p>
+ * The {@link ObservationManager} executes {@link #onEvent(org.xwiki.observation.event.Event, Object, Object)} in a
+ * thread pool shared by all asynchronous listeners, with the following guarantees:
+ * <ul>
+ * <li>a listener receives the events in the order they were notified and never receives two events concurrently</li>
+ * <li>the {@link ObservationContext} of the notifying thread is available in the listener</li>
+ * <li>when the queue of pending events of the listener is full the notifying thread waits for some space</li>
+ * <li>{@link org.xwiki.observation.event.CancelableEvent}s are still sent synchronously since the notifier needs to
+ * know if the event was canceled</li>
+ * </ul>
+ * The event source and data are shared with the notifying thread so the listener must not assume they don't change
+ * anymore.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Unstable
+public interface AsyncEventListener extends EventListener
+{
+    /**
+     * @return the maximum number of events waiting to be sent to this listener, 0 or less to use the default
+     *         configured in {@link ObservationManagerConfiguration#getAsyncQueueSize()}
+     */
+    default int getQueueSize()
+    {
+        return 0;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation;
+
+import java.util.List;
+
+import org.xwiki.observation.event.Event;
+import org.xwiki.stability.Unstable;
+
+/**
+ * An {@link EventListener} able to handle all the events notified together through
+ * {@link ObservationManager#notify(java.util.Collection, Object, Object)} in a single call, for example to coalesce
+ * the work triggered by each event.
+ * <p>
+ * Events notified one by one are still sent to {@link #onEvent(Event, Object, Object)}.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Unstable
+public interface BatchEventListener extends EventListener
+{
+    /**
+     * The {@link ObservationManager} calls this method with all the events of a batch which matches one of the events
+     * for which this listener is registered (see {@link #getEvents()}.
+     *
+     * @param events the matching events, in the order they were notified
+     * @param source the source of the events (or <code>null</code>)
+     * @param data the additional data related to the events (or <code>null</code>)
+     */
+    void onEvents(List<Event> events, Object source, Object data);
+}
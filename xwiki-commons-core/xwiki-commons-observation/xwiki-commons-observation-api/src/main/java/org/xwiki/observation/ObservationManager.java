@@ -19,8 +19,11 @@
  */
 package org.xwiki.observation;
 
+import java.util.Collection;
+
 import org.xwiki.component.annotation.Role;
 import org.xwiki.observation.event.Event;
+import org.xwiki.stability.Unstable;
 
 /**
  * The main orchestrator for event notification. To receive events create a component implementing the
@@ -70,6 +73,20 @@
      */
     EventListener getListener(String listenerName);
 
+    /**
+     * Indicate if notifying the passed event might reach a listener. It allows callers sending a lot of events to skip
+     * creating and sending them when nobody is listening.
+     *
+     * @param event the event to notify
+     * @return {@code false} if no registered listener can be interested in the passed event, {@code true} otherwise
+     * @since 12.9RC1
+     */
+    @Unstable
+    default boolean hasListener(Event event)
+    {
+        return true;
+    }
+
     /**
      * Call the registered listeners matching the passed Event. The definition of <em>source</em> and <em>data</em> is
      * purely up to the communicating classes.
@@ -88,4 +105,21 @@
      * @see #notify(org.xwiki.observation.event.Event, Object, Object)
      */
     void notify(Event event, Object source);
+
+    /**
+     * Call the registered listeners matching the passed Events, in order. {@link BatchEventListener}s receive all the
+     * events they match in a single call, after the other listeners have been notified of all the events. The
+     * definition of <em>source</em> and <em>data</em> is purely up to the communicating classes.
+     *
+     * @param events the events to pass to the registered listeners
+     * @param source the source of the events (or <code>null</code>)
+     * @param data the additional data related to the events (or <code>null</code>)
+     * @since 12.9RC1
+     */
+    default void notify(Collection<? extends Event> events, Object source, Object data)
+    {
+        for (Event event : events) {
+            notify(event, source, data);
+        }
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation;
+
+import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Configuration options for the {@link ObservationManager}.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Role
+@Unstable
+public interface ObservationManagerConfiguration
+{
+    /**
+     * @return the number of threads used to execute {@link AsyncEventListener}s
+     */
+    int getAsyncThreads();
+
+    /**
+     * @return the default maximum number of events waiting to be sent to an {@link AsyncEventListener}
+     */
+    int getAsyncQueueSize();
+
+    /**
+     * @return true if the {@link ObservationManager} should measure the time spent in each listener and the number of
+     *         notified events (and expose them through JMX)
+     */
+    boolean isMetricsEnabled();
+}
@@ -0,0 +1,301 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.internal;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.xwiki.component.manager.ComponentLookupException;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.observation.AsyncEventListener;
+import org.xwiki.observation.ObservationManagerConfiguration;
+import org.xwiki.observation.event.BeginEvent;
+import org.xwiki.observation.event.Event;
+
+/**
+ * Execute {@link AsyncEventListener}s in a shared thread pool, keeping the events of each listener in order.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class AsyncEventListenerExecutor
+{
+    /**
+     * The maximum number of events sent to a listener before giving the thread to another listener.
+     */
+    private static final int BATCH_SIZE = 100;
+
+    private static final int DEFAULT_QUEUESIZE = 1000;
+
+    /**
+     * Indicate if the current thread is one of the pool threads.
+     */
+    private static final ThreadLocal<Boolean> WORKER = new ThreadLocal<>();
+
+    private final ExecutorService executor;
+
+    private final int defaultQueueSize;
+
+    private final Execution execution;
+
+    private final DefaultObservationManager observationManager;
+
+    private final Map<AsyncEventListener, ListenerQueue> queues = new ConcurrentHashMap<>();
+
+    private static final class PendingEvent
+    {
+        private final Event event;
+
+        private final Object source;
+
+        private final Object data;
+
+        private final Stack<BeginEvent> observationEvents;
+
+        /**
+         * True if the event took a place in the listener queue capacity.
+         */
+        private boolean permit;
+
+        PendingEvent(Event event, Object source, Object data, Stack<BeginEvent> observationEvents)
+        {
+            this.event = event;
+            this.source = source;
+            this.data = data;
+            this.observationEvents = observationEvents;
+        }
+    }
+
+    /**
+     * The events waiting to be sent to a listener.
+     */
+    private final class ListenerQueue implements Runnable
+    {
+        private final AsyncEventListener listener;
+
+        private final Queue<PendingEvent> events = new ConcurrentLinkedQueue<>();
+
+        private final Semaphore capacity;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        ListenerQueue(AsyncEventListener listener)
+        {
+            this.listener = listener;
+
+            int queueSize = listener.getQueueSize();
+            this.capacity = new Semaphore(queueSize > 0 ? queueSize : defaultQueueSize);
+        }
+
+        void add(PendingEvent event)
+        {
+            if (WORKER.get() == null) {
+                try {
+                    this.capacity.acquire();
+                    event.permit = true;
+                } catch (InterruptedException e) {
+                    // Don't lose the event
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                // Pool threads don't wait to avoid a dead lock between listeners notifying each others
+                event.permit = this.capacity.tryAcquire();
+            }
+
+            this.events.add(event);
+
+            schedule();
+        }
+
+        private void schedule()
+        {
+            if (this.scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // The executor has been disposed, send the remaining events in the current thread instead
+                    process(Integer.MAX_VALUE);
+                }
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            process(BATCH_SIZE);
+        }
+
+        private void process(int maxEvents)
+        {
+            Boolean worker = WORKER.get();
+            WORKER.set(Boolean.TRUE);
+
+            ExecutionContext context = null;
+            if (execution != null) {
+                context = new ExecutionContext();
+                execution.pushContext(context);
+            }
+
+            try {
+                for (int i = 0; i < maxEvents; ++i) {
+                    PendingEvent event = this.events.poll();
+                    if (event == null) {
+                        break;
+                    }
+
+                    if (event.permit) {
+                        this.capacity.release();
+                    }
+
+                    send(event, context);
+                }
+            } finally {
+                if (context != null) {
+                    execution.popContext();
+                }
+
+                if (worker == null) {
+                    WORKER.remove();
+                }
+
+                this.scheduled.set(false);
+            }
+
+            // Events might have been added after the last poll and before the scheduled flag was reset
+            if (!this.events.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void send(PendingEvent event, ExecutionContext context)
+        {
+            if (context != null) {
+                context.setProperty(DefaultObservationContext.KEY_EVENTS, event.observationEvents);
+            }
+
+            observationManager.send(this.listener, event.event, event.source, event.data);
+        }
+    }
+
+    /**
+     * @param observationManager the observation manager used to call the listeners
+     * @param componentManager used to find the configuration and the execution, can be {@code null}
+     * @param logger the logger used to report configuration errors
+     */
+    public AsyncEventListenerExecutor(DefaultObservationManager observationManager,
+        ComponentManager componentManager, Logger logger)
+    {
+        this.observationManager = observationManager;
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueSize = DEFAULT_QUEUESIZE;
+        Execution componentExecution = null;
+
+        // Can be null in unit tests
+        if (componentManager != null) {
+            try {
+                if (componentManager.hasComponent(ObservationManagerConfiguration.class)) {
+                    ObservationManagerConfiguration configuration =
+                        componentManager.getInstance(ObservationManagerConfiguration.class);
+                    threads = configuration.getAsyncThreads();
+                    queueSize = configuration.getAsyncQueueSize();
+                }
+                if (componentManager.hasComponent(Execution.class)) {
+                    componentExecution = componentManager.getInstance(Execution.class);
+                }
+            } catch (ComponentLookupException e) {
+                logger.warn("Failed to configure asynchronous listeners, using default configuration: {}",
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+
+        this.defaultQueueSize = queueSize > 0 ? queueSize : DEFAULT_QUEUESIZE;
+        this.execution = componentExecution;
+
+        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+            .namingPattern("XWiki asynchronous event listener %d").daemon(true).priority(Thread.NORM_PRIORITY).build();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), threadFactory);
+    }
+
+    /**
+     * Queue an event for the passed listener, waiting if the listener queue is full.
+     *
+     * @param listener the listener to call
+     * @param event the event to pass to the listener
+     * @param source the source of the event (or <code>null</code>)
+     * @param data the additional data related to the event (or <code>null</code>)
+     */
+    public void submit(AsyncEventListener listener, Event event, Object source, Object data)
+    {
+        this.queues.computeIfAbsent(listener, ListenerQueue::new)
+            .add(new PendingEvent(event, source, data, getObservationEvents()));
+    }
+
+    private Stack<BeginEvent> getObservationEvents()
+    {
+        if (this.execution != null) {
+            ExecutionContext context = this.execution.getContext();
+
+            if (context != null) {
+                Stack<BeginEvent> events =
+                    (Stack<BeginEvent>) context.getProperty(DefaultObservationContext.KEY_EVENTS);
+
+                if (events != null && !events.isEmpty()) {
+                    // The stack keeps changing in the notifying thread
+                    return (Stack<BeginEvent>) events.clone();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Forget the passed listener, the events already queued are still sent.
+     *
+     * @param listener the listener removed from the observation manager
+     */
+    public void remove(AsyncEventListener listener)
+    {
+        this.queues.remove(listener);
+    }
+
+    /**
+     * Stop the threads, the events already queued are still sent. The events submitted after that are sent in the
+     * notifying thread.
+     */
+    public void dispose()
+    {
+        this.executor.shutdown();
+    }
+}
@@ -21,6 +21,7 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -37,28 +38,45 @@
 import org.xwiki.component.event.ComponentDescriptorRemovedEvent;
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.observation.AsyncEventListener;
+import org.xwiki.observation.BatchEventListener;
 import org.xwiki.observation.EventListener;
 import org.xwiki.observation.ObservationManager;
 import org.xwiki.observation.event.AllEvent;
+import org.xwiki.observation.event.CancelableEvent;
 import org.xwiki.observation.event.Event;
 
 /**
  * Default implementation of the {@link ObservationManager}.
  * <p>
- * This component use synchronized for concurrent protection instead of having
- * {@link java.util.concurrent.ConcurrentHashMap} everywhere because it's more efficient since most of methods access to
- * several maps and generally do enumerations.
+ * Registrations are modified under a lock and each modification invalidates an immutable dispatch table which
+ * associates each notified event class with the listeners which can be interested in it (the ones registered with an
+ * event of the same class, of a parent class or with {@link AllEvent}). The dispatch array of an event class is
+ * computed the first time it's notified so that {@link #notify(Event, Object, Object)} does not lock or allocate
+ * anything in the general case.
+ * <p>
+ * {@link AsyncEventListener}s are called from a dedicated thread pool, except for {@link CancelableEvent}s.
+ * {@link BatchEventListener}s receive the events of a batch in a single call, unless they are asynchronous.
  *
  * @version $Id$
  */
 @Component
 @Singleton
-public class DefaultObservationManager implements ObservationManager
+public class DefaultObservationManager implements ObservationManager, Disposable
 {
+    private static final ListenerDispatch[] NO_LISTENER = new ListenerDispatch[0];
+
+    /**
+     * The events associated to each listener, in registration order. Also used as the lock protecting the
+     * registrations modifications.
+     */
+    private final Map<String, List<Event>> eventsByListener = new LinkedHashMap<>();
+
     /**
-     * @see #getListenersByEvent()
+     * The listeners to call for each notified event class, recreated each time the registrations are modified.
      */
-    private volatile Map<Class<? extends Event>, Map<String, RegisteredListener>> listenersByEvent;
+    private volatile Map<Class<?>, ListenerDispatch[]> dispatchTable = new ConcurrentHashMap<>();
 
     /**
      * @see #getListenersByName()
@@ -66,74 +84,26 @@ public class DefaultObservationManager implements ObservationManager
     private volatile Map<String, EventListener> listenersByName;
 
     /**
-     * Used to find all components implementing {@link EventListener} to register them automatically.
+     * Lazily created when the first event is sent to an {@link AsyncEventListener}.
      */
-    @Inject
-    private ComponentManager componentManager;
+    private volatile AsyncEventListenerExecutor asyncExecutor;
 
     /**
-     * The logger to log.
+     * {@code null} when the metrics are disabled.
      */
-    @Inject
-    private Logger logger;
+    private volatile ObservationMetrics metrics;
 
     /**
-     * Helper class to store the list of events of a given type associated with a given listener. We need this for
-     * performance reasons and also in order to be able to add events after a listener has been registered.
+     * Used to find all components implementing {@link EventListener} to register them automatically.
      */
-    private static class RegisteredListener
-    {
-        /**
-         * Events of a given type associated with a given listener.
-         */
-        private List<Event> events = new ArrayList<>();
-
-        /**
-         * Listener associated with the events.
-         */
-        private EventListener listener;
-
-        /**
-         * @param listener the listener associated with the events.
-         * @param event the first event to associate with the passed listener. More events are added by calling
-         *            {@link #addEvent(Event)}
-         */
-        RegisteredListener(EventListener listener, Event event)
-        {
-            addEvent(event);
-
-            this.listener = listener;
-        }
-
-        /**
-         * @param event the event to add
-         */
-        void addEvent(Event event)
-        {
-            this.events.add(event);
-        }
-
-        /**
-         * @param event the event to remove
-         */
-        void removeEvent(Event event)
-        {
-            this.events.remove(event);
-        }
-    }
+    @Inject
+    private ComponentManager componentManager;
 
     /**
-     * @return the registered listeners indexed on Event classes so that it's fast to find all the listeners registered
-     *         for a given event, so that {@link #notify} calls execute fast and in a fixed amount a time.
+     * The logger to log.
      */
-    private Map<Class<? extends Event>, Map<String, RegisteredListener>> getListenersByEvent()
-    {
-        if (this.listenersByEvent == null) {
-            initializeListeners();
-        }
-
-        return this.listenersByEvent;
-    }
+    @Inject
+    private Logger logger;
 
     /**
      * @return the registered listeners index by listener name. It makes it fast to perform operations on already
@@ -150,15 +120,14 @@ private Map<String, EventListener> getListenersByName()
 
     /**
      * Lazily initialized to allow @Inject {@link ObservationManager} in a listener.
-     *
-     * @todo Should we allow event inheritance ?
      */
     private synchronized void initializeListeners()
     {
         if (this.listenersByName == null) {
-            this.listenersByEvent = new ConcurrentHashMap<>();
             this.listenersByName = new ConcurrentHashMap<>();
 
+            this.metrics = ObservationMetrics.create(this.componentManager, this.logger);
+
             // Can be null in unit tests
             if (this.componentManager != null) {
                 try {
@@ -188,58 +157,51 @@ private void addListenerInternal(EventListener eventListener)
     {
         Map<String, EventListener> listeners = getListenersByName();
 
-        // Remove previous listener if any
-        EventListener previousListener = listeners.get(eventListener.getName());
-        if (previousListener != null) {
-            removeListener(eventListener.getName());
-
-            this.logger.warn(
-                "The [{}] listener is overwriting a previously "
-                    + "registered listener [{}] since they both are registered under the same id [{}]. "
-                    + "In the future consider removing a Listener first if you really want to register it again.",
-                new Object[] {eventListener.getClass().getName(), previousListener.getClass().getName(),
-                    eventListener.getName()});
-        }
-
-        // Register the listener by name. If already registered, override it.
-        listeners.put(eventListener.getName(), eventListener);
+        String listenerName = eventListener.getName();
+        List<Event> events = new ArrayList<>(eventListener.getEvents());
 
         // when lot of threads are involved there might be a concurrent access when inserting a new listener
         // this needs to be managed with a lock to avoid an event to be "lost", e.g. not consumed by the appropriate
         // listener
-        synchronized (this.listenersByEvent) {
-            // For each event defined for this listener, add it to the Event Map.
-            for (Event event : eventListener.getEvents()) {
-                // Check if this is a new Event type not already registered
-                Map<String, RegisteredListener> eventListeners = this.listenersByEvent.get(event.getClass());
-                if (eventListeners == null) {
-                    // No listener registered for this event yet. Create a map to store listeners for this event.
-                    eventListeners = new ConcurrentHashMap<>();
-                    this.listenersByEvent.put(event.getClass(), eventListeners);
-                    // There is no RegisteredListener yet, create one
-                    eventListeners.put(eventListener.getName(), new RegisteredListener(eventListener, event));
-                } else {
-                    // Add an event to existing RegisteredListener object
-                    RegisteredListener registeredListener = eventListeners.get(eventListener.getName());
-                    if (registeredListener == null) {
-                        eventListeners.put(eventListener.getName(), new RegisteredListener(eventListener, event));
-                    } else {
-                        registeredListener.addEvent(event);
-                    }
-                }
+        synchronized (this.eventsByListener) {
+            // Remove previous listener if any
+            EventListener previousListener = listeners.get(listenerName);
+            if (previousListener != null) {
+                removeListener(listenerName);
+
+                this.logger.warn(
+                    "The [{}] listener is overwriting a previously "
+                        + "registered listener [{}] since they both are registered under the same id [{}]. "
+                        + "In the future consider removing a Listener first if you really want to register it again.",
+                    new Object[] {eventListener.getClass().getName(), previousListener.getClass().getName(),
+                        listenerName});
             }
+
+            // Register the listener by name. If already registered, override it.
+            listeners.put(listenerName, eventListener);
+
+            List<Event> existingEvents = this.eventsByListener.get(listenerName);
+            if (existingEvents != null) {
+                existingEvents.addAll(events);
+            } else {
+                this.eventsByListener.put(listenerName, events);
+            }
+
+            invalidateDispatchTable();
         }
     }
 
     @Override
     public void removeListener(String listenerName)
     {
-        getListenersByName().remove(listenerName);
-        for (Map.Entry<Class<? extends Event>, Map<String, RegisteredListener>> entry : this.listenersByEvent
-            .entrySet()) {
-            entry.getValue().remove(listenerName);
-            if (entry.getValue().isEmpty()) {
-                this.listenersByEvent.remove(entry.getKey());
+        synchronized (this.eventsByListener) {
+            EventListener listener = getListenersByName().remove(listenerName);
+            this.eventsByListener.remove(listenerName);
+
+            invalidateDispatchTable();
+
+            if (listener instanceof AsyncEventListener && this.asyncExecutor != null) {
+                this.asyncExecutor.remove((AsyncEventListener) listener);
             }
         }
     }
@@ -247,26 +209,27 @@ public void removeListener(String listenerName)
     @Override
     public void addEvent(String listenerName, Event event)
     {
-        Map<String, RegisteredListener> listeners = getListenersByEvent().get(event.getClass());
-        if (listeners == null) {
-            listeners = new ConcurrentHashMap<>();
-            this.listenersByEvent.put(event.getClass(), listeners);
-        }
-        RegisteredListener listener = listeners.get(listenerName);
-        if (listener != null) {
-            listener.addEvent(event);
-        } else {
-            listeners.put(listenerName, new RegisteredListener(this.getListener(listenerName), event));
+        getListenersByName();
+
+        synchronized (this.eventsByListener) {
+            this.eventsByListener.computeIfAbsent(listenerName, k -> new ArrayList<>()).add(event);
+
+            invalidateDispatchTable();
         }
     }
 
     @Override
     public void removeEvent(String listenerName, Event event)
     {
-        Map<String, RegisteredListener> listeners = getListenersByEvent().get(event.getClass());
-        RegisteredListener listener = listeners.get(listenerName);
-        if (listener != null) {
-            listener.removeEvent(event);
+        getListenersByName();
+
+        synchronized (this.eventsByListener) {
+            List<Event> events = this.eventsByListener.get(listenerName);
+            if (events != null) {
+                events.remove(event);
+
+                invalidateDispatchTable();
+            }
         }
     }
 
@@ -276,19 +239,139 @@ public EventListener getListener(String listenerName)
         return getListenersByName().get(listenerName);
     }
 
+    @Override
+    public boolean hasListener(Event event)
+    {
+        getListenersByName();
+
+        return getDispatch(event.getClass()).length > 0;
+    }
+
+    /**
+     * Must be called while holding the registrations lock.
+     */
+    private void invalidateDispatchTable()
+    {
+        this.dispatchTable = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param eventClass the class of the notified event
+     * @return the listeners to call (if one of their events match) for the passed event class
+     */
+    private ListenerDispatch[] getDispatch(Class<?> eventClass)
+    {
+        Map<Class<?>, ListenerDispatch[]> table = this.dispatchTable;
+
+        ListenerDispatch[] dispatch = table.get(eventClass);
+        if (dispatch == null) {
+            synchronized (this.eventsByListener) {
+                dispatch = createDispatch(eventClass);
+
+                // Don't pollute a more recent table with a dispatch computed from outdated registrations
+                if (table == this.dispatchTable) {
+                    table.put(eventClass, dispatch);
+                }
+            }
+        }
+
+        return dispatch;
+    }
+
+    private ListenerDispatch[] createDispatch(Class<?> eventClass)
+    {
+        List<ListenerDispatch> specificListeners = new ArrayList<>();
+        List<ListenerDispatch> allEventListeners = new ArrayList<>();
+
+        for (Map.Entry<String, List<Event>> entry : this.eventsByListener.entrySet()) {
+            EventListener listener = this.listenersByName.get(entry.getKey());
+
+            if (listener != null) {
+                addDispatch(listener, entry.getValue(), eventClass, specificListeners, allEventListeners);
+            }
+        }
+
+        // Listeners listening to all events are called after the ones listening to specific events
+        specificListeners.addAll(allEventListeners);
+
+        return specificListeners.isEmpty() ? NO_LISTENER
+            : specificListeners.toArray(new ListenerDispatch[specificListeners.size()]);
+    }
+
+    private void addDispatch(EventListener listener, List<Event> listenerEvents, Class<?> eventClass,
+        List<ListenerDispatch> specificListeners, List<ListenerDispatch> allEventListeners)
+    {
+        List<Event> events = new ArrayList<>();
+        boolean alwaysMatching = false;
+        boolean allEvent = false;
+        for (Event event : listenerEvents) {
+            if (event instanceof AllEvent) {
+                allEvent = true;
+            } else if (event.getClass().isAssignableFrom(eventClass)) {
+                events.add(event);
+                alwaysMatching |= ListenerDispatch.isAlwaysMatching(event);
+            }
+        }
+
+        if (!events.isEmpty()) {
+            specificListeners.add(new ListenerDispatch(listener,
+                alwaysMatching || allEvent ? null : events.toArray(new Event[events.size()])));
+        } else if (allEvent) {
+            allEventListeners.add(new ListenerDispatch(listener, null));
+        }
+    }
+
     @Override
     public void notify(Event event, Object source, Object data)
     {
-        // Find all listeners for this event
-        Map<String, RegisteredListener> regListeners = getListenersByEvent().get(event.getClass());
-        if (regListeners != null) {
-            notify(regListeners.values(), event, source, data);
+        getListenersByName();
+
+        notify(event, source, data, null);
+    }
+
+    @Override
+    public void notify(Collection<? extends Event> events, Object source, Object data)
+    {
+        getListenersByName();
+
+        Map<BatchEventListener, List<Event>> batches = new LinkedHashMap<>();
+
+        for (Event event : events) {
+            notify(event, source, data, batches);
         }
 
-        // Find listener listening all events
-        Map<String, RegisteredListener> allEventRegListeners = this.listenersByEvent.get(AllEvent.class);
-        if (allEventRegListeners != null) {
-            notify(allEventRegListeners.values(), event, source, data);
+        for (Map.Entry<BatchEventListener, List<Event>> entry : batches.entrySet()) {
+            sendBatch(entry.getKey(), entry.getValue(), source, data);
+        }
+    }
+
+    /**
+     * @param event the event to pass to the registered listeners
+     * @param source the source of the event (or <code>null</code>)
+     * @param data the additional data related to the event (or <code>null</code>)
+     * @param batches the events to send to each batch listener at the end of the batch, {@code null} when not
+     *            notifying a batch
+     */
+    private void notify(Event event, Object source, Object data, Map<BatchEventListener, List<Event>> batches)
+    {
+        ObservationMetrics currentMetrics = this.metrics;
+        if (currentMetrics != null) {
+            currentMetrics.recordNotify(event.getClass());
+        }
+
+        // Find all listeners which might be interested in this event
+        for (ListenerDispatch dispatch : getDispatch(event.getClass())) {
+            // Verify that one of the events matches, the listener is only called once per event
+            if (dispatch.matches(event)) {
+                if (batches != null && dispatch.getBatchListener() != null) {
+                    batches.computeIfAbsent(dispatch.getBatchListener(), k -> new ArrayList<>()).add(event);
+                } else if (dispatch.getAsyncListener() != null && !(event instanceof CancelableEvent)) {
+                    // The notifier needs to know the result of cancelable events
+                    getAsyncExecutor().submit(dispatch.getAsyncListener(), event, source, data);
+                } else {
+                    send(dispatch.getListener(), event, source, data);
+                }
+            }
         }
 
         // We want this Observation Manager to be able to handle new Event Listener components being added or removed
@@ -301,34 +384,74 @@ public void notify(Event event, Object source, Object data)
         }
     }
 
+    private void sendBatch(BatchEventListener listener, List<Event> events, Object source, Object data)
+    {
+        ObservationMetrics currentMetrics = this.metrics;
+        long start = currentMetrics != null ? System.nanoTime() : 0;
+
+        boolean success;
+        try {
+            listener.onEvents(events, source, data);
+
+            success = true;
+        } catch (Exception e) {
+            // protect from bad listeners
+            this.logger.error("Failed to send [{}] events to listener [{}]", events.size(), listener, e);
+
+            success = false;
+        }
+
+        if (currentMetrics != null) {
+            currentMetrics.recordInvocation(listener.getName(), System.nanoTime() - start, !success);
+        }
+    }
+
     /**
-     * Call the provided listeners matching the passed Event. The definition of <em>source</em> and <em>data</em> is
-     * purely up to the communicating classes.
+     * Call the passed listener, measuring the time it takes when metrics are enabled.
      *
-     * @param listeners the listeners to notify
-     * @param event the event to pass to the registered listeners
+     * @param listener the listener to call
+     * @param event the event to pass to the listener
      * @param source the source of the event (or <code>null</code>)
      * @param data the additional data related to the event (or <code>null</code>)
      */
-    private void notify(Collection<RegisteredListener> listeners, Event event, Object source, Object data)
+    void send(EventListener listener, Event event, Object source, Object data)
     {
-        for (RegisteredListener listener : listeners) {
-            // Verify that one of the events matches and send the first matching event
-            for (Event listenerEvent : listener.events) {
-                if (listenerEvent.matches(event)) {
-                    try {
-                        listener.listener.onEvent(event, source, data);
-                    } catch (Exception e) {
-                        // protect from bad listeners
-                        this.logger.error("Failed to send event [{}] to listener [{}]",
-                            new Object[] {event, listener.listener, e});
-                    }
+        ObservationMetrics currentMetrics = this.metrics;
+
+        if (currentMetrics == null) {
+            sendEvent(listener, event, source, data);
+        } else {
+            long start = System.nanoTime();
+            boolean success = sendEvent(listener, event, source, data);
+            currentMetrics.recordInvocation(listener.getName(), System.nanoTime() - start, !success);
+        }
+    }
 
-                    // Only send the first matching event since the listener should only be called once per event.
-                    break;
+    private boolean sendEvent(EventListener listener, Event event, Object source, Object data)
+    {
+        try {
+            listener.onEvent(event, source, data);
+
+            return true;
+        } catch (Exception e) {
+            // protect from bad listeners
+            this.logger.error("Failed to send event [{}] to listener [{}]", new Object[] {event, listener, e});
+
+            return false;
+        }
+    }
+
+    private AsyncEventListenerExecutor getAsyncExecutor()
+    {
+        if (this.asyncExecutor == null) {
+            synchronized (this) {
+                if (this.asyncExecutor == null) {
+                    this.asyncExecutor = new AsyncEventListenerExecutor(this, this.componentManager, this.logger);
                 }
             }
         }
+
+        return this.asyncExecutor;
     }
 
     @Override
@@ -337,6 +460,18 @@ public void notify(Event event, Object source)
         notify(event, source, null);
     }
 
+    @Override
+    public void dispose()
+    {
+        if (this.asyncExecutor != null) {
+            this.asyncExecutor.dispose();
+        }
+
+        if (this.metrics != null) {
+            this.metrics.dispose();
+        }
+    }
+
     /**
      * A Component has been modified (added or removed) and we update our cache of Event Listeners if that Component is
      * an Event Listener.
@@ -0,0 +1,68 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.internal;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.observation.ObservationManagerConfiguration;
+
+/**
+ * Default implementation of {@link ObservationManagerConfiguration}.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+@Component
+@Singleton
+public class DefaultObservationManagerConfiguration implements ObservationManagerConfiguration
+{
+    /**
+     * Prefix for configuration keys for the observation module.
+     */
+    private static final String PREFIX = "observation.";
+
+    private static final int DEFAULT_ASYNC_QUEUESIZE = 1000;
+
+    @Inject
+    private Provider<ConfigurationSource> configurationSource;
+
+    @Override
+    public int getAsyncThreads()
+    {
+        return this.configurationSource.get().getProperty(PREFIX + "async.threads",
+            Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public int getAsyncQueueSize()
+    {
+        return this.configurationSource.get().getProperty(PREFIX + "async.queueSize", DEFAULT_ASYNC_QUEUESIZE);
+    }
+
+    @Override
+    public boolean isMetricsEnabled()
+    {
+        return this.configurationSource.get().getProperty(PREFIX + "metrics.enabled", false);
+    }
+}
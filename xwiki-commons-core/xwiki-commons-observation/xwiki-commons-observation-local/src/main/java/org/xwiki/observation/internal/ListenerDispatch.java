@@ -0,0 +1,131 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.internal;
+
+import org.xwiki.observation.AsyncEventListener;
+import org.xwiki.observation.BatchEventListener;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.event.AbstractFilterableEvent;
+import org.xwiki.observation.event.Event;
+import org.xwiki.observation.event.filter.AlwaysMatchingEventFilter;
+
+/**
+ * Immutable association between a listener and the events it registered which might match a given event class.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+final class ListenerDispatch
+{
+    private static final String MATCHES_METHOD = "matches";
+
+    private final EventListener listener;
+
+    /**
+     * The listener if it's asynchronous, {@code null} otherwise.
+     */
+    private final AsyncEventListener asyncListener;
+
+    /**
+     * The listener if it handles batches synchronously, {@code null} otherwise.
+     */
+    private final BatchEventListener batchListener;
+
+    /**
+     * The events to check, {@code null} if the listener should always be called.
+     */
+    private final Event[] events;
+
+    /**
+     * @param listener the listener to call
+     * @param events the events to check, {@code null} if the listener should always be called
+     */
+    ListenerDispatch(EventListener listener, Event[] events)
+    {
+        this.listener = listener;
+        this.asyncListener = listener instanceof AsyncEventListener ? (AsyncEventListener) listener : null;
+        this.batchListener = listener instanceof BatchEventListener && this.asyncListener == null
+            ? (BatchEventListener) listener : null;
+        this.events = events;
+    }
+
+    /**
+     * @return the listener to call
+     */
+    EventListener getListener()
+    {
+        return this.listener;
+    }
+
+    /**
+     * @return the listener if it's asynchronous, {@code null} otherwise
+     */
+    AsyncEventListener getAsyncListener()
+    {
+        return this.asyncListener;
+    }
+
+    /**
+     * @return the listener if it handles batches synchronously, {@code null} otherwise
+     */
+    BatchEventListener getBatchListener()
+    {
+        return this.batchListener;
+    }
+
+    /**
+     * @param event the notified event
+     * @return true if the listener should be called for the passed event
+     */
+    boolean matches(Event event)
+    {
+        if (this.events == null) {
+            return true;
+        }
+
+        for (Event listenerEvent : this.events) {
+            if (listenerEvent.matches(event)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param event the event registered by a listener
+     * @return true if the passed event matches any event of its class (or child classes) so that there is no need to
+     *         call {@link Event#matches(Object)} when notifying
+     */
+    static boolean isAlwaysMatching(Event event)
+    {
+        if (event instanceof AbstractFilterableEvent
+            && ((AbstractFilterableEvent) event).getEventFilter() instanceof AlwaysMatchingEventFilter) {
+            try {
+                return event.getClass().getMethod(MATCHES_METHOD, Object.class)
+                    .getDeclaringClass() == AbstractFilterableEvent.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+}
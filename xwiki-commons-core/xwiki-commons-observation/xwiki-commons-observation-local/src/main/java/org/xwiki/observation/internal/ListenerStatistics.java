@@ -0,0 +1,142 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.internal;
+
+import org.xwiki.management.LatencyRecorder;
+
+/**
+ * A snapshot of the metrics of an {@link org.xwiki.observation.EventListener}. All durations are in nanoseconds.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class ListenerStatistics
+{
+    private static final double MEDIAN = 50;
+
+    private static final double PERCENTILE95 = 95;
+
+    private static final double PERCENTILE99 = 99;
+
+    private final String name;
+
+    private final long invocationCount;
+
+    private final long exceptionCount;
+
+    private final long totalTime;
+
+    private final long maxTime;
+
+    private final long timeMedian;
+
+    private final long time95thPercentile;
+
+    private final long time99thPercentile;
+
+    /**
+     * @param name the name of the listener
+     * @param latency the durations of the listener invocations
+     * @param exceptionCount the number of invocations which failed
+     */
+    public ListenerStatistics(String name, LatencyRecorder latency, long exceptionCount)
+    {
+        this.name = name;
+        this.invocationCount = latency.getCount();
+        this.exceptionCount = exceptionCount;
+        this.totalTime = latency.getTotal();
+        this.maxTime = latency.getMax();
+        this.timeMedian = latency.getPercentile(MEDIAN);
+        this.time95thPercentile = latency.getPercentile(PERCENTILE95);
+        this.time99thPercentile = latency.getPercentile(PERCENTILE99);
+    }
+
+    /**
+     * @return the name of the listener
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return the number of times the listener was called
+     */
+    public long getInvocationCount()
+    {
+        return this.invocationCount;
+    }
+
+    /**
+     * @return the number of times the listener failed with an exception
+     */
+    public long getExceptionCount()
+    {
+        return this.exceptionCount;
+    }
+
+    /**
+     * @return the total time spent in the listener
+     */
+    public long getTotalTime()
+    {
+        return this.totalTime;
+    }
+
+    /**
+     * @return the average time spent in the listener
+     */
+    public double getAverageTime()
+    {
+        return this.invocationCount > 0 ? (double) this.totalTime / this.invocationCount : 0;
+    }
+
+    /**
+     * @return the longest time spent in the listener
+     */
+    public long getMaxTime()
+    {
+        return this.maxTime;
+    }
+
+    /**
+     * @return the median time spent in the listener
+     */
+    public long getTimeMedian()
+    {
+        return this.timeMedian;
+    }
+
+    /**
+     * @return the 95th percentile of the time spent in the listener
+     */
+    public long getTime95thPercentile()
+    {
+        return this.time95thPercentile;
+    }
+
+    /**
+     * @return the 99th percentile of the time spent in the listener
+     */
+    public long getTime99thPercentile()
+    {
+        return this.time99thPercentile;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.xwiki.component.manager.ComponentLookupException;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.management.JMXBeanRegistration;
+import org.xwiki.management.LatencyRecorder;
+import org.xwiki.observation.ObservationManagerConfiguration;
+
+/**
+ * Collect the time spent in each listener and the number of notified events.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class ObservationMetrics implements ObservationMetricsMXBean
+{
+    /**
+     * The name under which the metrics are registered in the MBean server.
+     */
+    public static final String MBEAN_NAME = "type=Observation";
+
+    private final Map<String, ListenerMetrics> listeners = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, LongAdder> notifyCounts = new ConcurrentHashMap<>();
+
+    private volatile long resetTime = System.nanoTime();
+
+    private JMXBeanRegistration registration;
+
+    private static final class ListenerMetrics
+    {
+        private final LatencyRecorder latency = new LatencyRecorder();
+
+        private final LongAdder exceptions = new LongAdder();
+    }
+
+    /**
+     * @param componentManager used to find the configuration and the JMX registration, can be {@code null}
+     * @param logger the logger used to report errors
+     * @return the metrics registered in the MBean server, {@code null} if the metrics are disabled
+     */
+    public static ObservationMetrics create(ComponentManager componentManager, Logger logger)
+    {
+        // Can be null in unit tests
+        if (componentManager != null && componentManager.hasComponent(ObservationManagerConfiguration.class)) {
+            try {
+                if (componentManager.<ObservationManagerConfiguration>getInstance(ObservationManagerConfiguration.class)
+                    .isMetricsEnabled()) {
+                    ObservationMetrics metrics = new ObservationMetrics();
+
+                    if (componentManager.hasComponent(JMXBeanRegistration.class)) {
+                        metrics.registration = componentManager.getInstance(JMXBeanRegistration.class);
+                        metrics.registration.registerMBean(metrics, MBEAN_NAME);
+                    }
+
+                    return metrics;
+                }
+            } catch (ComponentLookupException e) {
+                // Metrics are not critical
+                logger.warn("Failed to initialize the observation metrics: {}", ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param eventClass the class of the notified event
+     */
+    public void recordNotify(Class<?> eventClass)
+    {
+        LongAdder count = this.notifyCounts.get(eventClass);
+        if (count == null) {
+            count = this.notifyCounts.computeIfAbsent(eventClass, k -> new LongAdder());
+        }
+
+        count.increment();
+    }
+
+    /**
+     * @param listenerName the name of the called listener
+     * @param duration the time spent in the listener, in nanoseconds
+     * @param failed true if the listener failed with an exception
+     */
+    public void recordInvocation(String listenerName, long duration, boolean failed)
+    {
+        ListenerMetrics metrics = this.listeners.get(listenerName);
+        if (metrics == null) {
+            metrics = this.listeners.computeIfAbsent(listenerName, k -> new ListenerMetrics());
+        }
+
+        metrics.latency.record(duration);
+        if (failed) {
+            metrics.exceptions.increment();
+        }
+    }
+
+    @Override
+    public List<ListenerStatistics> getListeners()
+    {
+        List<ListenerStatistics> statistics = new ArrayList<>(this.listeners.size());
+        for (Map.Entry<String, ListenerMetrics> entry : this.listeners.entrySet()) {
+            statistics.add(new ListenerStatistics(entry.getKey(), entry.getValue().latency,
+                entry.getValue().exceptions.sum()));
+        }
+
+        statistics.sort(Comparator.comparingLong(ListenerStatistics::getTotalTime).reversed());
+
+        return statistics;
+    }
+
+    @Override
+    public Map<String, Long> getNotifyCounts()
+    {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<Class<?>, LongAdder> entry : this.notifyCounts.entrySet()) {
+            counts.merge(entry.getKey().getName(), entry.getValue().sum(), Long::sum);
+        }
+
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getNotifyRates()
+    {
+        double seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - this.resetTime));
+
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : getNotifyCounts().entrySet()) {
+            rates.put(entry.getKey(), entry.getValue() / seconds);
+        }
+
+        return rates;
+    }
+
+    @Override
+    public long getNotifyCount()
+    {
+        long count = 0;
+        for (LongAdder adder : this.notifyCounts.values()) {
+            count += adder.sum();
+        }
+
+        return count;
+    }
+
+    @Override
+    public void reset()
+    {
+        this.listeners.clear();
+        this.notifyCounts.clear();
+        this.resetTime = System.nanoTime();
+    }
+
+    /**
+     * Unregister the metrics from the MBean server.
+     */
+    public void dispose()
+    {
+        if (this.registration != null) {
+            this.registration.unregisterMBean(MBEAN_NAME);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.internal;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the metrics of the {@link org.xwiki.observation.ObservationManager} as a JMX MXBean.
+ *
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public interface ObservationMetricsMXBean
+{
+    /**
+     * @return the statistics of the listeners which have been called, the ones which took the most time first
+     */
+    List<ListenerStatistics> getListeners();
+
+    /**
+     * @return the number of notified events, indexed by event class name
+     */
+    Map<String, Long> getNotifyCounts();
+
+    /**
+     * @return the average number of notified events per second since the metrics were reset, indexed by event class
+     *         name
+     */
+    Map<String, Double> getNotifyRates();
+
+    /**
+     * @return the total number of notified events
+     */
+    long getNotifyCount();
+
+    /**
+     * Forget all the collected metrics.
+     */
+    void reset();
+}
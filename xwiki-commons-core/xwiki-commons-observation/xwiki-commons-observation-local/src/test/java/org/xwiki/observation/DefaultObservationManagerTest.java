@@ -19,18 +19,29 @@
  */
 package org.xwiki.observation;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
 import org.xwiki.component.descriptor.ComponentDescriptor;
 import org.xwiki.component.descriptor.DefaultComponentDescriptor;
 import org.xwiki.component.event.ComponentDescriptorAddedEvent;
 import org.xwiki.observation.event.ActionExecutionEvent;
+import org.xwiki.observation.event.AbstractCancelableEvent;
 import org.xwiki.observation.event.AllEvent;
+import org.xwiki.observation.event.ApplicationStartedEvent;
 import org.xwiki.observation.event.Event;
+import org.xwiki.management.JMXBeanRegistration;
 import org.xwiki.observation.internal.DefaultObservationManager;
+import org.xwiki.observation.internal.ObservationMetrics;
 import org.xwiki.test.LogLevel;
 import org.xwiki.test.junit5.LogCaptureExtension;
 import org.xwiki.test.junit5.mockito.ComponentTest;
@@ -38,9 +49,12 @@
 import org.xwiki.test.mockito.MockitoComponentManager;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -77,6 +91,26 @@ void notifyWhenMatching()
         verify(listener).onEvent(event, "some source", "some data");
     }
 
+    @Test
+    void hasListener()
+    {
+        EventListener listener = mock(EventListener.class);
+
+        when(listener.getName()).thenReturn("mylistener");
+        when(listener.getEvents()).thenReturn(Arrays.asList(new ActionExecutionEvent("action")));
+
+        assertFalse(this.manager.hasListener(new ActionExecutionEvent("action")));
+
+        this.manager.addListener(listener);
+
+        assertTrue(this.manager.hasListener(new ActionExecutionEvent("action")));
+        assertFalse(this.manager.hasListener(new ApplicationStartedEvent()));
+
+        this.manager.removeListener("mylistener");
+
+        assertFalse(this.manager.hasListener(new ActionExecutionEvent("action")));
+    }
+
     @Test
     void removeListener()
     {
@@ -247,6 +281,180 @@ void registerListenerForTwoEventsOfSameType()
         verify(listener).onEvent(eventMatcher2, "some source", "some data");
     }
 
+    @Test
+    void notifyChildEvent()
+    {
+        EventListener parentListener = mock(EventListener.class, "parent");
+        EventListener childListener = mock(EventListener.class, "child");
+        Event parentEvent = new ApplicationStartedEvent();
+        Event childEvent = new ApplicationStartedEvent()
+        {
+        };
+
+        when(parentListener.getName()).thenReturn("parentlistener");
+        when(parentListener.getEvents()).thenReturn(Arrays.asList(parentEvent));
+        when(childListener.getName()).thenReturn("childlistener");
+        when(childListener.getEvents()).thenReturn(Arrays.asList(childEvent));
+
+        this.manager.addListener(parentListener);
+        this.manager.addListener(childListener);
+
+        this.manager.notify(childEvent, null);
+        verify(parentListener).onEvent(childEvent, null, null);
+        verify(childListener).onEvent(childEvent, null, null);
+
+        this.manager.notify(parentEvent, null);
+        verify(parentListener).onEvent(parentEvent, null, null);
+        verify(childListener, never()).onEvent(same(parentEvent), any(), any());
+    }
+
+    @Test
+    void notifyListenerRegisteredForSpecificAndAllEvents()
+    {
+        EventListener listener = mock(EventListener.class);
+        Event event = new ActionExecutionEvent("action");
+
+        when(listener.getName()).thenReturn("mylistener");
+        when(listener.getEvents()).thenReturn(Arrays.asList(event, AllEvent.ALLEVENT));
+
+        this.manager.addListener(listener);
+        this.manager.notify(event, null);
+        this.manager.notify(new ActionExecutionEvent("other"), null);
+
+        // The listener is called only once per event
+        verify(listener).onEvent(event, null, null);
+        verify(listener).onEvent(new ActionExecutionEvent("other"), null, null);
+    }
+
+    private static class TestCancelableEvent extends AbstractCancelableEvent
+    {
+    }
+
+    private static class TestAsyncEventListener extends AbstractEventListener implements AsyncEventListener
+    {
+        private final List<Event> receivedEvents = Collections.synchronizedList(new ArrayList<>());
+
+        private final Map<Event, Thread> threads = new ConcurrentHashMap<>();
+
+        private final CountDownLatch latch;
+
+        TestAsyncEventListener(int expectedEvents)
+        {
+            super("asynclistener", AllEvent.ALLEVENT);
+
+            this.latch = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void onEvent(Event event, Object source, Object data)
+        {
+            this.receivedEvents.add(event);
+            this.threads.put(event, Thread.currentThread());
+            this.latch.countDown();
+        }
+    }
+
+    @Test
+    void notifyAsyncListener() throws InterruptedException
+    {
+        TestAsyncEventListener listener = new TestAsyncEventListener(4);
+        this.manager.addListener(listener);
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            Event event = new ActionExecutionEvent("action" + i);
+            events.add(event);
+            this.manager.notify(event, null);
+        }
+
+        // Cancelable events are sent synchronously
+        Event cancelableEvent = new TestCancelableEvent();
+        this.manager.notify(cancelableEvent, null);
+        assertTrue(listener.receivedEvents.contains(cancelableEvent));
+
+        assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+
+        listener.receivedEvents.remove(cancelableEvent);
+        assertEquals(events, listener.receivedEvents);
+        for (Event event : events) {
+            assertNotSame(Thread.currentThread(), listener.threads.get(event));
+        }
+    }
+
+    @Test
+    void notifyAsyncListenerAfterDispose() throws InterruptedException
+    {
+        TestAsyncEventListener listener = new TestAsyncEventListener(3);
+        this.manager.addListener(listener);
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            Event event = new ActionExecutionEvent("action" + i);
+            events.add(event);
+            this.manager.notify(event, null);
+
+            if (i == 0) {
+                this.manager.dispose();
+            }
+        }
+
+        // The events notified after the dispose are still sent
+        assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+        assertEquals(events, listener.receivedEvents);
+    }
+
+    @Test
+    void notifyWithMetrics(MockitoComponentManager componentManager) throws Exception
+    {
+        ObservationManagerConfiguration configuration =
+            componentManager.registerMockComponent(ObservationManagerConfiguration.class);
+        when(configuration.isMetricsEnabled()).thenReturn(true);
+        JMXBeanRegistration registration = componentManager.registerMockComponent(JMXBeanRegistration.class);
+
+        EventListener listener = mock(EventListener.class);
+        Event event = new ActionExecutionEvent("action");
+        when(listener.getName()).thenReturn("mylistener");
+        when(listener.getEvents()).thenReturn(Arrays.asList(event));
+
+        this.manager.addListener(listener);
+        this.manager.notify(event, null);
+
+        ArgumentCaptor<ObservationMetrics> metrics = ArgumentCaptor.forClass(ObservationMetrics.class);
+        verify(registration).registerMBean(metrics.capture(), eq(ObservationMetrics.MBEAN_NAME));
+        assertEquals(1, metrics.getValue().getNotifyCount());
+        assertEquals("mylistener", metrics.getValue().getListeners().get(0).getName());
+        assertEquals(1, metrics.getValue().getListeners().get(0).getInvocationCount());
+    }
+
+    @Test
+    void notifyBatch()
+    {
+        BatchEventListener batchListener = mock(BatchEventListener.class, "batch");
+        EventListener listener = mock(EventListener.class, "single");
+        Event event1 = new ActionExecutionEvent("action1");
+        Event event2 = new ActionExecutionEvent("action2");
+        Event event3 = new ActionExecutionEvent("action3");
+
+        when(batchListener.getName()).thenReturn("batchlistener");
+        when(batchListener.getEvents()).thenReturn(Arrays.asList(event1, event3));
+        when(listener.getName()).thenReturn("mylistener");
+        when(listener.getEvents()).thenReturn(Arrays.asList(AllEvent.ALLEVENT));
+
+        this.manager.addListener(batchListener);
+        this.manager.addListener(listener);
+        this.manager.notify(Arrays.asList(event1, event2, event3), "source", "data");
+
+        verify(batchListener).onEvents(Arrays.asList(event1, event3), "source", "data");
+        verify(batchListener, never()).onEvent(any(), any(), any());
+        verify(listener).onEvent(event1, "source", "data");
+        verify(listener).onEvent(event2, "source", "data");
+        verify(listener).onEvent(event3, "source", "data");
+
+        // Single events are still sent to onEvent
+        this.manager.notify(event1, null);
+        verify(batchListener).onEvent(event1, null, null);
+    }
+
     @Test
     public void onComponentEventWhenRuntimeExceptionInListenerGetName(MockitoComponentManager componentManager)
         throws Exception
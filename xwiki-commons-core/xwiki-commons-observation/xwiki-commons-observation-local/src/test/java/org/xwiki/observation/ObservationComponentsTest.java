@@ -0,0 +1,67 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.observation.internal.DefaultObservationManager;
+import org.xwiki.observation.internal.DefaultObservationManagerConfiguration;
+import org.xwiki.test.annotation.AllComponents;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectComponentManager;
+import org.xwiki.test.junit5.mockito.MockComponent;
+import org.xwiki.test.mockito.MockitoComponentManager;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate the components registered through {@code META-INF/components.txt}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+@AllComponents
+class ObservationComponentsTest
+{
+    @MockComponent
+    private ConfigurationSource configurationSource;
+
+    @InjectComponentManager
+    private MockitoComponentManager componentManager;
+
+    @Test
+    void registeredComponents() throws Exception
+    {
+        assertSame(DefaultObservationManager.class,
+            this.componentManager.getInstance(ObservationManager.class).getClass());
+        assertTrue(this.componentManager.hasComponent(ObservationContext.class));
+        assertTrue(this.componentManager.hasComponent(EventListener.class, "ObservationContextListener"));
+
+        assertTrue(this.componentManager.hasComponent(ObservationManagerConfiguration.class));
+        ObservationManagerConfiguration configuration =
+            this.componentManager.getInstance(ObservationManagerConfiguration.class);
+        assertSame(DefaultObservationManagerConfiguration.class, configuration.getClass());
+
+        when(this.configurationSource.getProperty("observation.metrics.enabled", false)).thenReturn(true);
+        assertTrue(configuration.isMetricsEnabled());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.internal;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.observation.event.ActionExecutionEvent;
+import org.xwiki.observation.event.AllEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link ObservationMetrics}.
+ *
+ * @version $Id$
+ */
+class ObservationMetricsTest
+{
+    @Test
+    void record()
+    {
+        ObservationMetrics metrics = new ObservationMetrics();
+
+        metrics.recordNotify(ActionExecutionEvent.class);
+        metrics.recordNotify(ActionExecutionEvent.class);
+        metrics.recordNotify(AllEvent.class);
+        metrics.recordInvocation("fast", 10, false);
+        metrics.recordInvocation("slow", 1000, false);
+        metrics.recordInvocation("slow", 2000, true);
+
+        assertEquals(3, metrics.getNotifyCount());
+        assertEquals(2, metrics.getNotifyCounts().get(ActionExecutionEvent.class.getName()));
+        assertEquals(1, metrics.getNotifyCounts().get(AllEvent.class.getName()));
+        assertTrue(metrics.getNotifyRates().get(ActionExecutionEvent.class.getName()) > 0);
+
+        List<ListenerStatistics> listeners = metrics.getListeners();
+        assertEquals(2, listeners.size());
+        assertEquals("slow", listeners.get(0).getName());
+        assertEquals(2, listeners.get(0).getInvocationCount());
+        assertEquals(1, listeners.get(0).getExceptionCount());
+        assertEquals(3000, listeners.get(0).getTotalTime());
+        assertEquals(1500, listeners.get(0).getAverageTime());
+        assertEquals("fast", listeners.get(1).getName());
+
+        metrics.reset();
+
+        assertEquals(0, metrics.getNotifyCount());
+        assertTrue(metrics.getListeners().isEmpty());
+    }
+
+    @Test
+    void registerMXBean() throws Exception
+    {
+        ObservationMetrics metrics = new ObservationMetrics();
+        metrics.recordInvocation("listener", 10, false);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("org.xwiki.test:" + ObservationMetrics.MBEAN_NAME);
+        server.registerMBean(metrics, name);
+
+        try {
+            CompositeData[] listeners = (CompositeData[]) server.getAttribute(name, "Listeners");
+            assertEquals("listener", listeners[0].get("name"));
+            assertEquals(1L, listeners[0].get("invocationCount"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -22,6 +22,8 @@
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.WildcardType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -81,6 +83,11 @@ public class DefaultConverterManager implements ConverterManager
     @Inject
     private Logger logger;
 
+    /**
+     * The {@link Converter} role types associated with the target types, to avoid creating a new one for each lookup.
+     */
+    private final Map<Type, ParameterizedType> converterTypes = new ConcurrentHashMap<>();
+
     @Override
     public <T> T convert(Type targetType, Object value)
     {
@@ -158,7 +165,8 @@ public <T> Converter<T> getConverter(Type targetType)
         try {
             ComponentManager componentManager = this.componentManagerProvider.get();
 
-            ParameterizedType converterType = new DefaultParameterizedType(null, Converter.class, targetType);
+            ParameterizedType converterType = this.converterTypes.computeIfAbsent(targetType,
+                key -> new DefaultParameterizedType(null, Converter.class, key));
             if (componentManager.hasComponent(converterType)) {
                 return componentManager.getInstance(converterType);
             }
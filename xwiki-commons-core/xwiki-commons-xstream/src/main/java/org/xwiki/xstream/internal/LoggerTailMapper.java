@@ -0,0 +1,57 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.xstream.internal;
+
+import org.xwiki.logging.LogQueue;
+import org.xwiki.logging.tail.LoggerTail;
+
+import com.thoughtworks.xstream.mapper.Mapper;
+import com.thoughtworks.xstream.mapper.MapperWrapper;
+
+/**
+ * Unserialize {@link LoggerTail} fields without explicit type as {@link LogQueue}, which is how they were serialized
+ * when those fields were declared as {@link LogQueue}.
+ * <p>
+ * Contrary to {@link com.thoughtworks.xstream.mapper.DefaultImplementationsMapper} the serialized name of
+ * {@link LogQueue} is not modified.
+ * 
+ * @version $Id$
+ * @since 12.9RC1
+ */
+public class LoggerTailMapper extends MapperWrapper
+{
+    /**
+     * @param wrapped the mapper to wrap
+     */
+    public LoggerTailMapper(Mapper wrapped)
+    {
+        super(wrapped);
+    }
+
+    @Override
+    public Class defaultImplementationOf(Class type)
+    {
+        if (type == LoggerTail.class) {
+            return LogQueue.class;
+        }
+
+        return super.defaultImplementationOf(type);
+    }
+}
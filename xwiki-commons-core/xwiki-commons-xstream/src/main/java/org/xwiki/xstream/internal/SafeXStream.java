@@ -23,6 +23,7 @@
 import javax.inject.Singleton;
 
 import org.xwiki.component.annotation.Component;
+import org.xwiki.component.annotation.WarmUp;
 import org.xwiki.component.phase.Initializable;
 
 import com.thoughtworks.xstream.MarshallingStrategy;
@@ -31,6 +32,7 @@
 import com.thoughtworks.xstream.converters.DataHolder;
 import com.thoughtworks.xstream.core.JVM;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.mapper.MapperWrapper;
 
 /**
  * A {@link XStream} that never fail whatever value is provided.
@@ -40,6 +42,7 @@
  */
 @Component(roles = SafeXStream.class)
 @Singleton
+@WarmUp
 public class SafeXStream extends XStream implements Initializable
 {
     // FIXME: Workaround for XStream security rules warning
@@ -56,6 +59,13 @@ public SafeXStream()
         super(new SafeReflectionProvider(JVM.newReflectionProvider()));
     }
 
+    @Override
+    protected MapperWrapper wrapMapper(MapperWrapper next)
+    {
+        // Support fields which used to be declared as LogQueue
+        return new LoggerTailMapper(super.wrapMapper(next));
+    }
+
     @Override
     public void initialize() throws org.xwiki.component.phase.InitializationException
     {
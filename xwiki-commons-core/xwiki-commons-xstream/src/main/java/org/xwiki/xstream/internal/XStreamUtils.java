@@ -32,6 +32,7 @@
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.logging.tail.LoggerTail;
 
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
@@ -102,6 +103,11 @@ public boolean isSerializable(Class<?> itemClass)
             return true;
         }
 
+        // A logger tail is also a logger but some implementations (in memory ones) can be serialized
+        if (itemClass == LoggerTail.class) {
+            return true;
+        }
+
         // We don't serialize components by default since it does not make sense most of the time
         if (itemClass.isAnnotationPresent(Component.class)) {
             return false;